@@ -3,6 +3,7 @@ package org.nms.API.RequestHandlers;
 import io.vertx.core.json.JsonArray;
 import io.vertx.ext.web.RoutingContext;
 import org.nms.App;
+import org.nms.Cache.CredentialAffinityCache;
 import org.nms.API.Utility.HttpResponse;
 
 public class CredentialHandler
@@ -105,7 +106,13 @@ public class CredentialHandler
                                     .add(username)
                                     .add(password)
                             )
-                            .onSuccess(res -> HttpResponse.sendSuccess(ctx, 200, "Credential updated successfully", res))
+                            .onSuccess(res ->
+                            {
+                                // Logins It Made Before Don't Vouch For The Changed Credential
+                                CredentialAffinityCache.invalidateCredential(id);
+
+                                HttpResponse.sendSuccess(ctx, 200, "Credential updated successfully", res);
+                            })
                             .onFailure(err -> HttpResponse.sendFailure(ctx, 500, err.getMessage()));
                 })
                 .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage()));
@@ -130,7 +137,12 @@ public class CredentialHandler
                     // Credential found, proceed with delete
                     App.credentialModel
                             .delete(new JsonArray().add(id))
-                            .onSuccess(res -> HttpResponse.sendSuccess(ctx, 200, "Credential deleted successfully", credential))
+                            .onSuccess(res ->
+                            {
+                                CredentialAffinityCache.invalidateCredential(id);
+
+                                HttpResponse.sendSuccess(ctx, 200, "Credential deleted successfully", credential);
+                            })
                             .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage()));
                 })
                 .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage()));
@@ -1,27 +1,31 @@
 package org.nms.API.RequestHandlers;
 
 import io.vertx.core.Future;
-import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.sqlclient.Tuple;
 import org.nms.App;
 import org.nms.ConsoleLogger;
+import org.nms.Constants;
 import org.nms.API.Utility.HttpResponse;
-import org.nms.API.Utility.IpHelpers;
-import org.nms.PluginManager.PluginManager;
+import org.nms.Discovery.DiscoveryJob;
+import org.nms.Discovery.DiscoveryJobs;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.Consumer;
 
 public class DiscoveryHandler
 {
     public static void getAllDiscoveries(RoutingContext ctx)
     {
-        App.discoveryModel
-                .getAllWithCredentials()
+        // Optional ?subnet=10.20.0.0/16 => Only Profiles Whose Whole Target Lies Inside It
+        var subnet = ctx.request().getParam("subnet");
+
+        (subnet == null
+                ? App.discoveryModel.getAllWithCredentials()
+                : App.discoveryModel.getAllWithCredentialsInSubnet(new JsonArray().add(subnet)))
                 .onSuccess(discoveries ->
                 {
                     // Discoveries not found
@@ -79,10 +83,27 @@ public class DiscoveryHandler
                 .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage()));
     }
 
-    public static void getDiscoveryResults(RoutingContext ctx)
+    /**
+     * Changes detected by past runs => NEW, DISAPPEARED and CREDENTIAL_CHANGED, newest first
+     */
+    public static void getDiscoveryChanges(RoutingContext ctx)
     {
+        int id = Integer.parseInt(ctx.request().getParam("id"));
+
         App.discoveryModel
-                .getAllWithResults()
+                .getChanges(new JsonArray().add(id).add(Constants.MAX_DISCOVERY_CHANGES))
+                .onSuccess(changes -> HttpResponse.sendSuccess(ctx, 200, "Discovery changes found", changes))
+                .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage()));
+    }
+
+    public static void getDiscoveryResults(RoutingContext ctx)
+    {
+        // Optional ?subnet=10.20.0.0/16 => Only Results Inside It
+        var subnet = ctx.request().getParam("subnet");
+
+        (subnet == null
+                ? App.discoveryModel.getAllWithResults()
+                : App.discoveryModel.getAllWithResultsInSubnet(new JsonArray().add(subnet)))
                 .onSuccess(discoveries ->
                 {
                     // Discoveries not found
@@ -110,9 +131,18 @@ public class DiscoveryHandler
 
         var port = ctx.body().asJsonObject().getInteger("port");
 
+        var ports = toPortArray(ctx.body().asJsonObject().getJsonArray("ports"));
+
+        var scanRate = ctx.body().asJsonObject().getInteger("scan_rate");
+
+        var scheduleInterval = ctx.body().asJsonObject().getInteger("schedule_interval");
+
+        // Scheduled Runs Are Submitted On Behalf Of The Creator
+        var createdBy = ctx.user().principal().getInteger("id");
+
         // Step 1: Create discovery
         App.discoveryModel
-                .save(new JsonArray().add(name).add(ip).add(ipType).add(port))
+                .save(new JsonArray().add(name).add(ip).add(ipType).add(port).add(ports).add(scanRate).add(scheduleInterval).add(createdBy))
                 .onSuccess(discovery ->
                 {
                     // !!!! Discovery Not Created
@@ -197,9 +227,15 @@ public class DiscoveryHandler
 
                     var port = ctx.body().asJsonObject().getInteger("port");
 
+                    var ports = toPortArray(ctx.body().asJsonObject().getJsonArray("ports"));
+
+                    var scanRate = ctx.body().asJsonObject().getInteger("scan_rate");
+
+                    var scheduleInterval = ctx.body().asJsonObject().getInteger("schedule_interval");
+
                     // Update Discovery
                     App.discoveryModel
-                            .update(new JsonArray().add(id).add(name).add(ip).add(ipType).add(port))
+                            .update(new JsonArray().add(id).add(name).add(ip).add(ipType).add(port).add(ports).add(scanRate).add(scheduleInterval))
                             .onSuccess(updatedDiscovery ->
                             {
                                 // !!! Discovery Not Updated
@@ -331,301 +367,200 @@ public class DiscoveryHandler
     }
 
     /**
-     * Runs a discovery process for a specific ID
-     * 1. Validates discovery exists and is in correct state
-     * 2. Performs ping checks on IPs
-     * 3. Verifies port accessibility
-     * 4. Tests credentials
-     * 5. Updates status and returns results
+     * Starts a discovery as a background job and answers right away with the job
+     * A paused or interrupted discovery resumes from its checkpoint
+     * 1. Validates discovery exists and isn't already running
+     * 2. Checks the user's job limit
+     * 3. Queues the job, which streams IPs through ping, port and credential checks and saves results as it goes
      */
-    public static void runDiscovery(RoutingContext ctx) {
+    public static void runDiscovery(RoutingContext ctx)
+    {
         var id = Integer.parseInt(ctx.request().getParam("id"));
 
-        // Main discovery workflow with proper chaining
+        var userId = ctx.user().principal().getInteger("id");
+
         App.discoveryModel.getWithCredentialsById(new JsonArray().add(id))
                 .compose(discoveryWithCredentials -> validateDiscovery(ctx, discoveryWithCredentials))
-                .compose(DiscoveryHandler::performPingChecks)
-                .compose(DiscoveryHandler::performPortChecks)
-                .compose(DiscoveryHandler::performCredentialChecks)
-                .compose(ignored -> App.discoveryModel.updateStatus(new JsonArray().add(id).add("COMPLETED")))
-                .compose(ignored -> App.discoveryModel.getWithResultsById(new JsonArray().add(id)))
-                .onSuccess(finalResults -> HttpResponse.sendSuccess(ctx, 200, "Discovery run successfully", finalResults))
-                .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage()));
-    }
+                .onSuccess(discovery ->
+                {
+                    var activeJob = DiscoveryJobs.findActive(id);
 
-    /**
-     * Validates that the discovery exists and is in a valid state
-     */
-    private static Future<JsonObject> validateDiscovery(RoutingContext ctx, JsonArray discoveryWithCredentials) {
-        if (discoveryWithCredentials.isEmpty()) {
-            HttpResponse.sendFailure(ctx, 404, "Discovery not found");
-            return Future.failedFuture(new Exception("Discovery not found"));
-        }
+                    if (activeJob != null)
+                    {
+                        HttpResponse.sendFailure(ctx, 409, "Discovery is already running as job " + activeJob.getId());
+                        return;
+                    }
 
-        var discovery = discoveryWithCredentials.getJsonObject(0);
-        var status = discovery.getString("status");
+                    if (DiscoveryJobs.isAtUserLimit(userId))
+                    {
+                        HttpResponse.sendFailure(ctx, 429, "Too many discovery jobs, at most " + Constants.MAX_DISCOVERY_JOBS_PER_USER + " per user");
+                        return;
+                    }
+
+                    var job = DiscoveryJobs.submit(discovery, userId);
+
+                    ctx.response().putHeader("Location", "/api/v1/discovery/jobs/" + job.getId());
+
+                    HttpResponse.sendSuccess(ctx, 202, "Discovery job accepted", new JsonArray().add(job.toJson()));
+                })
+                .onFailure(err ->
+                {
+                    // Validation Already Answered
+                    if (!ctx.response().ended())
+                    {
+                        HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage());
+                    }
+                });
+    }
+
+    public static void getDiscoveryJobs(RoutingContext ctx)
+    {
+        var jobs = DiscoveryJobs.getAll(ctx.user().principal().getInteger("id"));
 
-        if (status.equals("COMPLETED")) {
-            HttpResponse.sendFailure(ctx, 400, "Discovery is already complete");
-            return Future.failedFuture(new Exception("Discovery is already complete"));
+        if (jobs.isEmpty())
+        {
+            HttpResponse.sendFailure(ctx, 404, "No discovery jobs found");
+            return;
         }
 
-        // Return discovery data for next step
-        return Future.succeededFuture(discovery);
+        HttpResponse.sendSuccess(ctx, 200, "Discovery jobs found", jobs);
     }
 
-    /**
-     * Performs ping checks on the IPs in the discovery
-     */
-    private static Future<JsonObject> performPingChecks(JsonObject discovery)
+    public static void getDiscoveryJob(RoutingContext ctx)
     {
-        var ips = discovery.getString("ip");
-        var ipType = discovery.getString("ip_type");
-        var port = discovery.getInteger("port");
-        var id = discovery.getInteger("id");
-        var ipArray = IpHelpers.getIpListAsJsonArray(ips, ipType);
-        var credentials = discovery.getJsonArray("credentials");
-
-        // Execute ping check in blocking context
-        return executeBlocking(vertx -> IpHelpers.pingIps(ipArray))
-                .compose(pingResults -> processPingResults(id, pingResults))
-                .map(passedIps -> new JsonObject()
-                        .put("id", id)
-                        .put("port", port)
-                        .put("passedIps", passedIps)
-                        .put("credentials", credentials));
+        var job = findUserJob(ctx);
+
+        if (job == null)
+        {
+            HttpResponse.sendFailure(ctx, 404, "Discovery job not found");
+            return;
+        }
+
+        HttpResponse.sendSuccess(ctx, 200, "Discovery job found", new JsonArray().add(job.toJson()));
     }
 
     /**
-     * Process ping results and save failed IPs to the database
+     * Pauses a job, the next run of its discovery resumes from the checkpoint
      */
-    private static Future<JsonArray> processPingResults(Integer id, JsonArray pingResults)
+    public static void pauseDiscoveryJob(RoutingContext ctx)
     {
-        var passedIps = new JsonArray();
-        var failedIps = new JsonArray();
+        var job = findUserJob(ctx);
 
-        // Separate successful and failed pings
-        for (int i = 0; i < pingResults.size(); i++)
+        if (job == null)
         {
-            var result = pingResults.getJsonObject(i);
-
-            if (result.getBoolean("success"))
-            {
-                passedIps.add(result.getString("ip"));
-            }
-            else
-            {
-                failedIps.add(result);
-            }
+            HttpResponse.sendFailure(ctx, 404, "Discovery job not found");
+            return;
         }
 
-        // Save failed ping results if any
-        if (!failedIps.isEmpty())
+        if (!DiscoveryJobs.pause(job))
         {
-            List<Tuple> ipsToAdd = new ArrayList<>();
-
-            for (var i = 0; i < failedIps.size(); i++)
-            {
-                var ip = failedIps.getJsonObject(i).getString("ip");
-                var message = failedIps.getJsonObject(i).getString("message");
-                ipsToAdd.add(Tuple.of(id, ip, null, message, "FAIL"));
-            }
-
-            return App.discoveryModel.saveResults(ipsToAdd)
-                    .map(ignored -> passedIps);
+            HttpResponse.sendFailure(ctx, 409, "Discovery job already " + job.getStatus());
+            return;
         }
 
-        return Future.succeededFuture(passedIps);
+        HttpResponse.sendSuccess(ctx, 202, "Discovery job pausing", new JsonArray().add(job.toJson()));
     }
 
     /**
-     * Performs port checks on IPs that passed ping checks
+     * Server-Sent Events => a "progress" event every progress interval, then one "done" event and the stream ends
      */
-    private static Future<JsonObject> performPortChecks(JsonObject data)
+    public static void streamDiscoveryJob(RoutingContext ctx)
     {
-        var id = data.getInteger("id");
-        var port = data.getInteger("port");
-        var passedIps = data.getJsonArray("passedIps");
-        var credentials = data.getJsonArray("credentials");
-
-        // Create futures for each port check
-        List<Future<JsonObject>> portCheckFutures = new ArrayList<>();
-        for (int i = 0; i < passedIps.size(); i++)
+        var job = findUserJob(ctx);
+
+        if (job == null)
         {
-            String ip = passedIps.getString(i);
-            portCheckFutures.add(
-                    executeBlocking(vertx -> IpHelpers.checkPort(ip, port))
-                            .otherwise(err -> new JsonObject()
-                                    .put("ip", ip)
-                                    .put("message", err.getMessage())
-                                    .put("success", false))
-            );
+            HttpResponse.sendFailure(ctx, 404, "Discovery job not found");
+            return;
         }
 
-        // Wait for all port checks to complete
-        return Future.all(portCheckFutures)
-                .compose(compositeFuture ->
-                {
-                    JsonArray portCheckResults = new JsonArray();
+        var response = ctx.response()
+                .setChunked(true)
+                .putHeader("Content-Type", "text/event-stream")
+                .putHeader("Cache-Control", "no-cache");
+
+        var context = App.vertx.getOrCreateContext();
 
-                    for (int i = 0; i < compositeFuture.size(); i++)
+        Consumer<JsonObject> listener = new Consumer<>()
+        {
+            @Override
+            public void accept(JsonObject state)
+            {
+                // Job Publishes From The Context It Runs On, Writes Belong To The Request's
+                context.runOnContext(v ->
+                {
+                    if (response.ended() || response.closed())
                     {
-                        JsonObject result = compositeFuture.resultAt(i);
-                        if (result != null)
-                        {
-                            portCheckResults.add(result);
-                        }
+                        return;
                     }
-                    return processPortResults(id, portCheckResults);
-                })
-                .map(passedPortIps -> new JsonObject()
-                        .put("id", id)
-                        .put("port", port)
-                        .put("passedIps", passedPortIps)
-                        .put("credentials", credentials));
-    }
 
-    /**
-     * Process port check results and save failed ports to the database
-     */
-    private static Future<JsonArray> processPortResults(Integer id, JsonArray portCheckResults) {
-        var passedPortIps = new JsonArray();
-        var failedPortIps = new JsonArray();
+                    // Paused Counts As Finished Too, Otherwise The Stream And The Listener Outlive The Job
+                    var finished = job.isFinished();
 
-        // Separate successful and failed port checks
-        for (int i = 0; i < portCheckResults.size(); i++)
-        {
-            var result = portCheckResults.getJsonObject(i);
+                    // A Job That Finished Since This State Was Published Ends With Its Final State
+                    var data = finished ? job.toJson() : state;
 
-            if (result.getBoolean("success"))
-            {
-                passedPortIps.add(result.getString("ip"));
-            }
-            else
-            {
-                failedPortIps.add(result);
-            }
-        }
+                    response.write("event: " + (finished ? "done" : "progress") + "\ndata: " + data.encode() + "\n\n");
 
-        // Save failed port check results if any
-        if (!failedPortIps.isEmpty())
-        {
-            List<Tuple> portCheckIpsToAdd = new ArrayList<>();
+                    if (finished)
+                    {
+                        job.removeListener(this);
 
-            for (var i = 0; i < failedPortIps.size(); i++)
-            {
-                var ip = failedPortIps.getJsonObject(i).getString("ip");
-                var message = failedPortIps.getJsonObject(i).getString("message");
-                portCheckIpsToAdd.add(Tuple.of(id, ip, null, message, "FAIL"));
+                        response.end();
+                    }
+                });
             }
+        };
 
-            return App.discoveryModel.saveResults(portCheckIpsToAdd)
-                    .map(ignored -> passedPortIps);
-        }
+        response.closeHandler(v -> job.removeListener(listener));
 
-        return Future.succeededFuture(passedPortIps);
-    }
+        job.addListener(listener);
 
-    /**
-     * Performs credential checks on IPs that passed port checks
-     */
-    private static Future<Void> performCredentialChecks(JsonObject data)
-    {
-        ConsoleLogger.info("Starting credential checks");
-        var id = data.getInteger("id");
-        var port = data.getInteger("port");
-        var passedIps = data.getJsonArray("passedIps");
-        var credentials = data.getJsonArray("credentials");
-
-        // Run credential checks through plugin manager
-        return PluginManager.runDiscovery(id, passedIps, port, credentials)
-                .compose(credentialResults -> processCredentialResults(id, credentialResults));
+        // Current State Right Away, Also Ends The Stream Of A Job That Already Finished
+        listener.accept(job.toJson());
     }
 
     /**
-     * Process credential check results and save them to the database
+     * @return job of the path's jobId if it belongs to the logged in user, otherwise null
      */
-    private static Future<Void> processCredentialResults(Integer id, JsonArray credentialResults)
+    private static DiscoveryJob findUserJob(RoutingContext ctx)
     {
-        var successResults = new JsonArray();
-        var failedResults = new JsonArray();
+        var job = DiscoveryJobs.get(ctx.request().getParam("jobId"));
 
-        // Separate successful and failed credential checks
-        for (int i = 0; i < credentialResults.size(); i++)
+        if (job == null || job.getUserId() != ctx.user().principal().getInteger("id"))
         {
-            var result = credentialResults.getJsonObject(i);
-            if (result.getBoolean("success"))
-            {
-                successResults.add(result);
-            }
-            else
-            {
-                failedResults.add(result);
-            }
+            return null;
         }
 
-        // Prepare failed credential results
-        List<Tuple> failedEntries = new ArrayList<>();
-
-        for (int i = 0; i < failedResults.size(); i++)
-        {
-            var result = failedResults.getJsonObject(i);
-            var ip = result.getString("ip");
-            var message = result.getString("message");
-            failedEntries.add(Tuple.of(id, ip, null, message, "FAIL"));
-        }
+        return job;
+    }
 
-        // Prepare successful credential results
-        List<Tuple> successEntries = new ArrayList<>();
-        for (int i = 0; i < successResults.size(); i++)
-        {
-            var result = successResults.getJsonObject(i);
-            var ip = result.getString("ip");
-            var message = result.getString("message");
-            var credentialId = result.getJsonObject("credential").getInteger("id");
-            successEntries.add(Tuple.of(id, ip, credentialId, message, "COMPLETED"));
+    /**
+     * Validates that the discovery exists
+     */
+    private static Future<JsonObject> validateDiscovery(RoutingContext ctx, JsonArray discoveryWithCredentials) {
+        if (discoveryWithCredentials.isEmpty()) {
+            HttpResponse.sendFailure(ctx, 404, "Discovery not found");
+            return Future.failedFuture(new Exception("Discovery not found"));
         }
 
-        // Save results - handle empty lists gracefully
-        Future<JsonArray> failuresFuture = failedEntries.isEmpty()
-                ? Future.succeededFuture(new JsonArray())
-                : App.discoveryModel.saveResults(failedEntries);
-
-        Future<JsonArray> successFuture = successEntries.isEmpty()
-                ? Future.succeededFuture(new JsonArray())
-                : App.discoveryModel.saveResults(successEntries);
+        // Completed Discoveries May Run Again, Their Results Are Overwritten IP By IP
+        var discovery = discoveryWithCredentials.getJsonObject(0);
 
-        return Future.join(failuresFuture, successFuture).mapEmpty();
+        // Return discovery data for next step
+        return Future.succeededFuture(discovery);
     }
 
     /**
-     * Helper method to execute blocking operations
+     * @return ports as an INTEGER[] query parameter, null keeps the stored value
      */
-    private static <T> Future<T> executeBlocking(Function<Vertx, T> operation)
+    private static Integer[] toPortArray(JsonArray ports)
     {
-        return Future.future(promise ->
-                App.vertx.executeBlocking(
-                        () -> {
-                            try
-                            {
-                               operation.apply(App.vertx);
-                            }
-                            catch (Exception ignored)
-                            {
-                                // Ignored
-                            }
-
-                            return null;
-                        },
-                        false,
-                        ar -> {
-                            if (ar.succeeded()) {
-                                promise.complete((T) ar.result());
-                            } else {
-                                promise.fail(ar.cause());
-                            }
-                        }
-                )
-        );
+        if (ports == null)
+        {
+            return null;
+        }
+
+        return ports.stream().map(port -> (Integer) port).distinct().toArray(Integer[]::new);
     }
 }
\ No newline at end of file
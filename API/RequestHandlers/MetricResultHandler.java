@@ -1,8 +1,11 @@
 package org.nms.API.RequestHandlers;
 
 import io.vertx.ext.web.RoutingContext;
+import org.nms.Agent.AgentHub;
 import org.nms.App;
 import org.nms.API.Utility.HttpResponse;
+import org.nms.PluginManager.CollectorPools;
+import org.nms.Scheduler.DeviceCircuitBreaker;
 
 public class MetricResultHandler
 {
@@ -13,4 +16,19 @@ public class MetricResultHandler
                 .onSuccess((polledData -> HttpResponse.sendSuccess(ctx, 200,"Polled Data", polledData)))
                 .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong"));
     }
+
+    public static void getDeviceHealth(RoutingContext ctx)
+    {
+        HttpResponse.sendSuccess(ctx, 200, "Device Circuit Breaker States", DeviceCircuitBreaker.getStates());
+    }
+
+    public static void getCollectorPoolMetrics(RoutingContext ctx)
+    {
+        HttpResponse.sendSuccess(ctx, 200, "Collector Pool Metrics", CollectorPools.getMetrics());
+    }
+
+    public static void getAgents(RoutingContext ctx)
+    {
+        HttpResponse.sendSuccess(ctx, 200, "Connected Collector Agents", AgentHub.getAgents());
+    }
 }
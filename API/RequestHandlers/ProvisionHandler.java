@@ -8,7 +8,9 @@ import io.vertx.ext.web.RoutingContext;
 import org.nms.App;
 import org.nms.Cache.MetricGroupCacheStore;
 import org.nms.ConsoleLogger;
+import org.nms.Database.Models.ProvisionModel;
 import org.nms.API.Utility.HttpResponse;
+import org.nms.API.Utility.IpHelpers;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,8 +19,12 @@ public class ProvisionHandler
 {
     public static void getAllProvisions(RoutingContext ctx)
     {
-        App.provisionModel
-                .getAll()
+        // Optional ?subnet=10.20.0.0/16 => Only Devices Inside It
+        var subnet = ctx.request().getParam("subnet");
+
+        (subnet == null
+                ? App.provisionModel.getAll()
+                : App.provisionModel.getAllInSubnet(new JsonArray().add(subnet)))
                 .onSuccess(provisions ->
                 {
                     // Provisions not found
@@ -84,29 +90,21 @@ public class ProvisionHandler
 
                     List<Future> provisionsToAddFutures = new ArrayList<>();
 
-                    if(results != null && results.size() > 0)
-                    {
-                        for(int j = 0; j < ips.size(); j++){
+                    // Membership Through An IpSet, One Lookup Per Requested Ip Instead Of A Scan Of Every Result
+                    var discoveredIps = IpHelpers.completedIps(results);
 
-                            var isAnyWrongIp = true;
-                            for(int i = 0; i < results.size(); i++) {
-                            {
-                                if (results.getJsonObject(i).getString("status").equals("COMPLETED"))
-                                {
-                                    if(ips.getString(j).equals(results.getJsonObject(i).getString("ip"))) {
-                                        isAnyWrongIp = false;
-                                        provisionsToAddFutures.add(App.provisionModel.save(new JsonArray().add(discovery_id).add(ips.getString(j))));
-                                    }
-                                }
+                    for (var i = 0; i < ips.size(); i++)
+                    {
+                        var ip = ips.getString(i);
 
-                            }
-                            if(isAnyWrongIp)
-                            {
-                                wrongIps.add(ips.getString(j));
-                                isAnyWrongIp = true;
-                            }
+                        if (discoveredIps.contains(ip))
+                        {
+                            provisionsToAddFutures.add(App.provisionModel.save(new JsonArray().add(discovery_id).add(ip)));
+                        }
+                        else
+                        {
+                            wrongIps.add(ip);
                         }
-
                     }
 
                     CompositeFuture.join(provisionsToAddFutures)
@@ -135,14 +133,14 @@ public class ProvisionHandler
 
                                 MetricGroupCacheStore.insertProvisionArray(provisionArray);
 
-                                HttpResponse.sendSuccess(ctx, 200, "Provisioned All Valid Ips", provisionArray);
+                                // Cache Keeps The SNMP Secrets For Polling, The Response Doesn't
+                                HttpResponse.sendSuccess(ctx, 200, "Provisioned All Valid Ips", ProvisionModel.withoutSecrets(provisionArray));
 
                             }))
                             .onFailure(err -> {
                                 err.printStackTrace();
                                 HttpResponse.sendFailure(ctx, 500, "Error during provisioning", err.getMessage());
                             });
-                }
                 })
                 .onFailure(err -> HttpResponse.sendFailure(ctx, 400, "Discovery Not Found", ""));
 
@@ -207,4 +205,72 @@ public class ProvisionHandler
                         .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Failed To Update Discovery", err.getMessage())));
     }
 
+    public static void updateProvisionParent(RoutingContext ctx)
+    {
+        var id = Integer.parseInt(ctx.request().getParam("id"));
+
+        var parentId = ctx.body().asJsonObject().getInteger("parent_id");
+
+        // Parent Must Exist Unless It Is Being Cleared
+        var parentFuture = parentId == null
+                ? Future.succeededFuture(new JsonArray().add(new JsonObject()))
+                : App.provisionModel.get(new JsonArray().add(parentId));
+
+        Future.all(App.provisionModel.get(new JsonArray().add(id)), parentFuture)
+                .onSuccess(v ->
+                {
+                    if (v.<JsonArray>resultAt(0).isEmpty())
+                    {
+                        HttpResponse.sendFailure(ctx, 404, "Provision not found");
+                        return;
+                    }
+
+                    if (v.<JsonArray>resultAt(1).isEmpty())
+                    {
+                        HttpResponse.sendFailure(ctx, 404, "Parent provision not found");
+                        return;
+                    }
+
+                    App.provisionModel
+                            .updateParent(new JsonArray().add(id).add(parentId))
+                            .onSuccess(updated ->
+                            {
+                                if (updated.isEmpty())
+                                {
+                                    HttpResponse.sendFailure(ctx, 409, "Parent would create a dependency cycle");
+                                    return;
+                                }
+
+                                MetricGroupCacheStore.updateParent(id, parentId);
+
+                                HttpResponse.sendSuccess(ctx, 200, "Updated Provision Parent", updated);
+                            })
+                            .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Failed To Update Provision Parent", err.getMessage()));
+                })
+                .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Something Went Wrong", err.getMessage()));
+    }
+
+    public static void updateProvisionAgent(RoutingContext ctx)
+    {
+        var id = Integer.parseInt(ctx.request().getParam("id"));
+
+        var agent = ctx.body().asJsonObject().getString("agent");
+
+        App.provisionModel
+                .updateAgent(new JsonArray().add(id).add(agent))
+                .onSuccess(updated ->
+                {
+                    if (updated.isEmpty())
+                    {
+                        HttpResponse.sendFailure(ctx, 404, "Provision not found");
+                        return;
+                    }
+
+                    // Scheduler Stops Polling It Locally, Agent Picks It Up On Its Next Assignment
+                    MetricGroupCacheStore.updateAgent(id, agent);
+
+                    HttpResponse.sendSuccess(ctx, 200, "Updated Provision Agent", updated);
+                })
+                .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Failed To Update Provision Agent", err.getMessage()));
+    }
 }
@@ -8,6 +8,8 @@ import io.vertx.ext.web.handler.BodyHandler;
 import io.vertx.ext.web.handler.JWTAuthHandler;
 import org.nms.App;
 import org.nms.ConsoleLogger;
+import org.nms.Agent.AgentHub;
+import org.nms.Discovery.DiscoveryJobs;
 import org.nms.API.RequestHandlers.*;
 import org.nms.API.Middlewares.AuthMiddleware;
 import org.nms.API.Validators.CredentialRequestValidator;
@@ -63,6 +65,9 @@ public class Server extends AbstractVerticle
 
         server.requestHandler(router);
 
+        // Collector Agents Connect Over WebSocket, Authenticated By Their Own Token Instead Of JWT
+        server.webSocketHandler(AgentHub::handle);
+
 
         server.listen(HTTP_PORT, http ->
         {
@@ -70,6 +75,10 @@ public class Server extends AbstractVerticle
             {
                 ConsoleLogger.info("✅ HTTP Server Started On Port => " + HTTP_PORT + " On Thread [ " + Thread.currentThread().getName() + " ] ");
 
+                // Discoveries Interrupted By The Last Shutdown Resume On This Context, Like Jobs Started Through The API
+                DiscoveryJobs.resumeInterrupted()
+                        .onFailure(err -> ConsoleLogger.error("❌ Failed To Resume Interrupted Discoveries => " + err.getMessage()));
+
                 startPromise.complete();
             }
             else
@@ -140,6 +149,7 @@ class ProvisionRouter
 
         router.get("/")
                 .handler(JWTAuthHandler.create(JwtConfig.jwtAuth))
+                .handler(ProvisionRequestValidator::getAllProvisionsRequestValidator)
                 .handler(ProvisionHandler::getAllProvisions);
 
         router.get("/:id")
@@ -155,6 +165,14 @@ class ProvisionRouter
                 .handler(ProvisionRequestValidator::updateProvisionRequestValidator)
                 .handler(ProvisionHandler::updateMetric);
 
+        router.patch("/parent/:id")
+                .handler(ProvisionRequestValidator::updateProvisionParentRequestValidator)
+                .handler(ProvisionHandler::updateProvisionParent);
+
+        router.patch("/agent/:id")
+                .handler(ProvisionRequestValidator::updateProvisionAgentRequestValidator)
+                .handler(ProvisionHandler::updateProvisionAgent);
+
         router.delete("/:id")
                 .handler(ProvisionRequestValidator::deleteProvisionRequestValidator)
                 .handler(ProvisionHandler::deleteProvision);
@@ -174,11 +192,32 @@ class DiscoveryRouter
                 .handler(DiscoveryHandler::getDiscoveryResultsById);
 
         router.get("/results")
+                .handler(DiscoveryRequestValidator::getAllDiscoveriesRequestValidator)
                 .handler(DiscoveryHandler::getDiscoveryResults);
 
+        router.get("/changes/:id")
+                .handler(DiscoveryRequestValidator::getDiscoveryByIdRequestValidator)
+                .handler(DiscoveryHandler::getDiscoveryChanges);
+
         router.get("/")
+                .handler(DiscoveryRequestValidator::getAllDiscoveriesRequestValidator)
                 .handler(DiscoveryHandler::getAllDiscoveries);
 
+        router.get("/jobs")
+                .handler(DiscoveryHandler::getDiscoveryJobs);
+
+        router.get("/jobs/:jobId")
+                .handler(DiscoveryRequestValidator::getDiscoveryJobRequestValidator)
+                .handler(DiscoveryHandler::getDiscoveryJob);
+
+        router.get("/jobs/:jobId/events")
+                .handler(DiscoveryRequestValidator::getDiscoveryJobRequestValidator)
+                .handler(DiscoveryHandler::streamDiscoveryJob);
+
+        router.post("/jobs/:jobId/pause")
+                .handler(DiscoveryRequestValidator::getDiscoveryJobRequestValidator)
+                .handler(DiscoveryHandler::pauseDiscoveryJob);
+
 
         router.get("/:id")
                 .handler(DiscoveryRequestValidator::getDiscoveryByIdRequestValidator)
@@ -246,6 +285,15 @@ class PollingRouter
         router.get("/")
                 .handler(MetricResultHandler::getAllPolledData);
 
+        router.get("/health")
+                .handler(MetricResultHandler::getDeviceHealth);
+
+        router.get("/pools")
+                .handler(MetricResultHandler::getCollectorPoolMetrics);
+
+        router.get("/agents")
+                .handler(MetricResultHandler::getAgents);
+
         return router;
     }
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package org.nms.API.Utility;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+import org.nms.Cache.ScanResultCache;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+import org.nms.VirtualThreadExecutor;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Streaming ping for discoveries
+ * Targets are split into shards, each shard is one fping process reading its targets from stdin,
+ * and every host is reported as soon as fping decides on it instead of after the whole range
+ * Results are shared with other discoveries through ScanResultCache, an IP is pinged once however many ranges contain it
+ */
+public class Fping
+{
+    // Headroom Over The Computed Worst Case Before A Shard's Process Is Killed
+    private static final long DEADLINE_SLACK_MILLIS = 2_000;
+
+    // Extra Wait For A Result Another Shard Is Producing, Covers That Shard Starting Slightly Later
+    private static final long SHARED_WAIT_MILLIS = 5_000;
+
+    /**
+     * @param range addresses to ping, produced shard by shard without materializing the range
+     * @param include decides per address whether it is pinged at all, left out addresses are never reported
+     * @param onResult called on the caller's context with { ip, success, message } once per IP
+     * @param beforeShard awaited before each shard starts, paces the scan and lets a slow consumer hold it,
+     *                    failing it ends the scan early
+     * @return completes after every IP of every started shard was reported
+     */
+    public static Future<Void> stream(IpRange range, Predicate<String> include, Consumer<JsonObject> onResult, Function<IpRange, Future<Void>> beforeShard)
+    {
+        var context = App.vertx.getOrCreateContext();
+
+        var shards = range.shards(Constants.PING_SHARD_SIZE);
+
+        List<Future<Void>> running = new ArrayList<>();
+
+        Promise<Void> allStarted = Promise.promise();
+
+        // Starts One Shard As Soon As beforeShard Allows, Then Moves On To The Next
+        var starter = new Handler<Void>()
+        {
+            @Override
+            public void handle(Void ignored)
+            {
+                if (!shards.hasNext())
+                {
+                    allStarted.complete();
+                    return;
+                }
+
+                var shard = shards.next();
+
+                var next = this;
+
+                beforeShard.apply(shard).onComplete(ready -> context.runOnContext(v ->
+                {
+                    // A Failed beforeShard Future Stops The Scan, Shards Already Started Still Report
+                    if (ready.failed())
+                    {
+                        allStarted.tryComplete();
+                        return;
+                    }
+
+                    running.add(VirtualThreadExecutor.PING.execute(() ->
+                    {
+                        runShard(shard, include, result -> context.runOnContext(x -> onResult.accept(result)));
+
+                        return null;
+                    }));
+
+                    next.handle(null);
+                }));
+            }
+        };
+
+        context.runOnContext(starter);
+
+        return allStarted.future().compose(started -> Future.join(running)).mapEmpty();
+    }
+
+    /**
+     * Runs one fping process over the shard's IPs no other discovery pinged recently or is pinging right now,
+     * blocking until it exits or its deadline passes, then waits for the shared results of the other IPs
+     */
+    private static void runShard(IpRange shard, Predicate<String> include, Consumer<JsonObject> onResult)
+    {
+        // IP => Result Other Discoveries Wait On, Only For IPs This Shard Pings Itself
+        var owned = new LinkedHashMap<String, Promise<JsonObject>>();
+
+        List<Future<JsonObject>> shared = new ArrayList<>();
+
+        for (var ip : shard)
+        {
+            if (!include.test(ip))
+            {
+                continue;
+            }
+
+            ScanResultCache.Claim<JsonObject> claim = ScanResultCache.claim(ScanResultCache.key(ScanResultCache.PING, ip));
+
+            if (claim.owner() != null)
+            {
+                owned.put(ip, claim.owner());
+            }
+            else
+            {
+                shared.add(claim.future());
+            }
+        }
+
+        var deadlineMillis = owned.size() * Constants.PING_INTERVAL_MILLIS
+                + (long) Constants.PING_ATTEMPTS * Constants.PING_TIMEOUT_MILLIS
+                + DEADLINE_SLACK_MILLIS;
+
+        if (!owned.isEmpty())
+        {
+            ping(shard, owned, deadlineMillis, onResult);
+        }
+
+        // Results Another Discovery Produced Recently Or Is Producing Now, Its Shard Completes Them Within Its Own Deadline
+        for (var result : shared)
+        {
+            try
+            {
+                onResult.accept(result.toCompletionStage().toCompletableFuture()
+                        .get(deadlineMillis + SHARED_WAIT_MILLIS, TimeUnit.MILLISECONDS)
+                        .copy());
+            }
+            catch (Exception e)
+            {
+                ConsoleLogger.error("❌ Shared Ping Result Unavailable In " + shard + " => " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pings the owned IPs, completing each one's shared result as it is reported
+     */
+    private static void ping(IpRange shard, Map<String, Promise<JsonObject>> owned, long deadlineMillis, Consumer<JsonObject> onResult)
+    {
+        var command = new String[]{
+                "fping",
+                "-e",
+                "-r", String.valueOf(Math.max(0, Constants.PING_ATTEMPTS - 1)),
+                "-t", String.valueOf(Constants.PING_TIMEOUT_MILLIS),
+                "-i", String.valueOf(Constants.PING_INTERVAL_MILLIS),
+                // No Backoff, So The Deadline Below Holds
+                "-B", "1"
+        };
+
+        try
+        {
+            var process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+
+            // Killing The Process Ends The Read Loop Below
+            var timerId = App.vertx.setTimer(deadlineMillis, id -> process.destroyForcibly());
+
+            try (var writer = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.US_ASCII))
+            {
+                for (var ip : owned.keySet())
+                {
+                    writer.write(ip);
+                    writer.write('\n');
+                }
+            }
+
+            try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII)))
+            {
+                String line;
+
+                while ((line = reader.readLine()) != null)
+                {
+                    var result = parse(line);
+
+                    var promise = result == null ? null : owned.remove(result.getString("ip"));
+
+                    if (promise != null)
+                    {
+                        promise.complete(result);
+
+                        onResult.accept(result.copy());
+                    }
+                }
+            }
+
+            App.vertx.cancelTimer(timerId);
+
+            process.destroy();
+        }
+        catch (Exception e)
+        {
+            ConsoleLogger.error("❌ fping Failed For " + shard + " => " + e.getMessage());
+        }
+
+        // Hosts fping Never Reported, Because It Was Killed Or Could Not Start
+        owned.forEach((ip, promise) ->
+        {
+            var result = new JsonObject()
+                    .put("ip", ip)
+                    .put("success", false)
+                    .put("message", "Ping check failed: no answer within " + deadlineMillis + " ms");
+
+            promise.complete(result);
+
+            onResult.accept(result.copy());
+        });
+    }
+
+    /**
+     * Format => "<ip> is alive (0.12 ms)" or "<ip> is unreachable"
+     * @return { ip, success, message } or null for any other line
+     */
+    private static JsonObject parse(String line)
+    {
+        var separator = line.indexOf(" is ");
+
+        if (separator <= 0)
+        {
+            return null;
+        }
+
+        var ip = line.substring(0, separator).trim();
+
+        var status = line.substring(separator + 4).trim();
+
+        if (status.startsWith("alive"))
+        {
+            var open = status.indexOf('(');
+
+            var close = status.indexOf(')');
+
+            var latency = open >= 0 && close > open ? status.substring(open + 1, close) : "";
+
+            return new JsonObject()
+                    .put("ip", ip)
+                    .put("success", true)
+                    .put("message", "Ping check success (latency: " + latency + ")");
+        }
+
+        if (status.startsWith("unreachable"))
+        {
+            return new JsonObject()
+                    .put("ip", ip)
+                    .put("success", false)
+                    .put("message", "Ping check failed: no reply after " + Constants.PING_ATTEMPTS + " attempts");
+        }
+
+        return null;
+    }
+}
@@ -3,124 +3,82 @@ package org.nms.API.Utility;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.nms.ConsoleLogger;
+import org.nms.Constants;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class IpHelpers
 {
-    private static final int MAX_IP_COUNT = 1000;
-
     /**
-     * Returns a JSON array of IPs based on the input IP and type
+     * Check if the given IP address is valid.
      *
-     * @param ip IP address in appropriate format:
-     *           - Single IP: "10.20.41.10"
-     *           - Range: "10.20.41.10-10.20.41.15"
-     *           - Subnet: "10.20.41.10/20"
-     * @param ipType Type of IP representation ("SINGLE", "RANGE", or "SUBNET")
-     * @return JsonArray containing IP addresses or empty JsonArray if invalid
+     * @param ip
+     * @return true if the IP address is valid, false otherwise
      */
-    public static JsonArray getIpListAsJsonArray(String ip, String ipType)
+    public static boolean isValidIp(String ip)
     {
-        JsonArray jsonArray = new JsonArray();
-        List<String> ipList = null;
-
-        if (ip == null || ipType == null)
+        if (ip == null || ip.isEmpty())
         {
-            return jsonArray;
+            return false;
         }
 
-        switch (ipType.toUpperCase())
-        {
-            case "SINGLE":
-                if (isValidIp(ip))
-                {
-                    jsonArray.add(ip);
-                }
-                break;
-
-            case "RANGE":
-                if (ip.contains("-"))
-                {
-                    String[] range = ip.split("-");
-                    if (range.length == 2)
-                    {
-                        String startIp = range[0].trim();
-                        String endIp = range[1].trim();
-                        ipList = getIpListForRange(startIp, endIp);
-                    }
-                }
-                break;
-
-            case "SUBNET":
-                if (ip.contains("/"))
-                {
-                    String[] subnet = ip.split("/");
-                    if (subnet.length == 2)
-                    {
-                        String ipPart = subnet[0].trim();
-                        try
-                        {
-                            int prefixLength = Integer.parseInt(subnet[1].trim());
-                            ipList = getIpListForSubnet(ipPart, prefixLength);
-                        }
-                        catch (NumberFormatException e)
-                        {
-                            // Invalid prefix length
-                        }
-                    }
-                }
-                break;
-
-            default:
-                // Invalid IP type
-                break;
-        }
+        // Literals Only, A Host Name Is Invalid Rather Than Resolved
+        return IpParser.isValid(ip);
+    }
 
-        if (ipList != null && !ipList.isEmpty())
-        {
-            for (String ipAddress : ipList)
-            {
-                jsonArray.add(ipAddress);
-            }
-        }
+    /**
+     * Dotted quad to its unsigned 32-bit value without creating any objects, see IpParser
+     *
+     * @param ip
+     * @return 0 to 2^32 - 1, or -1 if ip is not an IPv4 address
+     */
+    public static long toIpv4(String ip)
+    {
+        return ip == null ? -1 : IpParser.parseIpv4(ip, 0, ip.length());
+    }
 
-        return jsonArray;
+    /**
+     * @param address unsigned 32-bit value
+     * @return dotted quad
+     */
+    public static String formatIpv4(long address)
+    {
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "." + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
     }
 
     /**
-     * Check if the given IP address is valid.
+     * Addresses of the discovery results that passed every check, the ones that may be provisioned
      *
-     * @param ip
-     * @return true if the IP address is valid, false otherwise
+     * @param results JsonArray of {"ip": "", "status": ""}
+     * @return IpSet of the COMPLETED results
      */
-    public static boolean isValidIp(String ip)
+    public static IpSet completedIps(JsonArray results)
     {
-        if (ip == null || ip.isEmpty())
-        {
-            return false;
-        }
+        var ips = new IpSet();
 
-        try
+        if (results == null)
         {
-            InetAddress.getByName(ip);
-            return true;
+            return ips;
         }
-        catch (UnknownHostException e)
+
+        for (var i = 0; i < results.size(); i++)
         {
-            return false;
+            var result = results.getJsonObject(i);
+
+            if ("COMPLETED".equals(result.getString("status")))
+            {
+                ips.add(result.getString("ip"));
+            }
         }
+
+        return ips;
     }
 
     /**
      * Check if the given IP address and it's corresponding type are valid.
+     * Ranges and subnets may be as large as MAX_DISCOVERY_ADDRESSES, how fast they are scanned is paced by DISCOVERY_SCAN_RATE
      *
      * @param ip
      * @param ipType
@@ -128,115 +86,9 @@ public class IpHelpers
      */
     public static boolean isValidIpAndType(String ip, String ipType)
     {
-        if (ip == null || ipType == null)
-        {
-            return false;
-        }
-
-        switch (ipType)
-        {
-            case "SINGLE":
-
-                // Supports both IPv4 and IPv6
-                return isValidIp(ip);
-
-            case "RANGE":
-
-                // Supports both IPv4 and IPv6 ranges
-                if (!ip.contains("-"))
-                {
-                    return false;
-                }
-
-                String[] range = ip.split("-");
-
-                if (range.length != 2)
-                {
-                    return false;
-                }
-
-                String startIp = range[0].trim();
-
-                String endIp = range[1].trim();
-
-                if (!isValidIp(startIp) || !isValidIp(endIp))
-                {
-                    return false;
-                }
-
-                try
-                {
-                    // Ensure both IPs are of the same type (IPv4 or IPv6)
-                    InetAddress startAddr = InetAddress.getByName(startIp);
-
-                    InetAddress endAddr = InetAddress.getByName(endIp);
-
-                    if (startAddr.getAddress().length != endAddr.getAddress().length)
-                    {
-                        return false;
-                    }
-
-                    // Check if startIp <= endIp and IP count <= 1000
-                    var ipList = getIpListForRange(startIp, endIp);
-
-                    return ipList != null && ipList.size() <= MAX_IP_COUNT;
-                }
-                catch (UnknownHostException e)
-                {
-                    return false;
-                }
-
-            case "SUBNET":
-                // Supports IPv4 only (based on example like "10.20.40.1/22")
-                if (!ip.contains("/"))
-                {
-                    return false;
-                }
-
-                String[] subnet = ip.split("/");
-
-                if (subnet.length != 2)
-                {
-                    return false;
-                }
-
-                String ipPart = subnet[0].trim();
-
-                if (!isValidIPv4(ipPart))
-                {
-                    return false;
-                }
-
-                try
-                {
-                    int prefixLength = Integer.parseInt(subnet[1].trim());
-
-                    if (prefixLength < 0 || prefixLength > 32)
-                    {
-                        return false;
-                    }
-
-                    // Check if IP count <= 1000
-                    long ipCount = 1L << (32 - prefixLength); // 2^(32-prefix)
-
-                    if (ipCount > MAX_IP_COUNT)
-                    {
-                        return false;
-                    }
-
-                    // Optionally, generate IP list to validate
-                    var ipList = getIpListForSubnet(ipPart, prefixLength);
+        var range = IpRange.parse(ip, ipType);
 
-                    return ipList != null && ipList.size() <= MAX_IP_COUNT;
-                }
-                catch (NumberFormatException e)
-                {
-                    return false;
-                }
-
-            default:
-                return false;
-        }
+        return range != null && range.size() <= Constants.MAX_DISCOVERY_ADDRESSES;
     }
 
     /**
@@ -383,187 +235,4 @@ public class IpHelpers
         ConsoleLogger.info("Port check done with result " + result);
         return result;
     }
-
-    /**
-     * Check if the given IPv4 address is valid.
-     *
-     * @param ip
-     * @return true if the IPv4 address is valid, false otherwise
-     */
-    public static boolean isValidIPv4(String ip)
-    {
-        if (ip == null || ip.isEmpty())
-        {
-            return false;
-        }
-
-        try
-        {
-            InetAddress inetAddress = InetAddress.getByName(ip);
-            return inetAddress.getAddress().length == 4;
-        }
-        catch (UnknownHostException e)
-        {
-            return false;
-        }
-    }
-
-    /**
-     * Get list of IPs for a given range
-     *
-     * @param startIp
-     * @param endIp
-     * @return
-     */
-    public static List<String> getIpListForRange(String startIp, String endIp)
-    {
-        try
-        {
-            InetAddress startAddr = InetAddress.getByName(startIp);
-            InetAddress endAddr = InetAddress.getByName(endIp);
-
-            byte[] startBytes = startAddr.getAddress();
-            byte[] endBytes = endAddr.getAddress();
-
-            // Convert to BigInteger for comparison and iteration
-            BigInteger startNum = new BigInteger(1, startBytes);
-            BigInteger endNum = new BigInteger(1, endBytes);
-
-            // Check if start <= end
-            if (startNum.compareTo(endNum) > 0)
-            {
-                return null;
-            }
-
-            // Check if range size exceeds MAX_IP_COUNT
-            BigInteger rangeSize = endNum.subtract(startNum).add(BigInteger.ONE);
-            if (rangeSize.compareTo(BigInteger.valueOf(MAX_IP_COUNT)) > 0)
-            {
-                return null;
-            }
-
-            List<String> ipList = new ArrayList<>();
-
-            BigInteger currentNum = startNum;
-            while (currentNum.compareTo(endNum) <= 0)
-            {
-                byte[] ipBytes = bigIntegerToBytes(currentNum, startBytes.length);
-
-                ipList.add(InetAddress.getByAddress(ipBytes).getHostAddress());
-
-                currentNum = currentNum.add(BigInteger.ONE);
-            }
-
-            return ipList;
-
-        }
-        catch (UnknownHostException e)
-        {
-            return null;
-        }
-    }
-
-    /**
-     * Get list of IPs for a given subnet
-     *
-     *
-     * @param ip
-     * @param prefixLength
-     * @return
-     */
-    public static List<String> getIpListForSubnet(String ip, int prefixLength)
-    {
-        try
-        {
-            InetAddress addr = InetAddress.getByName(ip);
-
-            byte[] ipBytes = addr.getAddress();
-            if (ipBytes.length != 4)
-            {
-                return null; // Only IPv4 supported
-            }
-
-            // Calculate number of IPs: 2^(32-prefix)
-            long ipCount = 1L << (32 - prefixLength);
-            if (ipCount > MAX_IP_COUNT)
-            {
-                return null;
-            }
-
-            // Convert IP to long
-            long ipNum = bytesToLong(ipBytes);
-            // Calculate network address (apply mask)
-            long mask = (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
-            long network = ipNum & mask;
-
-            List<String> ipList = new ArrayList<>();
-            for (long i = 0; i < ipCount; i++)
-            {
-                long currentIp = network + i;
-
-                byte[] currentBytes = longToBytes(currentIp);
-
-                ipList.add(InetAddress.getByAddress(currentBytes).getHostAddress());
-            }
-            return ipList;
-        }
-        catch (UnknownHostException e)
-        {
-            return null;
-        }
-    }
-
-    /**
-     * Convert byte array to long (for IPv4)
-     *
-     * @param bytes
-     * @return long
-     */
-    private static long bytesToLong(byte[] bytes)
-    {
-        long result = 0;
-        for (byte b : bytes) {
-            result = (result << 8) | (b & 0xFF);
-        }
-        return result;
-    }
-
-    /**
-     * Convert long to byte array (for IPv4)
-     *
-     * @param value
-     * @return byte[]
-     */
-    private static byte[] longToBytes(long value)
-    {
-        byte[] bytes = new byte[4];
-        for (int i = 3; i >= 0; i--)
-        {
-            bytes[i] = (byte) (value & 0xFF);
-            value >>= 8;
-        }
-        return bytes;
-    }
-
-    /**
-     * Convert BigInteger to byte array with specified length
-     *
-     * @param num
-     * @param length
-     * @return
-     */
-    private static byte[] bigIntegerToBytes(BigInteger num, int length)
-    {
-        byte[] bytes = num.toByteArray();
-
-        byte[] result = new byte[length];
-
-        int srcOffset = Math.max(0, bytes.length - length);
-
-        int destOffset = length - Math.min(bytes.length, length);
-
-        System.arraycopy(bytes, srcOffset, result, destOffset, Math.min(bytes.length, length));
-
-        return result;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,338 @@
+package org.nms.API.Utility;
+
+/**
+ * Parses IPv4 and IPv6 literals, ranges' ends and CIDR prefix lengths character by character
+ * Never resolves names, so it is safe on the event loop, and never allocates, results come back as primitives
+ * or in a caller-provided long[2] holding the address as an unsigned 128-bit number (high, low)
+ * Surrounding whitespace is not accepted, callers trim by index
+ */
+public final class IpParser
+{
+    public static final int INVALID = 0;
+
+    public static final int IPV4 = 4;
+
+    public static final int IPV6 = 6;
+
+    private IpParser()
+    {
+    }
+
+    /**
+     * @return true if ip is an IPv4 or IPv6 literal
+     */
+    public static boolean isValid(CharSequence ip)
+    {
+        if (ip == null || ip.isEmpty())
+        {
+            return false;
+        }
+
+        if (parseIpv4(ip, 0, ip.length()) >= 0)
+        {
+            return true;
+        }
+
+        return validIpv6(ip, 0, ip.length());
+    }
+
+    /**
+     * @param out receives (high, low), an IPv4 address sits in the low 32 bits of low
+     * @return IPV4, IPV6 or INVALID
+     */
+    public static int parse(CharSequence ip, int from, int to, long[] out)
+    {
+        if (ip == null || from >= to)
+        {
+            return INVALID;
+        }
+
+        var ipv4 = parseIpv4(ip, from, to);
+
+        if (ipv4 >= 0)
+        {
+            out[0] = 0;
+
+            out[1] = ipv4;
+
+            return IPV4;
+        }
+
+        return parseIpv6(ip, from, to, out) ? IPV6 : INVALID;
+    }
+
+    /**
+     * Dotted quad of 1 to 3 digit decimal octets
+     * @return 0 to 2^32 - 1, or -1 if ip[from, to) is not an IPv4 address
+     */
+    public static long parseIpv4(CharSequence ip, int from, int to)
+    {
+        if (to - from < 7 || to - from > 15)
+        {
+            return -1;
+        }
+
+        var address = 0L;
+
+        var octet = -1;
+
+        var digits = 0;
+
+        var octets = 0;
+
+        for (var i = from; i <= to; i++)
+        {
+            var c = i < to ? ip.charAt(i) : '.';
+
+            if (c == '.')
+            {
+                if (octet < 0 || ++octets > 4)
+                {
+                    return -1;
+                }
+
+                address = (address << 8) | octet;
+
+                octet = -1;
+
+                digits = 0;
+            }
+            else if (c >= '0' && c <= '9')
+            {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+
+                if (octet > 255 || ++digits > 3)
+                {
+                    return -1;
+                }
+            }
+            else
+            {
+                return -1;
+            }
+        }
+
+        return octets == 4 ? address : -1;
+    }
+
+    /**
+     * Eight groups of 1 to 4 hex digits, one "::" for a run of zero groups, optionally ending in a dotted quad
+     * Zone ids ("%eth0") are not accepted
+     * @param out receives (high, low)
+     * @return false if ip[from, to) is not an IPv6 address, out is undefined then
+     */
+    public static boolean parseIpv6(CharSequence ip, int from, int to, long[] out)
+    {
+        if (to - from < 2 || to - from > 45)
+        {
+            return false;
+        }
+
+        // Groups Before "::" And After It, Each Shifted In From The Right As A 128-Bit Number
+        long headHigh = 0, headLow = 0, tailHigh = 0, tailLow = 0;
+
+        int headGroups = 0, tailGroups = 0;
+
+        var compressed = false;
+
+        var i = from;
+
+        if (ip.charAt(i) == ':')
+        {
+            if (ip.charAt(i + 1) != ':')
+            {
+                return false;
+            }
+
+            compressed = true;
+
+            i += 2;
+        }
+
+        while (i < to)
+        {
+            var start = i;
+
+            var group = 0;
+
+            while (i < to && hexValue(ip.charAt(i)) >= 0)
+            {
+                if (i - start == 4)
+                {
+                    return false;
+                }
+
+                group = (group << 4) | hexValue(ip.charAt(i));
+
+                i++;
+            }
+
+            // Dotted Quad Tail => Last Two Groups
+            if (i < to && ip.charAt(i) == '.')
+            {
+                var ipv4 = parseIpv4(ip, start, to);
+
+                if (ipv4 < 0 || headGroups + tailGroups > 6)
+                {
+                    return false;
+                }
+
+                if (compressed)
+                {
+                    tailHigh = (tailHigh << 32) | (tailLow >>> 32);
+                    tailLow = (tailLow << 32) | ipv4;
+                    tailGroups += 2;
+                }
+                else
+                {
+                    headHigh = (headHigh << 32) | (headLow >>> 32);
+                    headLow = (headLow << 32) | ipv4;
+                    headGroups += 2;
+                }
+
+                i = to;
+
+                break;
+            }
+
+            if (i == start || headGroups + tailGroups == 8)
+            {
+                return false;
+            }
+
+            if (compressed)
+            {
+                tailHigh = (tailHigh << 16) | (tailLow >>> 48);
+                tailLow = (tailLow << 16) | group;
+                tailGroups++;
+            }
+            else
+            {
+                headHigh = (headHigh << 16) | (headLow >>> 48);
+                headLow = (headLow << 16) | group;
+                headGroups++;
+            }
+
+            if (i == to)
+            {
+                break;
+            }
+
+            if (ip.charAt(i) != ':' || ++i == to)
+            {
+                return false;
+            }
+
+            if (ip.charAt(i) == ':')
+            {
+                if (compressed)
+                {
+                    return false;
+                }
+
+                compressed = true;
+
+                i++;
+            }
+        }
+
+        var groups = headGroups + tailGroups;
+
+        if (compressed ? groups > 7 : groups != 8)
+        {
+            return false;
+        }
+
+        // Head Groups Move Left Past The Zero Run And The Tail
+        for (var shift = 0; shift < 8 - headGroups; shift++)
+        {
+            headHigh = (headHigh << 16) | (headLow >>> 48);
+            headLow = headLow << 16;
+        }
+
+        out[0] = headHigh | tailHigh;
+
+        out[1] = headLow | tailLow;
+
+        return true;
+    }
+
+    /**
+     * @return prefix length written as 1 to 3 decimal digits, -1 if ip[from, to) is anything else
+     */
+    public static int parsePrefix(CharSequence ip, int from, int to)
+    {
+        if (to <= from || to - from > 3)
+        {
+            return -1;
+        }
+
+        var prefix = 0;
+
+        for (var i = from; i < to; i++)
+        {
+            var c = ip.charAt(i);
+
+            if (c < '0' || c > '9')
+            {
+                return -1;
+            }
+
+            prefix = prefix * 10 + (c - '0');
+        }
+
+        return prefix;
+    }
+
+    /**
+     * @return index of the first non-whitespace character of ip[from, to)
+     */
+    public static int trimStart(CharSequence ip, int from, int to)
+    {
+        while (from < to && Character.isWhitespace(ip.charAt(from)))
+        {
+            from++;
+        }
+
+        return from;
+    }
+
+    /**
+     * @return end index of ip[from, to) without trailing whitespace
+     */
+    public static int trimEnd(CharSequence ip, int from, int to)
+    {
+        while (to > from && Character.isWhitespace(ip.charAt(to - 1)))
+        {
+            to--;
+        }
+
+        return to;
+    }
+
+    private static boolean validIpv6(CharSequence ip, int from, int to)
+    {
+        // Validation Only, The Two Longs Stay On The Stack Once Escape Analysis Sees Through The Array
+        return parseIpv6(ip, from, to, new long[2]);
+    }
+
+    private static int hexValue(char c)
+    {
+        if (c >= '0' && c <= '9')
+        {
+            return c - '0';
+        }
+
+        if (c >= 'a' && c <= 'f')
+        {
+            return c - 'a' + 10;
+        }
+
+        if (c >= 'A' && c <= 'F')
+        {
+            return c - 'A' + 10;
+        }
+
+        return -1;
+    }
+}
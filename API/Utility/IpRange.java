@@ -0,0 +1,466 @@
+package org.nms.API.Utility;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Inclusive range of IPv4 or IPv6 addresses held as unsigned 128-bit numbers (high, low)
+ * Addresses are produced lazily, and a range splits into sub-ranges that can be consumed in parallel
+ * Input is read by IpParser, so parsing a range never resolves a name
+ */
+public final class IpRange implements Iterable<String>
+{
+    private final boolean ipv6;
+
+    private final long startHigh;
+
+    private final long startLow;
+
+    private final long endHigh;
+
+    private final long endLow;
+
+    private IpRange(boolean ipv6, long startHigh, long startLow, long endHigh, long endLow)
+    {
+        this.ipv6 = ipv6;
+        this.startHigh = startHigh;
+        this.startLow = startLow;
+        this.endHigh = endHigh;
+        this.endLow = endLow;
+    }
+
+    /**
+     * @param ip "10.20.41.10", "10.20.41.10-10.20.41.15" or "10.20.0.0/16" (IPv6 as well)
+     * @param ipType SINGLE, RANGE or SUBNET
+     * @return range or null if ip doesn't match ipType
+     */
+    public static IpRange parse(String ip, String ipType)
+    {
+        if (ip == null || ipType == null)
+        {
+            return null;
+        }
+
+        return switch (ipType.toUpperCase())
+        {
+            case "SINGLE" -> single(ip, 0, ip.length());
+
+            case "RANGE" ->
+            {
+                var separator = ip.indexOf('-');
+
+                yield separator < 0 ? null : range(ip, 0, separator, ip, separator + 1, ip.length());
+            }
+
+            case "SUBNET" ->
+            {
+                var separator = ip.indexOf('/');
+
+                if (separator < 0)
+                {
+                    yield null;
+                }
+
+                var prefixFrom = IpParser.trimStart(ip, separator + 1, ip.length());
+
+                yield subnet(ip, 0, separator, IpParser.parsePrefix(ip, prefixFrom, IpParser.trimEnd(ip, prefixFrom, ip.length())));
+            }
+
+            default -> null;
+        };
+    }
+
+    public static IpRange single(String ip)
+    {
+        return ip == null ? null : single(ip, 0, ip.length());
+    }
+
+    /**
+     * @return range or null if the ends are invalid, of different families or in reverse order
+     */
+    public static IpRange range(String startIp, String endIp)
+    {
+        if (startIp == null || endIp == null)
+        {
+            return null;
+        }
+
+        return range(startIp, 0, startIp.length(), endIp, 0, endIp.length());
+    }
+
+    /**
+     * @return every address of the network ip belongs to, including network and broadcast address
+     */
+    public static IpRange subnet(String ip, int prefixLength)
+    {
+        return ip == null ? null : subnet(ip, 0, ip.length(), prefixLength);
+    }
+
+    private static IpRange single(String text, int from, int to)
+    {
+        var address = new long[2];
+
+        var family = parseTrimmed(text, from, to, address);
+
+        if (family == IpParser.INVALID)
+        {
+            return null;
+        }
+
+        return new IpRange(family == IpParser.IPV6, address[0], address[1], address[0], address[1]);
+    }
+
+    private static IpRange range(String startText, int startFrom, int startTo, String endText, int endFrom, int endTo)
+    {
+        var start = new long[2];
+
+        var end = new long[2];
+
+        var startFamily = parseTrimmed(startText, startFrom, startTo, start);
+
+        var endFamily = parseTrimmed(endText, endFrom, endTo, end);
+
+        if (startFamily == IpParser.INVALID || startFamily != endFamily)
+        {
+            return null;
+        }
+
+        if (compare(start[0], start[1], end[0], end[1]) > 0)
+        {
+            return null;
+        }
+
+        return new IpRange(startFamily == IpParser.IPV6, start[0], start[1], end[0], end[1]);
+    }
+
+    private static IpRange subnet(String text, int from, int to, int prefixLength)
+    {
+        var address = new long[2];
+
+        var family = parseTrimmed(text, from, to, address);
+
+        var bits = family == IpParser.IPV6 ? 128 : 32;
+
+        if (family == IpParser.INVALID || prefixLength < 0 || prefixLength > bits)
+        {
+            return null;
+        }
+
+        var high = address[0];
+
+        var low = address[1];
+
+        // Host Bits Counted From The Low End Of The 128-Bit Number
+        var hostBits = bits - prefixLength;
+
+        var lowMask = hostBits >= 64 ? -1L : (1L << hostBits) - 1;
+
+        var highMask = hostBits <= 64 ? 0L : hostBits >= 128 ? -1L : (1L << (hostBits - 64)) - 1;
+
+        return new IpRange(family == IpParser.IPV6, high & ~highMask, low & ~lowMask, high | highMask, low | lowMask);
+    }
+
+    public boolean isIpv6()
+    {
+        return ipv6;
+    }
+
+    /**
+     * @return number of addresses, Long.MAX_VALUE for IPv6 ranges larger than that
+     */
+    public long size()
+    {
+        var highDifference = endHigh - startHigh - (Long.compareUnsigned(endLow, startLow) < 0 ? 1 : 0);
+
+        var lowDifference = endLow - startLow;
+
+        if (highDifference != 0 || lowDifference < 0 || lowDifference == Long.MAX_VALUE)
+        {
+            return Long.MAX_VALUE;
+        }
+
+        return lowDifference + 1;
+    }
+
+    /**
+     * @return first address as text
+     */
+    public String first()
+    {
+        return format(startHigh, startLow);
+    }
+
+    /**
+     * @return last address as text
+     */
+    public String last()
+    {
+        return format(endHigh, endLow);
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new Iterator<>()
+        {
+            private long high = startHigh;
+
+            private long low = startLow;
+
+            private boolean done = false;
+
+            @Override
+            public boolean hasNext()
+            {
+                return !done;
+            }
+
+            @Override
+            public String next()
+            {
+                if (done)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                var address = format(high, low);
+
+                if (high == endHigh && low == endLow)
+                {
+                    done = true;
+                }
+                else
+                {
+                    low++;
+
+                    if (low == 0)
+                    {
+                        high++;
+                    }
+                }
+
+                return address;
+            }
+        };
+    }
+
+    /**
+     * @return the range without its first count addresses, null if nothing is left
+     */
+    public IpRange skip(long count)
+    {
+        if (count <= 0)
+        {
+            return this;
+        }
+
+        if (count >= size() && size() != Long.MAX_VALUE)
+        {
+            return null;
+        }
+
+        var low = startLow + count;
+
+        var high = startHigh + (Long.compareUnsigned(low, startLow) < 0 ? 1 : 0);
+
+        if (compare(high, low, endHigh, endLow) > 0)
+        {
+            return null;
+        }
+
+        return new IpRange(ipv6, high, low, endHigh, endLow);
+    }
+
+    /**
+     * @return position of ip within the range, -1 if it is outside or beyond Long.MAX_VALUE
+     */
+    public long indexOf(String ip)
+    {
+        var address = new long[2];
+
+        var family = ip == null ? IpParser.INVALID : IpParser.parse(ip, 0, ip.length(), address);
+
+        if (family == IpParser.INVALID || (family == IpParser.IPV6) != ipv6)
+        {
+            return -1;
+        }
+
+        var high = address[0];
+
+        var low = address[1];
+
+        if (compare(high, low, startHigh, startLow) < 0 || compare(high, low, endHigh, endLow) > 0)
+        {
+            return -1;
+        }
+
+        var highDifference = high - startHigh - (Long.compareUnsigned(low, startLow) < 0 ? 1 : 0);
+
+        var lowDifference = low - startLow;
+
+        return highDifference != 0 || lowDifference < 0 ? -1 : lowDifference;
+    }
+
+    /**
+     * Splits lazily into consecutive sub-ranges of at most shardSize addresses
+     */
+    public Iterator<IpRange> shards(long shardSize)
+    {
+        var step = Math.max(1, shardSize);
+
+        return new Iterator<>()
+        {
+            private long high = startHigh;
+
+            private long low = startLow;
+
+            private boolean done = false;
+
+            @Override
+            public boolean hasNext()
+            {
+                return !done;
+            }
+
+            @Override
+            public IpRange next()
+            {
+                if (done)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                // Shard End => Current + step - 1, Clamped To The Range's End
+                var shardLow = low + (step - 1);
+
+                var shardHigh = high + (Long.compareUnsigned(shardLow, low) < 0 ? 1 : 0);
+
+                if (Long.compareUnsigned(shardHigh, high) < 0 || compare(shardHigh, shardLow, endHigh, endLow) >= 0)
+                {
+                    shardHigh = endHigh;
+
+                    shardLow = endLow;
+                }
+
+                var shard = new IpRange(ipv6, high, low, shardHigh, shardLow);
+
+                if (shardHigh == endHigh && shardLow == endLow)
+                {
+                    done = true;
+                }
+                else
+                {
+                    low = shardLow + 1;
+
+                    high = shardHigh + (low == 0 ? 1 : 0);
+                }
+
+                return shard;
+            }
+        };
+    }
+
+    /**
+     * Splits into at most parts sub-ranges of near equal size, for parallel consumers
+     */
+    public Iterator<IpRange> split(int parts)
+    {
+        var size = size();
+
+        var shardSize = size == Long.MAX_VALUE ? Long.MAX_VALUE / Math.max(1, parts) : (size + parts - 1) / Math.max(1, parts);
+
+        return shards(shardSize);
+    }
+
+    @Override
+    public String toString()
+    {
+        return first() + "-" + last();
+    }
+
+    private String format(long high, long low)
+    {
+        if (!ipv6)
+        {
+            return ((low >>> 24) & 0xFF) + "." + ((low >>> 16) & 0xFF) + "." + ((low >>> 8) & 0xFF) + "." + (low & 0xFF);
+        }
+
+        var groups = new int[8];
+
+        for (var i = 0; i < 4; i++)
+        {
+            groups[i] = (int) (high >>> (48 - 16 * i)) & 0xFFFF;
+
+            groups[i + 4] = (int) (low >>> (48 - 16 * i)) & 0xFFFF;
+        }
+
+        // Longest Run Of At Least Two Zero Groups Is Written As "::" (RFC 5952)
+        var bestStart = -1;
+
+        var bestLength = 1;
+
+        for (var i = 0; i < 8; )
+        {
+            if (groups[i] != 0)
+            {
+                i++;
+                continue;
+            }
+
+            var start = i;
+
+            while (i < 8 && groups[i] == 0)
+            {
+                i++;
+            }
+
+            if (i - start > bestLength)
+            {
+                bestStart = start;
+
+                bestLength = i - start;
+            }
+        }
+
+        var text = new StringBuilder(39);
+
+        for (var i = 0; i < 8; i++)
+        {
+            if (i == bestStart)
+            {
+                text.append("::");
+
+                i += bestLength - 1;
+
+                continue;
+            }
+
+            if (!text.isEmpty() && text.charAt(text.length() - 1) != ':')
+            {
+                text.append(':');
+            }
+
+            text.append(Integer.toHexString(groups[i]));
+        }
+
+        return text.toString();
+    }
+
+    private static int compare(long highA, long lowA, long highB, long lowB)
+    {
+        var high = Long.compareUnsigned(highA, highB);
+
+        return high != 0 ? high : Long.compareUnsigned(lowA, lowB);
+    }
+
+    /**
+     * Parses only the range's ends, never each address
+     * @return family of text[from, to) without surrounding whitespace
+     */
+    private static int parseTrimmed(String text, int from, int to, long[] address)
+    {
+        var start = IpParser.trimStart(text, from, to);
+
+        return IpParser.parse(text, start, IpParser.trimEnd(text, start, to), address);
+    }
+}
@@ -0,0 +1,687 @@
+package org.nms.API.Utility;
+
+import io.vertx.core.json.JsonArray;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compact set of IP addresses for membership checks over discovered, provisioned or excluded addresses
+ * IPv4 addresses are kept as a roaring bitmap => the upper 16 bits pick a container, which holds the lower 16 bits
+ * as a sorted char array while small and as a 65536-bit bitmap once it holds more than ARRAY_LIMIT addresses,
+ * so a full /16 takes 8 KB and a sparse one a few bytes per address
+ * IPv6 addresses are rare here and kept as canonical text
+ * Not thread safe, a set that is no longer written may be read from any thread
+ */
+public final class IpSet implements Iterable<String>
+{
+    // Above This Many Addresses A Bitmap Is Smaller Than A Sorted Array
+    private static final int ARRAY_LIMIT = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    // Upper 16 Bits Of An IPv4 Address => Its Lower 16 Bits
+    private final TreeMap<Integer, Container> containers = new TreeMap<>();
+
+    private final Set<String> ipv6 = new HashSet<>();
+
+    public IpSet()
+    {
+    }
+
+    /**
+     * @param ips addresses as text, entries that aren't addresses are left out
+     */
+    public static IpSet of(Iterable<?> ips)
+    {
+        var set = new IpSet();
+
+        for (var ip : ips)
+        {
+            if (ip != null)
+            {
+                set.add(ip.toString());
+            }
+        }
+
+        return set;
+    }
+
+    /**
+     * @param rows JSON objects holding an address under field
+     */
+    public static IpSet of(JsonArray rows, String field)
+    {
+        var set = new IpSet();
+
+        for (var i = 0; i < rows.size(); i++)
+        {
+            var ip = rows.getJsonObject(i).getString(field);
+
+            if (ip != null)
+            {
+                set.add(ip);
+            }
+        }
+
+        return set;
+    }
+
+    /**
+     * @return false if ip is already in the set or isn't an address
+     */
+    public boolean add(String ip)
+    {
+        var address = IpHelpers.toIpv4(ip);
+
+        if (address >= 0)
+        {
+            return containers.computeIfAbsent(highOf(address), key -> new Container()).add(lowOf(address));
+        }
+
+        var canonical = canonicalIpv6(ip);
+
+        return canonical != null && ipv6.add(canonical);
+    }
+
+    /**
+     * Adds every address of range, whole IPv4 containers at a time
+     */
+    public void add(IpRange range)
+    {
+        if (range.isIpv6())
+        {
+            range.forEach(this::add);
+            return;
+        }
+
+        var first = IpHelpers.toIpv4(range.first());
+
+        var last = IpHelpers.toIpv4(range.last());
+
+        for (var high = highOf(first); high <= highOf(last); high++)
+        {
+            var from = high == highOf(first) ? lowOf(first) : 0;
+
+            var to = high == highOf(last) ? lowOf(last) : 0xFFFF;
+
+            containers.computeIfAbsent(high, key -> new Container()).addRange(from, to);
+        }
+    }
+
+    /**
+     * @return false if ip wasn't in the set
+     */
+    public boolean remove(String ip)
+    {
+        var address = IpHelpers.toIpv4(ip);
+
+        if (address < 0)
+        {
+            var canonical = canonicalIpv6(ip);
+
+            return canonical != null && ipv6.remove(canonical);
+        }
+
+        var container = containers.get(highOf(address));
+
+        if (container == null || !container.remove(lowOf(address)))
+        {
+            return false;
+        }
+
+        if (container.cardinality == 0)
+        {
+            containers.remove(highOf(address));
+        }
+
+        return true;
+    }
+
+    public boolean contains(String ip)
+    {
+        var address = IpHelpers.toIpv4(ip);
+
+        if (address >= 0)
+        {
+            var container = containers.get(highOf(address));
+
+            return container != null && container.contains(lowOf(address));
+        }
+
+        var canonical = canonicalIpv6(ip);
+
+        return canonical != null && ipv6.contains(canonical);
+    }
+
+    public long size()
+    {
+        var size = (long) ipv6.size();
+
+        for (var container : containers.values())
+        {
+            size += container.cardinality;
+        }
+
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return containers.isEmpty() && ipv6.isEmpty();
+    }
+
+    /**
+     * @return new set with the addresses of either set
+     */
+    public IpSet or(IpSet other)
+    {
+        var result = new IpSet();
+
+        containers.forEach((high, container) -> result.containers.put(high, container.copy()));
+
+        other.containers.forEach((high, container) -> result.containers.merge(high, container.copy(),
+                (mine, theirs) -> Container.combine(mine, theirs, Operation.OR)));
+
+        result.ipv6.addAll(ipv6);
+
+        result.ipv6.addAll(other.ipv6);
+
+        return result;
+    }
+
+    /**
+     * @return new set with the addresses of both sets
+     */
+    public IpSet and(IpSet other)
+    {
+        var result = new IpSet();
+
+        for (var entry : containers.entrySet())
+        {
+            var theirs = other.containers.get(entry.getKey());
+
+            if (theirs != null)
+            {
+                result.put(entry.getKey(), Container.combine(entry.getValue(), theirs, Operation.AND));
+            }
+        }
+
+        ipv6.stream().filter(other.ipv6::contains).forEach(result.ipv6::add);
+
+        return result;
+    }
+
+    /**
+     * @return new set with the addresses of this set that aren't in other
+     */
+    public IpSet andNot(IpSet other)
+    {
+        var result = new IpSet();
+
+        for (var entry : containers.entrySet())
+        {
+            var theirs = other.containers.get(entry.getKey());
+
+            result.put(entry.getKey(), theirs == null ? entry.getValue().copy() : Container.combine(entry.getValue(), theirs, Operation.AND_NOT));
+        }
+
+        ipv6.stream().filter(ip -> !other.ipv6.contains(ip)).forEach(result.ipv6::add);
+
+        return result;
+    }
+
+    /**
+     * IPv4 addresses in ascending order, then IPv6 addresses
+     */
+    @Override
+    public Iterator<String> iterator()
+    {
+        var entries = containers.entrySet().iterator();
+
+        var rest = ipv6.iterator();
+
+        return new Iterator<>()
+        {
+            private Map.Entry<Integer, Container> current;
+
+            // Next Lower 16 Bits Of current, -1 Once It Is Used Up
+            private int next = -1;
+
+            {
+                advance(0);
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return next >= 0 || rest.hasNext();
+            }
+
+            @Override
+            public String next()
+            {
+                if (next < 0)
+                {
+                    return rest.next();
+                }
+
+                var address = ((long) current.getKey() << 16) | next;
+
+                advance(next + 1);
+
+                return IpHelpers.formatIpv4(address);
+            }
+
+            private void advance(int from)
+            {
+                next = current == null ? -1 : current.getValue().nextFrom(from);
+
+                while (next < 0 && entries.hasNext())
+                {
+                    current = entries.next();
+
+                    next = current.getValue().nextFrom(0);
+                }
+            }
+        };
+    }
+
+    public JsonArray toJsonArray()
+    {
+        var ips = new JsonArray();
+
+        forEach(ips::add);
+
+        return ips;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IpSet[" + size() + " addresses in " + containers.size() + " containers]";
+    }
+
+    private void put(int high, Container container)
+    {
+        if (container.cardinality > 0)
+        {
+            containers.put(high, container);
+        }
+    }
+
+    private static int highOf(long address)
+    {
+        return (int) (address >>> 16);
+    }
+
+    private static int lowOf(long address)
+    {
+        return (int) (address & 0xFFFF);
+    }
+
+    private static String canonicalIpv6(String ip)
+    {
+        var single = ip == null ? null : IpRange.single(ip);
+
+        return single == null || !single.isIpv6() ? null : single.first();
+    }
+
+    private enum Operation
+    {
+        OR, AND, AND_NOT
+    }
+
+    /**
+     * Lower 16 bits of the addresses sharing one upper half => sorted array up to ARRAY_LIMIT, bitmap above
+     */
+    private static final class Container
+    {
+        private char[] values = new char[4];
+
+        // Non-Null Once The Container Is A Bitmap, values Is Unused Then
+        private long[] bits;
+
+        private int cardinality;
+
+        boolean contains(int low)
+        {
+            if (bits != null)
+            {
+                return (bits[low >>> 6] & (1L << low)) != 0;
+            }
+
+            return Arrays.binarySearch(values, 0, cardinality, (char) low) >= 0;
+        }
+
+        boolean add(int low)
+        {
+            if (bits != null)
+            {
+                var word = bits[low >>> 6];
+
+                bits[low >>> 6] = word | (1L << low);
+
+                if (word == bits[low >>> 6])
+                {
+                    return false;
+                }
+
+                cardinality++;
+
+                return true;
+            }
+
+            var index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+
+            if (index >= 0)
+            {
+                return false;
+            }
+
+            if (cardinality == ARRAY_LIMIT)
+            {
+                toBitmap();
+
+                return add(low);
+            }
+
+            index = -index - 1;
+
+            if (cardinality == values.length)
+            {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+            }
+
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+
+            values[index] = (char) low;
+
+            cardinality++;
+
+            return true;
+        }
+
+        /**
+         * @param from first lower half, inclusive
+         * @param to last lower half, inclusive
+         */
+        void addRange(int from, int to)
+        {
+            if (bits == null && cardinality + (to - from + 1) <= ARRAY_LIMIT)
+            {
+                for (var low = from; low <= to; low++)
+                {
+                    add(low);
+                }
+
+                return;
+            }
+
+            if (bits == null)
+            {
+                toBitmap();
+            }
+
+            for (var low = from; low <= to; )
+            {
+                // Whole Words At Once Where The Range Covers Them
+                if ((low & 63) == 0 && low + 63 <= to)
+                {
+                    bits[low >>> 6] = -1L;
+
+                    low += 64;
+                }
+                else
+                {
+                    bits[low >>> 6] |= 1L << low;
+
+                    low++;
+                }
+            }
+
+            cardinality = count(bits);
+        }
+
+        boolean remove(int low)
+        {
+            if (bits != null)
+            {
+                var word = bits[low >>> 6];
+
+                bits[low >>> 6] = word & ~(1L << low);
+
+                if (word == bits[low >>> 6])
+                {
+                    return false;
+                }
+
+                cardinality--;
+
+                if (cardinality <= ARRAY_LIMIT)
+                {
+                    toArray();
+                }
+
+                return true;
+            }
+
+            var index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+
+            if (index < 0)
+            {
+                return false;
+            }
+
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+
+            cardinality--;
+
+            return true;
+        }
+
+        /**
+         * @return smallest lower half at or above from, -1 if there is none
+         */
+        int nextFrom(int from)
+        {
+            if (from > 0xFFFF)
+            {
+                return -1;
+            }
+
+            if (bits == null)
+            {
+                var index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+
+                index = index >= 0 ? index : -index - 1;
+
+                return index < cardinality ? values[index] : -1;
+            }
+
+            var wordIndex = from >>> 6;
+
+            var word = bits[wordIndex] & (-1L << from);
+
+            while (word == 0)
+            {
+                if (++wordIndex == BITMAP_WORDS)
+                {
+                    return -1;
+                }
+
+                word = bits[wordIndex];
+            }
+
+            return wordIndex * 64 + Long.numberOfTrailingZeros(word);
+        }
+
+        Container copy()
+        {
+            var copy = new Container();
+
+            copy.values = bits == null ? Arrays.copyOf(values, Math.max(4, cardinality)) : copy.values;
+
+            copy.bits = bits == null ? null : bits.clone();
+
+            copy.cardinality = cardinality;
+
+            return copy;
+        }
+
+        static Container combine(Container a, Container b, Operation operation)
+        {
+            // Two Arrays Are Merged Directly, Anything Else Word By Word
+            if (a.bits == null && b.bits == null)
+            {
+                return merge(a, b, operation);
+            }
+
+            var left = a.words();
+
+            var right = b.words();
+
+            var result = new Container();
+
+            result.bits = new long[BITMAP_WORDS];
+
+            for (var i = 0; i < BITMAP_WORDS; i++)
+            {
+                result.bits[i] = switch (operation)
+                {
+                    case OR -> left[i] | right[i];
+                    case AND -> left[i] & right[i];
+                    case AND_NOT -> left[i] & ~right[i];
+                };
+            }
+
+            result.cardinality = count(result.bits);
+
+            if (result.cardinality <= ARRAY_LIMIT)
+            {
+                result.toArray();
+            }
+
+            return result;
+        }
+
+        private static Container merge(Container a, Container b, Operation operation)
+        {
+            var result = new Container();
+
+            var merged = new char[operation == Operation.OR ? a.cardinality + b.cardinality : a.cardinality];
+
+            int i = 0, j = 0, size = 0;
+
+            while (i < a.cardinality || j < b.cardinality)
+            {
+                var left = i < a.cardinality ? a.values[i] : Integer.MAX_VALUE;
+
+                var right = j < b.cardinality ? b.values[j] : Integer.MAX_VALUE;
+
+                var keep = switch (operation)
+                {
+                    case OR -> true;
+                    case AND -> left == right;
+                    case AND_NOT -> left < right;
+                };
+
+                if (keep)
+                {
+                    merged[size++] = (char) Math.min(left, right);
+                }
+
+                if (left <= right)
+                {
+                    i++;
+                }
+
+                if (right <= left)
+                {
+                    j++;
+                }
+
+                if (operation != Operation.OR && i == a.cardinality)
+                {
+                    break;
+                }
+            }
+
+            result.values = merged.length > 0 ? merged : result.values;
+
+            result.cardinality = size;
+
+            // A Union Of Two Full Arrays Can Outgrow ARRAY_LIMIT
+            if (size > ARRAY_LIMIT)
+            {
+                result.toBitmap();
+            }
+
+            return result;
+        }
+
+        private long[] words()
+        {
+            if (bits != null)
+            {
+                return bits;
+            }
+
+            var words = new long[BITMAP_WORDS];
+
+            for (var i = 0; i < cardinality; i++)
+            {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+
+            return words;
+        }
+
+        private void toBitmap()
+        {
+            bits = words();
+
+            values = null;
+        }
+
+        private void toArray()
+        {
+            var array = new char[Math.max(4, cardinality)];
+
+            var size = 0;
+
+            for (var i = 0; i < BITMAP_WORDS; i++)
+            {
+                var word = bits[i];
+
+                while (word != 0)
+                {
+                    array[size++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+
+                    word &= word - 1;
+                }
+            }
+
+            values = array;
+
+            bits = null;
+        }
+
+        private static int count(long[] bits)
+        {
+            var count = 0;
+
+            for (var word : bits)
+            {
+                count += Long.bitCount(word);
+            }
+
+            return count;
+        }
+    }
+}
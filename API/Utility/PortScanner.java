@@ -0,0 +1,175 @@
+package org.nms.API.Utility;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import org.nms.App;
+
+import java.net.ConnectException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Non-blocking TCP connect scanner, replaces one nc process per host
+ * Connect succeeded => open, connection refused => closed, timeout or unreachable => filtered
+ */
+public class PortScanner
+{
+    public static final String OPEN = "open";
+
+    public static final String CLOSED = "closed";
+
+    public static final String FILTERED = "filtered";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2_000;
+
+    // A Lost SYN Looks Like A Filtered Port, Give Timeouts One More Try
+    private static final int ATTEMPTS = 2;
+
+    // Connects In Flight Across All Discoveries, Bounded By File Descriptors And Conntrack Rather Than Threads
+    private static final int MAX_CONCURRENT_CONNECTS = 1024;
+
+    private static final Queue<Promise<Void>> waiting = new ArrayDeque<>();
+
+    private static int active = 0;
+
+    private static NetClient client;
+
+    /**
+     * Scans every port on every IP
+     * @param ips array of IP strings
+     * @param ports ports to scan on each IP
+     * @return array of { ip, ports: { "22": "open", "161": "filtered", ... } } in the order of ips
+     */
+    public static Future<JsonArray> scan(JsonArray ips, List<Integer> ports)
+    {
+        List<Future<JsonObject>> hosts = new ArrayList<>();
+
+        for (var i = 0; i < ips.size(); i++)
+        {
+            hosts.add(scanHost(ips.getString(i), ports));
+        }
+
+        return Future.all(hosts).map(done ->
+        {
+            var results = new JsonArray();
+
+            hosts.forEach(host -> results.add(host.result()));
+
+            return results;
+        });
+    }
+
+    /**
+     * @return { ip, ports: { "22": "open", ... } }
+     */
+    public static Future<JsonObject> scanHost(String ip, List<Integer> ports)
+    {
+        List<Future<String>> states = new ArrayList<>();
+
+        for (var port : ports)
+        {
+            states.add(probe(ip, port, ATTEMPTS));
+        }
+
+        return Future.all(states).map(done ->
+        {
+            var portStates = new JsonObject();
+
+            for (var i = 0; i < ports.size(); i++)
+            {
+                portStates.put(String.valueOf(ports.get(i)), states.get(i).result());
+            }
+
+            return new JsonObject().put("ip", ip).put("ports", portStates);
+        });
+    }
+
+    /**
+     * @return open, closed or filtered, never fails
+     */
+    public static Future<String> probe(String ip, int port)
+    {
+        return probe(ip, port, ATTEMPTS);
+    }
+
+    /**
+     * @return open, closed or filtered, never fails
+     */
+    public static Future<String> probe(String ip, int port, int attempts)
+    {
+        return acquire()
+                .compose(ignored -> connect(ip, port).onComplete(done -> release()))
+                .compose(state -> FILTERED.equals(state) && attempts > 1
+                        ? probe(ip, port, attempts - 1)
+                        : Future.succeededFuture(state));
+    }
+
+    private static Future<String> connect(String ip, int port)
+    {
+        return client()
+                .connect(port, ip)
+                .map(socket ->
+                {
+                    socket.close();
+
+                    return OPEN;
+                })
+                .otherwise(err -> err instanceof ConnectException && String.valueOf(err.getMessage()).contains("refused")
+                        ? CLOSED
+                        : FILTERED);
+    }
+
+    private static synchronized NetClient client()
+    {
+        if (client == null)
+        {
+            client = App.vertx.createNetClient(new NetClientOptions()
+                    .setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+                    .setReconnectAttempts(0));
+        }
+
+        return client;
+    }
+
+    private static synchronized Future<Void> acquire()
+    {
+        if (active < MAX_CONCURRENT_CONNECTS)
+        {
+            active++;
+
+            return Future.succeededFuture();
+        }
+
+        Promise<Void> promise = Promise.promise();
+
+        waiting.add(promise);
+
+        return promise.future();
+    }
+
+    private static void release()
+    {
+        Promise<Void> next;
+
+        synchronized (PortScanner.class)
+        {
+            next = waiting.poll();
+
+            if (next == null)
+            {
+                active--;
+
+                return;
+            }
+        }
+
+        // Slot Is Handed Over Directly, Active Count Stays The Same
+        next.complete();
+    }
+}
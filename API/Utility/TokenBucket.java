@@ -0,0 +1,179 @@
+package org.nms.API.Utility;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Token bucket pacer => refills at ratePerSecond up to a burst of a tenth of a second's worth
+ * A request larger than the burst is granted once the bucket is full and leaves it in debt,
+ * so the long-run rate holds for any request size, waiters are served in order
+ */
+public class TokenBucket
+{
+    private final double ratePerSecond;
+
+    private final double burst;
+
+    private final Queue<Waiter> waiting = new ArrayDeque<>();
+
+    private double tokens;
+
+    private long refilledAt = System.nanoTime();
+
+    private long firstGrantAt = 0;
+
+    private long granted = 0;
+
+    private long waitedMillis = 0;
+
+    private boolean timerSet = false;
+
+    private record Waiter(long count, long since, Promise<Void> promise)
+    {
+    }
+
+    /**
+     * @param ratePerSecond tokens per second, 0 or less means unlimited
+     */
+    public TokenBucket(double ratePerSecond)
+    {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, ratePerSecond / 10);
+        this.tokens = burst;
+    }
+
+    /**
+     * @return completes once count tokens were taken, may complete on another context
+     */
+    public Future<Void> acquire(long count)
+    {
+        synchronized (this)
+        {
+            if (ratePerSecond <= 0)
+            {
+                grant(count);
+
+                return Future.succeededFuture();
+            }
+
+            refill();
+
+            if (waiting.isEmpty() && tokens >= Math.min(count, burst))
+            {
+                tokens -= count;
+
+                grant(count);
+
+                return Future.succeededFuture();
+            }
+
+            var waiter = new Waiter(count, System.nanoTime(), Promise.promise());
+
+            waiting.add(waiter);
+
+            schedule();
+
+            return waiter.promise().future();
+        }
+    }
+
+    /**
+     * @return true if nobody waits and the bucket is full, so dropping it loses nothing
+     */
+    public synchronized boolean isIdle()
+    {
+        refill();
+
+        return waiting.isEmpty() && tokens >= burst;
+    }
+
+    /**
+     * @return { limit, effective_rate, granted, waiting, waited_ms }
+     */
+    public synchronized JsonObject getStats()
+    {
+        var elapsedNanos = firstGrantAt == 0 ? 0 : System.nanoTime() - firstGrantAt;
+
+        return new JsonObject()
+                .put("limit", ratePerSecond <= 0 ? null : ratePerSecond)
+                .put("effective_rate", elapsedNanos <= 0 ? 0.0 : Math.round(granted * 1e10 / elapsedNanos) / 10.0)
+                .put("granted", granted)
+                .put("waiting", waiting.size())
+                .put("waited_ms", waitedMillis);
+    }
+
+    private void refill()
+    {
+        var now = System.nanoTime();
+
+        tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerSecond / 1e9);
+
+        refilledAt = now;
+    }
+
+    private void grant(long count)
+    {
+        if (firstGrantAt == 0)
+        {
+            firstGrantAt = System.nanoTime();
+        }
+
+        granted += count;
+    }
+
+    /**
+     * Sets one timer for when the oldest waiter can be served
+     */
+    private void schedule()
+    {
+        if (timerSet || waiting.isEmpty())
+        {
+            return;
+        }
+
+        var needed = Math.min(waiting.peek().count(), burst) - tokens;
+
+        var delayMillis = Math.max(1, (long) Math.ceil(needed * 1000 / ratePerSecond));
+
+        timerSet = true;
+
+        App.vertx.setTimer(delayMillis, id -> serve());
+    }
+
+    private void serve()
+    {
+        List<Promise<Void>> ready = new ArrayList<>();
+
+        synchronized (this)
+        {
+            timerSet = false;
+
+            refill();
+
+            while (!waiting.isEmpty() && tokens >= Math.min(waiting.peek().count(), burst))
+            {
+                var waiter = waiting.poll();
+
+                tokens -= waiter.count();
+
+                grant(waiter.count());
+
+                waitedMillis += (System.nanoTime() - waiter.since()) / 1_000_000;
+
+                ready.add(waiter.promise());
+            }
+
+            schedule();
+        }
+
+        // Completed Outside The Lock, Waiters May Acquire Again Right Away
+        ready.forEach(Promise::complete);
+    }
+}
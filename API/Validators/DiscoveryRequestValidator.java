@@ -1,14 +1,29 @@
 package org.nms.API.Validators;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.ext.web.RoutingContext;
+import org.nms.App;
+import org.nms.Constants;
 import org.nms.API.Utility.HttpResponse;
 import org.nms.API.Utility.IpHelpers;
 
+import java.util.UUID;
+
 /**
  * Validates requests to discovery-related endpoints
  */
 public class DiscoveryRequestValidator
 {
+    private static final int MAX_SCANNED_PORTS = 64;
+
+    public static void getAllDiscoveriesRequestValidator(RoutingContext ctx)
+    {
+        if (Utility.validateSubnetQuery(ctx))
+        {
+            ctx.next();
+        }
+    }
+
     public static void getDiscoveryByIdRequestValidator(RoutingContext ctx)
     {
         Utility.validateID(ctx);
@@ -54,6 +69,11 @@ public class DiscoveryRequestValidator
             return;
         }
 
+        if (!isValidPortList(ctx) || !isValidScanRate(ctx) || !isValidScheduleInterval(ctx))
+        {
+            return;
+        }
+
         var ipType = body.getString("ip_type");
 
         if (!ipType.equals("SINGLE") && !ipType.equals("RANGE") && !ipType.equals("SUBNET"))
@@ -79,26 +99,153 @@ public class DiscoveryRequestValidator
 
         Utility.validateBody(ctx);
 
-        Utility.validateInputFields(ctx, new String[]{"name", "ip", "ip_type", "port"}, false);
+        var body = ctx.body().asJsonObject();
+
+        if (body.getJsonArray("ports") == null && body.getValue("scan_rate") == null && body.getValue("schedule_interval") == null)
+        {
+            Utility.validateInputFields(ctx, new String[]{"name", "ip", "ip_type", "port"}, false);
+        }
 
         Utility.validatePort(ctx);
 
-        var ipType = ctx.body().asJsonObject().getString("ip_type");
+        if (!isValidPortList(ctx) || !isValidScanRate(ctx) || !isValidScheduleInterval(ctx))
+        {
+            return;
+        }
+
+        var ipType = body.getString("ip_type");
 
         if (ipType != null && !ipType.equals("SINGLE") && !ipType.equals("RANGE") && !ipType.equals("SUBNET"))
         {
             HttpResponse.sendFailure(ctx, 400, "Invalid IP type. Only 'SINGLE', 'RANGE' and 'SUBNET' are supported");
+            return;
         }
 
-        var ip = ctx.body().asJsonObject().getString("ip");
+        var ip = body.getString("ip");
 
-        if (ip != null && ipType != null && !IpHelpers.isValidIpAndType(ip, ipType))
+        if (ip == null && ipType == null)
         {
-            HttpResponse.sendFailure(ctx, 400, "Invalid IP address or mismatch Ip and IpType: " + ip + ", " + ipType);
+            ctx.next();
             return;
         }
 
-        ctx.next();
+        if (ip != null && ipType != null)
+        {
+            if (!IpHelpers.isValidIpAndType(ip, ipType))
+            {
+                HttpResponse.sendFailure(ctx, 400, "Invalid IP address or mismatch Ip and IpType: " + ip + ", " + ipType);
+                return;
+            }
+
+            ctx.next();
+            return;
+        }
+
+        // Invalid id Was Already Answered By validateID
+        if (ctx.response().ended())
+        {
+            return;
+        }
+
+        // Only One Of ip / ip_type Sent => The Other Comes From The Stored Profile, Both Must Still Match
+        App.discoveryModel
+                .get(new JsonArray().add(Integer.parseInt(ctx.request().getParam("id"))))
+                .onSuccess(profiles ->
+                {
+                    if (profiles.isEmpty())
+                    {
+                        HttpResponse.sendFailure(ctx, 404, "Discovery profile not found");
+                        return;
+                    }
+
+                    var profile = profiles.getJsonObject(0);
+
+                    var effectiveIp = ip != null ? ip : profile.getString("ip");
+
+                    var effectiveIpType = ipType != null ? ipType : profile.getString("ip_type");
+
+                    if (!IpHelpers.isValidIpAndType(effectiveIp, effectiveIpType))
+                    {
+                        HttpResponse.sendFailure(ctx, 400, "Invalid IP address or mismatch Ip and IpType: " + effectiveIp + ", " + effectiveIpType);
+                        return;
+                    }
+
+                    ctx.next();
+                })
+                .onFailure(err -> HttpResponse.sendFailure(ctx, 500, "Failed to validate discovery profile target", err.getMessage()));
+    }
+
+    /**
+     * Optional "ports" => extra ports scanned besides the management port
+     */
+    private static boolean isValidPortList(RoutingContext ctx)
+    {
+        var body = ctx.body().asJsonObject();
+
+        if (!body.containsKey("ports"))
+        {
+            return true;
+        }
+
+        if (!(body.getValue("ports") instanceof JsonArray ports) || ports.size() > MAX_SCANNED_PORTS)
+        {
+            HttpResponse.sendFailure(ctx, 400, "ports must be an array of at most " + MAX_SCANNED_PORTS + " port numbers");
+            return false;
+        }
+
+        for (var port : ports)
+        {
+            if (!(port instanceof Integer number) || number < 1 || number > 65535)
+            {
+                HttpResponse.sendFailure(ctx, 400, "Invalid port in ports: " + port + ", must be between 1 and 65535");
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Optional "scan_rate" => addresses or connects per second, capped by the global discovery rate
+     */
+    private static boolean isValidScanRate(RoutingContext ctx)
+    {
+        var body = ctx.body().asJsonObject();
+
+        if (!body.containsKey("scan_rate"))
+        {
+            return true;
+        }
+
+        if (!(body.getValue("scan_rate") instanceof Integer scanRate) || scanRate < 1 || scanRate > Constants.DISCOVERY_GLOBAL_RATE)
+        {
+            HttpResponse.sendFailure(ctx, 400, "scan_rate must be between 1 and " + Constants.DISCOVERY_GLOBAL_RATE + " per second");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Optional "schedule_interval" => seconds between recurring runs, 0 turns the schedule off
+     */
+    private static boolean isValidScheduleInterval(RoutingContext ctx)
+    {
+        var body = ctx.body().asJsonObject();
+
+        if (!body.containsKey("schedule_interval"))
+        {
+            return true;
+        }
+
+        if (!(body.getValue("schedule_interval") instanceof Integer interval)
+                || (interval != 0 && interval < Constants.MIN_DISCOVERY_SCHEDULE_SECONDS))
+        {
+            HttpResponse.sendFailure(ctx, 400, "schedule_interval must be 0 or at least " + Constants.MIN_DISCOVERY_SCHEDULE_SECONDS + " seconds");
+            return false;
+        }
+
+        return true;
     }
 
     public static void updateDiscoveryCredentialsRequestValidator(RoutingContext ctx)
@@ -164,6 +311,23 @@ public class DiscoveryRequestValidator
         ctx.next();
     }
 
+    public static void getDiscoveryJobRequestValidator(RoutingContext ctx)
+    {
+        var jobId = ctx.request().getParam("jobId");
+
+        try
+        {
+            UUID.fromString(jobId);
+        }
+        catch (Exception e)
+        {
+            HttpResponse.sendFailure(ctx, 400, "Invalid 'jobId' parameter. Must be a UUID");
+            return;
+        }
+
+        ctx.next();
+    }
+
     public static void deleteDiscoveryRequestValidator(RoutingContext ctx)
     {
         Utility.validateID(ctx);
@@ -9,6 +9,14 @@ import java.util.List;
 
 public class ProvisionRequestValidator
 {
+    public static void getAllProvisionsRequestValidator(RoutingContext ctx)
+    {
+        if (Utility.validateSubnetQuery(ctx))
+        {
+            ctx.next();
+        }
+    }
+
     public static void getProvisionByIdRequestValidator(RoutingContext ctx)
     {
         Utility.validateID(ctx);
@@ -109,6 +117,62 @@ public class ProvisionRequestValidator
         ctx.next();
     }
 
+    public static void updateProvisionParentRequestValidator(RoutingContext ctx)
+    {
+        Utility.validateID(ctx);
+
+        var body = ctx.body().asJsonObject();
+
+        if (body == null || !body.containsKey("parent_id"))
+        {
+            HttpResponse.sendFailure(ctx, 400, "Provide parent_id ( Provision ID Or null To Clear )");
+            return;
+        }
+
+        Integer parentId;
+
+        try
+        {
+            parentId = body.getInteger("parent_id");
+        }
+        catch (ClassCastException e)
+        {
+            HttpResponse.sendFailure(ctx, 400, "parent_id must be integer or null");
+            return;
+        }
+
+        if (parentId != null && parentId.toString().equals(ctx.request().getParam("id")))
+        {
+            HttpResponse.sendFailure(ctx, 400, "Provision can't be its own parent");
+            return;
+        }
+
+        ctx.next();
+    }
+
+    public static void updateProvisionAgentRequestValidator(RoutingContext ctx)
+    {
+        Utility.validateID(ctx);
+
+        var body = ctx.body().asJsonObject();
+
+        if (body == null || !body.containsKey("agent"))
+        {
+            HttpResponse.sendFailure(ctx, 400, "Provide agent ( Agent Name Or null To Poll Centrally )");
+            return;
+        }
+
+        var agent = body.getValue("agent");
+
+        if (agent != null && (!(agent instanceof String name) || name.isBlank() || name.length() > 64))
+        {
+            HttpResponse.sendFailure(ctx, 400, "agent must be a non-empty string of at most 64 characters or null");
+            return;
+        }
+
+        ctx.next();
+    }
+
     public static void deleteProvisionRequestValidator(RoutingContext ctx)
     {
         Utility.validateID(ctx);
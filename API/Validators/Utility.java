@@ -2,6 +2,7 @@ package org.nms.API.Validators;
 
 import io.vertx.ext.web.RoutingContext;
 import org.nms.API.Utility.HttpResponse;
+import org.nms.API.Utility.IpRange;
 
 public class Utility
 {
@@ -68,6 +69,28 @@ public class Utility
         }
     }
 
+    /**
+     * Optional "subnet" query parameter of list endpoints => CIDR such as 10.20.0.0/16, no whitespace
+     * @return false once a failure was sent
+     */
+    public static boolean validateSubnetQuery(RoutingContext ctx)
+    {
+        var subnet = ctx.request().getParam("subnet");
+
+        if (subnet == null)
+        {
+            return true;
+        }
+
+        if (subnet.chars().anyMatch(Character::isWhitespace) || IpRange.parse(subnet, "SUBNET") == null)
+        {
+            HttpResponse.sendFailure(ctx, 400, "Invalid 'subnet' parameter. Must be a CIDR such as 10.20.0.0/16");
+            return false;
+        }
+
+        return true;
+    }
+
     public static void validatePort(RoutingContext ctx)
     {
         var port = ctx.body().asJsonObject().getInteger("port");
@@ -0,0 +1,57 @@
+package org.nms.Agent;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Result batch as it is buffered on the agent's disk and sent to the central instance
+ * Layout => 8 byte batch id (big-endian) + gzip compressed JSON array of polling results
+ * Compression is CPU bound, call from a worker thread
+ */
+public record AgentBatch(long id, JsonArray results)
+{
+    private static final int ID_LENGTH = 8;
+
+    public Buffer encode() throws IOException
+    {
+        var compressed = new ByteArrayOutputStream();
+
+        try (var gzip = new GZIPOutputStream(compressed))
+        {
+            gzip.write(results.toBuffer().getBytes());
+        }
+
+        return Buffer.buffer(ID_LENGTH + compressed.size())
+                .appendLong(id)
+                .appendBytes(compressed.toByteArray());
+    }
+
+    public static AgentBatch decode(Buffer buffer) throws IOException
+    {
+        if (buffer.length() < ID_LENGTH)
+        {
+            throw new IOException("Agent Batch Too Short => " + buffer.length() + " Bytes");
+        }
+
+        var id = buffer.getLong(0);
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(buffer.getBytes(ID_LENGTH, buffer.length()))))
+        {
+            return new AgentBatch(id, new JsonArray(Buffer.buffer(gzip.readAllBytes())));
+        }
+    }
+
+    /**
+     * @return batch id without decompressing, used to acknowledge / match buffered files
+     */
+    public static long readId(Buffer buffer)
+    {
+        return buffer.getLong(0);
+    }
+}
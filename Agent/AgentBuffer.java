@@ -0,0 +1,159 @@
+package org.nms.Agent;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileProps;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.json.JsonArray;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Disk-backed FIFO of compressed result batches, one file per batch named after its id
+ * Survives agent restarts and WAN outages, oldest batches are dropped once the size cap is reached
+ */
+public class AgentBuffer
+{
+    private static final String EXTENSION = ".batch";
+
+    private final String directory;
+
+    private final long maxBytes;
+
+    private final FileSystem fileSystem = App.vertx.fileSystem();
+
+    // Ids Of Batches On Disk, Oldest First
+    private final Deque<Long> batchIds = new ArrayDeque<>();
+
+    private long sizeBytes = 0;
+
+    private long nextId = 1;
+
+    public AgentBuffer(String directory, long maxBytes)
+    {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates the directory and picks up batches left from a previous run
+     */
+    public Future<Void> open()
+    {
+        return fileSystem
+                .mkdirs(directory)
+                .compose(v -> fileSystem.readDir(directory, ".*\\" + EXTENSION))
+                .compose(files ->
+                {
+                    files.stream()
+                            .map(file -> Path.of(file).getFileName().toString())
+                            .map(name -> Long.parseLong(name.substring(0, name.length() - EXTENSION.length())))
+                            .sorted()
+                            .forEach(batchIds::addLast);
+
+                    if (!batchIds.isEmpty())
+                    {
+                        nextId = batchIds.peekLast() + 1;
+                    }
+
+                    return Future.join(batchIds.stream().map(id -> fileSystem.props(path(id))).toList());
+                })
+                .onSuccess(props ->
+                {
+                    for (var i = 0; i < props.size(); i++)
+                    {
+                        sizeBytes += props.<FileProps>resultAt(i).size();
+                    }
+
+                    if (!batchIds.isEmpty())
+                    {
+                        ConsoleLogger.info("📦 Recovered " + batchIds.size() + " Unsent Result Batches From " + directory);
+                    }
+                })
+                .mapEmpty();
+    }
+
+    /**
+     * Compresses and stores results as the newest batch
+     */
+    public Future<Void> append(JsonArray results)
+    {
+        var batch = new AgentBatch(nextId++, results);
+
+        return App.vertx
+                .executeBlocking(batch::encode, false)
+                .compose(encoded -> fileSystem.writeFile(path(batch.id()), encoded).map(encoded.length()))
+                .compose(written ->
+                {
+                    batchIds.addLast(batch.id());
+
+                    sizeBytes += written;
+
+                    return evictOverflow();
+                });
+    }
+
+    /**
+     * @return oldest batch, encoded, or null if the buffer is empty
+     */
+    public Future<Buffer> peek()
+    {
+        var id = batchIds.peekFirst();
+
+        if (id == null)
+        {
+            return Future.succeededFuture(null);
+        }
+
+        return fileSystem.readFile(path(id));
+    }
+
+    /**
+     * Removes a batch once the central instance has acknowledged it
+     */
+    public Future<Void> remove(long id)
+    {
+        if (!batchIds.remove(id))
+        {
+            return Future.succeededFuture();
+        }
+
+        return fileSystem
+                .props(path(id))
+                .compose(props ->
+                {
+                    sizeBytes -= props.size();
+
+                    return fileSystem.delete(path(id));
+                })
+                .otherwiseEmpty();
+    }
+
+    public int size()
+    {
+        return batchIds.size();
+    }
+
+    private Future<Void> evictOverflow()
+    {
+        if (sizeBytes <= maxBytes || batchIds.size() <= 1)
+        {
+            return Future.succeededFuture();
+        }
+
+        var oldest = batchIds.peekFirst();
+
+        ConsoleLogger.warn("⚠️ Agent Buffer Exceeds " + maxBytes / (1024 * 1024) + " MB, Dropping Oldest Batch " + oldest);
+
+        return remove(oldest).compose(v -> evictOverflow());
+    }
+
+    private String path(long id)
+    {
+        return Path.of(directory, String.format("%016d", id) + EXTENSION).toString();
+    }
+}
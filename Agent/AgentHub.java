@@ -0,0 +1,209 @@
+package org.nms.Agent;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+import org.nms.App;
+import org.nms.Cache.MetricGroupCacheStore;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+import org.nms.Scheduler.PollingResults;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Central side of the collector agent connection
+ * Pushes each connected agent its metric group assignment, stores the result batches it forwards and acknowledges them
+ */
+public class AgentHub
+{
+    public static final String CONNECT_PATH = "/api/v1/agent/connect";
+
+    public static final String TOKEN_HEADER = "X-Agent-Token";
+
+    private static final long ASSIGNMENT_REFRESH_MILLIS = 30_000;
+
+    // Agent Name => Connection
+    private static final ConcurrentHashMap<String, AgentConnection> agents = new ConcurrentHashMap<>();
+
+    private static long refreshTimerId = -1;
+
+    // Where Forwarded Results Go, Swapped Out By The Agent Harness
+    private static Function<List<Tuple>, Future<?>> resultSink = tuples -> App.metricResultModel.save(tuples);
+
+    private static class AgentConnection
+    {
+        final ServerWebSocket socket;
+
+        int assignmentHash = 0;
+
+        long batchesReceived = 0;
+
+        long resultsReceived = 0;
+
+        final long connectedAt = System.currentTimeMillis();
+
+        AgentConnection(ServerWebSocket socket)
+        {
+            this.socket = socket;
+        }
+    }
+
+    /**
+     * Accepts an agent's WebSocket => CONNECT_PATH?name=<agent>, authenticated by TOKEN_HEADER
+     */
+    public static void handle(ServerWebSocket socket)
+    {
+        if (!CONNECT_PATH.equals(socket.path()))
+        {
+            socket.reject(404);
+            return;
+        }
+
+        var name = queryParam(socket.query(), "name");
+
+        if (!Constants.AGENT_TOKEN.equals(socket.headers().get(TOKEN_HEADER)) || name == null || name.isBlank())
+        {
+            socket.reject(401);
+            return;
+        }
+
+        var connection = new AgentConnection(socket);
+
+        var previous = agents.put(name, connection);
+
+        // Same Agent Reconnected Before Its Old Connection Timed Out
+        if (previous != null)
+        {
+            previous.socket.close();
+        }
+
+        ConsoleLogger.info("🛰️ Collector Agent " + name + " Connected From " + socket.remoteAddress());
+
+        socket.binaryMessageHandler(message -> storeBatch(name, connection, message));
+
+        socket.closeHandler(v ->
+        {
+            agents.remove(name, connection);
+
+            ConsoleLogger.warn("🛰️ Collector Agent " + name + " Disconnected");
+        });
+
+        socket.exceptionHandler(err -> ConsoleLogger.error("❌ Collector Agent " + name + " Connection Error => " + err.getMessage()));
+
+        sendAssignment(name, connection);
+
+        if (refreshTimerId == -1)
+        {
+            refreshTimerId = App.vertx.setPeriodic(ASSIGNMENT_REFRESH_MILLIS, id -> agents.forEach(AgentHub::sendAssignment));
+        }
+    }
+
+    /**
+     * Replaces where forwarded results are stored, set before the first agent connects
+     * @param sink stores result rows (provision_profile_id, name, value, time)
+     */
+    public static void setResultSink(Function<List<Tuple>, Future<?>> sink)
+    {
+        resultSink = sink;
+    }
+
+    /**
+     * @return connected agents with their forwarding counters
+     */
+    public static JsonArray getAgents()
+    {
+        var result = new JsonArray();
+
+        agents.forEach((name, connection) -> result.add(new JsonObject()
+                .put("name", name)
+                .put("address", connection.socket.remoteAddress().toString())
+                .put("connected_seconds", (System.currentTimeMillis() - connection.connectedAt) / 1000)
+                .put("metric_groups", MetricGroupCacheStore.getAgentMetricGroups(name).size())
+                .put("batches_received", connection.batchesReceived)
+                .put("results_received", connection.resultsReceived)));
+
+        return result;
+    }
+
+    /**
+     * Sends the agent its metric groups, only when they changed since the last push
+     */
+    private static void sendAssignment(String name, AgentConnection connection)
+    {
+        var metricGroups = new JsonArray();
+
+        MetricGroupCacheStore.getAgentMetricGroups(name).forEach(metricGroups::add);
+
+        var hash = metricGroups.hashCode();
+
+        if (hash == connection.assignmentHash)
+        {
+            return;
+        }
+
+        connection.assignmentHash = hash;
+
+        connection.socket.writeTextMessage(new JsonObject()
+                .put("type", "assignment")
+                .put("metric_groups", metricGroups)
+                .encode());
+
+        ConsoleLogger.debug("📤 Sent " + metricGroups.size() + " Metric Groups To Collector Agent " + name);
+    }
+
+    /**
+     * Decompresses, saves and acknowledges a result batch, an unacknowledged batch is re-sent by the agent
+     */
+    private static void storeBatch(String name, AgentConnection connection, Buffer message)
+    {
+        App.vertx
+                .executeBlocking(() -> AgentBatch.decode(message), false)
+                .compose(batch ->
+                {
+                    var tuples = PollingResults.toTuples(batch.results());
+
+                    connection.batchesReceived++;
+
+                    connection.resultsReceived += batch.results().size();
+
+                    var saved = tuples.isEmpty()
+                            ? Future.<Void>succeededFuture()
+                            : resultSink.apply(tuples).<Void>mapEmpty();
+
+                    return saved.map(batch.id());
+                })
+                .onSuccess(batchId -> connection.socket.writeTextMessage(new JsonObject()
+                        .put("type", "ack")
+                        .put("batch_id", batchId)
+                        .encode()))
+                .onFailure(err -> ConsoleLogger.error("❌ Failed To Store Result Batch From Collector Agent " + name + " => " + err.getMessage()));
+    }
+
+    private static String queryParam(String query, String key)
+    {
+        if (query == null)
+        {
+            return null;
+        }
+
+        for (var pair : query.split("&"))
+        {
+            var separator = pair.indexOf('=');
+
+            if (separator > 0 && pair.substring(0, separator).equals(key))
+            {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+
+        return null;
+    }
+}
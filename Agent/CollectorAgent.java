@@ -0,0 +1,341 @@
+package org.nms.Agent;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.file.CopyOptions;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+import org.nms.PluginManager.CollectorPools;
+import org.nms.PluginManager.CollectorRegistry;
+import org.nms.PluginManager.PluginManager;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collector agent mode, runs close to the devices instead of the central NMS
+ * Receives its metric groups from the central instance, polls them on its own schedule, keeps results on
+ * local disk and forwards them as compressed batches whenever the connection is up
+ */
+public class CollectorAgent extends AbstractVerticle
+{
+    private static final int CHECKING_INTERVAL = 10;
+
+    private static final long FORWARD_INTERVAL_MILLIS = 5_000;
+
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 60_000;
+
+    private static final long MAX_BUFFER_BYTES = 512L * 1024 * 1024;
+
+    private static final String ASSIGNMENT_FILE = "assignment.json";
+
+    // Owner Read / Write Only, The Assignment Holds Device Credentials
+    private static final String ASSIGNMENT_FILE_PERMS = "rw-------";
+
+    private final String name;
+
+    private final String centralHost;
+
+    private final int centralPort;
+
+    private final String bufferDirectory;
+
+    private final AgentBuffer buffer;
+
+    private WebSocketClient client;
+
+    private WebSocket socket;
+
+    private long reconnectDelayMillis = 1_000;
+
+    // Metric Group Id => { metric group, remaining seconds }
+    private final Map<Integer, JsonObject> schedule = new HashMap<>();
+
+    // Batch Sent And Waiting For Its Ack, Only One At A Time So Batches Arrive In Order
+    private Long inFlightBatchId;
+
+    private boolean stopped = false;
+
+    public CollectorAgent(String name, String centralHost, int centralPort, String bufferDirectory)
+    {
+        this.name = name;
+        this.centralHost = centralHost;
+        this.centralPort = centralPort;
+        this.bufferDirectory = bufferDirectory;
+        this.buffer = new AgentBuffer(Path.of(bufferDirectory, "results").toString(), MAX_BUFFER_BYTES);
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        ConsoleLogger.info("🛰️ Starting Collector Agent " + name + " For Central NMS " + centralHost + ":" + centralPort);
+
+        CollectorPools.init();
+
+        CollectorRegistry.registerNativeCollectors();
+
+        client = vertx.createWebSocketClient();
+
+        buffer.open()
+                .compose(v -> loadAssignment())
+                .onSuccess(v ->
+                {
+                    vertx.setPeriodic(CHECKING_INTERVAL * 1000L, id -> pollDueMetricGroups());
+
+                    vertx.setPeriodic(FORWARD_INTERVAL_MILLIS, id -> forwardNextBatch());
+
+                    connect();
+
+                    startPromise.complete();
+                })
+                .onFailure(startPromise::fail);
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+
+        if (socket != null)
+        {
+            socket.close();
+        }
+
+        CollectorPools.close();
+    }
+
+    private void connect()
+    {
+        if (stopped)
+        {
+            return;
+        }
+
+        var options = new WebSocketConnectOptions()
+                .setHost(centralHost)
+                .setPort(centralPort)
+                .setURI(AgentHub.CONNECT_PATH + "?name=" + name)
+                .addHeader(AgentHub.TOKEN_HEADER, Constants.AGENT_TOKEN);
+
+        client.connect(options)
+                .onSuccess(webSocket ->
+                {
+                    ConsoleLogger.info("✅ Collector Agent " + name + " Connected To Central NMS");
+
+                    socket = webSocket;
+
+                    reconnectDelayMillis = 1_000;
+
+                    webSocket.textMessageHandler(this::handleMessage);
+
+                    webSocket.closeHandler(v ->
+                    {
+                        ConsoleLogger.warn("⚠️ Collector Agent " + name + " Lost Connection, Buffering Results Locally");
+
+                        socket = null;
+
+                        inFlightBatchId = null;
+
+                        scheduleReconnect();
+                    });
+
+                    forwardNextBatch();
+                })
+                .onFailure(err ->
+                {
+                    ConsoleLogger.warn("⚠️ Collector Agent " + name + " Can't Reach Central NMS => " + err.getMessage());
+
+                    scheduleReconnect();
+                });
+    }
+
+    private void scheduleReconnect()
+    {
+        vertx.setTimer(reconnectDelayMillis, id -> connect());
+
+        reconnectDelayMillis = Math.min(reconnectDelayMillis * 2, MAX_RECONNECT_DELAY_MILLIS);
+    }
+
+    private void handleMessage(String text)
+    {
+        var message = new JsonObject(text);
+
+        switch (message.getString("type", ""))
+        {
+            case "assignment" ->
+            {
+                var metricGroups = message.getJsonArray("metric_groups", new JsonArray());
+
+                applyAssignment(metricGroups);
+
+                // Keep Polling The Same Devices After A Restart Without The Central Instance
+                persistAssignment(metricGroups)
+                        .onFailure(err -> ConsoleLogger.error("❌ Failed To Persist Agent Assignment => " + err.getMessage()));
+            }
+
+            case "ack" ->
+            {
+                var batchId = message.getLong("batch_id");
+
+                if (batchId != null && batchId.equals(inFlightBatchId))
+                {
+                    inFlightBatchId = null;
+
+                    buffer.remove(batchId).onComplete(v -> forwardNextBatch());
+                }
+            }
+
+            default -> ConsoleLogger.warn("⚠️ Collector Agent Received Unknown Message => " + message.getString("type"));
+        }
+    }
+
+    /**
+     * Assignment carries device credentials => written to a temp file readable by the owner only, then moved over the old one
+     */
+    private Future<Void> persistAssignment(JsonArray metricGroups)
+    {
+        var fileSystem = vertx.fileSystem();
+
+        var path = Path.of(bufferDirectory, ASSIGNMENT_FILE).toString();
+
+        var temp = path + ".tmp";
+
+        return fileSystem.exists(temp)
+                .compose(exists -> exists ? fileSystem.delete(temp) : Future.succeededFuture())
+                .compose(v -> fileSystem.createFile(temp, ASSIGNMENT_FILE_PERMS))
+                .compose(v -> fileSystem.writeFile(temp, metricGroups.toBuffer()))
+                .compose(v -> fileSystem.move(temp, path, new CopyOptions().setReplaceExisting(true).setAtomicMove(true)));
+    }
+
+    private Future<Void> loadAssignment()
+    {
+        var path = Path.of(bufferDirectory, ASSIGNMENT_FILE).toString();
+
+        return vertx.fileSystem()
+                .exists(path)
+                .compose(exists -> exists ? vertx.fileSystem().readFile(path) : Future.succeededFuture(null))
+                .map(content ->
+                {
+                    if (content != null)
+                    {
+                        applyAssignment(new JsonArray(content));
+                    }
+
+                    return null;
+                });
+    }
+
+    /**
+     * Replaces the schedule, groups that stay assigned keep their remaining interval
+     */
+    private void applyAssignment(JsonArray metricGroups)
+    {
+        var previous = new HashMap<>(schedule);
+
+        schedule.clear();
+
+        for (var i = 0; i < metricGroups.size(); i++)
+        {
+            var metricGroup = metricGroups.getJsonObject(i);
+
+            var id = metricGroup.getInteger("id");
+
+            var remaining = previous.containsKey(id)
+                    ? previous.get(id).getInteger("remaining")
+                    : metricGroup.getInteger("polling_interval", 0);
+
+            schedule.put(id, new JsonObject().put("metric_group", metricGroup).put("remaining", remaining));
+        }
+
+        ConsoleLogger.info("📥 Collector Agent " + name + " Now Polls " + schedule.size() + " Metric Groups");
+    }
+
+    private void pollDueMetricGroups()
+    {
+        var due = new JsonArray();
+
+        schedule.values().forEach(entry ->
+        {
+            var metricGroup = entry.getJsonObject("metric_group");
+
+            var remaining = entry.getInteger("remaining") - CHECKING_INTERVAL;
+
+            if (remaining > 0)
+            {
+                entry.put("remaining", remaining);
+                return;
+            }
+
+            entry.put("remaining", metricGroup.getInteger("polling_interval", 0));
+
+            due.add(new JsonObject()
+                    .put("provision_profile_id", metricGroup.getInteger("provision_profile_id"))
+                    .put("name", metricGroup.getString("name"))
+                    .put("ip", metricGroup.getString("ip"))
+                    .put("port", metricGroup.getInteger("port"))
+                    .put("credentials", metricGroup.getJsonObject("credentials")));
+        });
+
+        if (due.isEmpty())
+        {
+            return;
+        }
+
+        PluginManager
+                .runPolling(due)
+                .compose(results ->
+                {
+                    var now = OffsetDateTime.now().toString();
+
+                    var successful = new JsonArray();
+
+                    for (var i = 0; i < results.size(); i++)
+                    {
+                        var result = results.getJsonObject(i);
+
+                        if (result.getBoolean("success", false))
+                        {
+                            successful.add(result.put("time", now));
+                        }
+                    }
+
+                    return successful.isEmpty() ? Future.<Void>succeededFuture() : buffer.append(successful);
+                })
+                .onSuccess(v -> forwardNextBatch())
+                .onFailure(err -> ConsoleLogger.error("❌ Collector Agent Polling Failed => " + err.getMessage()));
+    }
+
+    /**
+     * Sends the oldest buffered batch unless one is already waiting for its ack
+     */
+    private void forwardNextBatch()
+    {
+        if (socket == null || inFlightBatchId != null)
+        {
+            return;
+        }
+
+        var connection = socket;
+
+        buffer.peek().onSuccess(batch ->
+        {
+            if (batch == null || connection != socket || inFlightBatchId != null)
+            {
+                return;
+            }
+
+            inFlightBatchId = AgentBatch.readId(batch);
+
+            connection.writeBinaryMessage(batch)
+                    .onFailure(err -> inFlightBatchId = null);
+        });
+    }
+}
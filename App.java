@@ -3,7 +3,9 @@ package org.nms;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
+import org.nms.Agent.CollectorAgent;
 import org.nms.Database.Models.*;
+import org.nms.Discovery.DiscoveryScheduler;
 import org.nms.API.Server;
 import org.nms.Scheduler.Scheduler;
 
@@ -24,29 +26,31 @@ public class App
 
     public static final MetricResultModel metricResultModel = MetricResultModel.getInstance();
 
-    public static Future<Void> createUserSchemaFuture = userModel.createSchema();
-
-    public static Future<Void> createCredentialSchemaFuture = credentialModel.createSchema();
-
-    public static Future<Void> createDiscoverySchemaFuture = discoveryModel.createSchema();
-
-    public static Future<Void> createProvisionSchemaFuture = provisionModel.createSchema();
-
-    public static Future<Void> createPolledDataSchemaFuture = metricResultModel.createSchema();
-
-
     public static void main( String[] args )
     {
+        // Load Tests, Benchmarks And Simulators Run Through org.nms.LoadTest.LoadTestLauncher
+        // Agent Mode => agent <name> <central host> <central port> [buffer directory], No Database Or API
+        if (args.length >= 4 && args[0].equals("agent"))
+        {
+            var bufferDirectory = args.length > 4 ? args[4] : "agent-buffer-" + args[1];
+
+            vertx.deployVerticle(new CollectorAgent(args[1], args[2], Integer.parseInt(args[3]), bufferDirectory))
+                    .onSuccess(v -> ConsoleLogger.info("✅ Successfully Started Collector Agent " + args[1]))
+                    .onFailure(err -> ConsoleLogger.error("❌ Failed to start Collector Agent " + err.getMessage()));
+
+            return;
+        }
 
         Future.join(List.of(
-                createUserSchemaFuture,
-                createCredentialSchemaFuture,
-                createDiscoverySchemaFuture,
-                createProvisionSchemaFuture,
-                createPolledDataSchemaFuture
+                userModel.createSchema(),
+                credentialModel.createSchema(),
+                discoveryModel.createSchema(),
+                provisionModel.createSchema(),
+                metricResultModel.createSchema()
         ))
                 .compose(v -> vertx.deployVerticle(new Scheduler()))
                 .compose(v -> vertx.deployVerticle(new Server()))
+                .compose(v -> vertx.deployVerticle(new DiscoveryScheduler()))
                 .onSuccess(v -> ConsoleLogger.info("✅ Successfully Started NMS Application"))
                 .onFailure(err ->  ConsoleLogger.error("❌ Failed to start NMS Application " + err.getMessage()));
     }
@@ -0,0 +1,77 @@
+package org.nms.Cache;
+
+import org.nms.Constants;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IP => credential that last logged in to it, so discovery tries that one first
+ * Entries expire after CREDENTIAL_AFFINITY_TTL_MILLIS and are dropped when their credential profile changes
+ */
+public class CredentialAffinityCache
+{
+    private record Affinity(int credentialId, long expiresAt)
+    {
+    }
+
+    private static final ConcurrentHashMap<String, Affinity> affinities = new ConcurrentHashMap<>();
+
+    /**
+     * @return credential id or null if none is known or it expired
+     */
+    public static Integer get(String ip)
+    {
+        var affinity = affinities.get(ip);
+
+        if (affinity == null)
+        {
+            return null;
+        }
+
+        if (affinity.expiresAt() < System.currentTimeMillis())
+        {
+            affinities.remove(ip, affinity);
+
+            return null;
+        }
+
+        return affinity.credentialId();
+    }
+
+    public static void put(String ip, int credentialId)
+    {
+        // Expired Entries Of IPs Never Probed Again Would Otherwise Stay Forever
+        if (affinities.size() >= Constants.MAX_CREDENTIAL_AFFINITIES)
+        {
+            var now = System.currentTimeMillis();
+
+            affinities.values().removeIf(affinity -> affinity.expiresAt() < now);
+        }
+
+        if (affinities.size() < Constants.MAX_CREDENTIAL_AFFINITIES || affinities.containsKey(ip))
+        {
+            affinities.put(ip, new Affinity(credentialId, System.currentTimeMillis() + Constants.CREDENTIAL_AFFINITY_TTL_MILLIS));
+        }
+    }
+
+    /**
+     * The credential no longer logged in to ip
+     */
+    public static void remove(String ip, int credentialId)
+    {
+        affinities.computeIfPresent(ip, (key, affinity) -> affinity.credentialId() == credentialId ? null : affinity);
+    }
+
+    /**
+     * Credential profile was updated or deleted, what it logged in to before says nothing anymore
+     */
+    public static void invalidateCredential(int credentialId)
+    {
+        affinities.values().removeIf(affinity -> affinity.credentialId() == credentialId);
+    }
+
+    public static int size()
+    {
+        return affinities.size();
+    }
+}
@@ -5,6 +5,7 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.nms.App;
 import org.nms.ConsoleLogger;
+import org.nms.Scheduler.DeviceCircuitBreaker;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,8 +18,15 @@ public class MetricGroupCacheStore
 
     private static final ConcurrentHashMap<Integer, JsonObject> referencedMetricGroups = new ConcurrentHashMap<>();
 
+    // provision_profile_id => parent provision_profile_id
+    private static final ConcurrentHashMap<Integer, Integer> provisionParents = new ConcurrentHashMap<>();
+
     private static final String PROVISION_PROFILE_ID = "id";
 
+    private static final String PARENT_ID = "parent_id";
+
+    private static final String AGENT = "agent";
+
     private static final String POLLING_INTERVAL = "polling_interval";
 
     private static final String METRIC_GROUPS = "metric_groups";
@@ -44,7 +52,7 @@ public class MetricGroupCacheStore
     {
 
         return App.provisionModel
-                .getAll()
+                .getAllForPolling()
                 .onSuccess(provisionArray ->
                 {
 
@@ -69,6 +77,13 @@ public class MetricGroupCacheStore
         {
             var provisionObject = provisionArray.getJsonObject(i);
 
+            var parentId = provisionObject.getInteger(PARENT_ID);
+
+            if (parentId != null)
+            {
+                provisionParents.put(provisionObject.getInteger(PROVISION_PROFILE_ID), parentId);
+            }
+
             // Iterate Over All Metric Group Of Particular Provision
             for(var k = 0; k < provisionObject.getJsonArray(METRIC_GROUPS).size(); k++)
             {
@@ -83,7 +98,8 @@ public class MetricGroupCacheStore
                         .put(IP, provisionObject.getString(IP))
                         .put(NAME, metricObject.getString(NAME))
                         .put(POLLING_INTERVAL, metricObject.getInteger(POLLING_INTERVAL))
-                        .put(ENABLE, metricObject.getBoolean(ENABLE));
+                        .put(ENABLE, metricObject.getBoolean(ENABLE))
+                        .put(AGENT, provisionObject.getString(AGENT));
 
                 var key = provisionObject.getJsonArray(METRIC_GROUPS).getJsonObject(k).getInteger(METRIC_GROUPS_ID);
 
@@ -155,9 +171,89 @@ public class MetricGroupCacheStore
             }
         });
 
+        provisionParents.remove(provisionId);
+
+        // Children Lose Their Parent Through ON DELETE SET NULL
+        provisionParents.values().removeIf(provisionId::equals);
+
+        DeviceCircuitBreaker.remove(provisionId);
+
         ConsoleLogger.info("➖ Removed " + total.get() + " Entries From Cache");
     }
 
+    /**
+     * Removes Every Entry, Along With Circuit Breaker State Of The Removed Devices
+     */
+    public static void clear()
+    {
+        referencedMetricGroups.values().forEach(value -> DeviceCircuitBreaker.remove(value.getInteger(PROVISION_PROFILE_ID_IN_METRIC_GROUPS)));
+
+        referencedMetricGroups.clear();
+
+        cachedMetricGroups.clear();
+
+        provisionParents.clear();
+
+        ConsoleLogger.info("➖ Cleared Cache");
+    }
+
+    /**
+     * Updates Parent Device Of A Provision, null Clears It
+     */
+    public static void updateParent(Integer provisionId, Integer parentId)
+    {
+        if (parentId == null)
+        {
+            provisionParents.remove(provisionId);
+        }
+        else
+        {
+            provisionParents.put(provisionId, parentId);
+        }
+    }
+
+    /**
+     * Moves All Metric Groups Of A Provision To A Remote Agent, null Moves Them Back To The Central Scheduler
+     */
+    public static void updateAgent(Integer provisionId, String agent)
+    {
+        referencedMetricGroups.forEach((key, value) ->
+        {
+            if (value.getInteger(PROVISION_PROFILE_ID_IN_METRIC_GROUPS).equals(provisionId))
+            {
+                referencedMetricGroups.put(key, value.copy().put(AGENT, agent));
+
+                cachedMetricGroups.computeIfPresent(key, (ignored, cached) -> cached.copy().put(AGENT, agent));
+            }
+        });
+    }
+
+    /**
+     * @return Metric Groups Assigned To An Agent, With Their Configured Polling Intervals
+     */
+    public static List<JsonObject> getAgentMetricGroups(String agent)
+    {
+        List<JsonObject> metricGroups = new ArrayList<>();
+
+        cachedMetricGroups.forEach((key, value) ->
+        {
+            if (agent.equals(value.getString(AGENT)))
+            {
+                metricGroups.add(referencedMetricGroups.get(key).copy());
+            }
+        });
+
+        return metricGroups;
+    }
+
+    /**
+     * @return Parent Device Of A Provision, Or null If It Has None
+     */
+    public static Integer getParentId(Integer provisionId)
+    {
+        return provisionParents.get(provisionId);
+    }
+
     /**
      * Gets Metric Groups That Have Timed Out And Need Polling
      * Returns Timed-Out Metric Groups And Resets Their Polling Intervals
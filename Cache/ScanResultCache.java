@@ -0,0 +1,144 @@
+package org.nms.Cache;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import org.nms.Constants;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Probe results shared by every discovery, keyed by check type, IP and port => "ping|10.20.41.10", "tcp|10.20.41.10|22"
+ * A probe another discovery has in flight is joined instead of sent again, and a finished one is reused until
+ * SCAN_RESULT_TTL_MILLIS after it completed, so overlapping ranges cost one probe per unique target
+ * A failed probe is forgotten right away, the next caller probes again
+ */
+public class ScanResultCache
+{
+    public static final String PING = "ping";
+
+    public static final String TCP = "tcp";
+
+    /**
+     * @param owner non-null if the caller has to run the probe and complete it
+     */
+    public record Claim<T>(Future<T> future, Promise<T> owner)
+    {
+    }
+
+    private static final class Entry
+    {
+        private final Promise<Object> promise = Promise.promise();
+
+        // In Flight Until The Promise Completes
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isStale(long now)
+        {
+            return expiresAt < now;
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+
+    private static final AtomicLong joined = new AtomicLong();
+
+    private static final AtomicLong misses = new AtomicLong();
+
+    public static String key(String checkType, String ip)
+    {
+        return checkType + "|" + ip;
+    }
+
+    public static String key(String checkType, String ip, int port)
+    {
+        return checkType + "|" + ip + "|" + port;
+    }
+
+    /**
+     * @return the fresh or in-flight result, or a new entry the caller owns
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Claim<T> claim(String key)
+    {
+        var now = System.currentTimeMillis();
+
+        if (entries.size() >= Constants.MAX_SCAN_RESULTS)
+        {
+            entries.values().removeIf(entry -> entry.isStale(now));
+        }
+
+        var created = new Entry[1];
+
+        var entry = entries.compute(key, (k, existing) ->
+        {
+            if (existing != null && !existing.isStale(now))
+            {
+                return existing;
+            }
+
+            created[0] = new Entry();
+
+            return created[0];
+        });
+
+        if (entry != created[0])
+        {
+            (entry.promise.future().isComplete() ? hits : joined).incrementAndGet();
+
+            return new Claim<>((Future<T>) entry.promise.future(), null);
+        }
+
+        misses.incrementAndGet();
+
+        // Owner Completes Through This Promise, The Entry Learns Its Expiry Or Drops Out
+        Promise<T> owner = Promise.promise();
+
+        owner.future().onComplete(done ->
+        {
+            if (done.succeeded())
+            {
+                entry.expiresAt = System.currentTimeMillis() + Constants.SCAN_RESULT_TTL_MILLIS;
+            }
+            else
+            {
+                entries.remove(key, entry);
+            }
+
+            entry.promise.handle(done.map(result -> (Object) result));
+        });
+
+        return new Claim<>(owner.future(), owner);
+    }
+
+    /**
+     * @return the shared result, running probe only if nobody has a fresh or in-flight one
+     */
+    public static <T> Future<T> getOrProbe(String key, Supplier<Future<T>> probe)
+    {
+        Claim<T> claim = claim(key);
+
+        if (claim.owner() != null)
+        {
+            probe.get().onComplete(claim.owner());
+        }
+
+        return claim.future();
+    }
+
+    /**
+     * @return { entries, hits, joined, misses }, joined counts probes that waited on another discovery's request
+     */
+    public static JsonObject getStats()
+    {
+        return new JsonObject()
+                .put("entries", entries.size())
+                .put("hits", hits.get())
+                .put("joined", joined.get())
+                .put("misses", misses.get());
+    }
+}
@@ -10,5 +10,109 @@ public class Constants
 
     public static final String PLUGIN_PATH = "/home/kartikey/NMS/Backend/src/main/Plugin/nms-plugin";
 
+    // Plugin Binaries Per Collector Pool, Point Them Elsewhere To Run A Protocol-Specific Build
+    public static final String SNMP_PLUGIN_PATH = PLUGIN_PATH;
+
+    public static final String SSH_PLUGIN_PATH = PLUGIN_PATH;
+
+    public static final String WINRM_PLUGIN_PATH = PLUGIN_PATH;
+
+    // "JSON" => Request As Argument, Reply As JSON Text | "BINARY" => Length-Prefixed MessagePack Over Stdin / Stdout
+    public static final String PLUGIN_PROTOCOL = "JSON";
+
+    // SNMPv1 / v2c / v3 Polls Are Served By The Built-In SNMP Engine Instead Of The Plugin
+    public static final Boolean NATIVE_SNMP_COLLECTOR = false;
+
+    // SSH Polls Are Served In-Process Over Pooled Sessions Instead Of The Plugin (Linux Devices Only)
+    public static final Boolean NATIVE_SSH_COLLECTOR = false;
+
+    // Host Keys Of SSH Devices, Learned On First Connect (Trust On First Use) And Enforced Afterwards
+    public static final String SSH_KNOWN_HOSTS_PATH = "ssh_known_hosts";
+
+    // WinRM Polls Are Served In-Process Over Pooled Shells And Keep-Alive Connections Instead Of The Plugin
+    public static final Boolean NATIVE_WINRM_COLLECTOR = false;
+
+    // WinRM Over HTTPS Verifies Certificates Against The JVM Trust Store, Only Turn On For Self-Signed Listeners
+    public static final Boolean WINRM_TRUST_ALL_CERTIFICATES = false;
+
+    // Shared Secret Collector Agents Present In The X-Agent-Token Header When Connecting
+    public static final String AGENT_TOKEN = "agent-secret";
+
+    // Largest Range / Subnet A Discovery May Cover, A /8 Keeps A Typo From Queueing Billions Of IPv6 Addresses
+    public static final long MAX_DISCOVERY_ADDRESSES = 1L << 24;
+
+    // Discovery Pacing => Pings, Port Connects And Credential Attempts Per Second, For One Discovery Unless Its Profile
+    // Sets scan_rate, For All Discoveries Together, And For Each /24 (IPv4) Or /64 (IPv6) Subnet Across Discoveries
+    public static final int DISCOVERY_SCAN_RATE = 1_000;
+
+    public static final int DISCOVERY_GLOBAL_RATE = 5_000;
+
+    public static final int DISCOVERY_SUBNET_RATE = 500;
+
+    public static final int DISCOVERY_SUBNET_PREFIX_V4 = 24;
+
+    public static final int DISCOVERY_SUBNET_PREFIX_V6 = 64;
+
+    public static final int MAX_DISCOVERY_SUBNET_BUCKETS = 4_096;
+
+    // Discovery Ping => Attempts Per Host, Gap Between Packets And Per-Attempt Timeout, Capping A Shard At Roughly
+    // Hosts x Interval + Attempts x Timeout
+    public static final int PING_ATTEMPTS = 3;
+
+    public static final int PING_INTERVAL_MILLIS = 10;
+
+    public static final int PING_TIMEOUT_MILLIS = 500;
+
+    // Targets Per fping Process, Shards Run In Parallel Within The Ping Lane's Limit
+    public static final int PING_SHARD_SIZE = 256;
+
+    // Discovery Pipeline => Workers And Queue Bound Per Stage, Plugin Batches Amortize One Process Over Many Hosts
+    public static final int DISCOVERY_PORT_STAGE_CONCURRENCY = 256;
+
+    public static final int DISCOVERY_PORT_STAGE_CAPACITY = 1_024;
+
+    public static final int DISCOVERY_CREDENTIAL_STAGE_CONCURRENCY = 2;
+
+    public static final int DISCOVERY_CREDENTIAL_BATCH_SIZE = 32;
+
+    public static final int DISCOVERY_CREDENTIAL_STAGE_CAPACITY = 512;
+
+    // Discovery Results Are Written In Batches Of This Size
+    public static final int DISCOVERY_RESULT_BATCH_SIZE = 100;
+
+    // Ping And Port Results Shared Across Discoveries => How Long A Finished Probe Is Reused, And How Many Are Kept
+    public static final long SCAN_RESULT_TTL_MILLIS = 5 * 60 * 1_000;
+
+    public static final int MAX_SCAN_RESULTS = 1_000_000;
+
+    // Credential Affinity => How Long A Successful Login Is Trusted To Order The Next Discovery's Credential Trials, And How Many IPs Are Remembered
+    public static final long CREDENTIAL_AFFINITY_TTL_MILLIS = 24 * 60 * 60 * 1_000;
+
+    public static final int MAX_CREDENTIAL_AFFINITIES = 1_000_000;
+
+    // Recurring Discovery => Shortest Schedule, How Often Due Schedules Are Looked For, And The Cap On Backing Off Stable IPs,
+    // An IP Unchanged For n Runs Is Probed Every 2^n Intervals, Up To 2^DISCOVERY_STABLE_MAX_BACKOFF
+    public static final int MIN_DISCOVERY_SCHEDULE_SECONDS = 300;
+
+    public static final long DISCOVERY_SCHEDULE_CHECK_MILLIS = 60_000;
+
+    public static final int DISCOVERY_STABLE_MAX_BACKOFF = 3;
+
+    // Newest Discovery Changes Returned By The Changes Endpoint
+    public static final int MAX_DISCOVERY_CHANGES = 1000;
+
+    // Discovery Jobs => Running At Once, Queued Or Running Per User, Progress Push Interval And How Long Finished Jobs Stay Readable
+    public static final int MAX_DISCOVERY_JOBS = 4;
+
+    public static final int MAX_DISCOVERY_JOBS_PER_USER = 2;
+
+    // Scheduled Runs Of Profiles Created Before Owners Were Recorded Run As This User, Under Their Own Quota
+    public static final int SYSTEM_DISCOVERY_USER_ID = 0;
+
+    public static final int MAX_SYSTEM_DISCOVERY_JOBS = 2;
+
+    public static final long DISCOVERY_PROGRESS_INTERVAL_MILLIS = 1_000;
+
+    public static final long DISCOVERY_JOB_RETENTION_MILLIS = 60 * 60 * 1_000;
 
 }
@@ -94,7 +94,7 @@ public class DiscoveryModel implements BaseModel
         var CREATE_DISCOVERY_RESULTS_TABLE = """
                 CREATE TABLE IF NOT EXISTS discovery_results (
                     discovery_profile_id INTEGER REFERENCES discovery_profiles(id) ON DELETE CASCADE,
-                    ip VARCHAR(255) NOT NULL,
+                    ip INET NOT NULL,
                     credential_id INTEGER REFERENCES credential_profiles(id) ON DELETE RESTRICT,
                     message TEXT,
                     status discovery_result_status NOT NULL,
@@ -103,6 +103,180 @@ public class DiscoveryModel implements BaseModel
                 );
                 """;
 
+        // Ports Scanned Besides The Management Port, And The State Each Scanned Port Was Found In
+        var ADD_PORTS_COLUMN = """
+                ALTER TABLE discovery_profiles
+                ADD COLUMN IF NOT EXISTS ports INTEGER[] DEFAULT '{}';
+                """;
+
+        // Addresses Or Connects Per Second For This Discovery, NULL Uses The Default
+        var ADD_SCAN_RATE_COLUMN = """
+                ALTER TABLE discovery_profiles
+                ADD COLUMN IF NOT EXISTS scan_rate INTEGER;
+                """;
+
+        // User Who Created The Profile, Its Scheduled Runs Count Against That User's Job Limit And Show Up In Their Jobs
+        var ADD_CREATED_BY_COLUMN = """
+                ALTER TABLE discovery_profiles
+                ADD COLUMN IF NOT EXISTS created_by INTEGER;
+                """;
+
+        // Recurring Discovery => Seconds Between Runs (NULL For Manual Only) And When The Next Run Is Due
+        var ADD_SCHEDULE_COLUMNS = """
+                ALTER TABLE discovery_profiles
+                ADD COLUMN IF NOT EXISTS schedule_interval INTEGER,
+                ADD COLUMN IF NOT EXISTS next_run_at TIMESTAMP WITH TIME ZONE;
+                """;
+
+        // Consecutive Runs An IP's Result Stayed The Same, Stable IPs Are Probed Less Often By Recurring Runs
+        var ADD_RESULT_STABILITY_COLUMNS = """
+                ALTER TABLE discovery_results
+                ADD COLUMN IF NOT EXISTS stable_runs INTEGER NOT NULL DEFAULT 0,
+                ADD COLUMN IF NOT EXISTS last_probed_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP;
+                """;
+
+        // Only What Changed Between Runs, discovery_results Holds The Current State
+        var CREATE_DISCOVERY_CHANGES_TABLE = """
+                CREATE TABLE IF NOT EXISTS discovery_changes (
+                    id BIGSERIAL PRIMARY KEY,
+                    discovery_profile_id INTEGER REFERENCES discovery_profiles(id) ON DELETE CASCADE,
+                    ip VARCHAR(255) NOT NULL,
+                    change VARCHAR(32) NOT NULL,
+                    old_status discovery_result_status,
+                    new_status discovery_result_status NOT NULL,
+                    old_credential_id INTEGER,
+                    new_credential_id INTEGER,
+                    detected_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+                );
+                """;
+
+        var CREATE_DISCOVERY_CHANGES_INDEX = """
+                CREATE INDEX IF NOT EXISTS discovery_changes_profile_idx ON discovery_changes (discovery_profile_id, detected_at DESC);
+                """;
+
+        var ADD_RESULT_PORTS_COLUMN = """
+                ALTER TABLE discovery_results
+                ADD COLUMN IF NOT EXISTS ports JSONB;
+                """;
+
+        // Smallest Network Covering A Profile's Target => SINGLE Is A /32 Or /128, SUBNET Its Network, RANGE The Network Spanning Both Ends
+        // NULL For A Target That Isn't An Address, Such A Profile Is Left Out Of Subnet Filters Instead Of Failing The Index
+        var CREATE_IP_NETWORK_FUNCTION = """
+                CREATE OR REPLACE FUNCTION ip_network(target TEXT) RETURNS CIDR
+                LANGUAGE plpgsql IMMUTABLE STRICT PARALLEL SAFE
+                AS $$
+                BEGIN
+                    RETURN CASE
+                        WHEN POSITION('-' IN target) > 0
+                            THEN INET_MERGE(TRIM(SPLIT_PART(target, '-', 1))::INET, TRIM(SPLIT_PART(target, '-', 2))::INET)
+                        ELSE NETWORK(TRIM(target)::INET)
+                    END;
+                EXCEPTION WHEN OTHERS THEN
+                    RETURN NULL;
+                END
+                $$;
+                """;
+
+        // The Old Validator Accepted Host Names, localhost And Zone Ids Are Rewritten As Addresses,
+        // Anything Else Is Reported Until It Is Updated Through The API, Which Now Rejects Such Targets
+        var MIGRATE_PROFILE_TARGETS = """
+                DO $$
+                DECLARE
+                    candidate RECORD;
+                    normalized TEXT;
+                    unusable TEXT := '';
+                BEGIN
+                    FOR candidate IN SELECT id, name, ip FROM discovery_profiles WHERE ip_network(ip) IS NULL LOOP
+                        normalized := CASE WHEN LOWER(TRIM(candidate.ip)) = 'localhost' THEN '127.0.0.1'
+                                           ELSE REGEXP_REPLACE(candidate.ip, '%[^-/[:space:]]*', '', 'g') END;
+
+                        IF ip_network(normalized) IS NOT NULL THEN
+                            UPDATE discovery_profiles SET ip = normalized WHERE id = candidate.id;
+                        ELSE
+                            unusable := unusable || format(E'\\n    discovery profile %s (%s) => %L', candidate.id, candidate.name, candidate.ip);
+                        END IF;
+                    END LOOP;
+
+                    IF unusable <> '' THEN
+                        RAISE WARNING 'Discovery profiles whose target is not an IP address, range or subnet, they are skipped by subnet filters until updated:%', unusable;
+                    END IF;
+                END
+                $$;
+                """;
+
+        // A Profile's Target May Be A Range, So It Stays Text And Is Indexed Through ip_network
+        var CREATE_PROFILE_NETWORK_INDEX = """
+                CREATE INDEX IF NOT EXISTS discovery_profiles_network_idx ON discovery_profiles USING GIST (ip_network(ip) inet_ops);
+                """;
+
+        // Stored As inet => Every ip Is Normalized Into A Mapping First (localhost, Zone Ids), The Migration Stops
+        // With The List Of Rows That Still Aren't Addresses, Duplicates The Normalization Reveals Keep One Row Per Address,
+        // Only Then Is The Column Rewritten And Its Type Changed, So The Primary Key Never Sees A Transient Clash
+        var MIGRATE_IP_TO_INET = """
+                DO $$
+                DECLARE
+                    candidate RECORD;
+                    unusable TEXT := '';
+                BEGIN
+                    IF EXISTS (SELECT 1 FROM information_schema.columns
+                               WHERE table_name = 'discovery_results' AND column_name = 'ip' AND data_type <> 'inet') THEN
+                        CREATE TEMP TABLE discovery_result_ips (row_id TID PRIMARY KEY, discovery_profile_id INTEGER, normalized INET NOT NULL) ON COMMIT DROP;
+
+                        FOR candidate IN SELECT ctid, discovery_profile_id, ip FROM discovery_results LOOP
+                            BEGIN
+                                INSERT INTO discovery_result_ips
+                                VALUES (candidate.ctid, candidate.discovery_profile_id,
+                                        (CASE WHEN LOWER(TRIM(candidate.ip)) = 'localhost' THEN '127.0.0.1'
+                                              ELSE TRIM(SPLIT_PART(candidate.ip, '%', 1)) END)::INET);
+                            EXCEPTION WHEN OTHERS THEN
+                                unusable := unusable || format(E'\\n    discovery %s => %L', candidate.discovery_profile_id, candidate.ip);
+                            END;
+                        END LOOP;
+
+                        IF unusable <> '' THEN
+                            RAISE EXCEPTION 'discovery_results.ip holds values that are not IP addresses, correct or delete these results and restart:%', unusable;
+                        END IF;
+
+                        DELETE FROM discovery_results r
+                        USING discovery_result_ips m
+                        WHERE r.ctid = m.row_id
+                          AND EXISTS (SELECT 1 FROM discovery_result_ips keep
+                                      WHERE keep.discovery_profile_id = m.discovery_profile_id AND keep.normalized = m.normalized AND keep.row_id > m.row_id);
+
+                        UPDATE discovery_results r
+                        SET ip = ABBREV(m.normalized)
+                        FROM discovery_result_ips m
+                        WHERE r.ctid = m.row_id AND r.ip IS DISTINCT FROM ABBREV(m.normalized);
+
+                        ALTER TABLE discovery_results ALTER COLUMN ip TYPE INET USING ip::INET;
+                    END IF;
+                END
+                $$;
+                """;
+
+        // The Expression Index Of Earlier Versions Is Superseded By The Index On The Native Column
+        var DROP_RESULT_EXPRESSION_INDEX = """
+                DROP INDEX IF EXISTS discovery_results_inet_idx;
+                """;
+
+        var CREATE_RESULT_IP_INDEX = """
+                CREATE INDEX IF NOT EXISTS discovery_results_ip_idx ON discovery_results USING GIST (ip inet_ops);
+                """;
+
+        // One Row Per Unfinished Run => Where It Resumes From, And Whether It Was Paused Or Interrupted
+        var CREATE_DISCOVERY_CHECKPOINTS_TABLE = """
+                CREATE TABLE IF NOT EXISTS discovery_checkpoints (
+                    discovery_profile_id INTEGER PRIMARY KEY REFERENCES discovery_profiles(id) ON DELETE CASCADE,
+                    ip VARCHAR(255) NOT NULL,
+                    ip_type ip_type NOT NULL,
+                    shard_size INTEGER NOT NULL,
+                    shards_done BIGINT NOT NULL DEFAULT 0,
+                    status VARCHAR(16) NOT NULL DEFAULT 'RUNNING',
+                    user_id INTEGER,
+                    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+                );
+                """;
+
         return PostgresQuery
                 .execute(CREATE_IP_TYPE)
                 .compose(v -> PostgresQuery.execute(CREATE_DISCOVERY_RESULT_STATUS))
@@ -110,6 +284,21 @@ public class DiscoveryModel implements BaseModel
                 .compose(v -> PostgresQuery.execute(CREATE_DISCOVERY_PROFILES_TABLE))
                 .compose(v -> PostgresQuery.execute(CREATE_DISCOVERY_CREDENTIALS_TABLE))
                 .compose(v -> PostgresQuery.execute(CREATE_DISCOVERY_RESULTS_TABLE))
+                .compose(v -> PostgresQuery.execute(ADD_PORTS_COLUMN))
+                .compose(v -> PostgresQuery.execute(ADD_RESULT_PORTS_COLUMN))
+                .compose(v -> PostgresQuery.execute(ADD_SCAN_RATE_COLUMN))
+                .compose(v -> PostgresQuery.execute(CREATE_DISCOVERY_CHECKPOINTS_TABLE))
+                .compose(v -> PostgresQuery.execute(ADD_SCHEDULE_COLUMNS))
+                .compose(v -> PostgresQuery.execute(ADD_CREATED_BY_COLUMN))
+                .compose(v -> PostgresQuery.execute(ADD_RESULT_STABILITY_COLUMNS))
+                .compose(v -> PostgresQuery.execute(CREATE_DISCOVERY_CHANGES_TABLE))
+                .compose(v -> PostgresQuery.execute(CREATE_DISCOVERY_CHANGES_INDEX))
+                .compose(v -> PostgresQuery.execute(CREATE_IP_NETWORK_FUNCTION))
+                .compose(v -> PostgresQuery.execute(MIGRATE_PROFILE_TARGETS))
+                .compose(v -> PostgresQuery.execute(CREATE_PROFILE_NETWORK_INDEX))
+                .compose(v -> PostgresQuery.execute(DROP_RESULT_EXPRESSION_INDEX))
+                .compose(v -> PostgresQuery.execute(MIGRATE_IP_TO_INET))
+                .compose(v -> PostgresQuery.execute(CREATE_RESULT_IP_INDEX))
                 .mapEmpty();
     }
 
@@ -148,6 +337,10 @@ public class DiscoveryModel implements BaseModel
                     dp.ip_type AS ip_type,
                     dp.status AS status,
                     dp.port AS port,
+                    dp.ports AS ports,
+                    dp.scan_rate AS scan_rate,
+                    dp.schedule_interval AS schedule_interval,
+                    dp.next_run_at AS next_run_at,
                     ARRAY_AGG(
                         JSON_BUILD_OBJECT(
                             'id', cp.id,
@@ -160,7 +353,7 @@ public class DiscoveryModel implements BaseModel
                 LEFT JOIN discovery_credentials dc ON dp.id = dc.discovery_profile_id
                 LEFT JOIN credential_profiles cp ON dc.credential_id = cp.id
                 WHERE dp.id = $1
-                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port;
+                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port, dp.ports, dp.scan_rate, dp.schedule_interval, dp.next_run_at;
                 """;
 
         return PostgresQuery
@@ -185,10 +378,14 @@ public class DiscoveryModel implements BaseModel
                     dp.ip_type AS ip_type,
                     dp.status AS status,
                     dp.port AS port,
+                    dp.ports AS ports,
+                    dp.scan_rate AS scan_rate,
+                    dp.schedule_interval AS schedule_interval,
+                    dp.next_run_at AS next_run_at,
                     COALESCE(
                         json_agg(
                             json_build_object(
-                                'ip', dr.ip,
+                                'ip', HOST(dr.ip),
                                 'windows_credential', json_build_object(
                                     'id', cp.id,
                                     'name', cp.name,
@@ -197,6 +394,7 @@ public class DiscoveryModel implements BaseModel
                                     'password', cp.password
                                 ),
                                 'message', dr.message,
+                                'ports', dr.ports,
                                 'status', dr.status,
                                 'created_at', dr.created_at
                             )
@@ -207,7 +405,7 @@ public class DiscoveryModel implements BaseModel
                 LEFT JOIN discovery_results dr ON dr.discovery_profile_id = dp.id
                 LEFT JOIN credential_profiles cp ON cp.id = dr.credential_id
                 WHERE dp.id = $1
-                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port
+                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port, dp.ports, dp.scan_rate, dp.schedule_interval, dp.next_run_at
                 ORDER BY dp.id;
                 """;
 
@@ -233,6 +431,25 @@ public class DiscoveryModel implements BaseModel
     }
 
     public Future<JsonArray> getAllWithCredentials()
+    {
+        return getAllWithCredentials("", new JsonArray());
+    }
+
+    /**
+     * Separate statement from getAllWithCredentials(), so its plan always uses the ip_network index
+     * @param params subnet, only profiles whose whole target lies inside it
+     */
+    public Future<JsonArray> getAllWithCredentialsInSubnet(JsonArray params)
+    {
+        if (params == null || params.size() != 1)
+        {
+            return Future.failedFuture("Invalid parameters: Expected subnet");
+        }
+
+        return getAllWithCredentials("WHERE ip_network(dp.ip) <<= $1::TEXT::INET", params);
+    }
+
+    private Future<JsonArray> getAllWithCredentials(String filter, JsonArray params)
     {
         var GET_ALL_DISCOVERY_PROFILES_WITH_CREDENTIALS = """
                 SELECT
@@ -242,6 +459,10 @@ public class DiscoveryModel implements BaseModel
                     dp.ip_type AS id_type,
                     dp.status AS status,
                     dp.port AS port,
+                    dp.ports AS ports,
+                    dp.scan_rate AS scan_rate,
+                    dp.schedule_interval AS schedule_interval,
+                    dp.next_run_at AS next_run_at,
                     ARRAY_AGG(
                         JSON_BUILD_OBJECT(
                             'id', cp.id,
@@ -253,17 +474,37 @@ public class DiscoveryModel implements BaseModel
                 FROM discovery_profiles dp
                 LEFT JOIN discovery_credentials dc ON dp.id = dc.discovery_profile_id
                 LEFT JOIN credential_profiles cp ON dc.credential_id = cp.id
-                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port;
-                """;
+                %s
+                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port, dp.ports, dp.scan_rate, dp.schedule_interval, dp.next_run_at;
+                """.formatted(filter);
 
         return PostgresQuery
-                .execute(GET_ALL_DISCOVERY_PROFILES_WITH_CREDENTIALS)
+                .execute(GET_ALL_DISCOVERY_PROFILES_WITH_CREDENTIALS, params)
                 .map(PostgresQuery::toJsonArray)
                 .onSuccess(result -> ConsoleLogger.info("✅ All discovery profiles with credentials retrieved successfully"))
                 .onFailure(err -> ConsoleLogger.error("❌ Failed to retrieve all discovery profiles with credentials: " + getMeaningfulErrorMessage(err)));
     }
 
     public Future<JsonArray> getAllWithResults()
+    {
+        return getAllWithResults("", new JsonArray());
+    }
+
+    /**
+     * Separate statement from getAllWithResults(), so its plan always uses the discovery_results ip index
+     * @param params subnet, only results inside it and the profiles that have any
+     */
+    public Future<JsonArray> getAllWithResultsInSubnet(JsonArray params)
+    {
+        if (params == null || params.size() != 1)
+        {
+            return Future.failedFuture("Invalid parameters: Expected subnet");
+        }
+
+        return getAllWithResults("WHERE dr.ip <<= $1::TEXT::INET", params);
+    }
+
+    private Future<JsonArray> getAllWithResults(String filter, JsonArray params)
     {
         var GET_ALL_DISCOVERIES_WITH_RESULTS = """
                 SELECT
@@ -273,10 +514,14 @@ public class DiscoveryModel implements BaseModel
                     dp.ip_type,
                     dp.status AS discovery_profile_status,
                     dp.port,
+                    dp.ports,
+                    dp.scan_rate,
+                    dp.schedule_interval,
+                    dp.next_run_at,
                     COALESCE(
                         json_agg(
                             json_build_object(
-                                'ip', dr.ip,
+                                'ip', HOST(dr.ip),
                                 'windows_credential', json_build_object(
                                     'id', cp.id,
                                     'name', cp.name,
@@ -285,6 +530,7 @@ public class DiscoveryModel implements BaseModel
                                     'password', cp.password
                                 ),
                                 'message', dr.message,
+                                'ports', dr.ports,
                                 'status', dr.status,
                                 'created_at', dr.created_at
                             )
@@ -294,12 +540,13 @@ public class DiscoveryModel implements BaseModel
                 FROM discovery_profiles dp
                 LEFT JOIN discovery_results dr ON dr.discovery_profile_id = dp.id
                 LEFT JOIN credential_profiles cp ON cp.id = dr.credential_id
-                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port
+                %s
+                GROUP BY dp.id, dp.name, dp.ip, dp.ip_type, dp.status, dp.port, dp.ports, dp.scan_rate, dp.schedule_interval, dp.next_run_at
                 ORDER BY dp.id;
-                """;
+                """.formatted(filter);
 
         return PostgresQuery
-                .execute(GET_ALL_DISCOVERIES_WITH_RESULTS)
+                .execute(GET_ALL_DISCOVERIES_WITH_RESULTS, params)
                 .map(PostgresQuery::toJsonArray)
                 .onSuccess(result -> ConsoleLogger.info("✅ All discovery profiles with results retrieved successfully"))
                 .onFailure(err -> ConsoleLogger.error("❌ Failed to retrieve all discovery profiles with results: " + getMeaningfulErrorMessage(err)));
@@ -308,9 +555,9 @@ public class DiscoveryModel implements BaseModel
     @Override
     public Future<JsonArray> save(JsonArray params)
     {
-        if (params == null || params.size() != 4)
+        if (params == null || params.size() != 8)
         {
-            return Future.failedFuture("Invalid parameters: Expected name, ip, ip_type, port");
+            return Future.failedFuture("Invalid parameters: Expected name, ip, ip_type, port, ports, scan_rate, schedule_interval, created_by");
         }
 
         var CREATE_DISCOVERY_PROFILE = """
@@ -319,9 +566,14 @@ public class DiscoveryModel implements BaseModel
                     ip,
                     ip_type,
                     status,
-                    port
-                ) VALUES ($1, $2, $3, 'PENDING', $4)
-                RETURNING id, name, ip, ip_type, status, port;
+                    port,
+                    ports,
+                    scan_rate,
+                    schedule_interval,
+                    next_run_at,
+                    created_by
+                ) VALUES ($1, $2, $3, 'PENDING', $4, COALESCE($5, '{}'), $6, NULLIF($7, 0), CASE WHEN NULLIF($7, 0) IS NULL THEN NULL ELSE CURRENT_TIMESTAMP END, $8)
+                RETURNING id, name, ip, ip_type, status, port, ports, scan_rate, schedule_interval, next_run_at, created_by;
                 """;
 
         return PostgresQuery
@@ -331,6 +583,11 @@ public class DiscoveryModel implements BaseModel
                 .onFailure(err -> ConsoleLogger.error("❌ Failed to save discovery profile: " + getMeaningfulErrorMessage(err)));
     }
 
+    /**
+     * Upserts, so a rerun or resumed run overwrites the previous result of an IP
+     * An IP that became reachable, stopped being reachable or logs in with another credential is also written to discovery_changes
+     * @param params (discovery_profile_id, ip, credential_id, message, status, ports) tuples, ports is null for hosts never scanned
+     */
     public Future<JsonArray> saveResults(List<Tuple> params)
     {
         if (params == null || params.isEmpty())
@@ -338,18 +595,61 @@ public class DiscoveryModel implements BaseModel
             return Future.failedFuture("Invalid parameters: Expected non-empty tuple list");
         }
 
+        // previous Sees The Row As It Was Before The Upsert, Which Is What The Change Is Computed Against
         var CREATE_DISCOVERY_RESULTS = """
-                INSERT INTO discovery_results (
-                    discovery_profile_id,
-                    ip,
-                    credential_id,
-                    message,
-                    status
-                ) VALUES ($1, $2, $3, $4, $5)
-                ON CONFLICT (discovery_profile_id, ip) DO NOTHING
-                RETURNING *;
+                WITH previous AS (
+                    SELECT status, credential_id
+                    FROM discovery_results
+                    WHERE discovery_profile_id = $1 AND ip = $2::TEXT::INET
+                ),
+                saved AS (
+                    INSERT INTO discovery_results (
+                        discovery_profile_id,
+                        ip,
+                        credential_id,
+                        message,
+                        status,
+                        ports,
+                        last_probed_at
+                    ) VALUES ($1, $2::TEXT::INET, $3, $4, $5::discovery_result_status, $6, CURRENT_TIMESTAMP)
+                    ON CONFLICT (discovery_profile_id, ip) DO UPDATE SET
+                        credential_id = EXCLUDED.credential_id,
+                        message = EXCLUDED.message,
+                        status = EXCLUDED.status,
+                        ports = EXCLUDED.ports,
+                        stable_runs = CASE
+                            WHEN discovery_results.status = EXCLUDED.status
+                                AND discovery_results.credential_id IS NOT DISTINCT FROM EXCLUDED.credential_id
+                            THEN discovery_results.stable_runs + 1
+                            ELSE 0
+                        END,
+                        last_probed_at = CURRENT_TIMESTAMP
+                    RETURNING discovery_profile_id, HOST(ip) AS ip, credential_id, message, status, ports, stable_runs, last_probed_at, created_at
+                ),
+                changed AS (
+                    INSERT INTO discovery_changes (discovery_profile_id, ip, change, old_status, new_status, old_credential_id, new_credential_id)
+                    SELECT
+                        $1,
+                        $2::TEXT,
+                        CASE
+                            WHEN $5::discovery_result_status = 'FAIL' THEN 'DISAPPEARED'
+                            WHEN previous.status IS NULL OR previous.status = 'FAIL' THEN 'NEW'
+                            ELSE 'CREDENTIAL_CHANGED'
+                        END,
+                        previous.status,
+                        $5::discovery_result_status,
+                        previous.credential_id,
+                        $3
+                    FROM (SELECT 1) AS one
+                    LEFT JOIN previous ON TRUE
+                    WHERE ($5::discovery_result_status = 'COMPLETED' AND (previous.status IS NULL OR previous.status = 'FAIL'))
+                        OR ($5::discovery_result_status = 'FAIL' AND previous.status = 'COMPLETED')
+                        OR ($5::discovery_result_status = 'COMPLETED' AND previous.status = 'COMPLETED' AND previous.credential_id IS DISTINCT FROM $3::INTEGER)
+                )
+                SELECT * FROM saved;
                 """;
 
+
         return PostgresQuery
                 .execute(CREATE_DISCOVERY_RESULTS, params)
                 .map(PostgresQuery::toJsonArray)
@@ -357,6 +657,223 @@ public class DiscoveryModel implements BaseModel
                 .onFailure(err -> ConsoleLogger.error("❌ Failed to save discovery results: " + getMeaningfulErrorMessage(err)));
     }
 
+    /**
+     * IPs of the discovery that already have a result, from fromIp on
+     * @param params discovery_profile_id, fromIp
+     */
+    public Future<JsonArray> getResultIpsFrom(JsonArray params)
+    {
+        if (params == null || params.size() != 2)
+        {
+            return Future.failedFuture("Invalid parameters: Expected discovery profile ID, from IP");
+        }
+
+        var GET_RESULT_IPS_FROM = """
+                SELECT HOST(ip) AS ip
+                FROM discovery_results
+                WHERE discovery_profile_id = $1 AND ip >= $2::TEXT::INET;
+                """;
+
+        return PostgresQuery
+                .execute(GET_RESULT_IPS_FROM, params)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to retrieve discovery result IPs: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * IPs a recurring run may leave out => probed recently enough for how long their result has been stable,
+     * an IP unchanged for n runs is probed every schedule_interval * 2^n seconds, n capped at max_backoff
+     * @param params discovery_profile_id, schedule_interval, max_backoff
+     */
+    public Future<JsonArray> getStableResultIps(JsonArray params)
+    {
+        if (params == null || params.size() != 3)
+        {
+            return Future.failedFuture("Invalid parameters: Expected discovery profile ID, schedule_interval, max_backoff");
+        }
+
+        var GET_STABLE_RESULT_IPS = """
+                SELECT HOST(ip) AS ip
+                FROM discovery_results
+                WHERE discovery_profile_id = $1
+                    AND stable_runs > 0
+                    AND last_probed_at + MAKE_INTERVAL(secs => $2::INTEGER * POWER(2, LEAST(stable_runs, $3::INTEGER))) > CURRENT_TIMESTAMP;
+                """;
+
+        return PostgresQuery
+                .execute(GET_STABLE_RESULT_IPS, params)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to retrieve stable discovery result IPs: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * Moves every due schedule's next_run_at one interval ahead, so a due profile is claimed once
+     * @return [{ id }] of profiles due to run
+     */
+    public Future<JsonArray> claimDueSchedules()
+    {
+        var CLAIM_DUE_SCHEDULES = """
+                UPDATE discovery_profiles
+                SET next_run_at = CURRENT_TIMESTAMP + MAKE_INTERVAL(secs => schedule_interval)
+                WHERE schedule_interval IS NOT NULL AND next_run_at <= CURRENT_TIMESTAMP
+                RETURNING id, created_by;
+                """;
+
+        return PostgresQuery
+                .execute(CLAIM_DUE_SCHEDULES)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to claim due discovery schedules: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * @param params discovery_profile_id, limit
+     * @return newest changes first
+     */
+    public Future<JsonArray> getChanges(JsonArray params)
+    {
+        if (params == null || params.size() != 2)
+        {
+            return Future.failedFuture("Invalid parameters: Expected discovery profile ID, limit");
+        }
+
+        var GET_DISCOVERY_CHANGES = """
+                SELECT id, ip, change, old_status, new_status, old_credential_id, new_credential_id, detected_at
+                FROM discovery_changes
+                WHERE discovery_profile_id = $1
+                ORDER BY detected_at DESC, id DESC
+                LIMIT $2;
+                """;
+
+        return PostgresQuery
+                .execute(GET_DISCOVERY_CHANGES, params)
+                .map(PostgresQuery::toJsonArray)
+                .onSuccess(result -> ConsoleLogger.info("✅ Discovery changes retrieved successfully"))
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to retrieve discovery changes: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * Marks the discovery as running, keeping its progress only if ip, ip_type and shard_size are unchanged
+     * @param params discovery_profile_id, ip, ip_type, shard_size, user_id
+     * @return [{ shards_done, resumed }], resumed is false for a fresh run
+     */
+    public Future<JsonArray> startCheckpoint(JsonArray params)
+    {
+        if (params == null || params.size() != 5)
+        {
+            return Future.failedFuture("Invalid parameters: Expected discovery profile ID, ip, ip_type, shard_size, user_id");
+        }
+
+        var START_DISCOVERY_CHECKPOINT = """
+                WITH previous AS (
+                    SELECT shards_done
+                    FROM discovery_checkpoints
+                    WHERE discovery_profile_id = $1 AND ip = $2 AND ip_type = $3::ip_type AND shard_size = $4
+                )
+                INSERT INTO discovery_checkpoints (discovery_profile_id, ip, ip_type, shard_size, user_id)
+                VALUES ($1, $2, $3::ip_type, $4, $5)
+                ON CONFLICT (discovery_profile_id) DO UPDATE SET
+                    shards_done = COALESCE((SELECT shards_done FROM previous), 0),
+                    ip = EXCLUDED.ip,
+                    ip_type = EXCLUDED.ip_type,
+                    shard_size = EXCLUDED.shard_size,
+                    user_id = EXCLUDED.user_id,
+                    status = 'RUNNING',
+                    updated_at = CURRENT_TIMESTAMP
+                RETURNING shards_done, EXISTS (SELECT 1 FROM previous) AS resumed;
+                """;
+
+        return PostgresQuery
+                .execute(START_DISCOVERY_CHECKPOINT, params)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to start discovery checkpoint: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * @param params discovery_profile_id, shards_done
+     */
+    public Future<JsonArray> updateCheckpoint(JsonArray params)
+    {
+        if (params == null || params.size() != 2)
+        {
+            return Future.failedFuture("Invalid parameters: Expected discovery profile ID, shards_done");
+        }
+
+        var UPDATE_DISCOVERY_CHECKPOINT = """
+                UPDATE discovery_checkpoints
+                SET shards_done = GREATEST(shards_done, $2), updated_at = CURRENT_TIMESTAMP
+                WHERE discovery_profile_id = $1
+                RETURNING shards_done;
+                """;
+
+        return PostgresQuery
+                .execute(UPDATE_DISCOVERY_CHECKPOINT, params)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to update discovery checkpoint: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * @param params discovery_profile_id, status (RUNNING or PAUSED)
+     */
+    public Future<JsonArray> updateCheckpointStatus(JsonArray params)
+    {
+        if (params == null || params.size() != 2)
+        {
+            return Future.failedFuture("Invalid parameters: Expected discovery profile ID, status");
+        }
+
+        var UPDATE_DISCOVERY_CHECKPOINT_STATUS = """
+                UPDATE discovery_checkpoints
+                SET status = $2, updated_at = CURRENT_TIMESTAMP
+                WHERE discovery_profile_id = $1
+                RETURNING discovery_profile_id, status;
+                """;
+
+        return PostgresQuery
+                .execute(UPDATE_DISCOVERY_CHECKPOINT_STATUS, params)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to update discovery checkpoint status: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * @param params discovery_profile_id
+     */
+    public Future<JsonArray> deleteCheckpoint(JsonArray params)
+    {
+        if (params == null || params.size() != 1)
+        {
+            return Future.failedFuture("Invalid parameters: Expected discovery profile ID");
+        }
+
+        var DELETE_DISCOVERY_CHECKPOINT = """
+                DELETE FROM discovery_checkpoints
+                WHERE discovery_profile_id = $1
+                RETURNING discovery_profile_id;
+                """;
+
+        return PostgresQuery
+                .execute(DELETE_DISCOVERY_CHECKPOINT, params)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to delete discovery checkpoint: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * @return [{ discovery_profile_id, user_id }] of runs that were running when the process stopped
+     */
+    public Future<JsonArray> getInterruptedCheckpoints()
+    {
+        var GET_INTERRUPTED_CHECKPOINTS = """
+                SELECT discovery_profile_id, user_id
+                FROM discovery_checkpoints
+                WHERE status = 'RUNNING'
+                ORDER BY updated_at;
+                """;
+
+        return PostgresQuery
+                .execute(GET_INTERRUPTED_CHECKPOINTS)
+                .map(PostgresQuery::toJsonArray)
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to retrieve interrupted discoveries: " + getMeaningfulErrorMessage(err)));
+    }
+
     public Future<JsonArray> saveCredentials(List<Tuple> params)
     {
         if (params == null || params.isEmpty())
@@ -381,9 +898,9 @@ public class DiscoveryModel implements BaseModel
     @Override
     public Future<JsonArray> update(JsonArray params)
     {
-        if (params == null || params.size() != 5)
+        if (params == null || params.size() != 8)
         {
-            return Future.failedFuture("Invalid parameters: Expected id, name, ip, ip_type, port");
+            return Future.failedFuture("Invalid parameters: Expected id, name, ip, ip_type, port, ports, scan_rate, schedule_interval");
         }
 
         var UPDATE_DISCOVERY_PROFILE = """
@@ -392,9 +909,16 @@ public class DiscoveryModel implements BaseModel
                     name = COALESCE($2, name),
                     ip = COALESCE($3, ip),
                     ip_type = COALESCE($4, ip_type),
-                    port = COALESCE($5, port)
-                WHERE id = $1 AND status = 'PENDING'
-                RETURNING id, name, ip, ip_type, port, status;
+                    port = COALESCE($5, port),
+                    ports = COALESCE($6, ports),
+                    scan_rate = COALESCE($7, scan_rate),
+                    schedule_interval = NULLIF(COALESCE($8, schedule_interval), 0),
+                    next_run_at = CASE
+                        WHEN NULLIF(COALESCE($8, schedule_interval), 0) IS NULL THEN NULL
+                        ELSE COALESCE(next_run_at, CURRENT_TIMESTAMP)
+                    END
+                WHERE id = $1
+                RETURNING id, name, ip, ip_type, port, ports, scan_rate, schedule_interval, next_run_at, status;
                 """;
 
         return PostgresQuery
@@ -98,6 +98,9 @@ public class MetricResultModel implements BaseModel
                 .onFailure(err -> ConsoleLogger.error("❌ Failed to save metric result: " + getMeaningfulErrorMessage(err)));
     }
 
+    /**
+     * @param params (provision_profile_id, name, value, time) tuples, time is when the data was collected
+     */
     public Future<JsonArray> save(List<Tuple> params)
     {
         if (params == null || params.isEmpty())
@@ -106,8 +109,8 @@ public class MetricResultModel implements BaseModel
         }
 
         var CREATE_POLLING_RESULTS = """
-                INSERT INTO polling_results (provision_profile_id, name, value)
-                VALUES ($1, $2, $3)
+                INSERT INTO polling_results (provision_profile_id, name, value, time)
+                VALUES ($1, $2, $3, COALESCE($4, CURRENT_TIMESTAMP))
                 RETURNING id;
                 """;
 
@@ -5,6 +5,8 @@ import io.vertx.core.json.JsonArray;
 import org.nms.ConsoleLogger;
 import org.nms.Database.PostgresQuery;
 
+import java.util.List;
+
 public class ProvisionModel implements BaseModel
 {
     private ProvisionModel()
@@ -19,6 +21,29 @@ public class ProvisionModel implements BaseModel
         return instance;
     }
 
+    // Credential Fields Only The Polling Cache May See
+    private static final List<String> CREDENTIAL_SECRETS = List.of("community", "auth_password", "privacy_password");
+
+    /**
+     * @return copy of provisions with the SNMP secrets removed from their credentials, for API responses of rows the cache also needs
+     */
+    public static JsonArray withoutSecrets(JsonArray provisions)
+    {
+        var copy = provisions.copy();
+
+        for (var i = 0; i < copy.size(); i++)
+        {
+            var credentials = copy.getJsonObject(i).getJsonObject("credentials");
+
+            if (credentials != null)
+            {
+                CREDENTIAL_SECRETS.forEach(credentials::remove);
+            }
+        }
+
+        return copy;
+    }
+
     private String getMeaningfulErrorMessage(Throwable err)
     {
         String message = err.getMessage();
@@ -42,7 +67,7 @@ public class ProvisionModel implements BaseModel
         var CREATE_PROVISION_PROFILES_TABLE = """
                 CREATE TABLE IF NOT EXISTS provision_profiles (
                     id SERIAL PRIMARY KEY,
-                    ip VARCHAR(255) UNIQUE NOT NULL,
+                    ip INET UNIQUE NOT NULL,
                     port INTEGER,
                     credential_id INTEGER REFERENCES credential_profiles(id) ON DELETE RESTRICT
                 );
@@ -69,8 +94,86 @@ public class ProvisionModel implements BaseModel
                 );
                 """;
 
+        // Parent Device (Upstream Router / Switch), Children Are Not Polled While It Is Down
+        var ADD_PARENT_COLUMN = """
+                ALTER TABLE provision_profiles
+                ADD COLUMN IF NOT EXISTS parent_id INTEGER REFERENCES provision_profiles(id) ON DELETE SET NULL;
+                """;
+
+        // Remote Collector Agent Polling This Device, NULL => Polled By The Central Scheduler
+        var ADD_AGENT_COLUMN = """
+                ALTER TABLE provision_profiles
+                ADD COLUMN IF NOT EXISTS agent VARCHAR(64);
+                """;
+
+        // Stored As inet => Every ip Is Normalized Into A Mapping First (localhost, Zone Ids), The Migration Stops
+        // With The List Of Rows That Still Aren't Addresses, Duplicates The Normalization Reveals Keep The Oldest Profile,
+        // Only Then Is The Column Rewritten And Its Type Changed, So The UNIQUE Constraint Never Sees A Transient Clash
+        var MIGRATE_IP_TO_INET = """
+                DO $$
+                DECLARE
+                    candidate RECORD;
+                    unusable TEXT := '';
+                BEGIN
+                    IF EXISTS (SELECT 1 FROM information_schema.columns
+                               WHERE table_name = 'provision_profiles' AND column_name = 'ip' AND data_type <> 'inet') THEN
+                        CREATE TEMP TABLE provision_profile_ips (id INTEGER PRIMARY KEY, normalized INET NOT NULL) ON COMMIT DROP;
+
+                        FOR candidate IN SELECT id, ip FROM provision_profiles LOOP
+                            BEGIN
+                                INSERT INTO provision_profile_ips
+                                VALUES (candidate.id, (CASE WHEN LOWER(TRIM(candidate.ip)) = 'localhost' THEN '127.0.0.1'
+                                                            ELSE TRIM(SPLIT_PART(candidate.ip, '%', 1)) END)::INET);
+                            EXCEPTION WHEN OTHERS THEN
+                                unusable := unusable || format(E'\\n    provision profile %s => %L', candidate.id, candidate.ip);
+                            END;
+                        END LOOP;
+
+                        IF unusable <> '' THEN
+                            RAISE EXCEPTION 'provision_profiles.ip holds values that are not IP addresses, correct or delete these profiles and restart:%', unusable;
+                        END IF;
+
+                        FOR candidate IN
+                            SELECT m.id, p.ip, MIN(keep.id) AS kept_id FROM provision_profile_ips m
+                            JOIN provision_profiles p ON p.id = m.id
+                            JOIN provision_profile_ips keep ON keep.normalized = m.normalized AND keep.id < m.id
+                            GROUP BY m.id, p.ip
+                        LOOP
+                            RAISE WARNING 'Removing provision profile % (%), it is the same device as provision profile %', candidate.id, candidate.ip, candidate.kept_id;
+                        END LOOP;
+
+                        DELETE FROM provision_profiles p
+                        USING provision_profile_ips m
+                        WHERE p.id = m.id
+                          AND EXISTS (SELECT 1 FROM provision_profile_ips keep WHERE keep.normalized = m.normalized AND keep.id < m.id);
+
+                        UPDATE provision_profiles p
+                        SET ip = ABBREV(m.normalized)
+                        FROM provision_profile_ips m
+                        WHERE p.id = m.id AND p.ip IS DISTINCT FROM ABBREV(m.normalized);
+
+                        ALTER TABLE provision_profiles ALTER COLUMN ip TYPE INET USING ip::INET;
+                    END IF;
+                END
+                $$;
+                """;
+
+        // The Expression Index Of Earlier Versions Is Superseded By The Index On The Native Column
+        var DROP_IP_EXPRESSION_INDEX = """
+                DROP INDEX IF EXISTS provision_profiles_inet_idx;
+                """;
+
+        var CREATE_IP_INDEX = """
+                CREATE INDEX IF NOT EXISTS provision_profiles_ip_idx ON provision_profiles USING GIST (ip inet_ops);
+                """;
+
         return PostgresQuery
                 .execute(CREATE_PROVISION_PROFILES_TABLE)
+                .compose(v -> PostgresQuery.execute(DROP_IP_EXPRESSION_INDEX))
+                .compose(v -> PostgresQuery.execute(MIGRATE_IP_TO_INET))
+                .compose(v -> PostgresQuery.execute(CREATE_IP_INDEX))
+                .compose(v -> PostgresQuery.execute(ADD_PARENT_COLUMN))
+                .compose(v -> PostgresQuery.execute(ADD_AGENT_COLUMN))
                 .compose(v -> PostgresQuery.execute(CREATE_METRIC_GROUP_NAMES))
                 .compose(v -> PostgresQuery.execute(CREATE_METRIC_GROUP_TABLE))
                 .mapEmpty();
@@ -85,11 +188,14 @@ public class ProvisionModel implements BaseModel
         }
 
         var GET_PROVISION_BY_ID = """
-                SELECT p.id, p.ip, p.port,
+                SELECT p.id, HOST(p.ip) AS ip, p.port, p.parent_id, p.agent,
                        json_build_object(
                            'id', c.id,
+                           'type', c.type,
                            'username', c.username,
-                           'password', c.password
+                           'password', c.password,
+                           'auth_protocol', c.auth_protocol,
+                           'privacy_protocol', c.privacy_protocol
                        ) AS credentials,
                        json_agg(json_build_object(
                            'id', m.id,
@@ -115,12 +221,51 @@ public class ProvisionModel implements BaseModel
     @Override
     public Future<JsonArray> getAll()
     {
+        return getAll("", new JsonArray(), false);
+    }
+
+    /**
+     * Same rows as getAll() plus the SNMP secrets the collectors need, for the polling cache only, never for API responses
+     */
+    public Future<JsonArray> getAllForPolling()
+    {
+        return getAll("", new JsonArray(), true);
+    }
+
+    /**
+     * Separate statement from getAll(), so its plan always uses the ip index
+     * @param params subnet, only provision profiles inside it
+     */
+    public Future<JsonArray> getAllInSubnet(JsonArray params)
+    {
+        if (params == null || params.size() != 1)
+        {
+            return Future.failedFuture("Invalid parameters: Expected subnet");
+        }
+
+        return getAll("WHERE p.ip <<= $1::TEXT::INET", params, false);
+    }
+
+    private Future<JsonArray> getAll(String filter, JsonArray params, boolean withSecrets)
+    {
+        var SECRET_FIELDS = withSecrets
+                ? """
+                  'community', c.community,
+                  'auth_password', c.auth_password,
+                  'privacy_password', c.privacy_password,
+                  """
+                : "";
+
         var GET_ALL_PROVISIONS = """
-                SELECT p.id, p.ip, p.port,
+                SELECT p.id, HOST(p.ip) AS ip, p.port, p.parent_id, p.agent,
                        json_build_object(
                            'id', c.id,
+                           'type', c.type,
                            'username', c.username,
-                           'password', c.password
+                           'password', c.password,
+                           %s
+                           'auth_protocol', c.auth_protocol,
+                           'privacy_protocol', c.privacy_protocol
                        ) AS credentials,
                        json_agg(json_build_object(
                            'id', m.id,
@@ -132,11 +277,12 @@ public class ProvisionModel implements BaseModel
                 FROM provision_profiles p
                 LEFT JOIN credential_profiles c ON p.credential_id = c.id
                 LEFT JOIN metric_groups m ON p.id = m.provision_profile_id
+                %s
                 GROUP BY p.id, c.id;
-                """;
+                """.formatted(SECRET_FIELDS, filter);
 
         return PostgresQuery
-                .execute(GET_ALL_PROVISIONS)
+                .execute(GET_ALL_PROVISIONS, params)
                 .map(PostgresQuery::toJsonArray)
                 .onSuccess(result -> ConsoleLogger.info("✅ All provision profiles retrieved successfully"))
                 .onFailure(err -> ConsoleLogger.error("❌ Failed to retrieve all provision profiles: " + getMeaningfulErrorMessage(err)));
@@ -156,7 +302,7 @@ public class ProvisionModel implements BaseModel
                     FROM discovery_results dr
                     JOIN discovery_profiles dp ON dr.discovery_profile_id = dp.id
                     WHERE dr.discovery_profile_id = $1
-                    AND dr.ip = $2
+                    AND dr.ip = $2::TEXT::INET
                     AND dr.status = 'COMPLETED'
                 ),
                 inserted_provision AS (
@@ -173,11 +319,17 @@ public class ProvisionModel implements BaseModel
                     RETURNING *
                 )
                 SELECT
-                    p.*,
+                    p.id, HOST(p.ip) AS ip, p.port, p.credential_id, p.parent_id, p.agent,
                     json_build_object(
                         'id', c.id,
+                        'type', c.type,
                         'username', c.username,
-                        'password', c.password
+                        'password', c.password,
+                        'community', c.community,
+                        'auth_protocol', c.auth_protocol,
+                        'auth_password', c.auth_password,
+                        'privacy_protocol', c.privacy_protocol,
+                        'privacy_password', c.privacy_password
                     ) AS credentials,
                     COALESCE(
                         (SELECT json_agg(
@@ -230,6 +382,63 @@ public class ProvisionModel implements BaseModel
                 .onFailure(err -> ConsoleLogger.error("❌ Failed to update provision profile: " + getMeaningfulErrorMessage(err)));
     }
 
+    /**
+     * Sets or clears a provision's parent device, refusing parents that would form a cycle
+     * @param params provision_profile_id, parent_id (nullable)
+     */
+    public Future<JsonArray> updateParent(JsonArray params)
+    {
+        if (params == null || params.size() != 2)
+        {
+            return Future.failedFuture("Invalid parameters: Expected provision_profile_id, parent_id");
+        }
+
+        var UPDATE_PARENT = """
+                UPDATE provision_profiles
+                SET parent_id = $2
+                WHERE id = $1 AND ($2::INTEGER IS NULL OR NOT EXISTS (
+                    WITH RECURSIVE ancestors AS (
+                        SELECT id, parent_id FROM provision_profiles WHERE id = $2
+                        UNION
+                        SELECT p.id, p.parent_id FROM provision_profiles p JOIN ancestors a ON p.id = a.parent_id
+                    )
+                    SELECT 1 FROM ancestors WHERE id = $1
+                ))
+                RETURNING id, HOST(ip) AS ip, port, credential_id, parent_id, agent;
+                """;
+
+        return PostgresQuery
+                .execute(UPDATE_PARENT, params)
+                .map(PostgresQuery::toJsonArray)
+                .onSuccess(result -> ConsoleLogger.info("✅ Provision parent updated successfully"))
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to update provision parent: " + getMeaningfulErrorMessage(err)));
+    }
+
+    /**
+     * Assigns a provision to a remote collector agent or back to the central scheduler
+     * @param params provision_profile_id, agent (nullable)
+     */
+    public Future<JsonArray> updateAgent(JsonArray params)
+    {
+        if (params == null || params.size() != 2)
+        {
+            return Future.failedFuture("Invalid parameters: Expected provision_profile_id, agent");
+        }
+
+        var UPDATE_AGENT = """
+                UPDATE provision_profiles
+                SET agent = $2
+                WHERE id = $1
+                RETURNING id, HOST(ip) AS ip, port, credential_id, parent_id, agent;
+                """;
+
+        return PostgresQuery
+                .execute(UPDATE_AGENT, params)
+                .map(PostgresQuery::toJsonArray)
+                .onSuccess(result -> ConsoleLogger.info("✅ Provision agent updated successfully"))
+                .onFailure(err -> ConsoleLogger.error("❌ Failed to update provision agent: " + getMeaningfulErrorMessage(err)));
+    }
+
     @Override
     public Future<JsonArray> delete(JsonArray params)
     {
@@ -241,7 +450,7 @@ public class ProvisionModel implements BaseModel
         var DELETE_PROVISION_BY_ID = """
                 DELETE FROM provision_profiles
                 WHERE id = $1
-                RETURNING *;
+                RETURNING id, HOST(ip) AS ip, port, credential_id, parent_id, agent;
                 """;
 
         return PostgresQuery
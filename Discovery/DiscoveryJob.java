@@ -0,0 +1,169 @@
+package org.nms.Discovery;
+
+import io.vertx.core.json.JsonObject;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * One background run of a discovery profile, its state and the listeners following its progress
+ */
+public class DiscoveryJob
+{
+    public static final String QUEUED = "QUEUED";
+
+    public static final String RUNNING = "RUNNING";
+
+    public static final String COMPLETED = "COMPLETED";
+
+    public static final String FAILED = "FAILED";
+
+    // Stopped On Request, Its Checkpoint Is Kept And The Next Run Of The Discovery Resumes From It
+    public static final String PAUSED = "PAUSED";
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final JsonObject discovery;
+
+    private final int userId;
+
+    private final String createdAt = OffsetDateTime.now().toString();
+
+    private final List<Consumer<JsonObject>> listeners = new ArrayList<>();
+
+    private String status = QUEUED;
+
+    private String startedAt;
+
+    private String finishedAt;
+
+    private String error;
+
+    private DiscoveryPipeline pipeline;
+
+    /**
+     * @param discovery { id, ip, ip_type, port, ports, credentials }
+     */
+    public DiscoveryJob(JsonObject discovery, int userId)
+    {
+        this.discovery = discovery;
+        this.userId = userId;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public int getDiscoveryId()
+    {
+        return discovery.getInteger("id");
+    }
+
+    public int getUserId()
+    {
+        return userId;
+    }
+
+    public synchronized boolean isFinished()
+    {
+        return status.equals(COMPLETED) || status.equals(FAILED) || status.equals(PAUSED);
+    }
+
+    public synchronized String getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * @return pipeline of the run, built once when the job leaves the queue
+     */
+    synchronized DiscoveryPipeline start()
+    {
+        status = RUNNING;
+
+        startedAt = OffsetDateTime.now().toString();
+
+        pipeline = new DiscoveryPipeline(discovery, userId);
+
+        return pipeline;
+    }
+
+    /**
+     * @return false if the job already finished
+     */
+    synchronized boolean pause()
+    {
+        if (isFinished())
+        {
+            return false;
+        }
+
+        if (pipeline == null)
+        {
+            // Never Started, Nothing To Drain
+            status = PAUSED;
+
+            finishedAt = OffsetDateTime.now().toString();
+        }
+        else
+        {
+            pipeline.pause();
+        }
+
+        return true;
+    }
+
+    synchronized void finish(Throwable cause)
+    {
+        status = cause != null ? FAILED : pipeline.isPaused() ? PAUSED : COMPLETED;
+
+        error = cause == null ? null : cause.getMessage();
+
+        finishedAt = OffsetDateTime.now().toString();
+    }
+
+    public synchronized void addListener(Consumer<JsonObject> listener)
+    {
+        listeners.add(listener);
+    }
+
+    public synchronized void removeListener(Consumer<JsonObject> listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sends the current state to every listener
+     */
+    void publish()
+    {
+        List<Consumer<JsonObject>> current;
+
+        synchronized (this)
+        {
+            current = new ArrayList<>(listeners);
+        }
+
+        var state = toJson();
+
+        current.forEach(listener -> listener.accept(state));
+    }
+
+    public synchronized JsonObject toJson()
+    {
+        return new JsonObject()
+                .put("job_id", id)
+                .put("discovery_id", getDiscoveryId())
+                .put("user_id", userId)
+                .put("status", status)
+                .put("created_at", createdAt)
+                .put("started_at", startedAt)
+                .put("finished_at", finishedAt)
+                .put("error", error)
+                .put("progress", pipeline == null ? null : pipeline.getProgress());
+    }
+}
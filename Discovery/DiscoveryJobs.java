@@ -0,0 +1,229 @@
+package org.nms.Discovery;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Runs discoveries as background jobs
+ * At most MAX_DISCOVERY_JOBS run at once, further jobs wait in order, and a user can't have more than
+ * MAX_DISCOVERY_JOBS_PER_USER jobs queued or running, ownerless scheduled runs share MAX_SYSTEM_DISCOVERY_JOBS
+ * Finished jobs are kept for DISCOVERY_JOB_RETENTION_MILLIS so their final state can still be read
+ * Jobs live in memory, what survives a restart is each run's checkpoint, see resumeInterrupted()
+ */
+public class DiscoveryJobs
+{
+    private static final Map<String, DiscoveryJob> jobs = new LinkedHashMap<>();
+
+    private static final Queue<DiscoveryJob> queued = new ArrayDeque<>();
+
+    private static int running = 0;
+
+    /**
+     * @param discovery { id, ip, ip_type, port, ports, credentials }
+     * @return queued or started job
+     */
+    public static DiscoveryJob submit(JsonObject discovery, int userId)
+    {
+        var job = new DiscoveryJob(discovery, userId);
+
+        boolean start;
+
+        synchronized (DiscoveryJobs.class)
+        {
+            jobs.put(job.getId(), job);
+
+            start = running < Constants.MAX_DISCOVERY_JOBS;
+
+            if (start)
+            {
+                running++;
+            }
+            else
+            {
+                queued.add(job);
+            }
+        }
+
+        ConsoleLogger.info("📋 Discovery Job " + job.getId() + " For Discovery " + job.getDiscoveryId() + (start ? " Started" : " Queued"));
+
+        if (start)
+        {
+            run(job);
+        }
+
+        return job;
+    }
+
+    public static synchronized DiscoveryJob get(String jobId)
+    {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * @return jobs of the user, oldest first
+     */
+    public static synchronized JsonArray getAll(int userId)
+    {
+        var result = new JsonArray();
+
+        jobs.values().stream()
+                .filter(job -> job.getUserId() == userId)
+                .forEach(job -> result.add(job.toJson()));
+
+        return result;
+    }
+
+    /**
+     * @return queued or running job of the discovery, null if there is none
+     */
+    public static synchronized DiscoveryJob findActive(int discoveryId)
+    {
+        return jobs.values().stream()
+                .filter(job -> job.getDiscoveryId() == discoveryId && !job.isFinished())
+                .findFirst()
+                .orElse(null);
+    }
+
+    public static synchronized boolean isAtUserLimit(int userId)
+    {
+        var limit = userId == Constants.SYSTEM_DISCOVERY_USER_ID ? Constants.MAX_SYSTEM_DISCOVERY_JOBS : Constants.MAX_DISCOVERY_JOBS_PER_USER;
+
+        return jobs.values().stream()
+                .filter(job -> job.getUserId() == userId && !job.isFinished())
+                .count() >= limit;
+    }
+
+    /**
+     * Pauses a queued job right away, a running one once its in-flight IPs are saved
+     * @return false if the job already finished
+     */
+    public static boolean pause(DiscoveryJob job)
+    {
+        if (!job.pause())
+        {
+            return false;
+        }
+
+        boolean dequeued;
+
+        synchronized (DiscoveryJobs.class)
+        {
+            dequeued = queued.remove(job);
+        }
+
+        if (dequeued)
+        {
+            job.publish();
+
+            App.vertx.setTimer(Constants.DISCOVERY_JOB_RETENTION_MILLIS, id -> remove(job));
+        }
+
+        return true;
+    }
+
+    /**
+     * Requeues every discovery whose checkpoint says it was running when the process stopped
+     */
+    public static Future<Void> resumeInterrupted()
+    {
+        return App.discoveryModel.getInterruptedCheckpoints()
+                .compose(checkpoints ->
+                {
+                    List<Future<JsonArray>> discoveries = new ArrayList<>();
+
+                    checkpoints.forEach(checkpoint -> discoveries.add(App.discoveryModel.getWithCredentialsById(
+                            new JsonArray().add(((JsonObject) checkpoint).getInteger("discovery_profile_id")))));
+
+                    return Future.join(discoveries).map(loaded ->
+                    {
+                        for (var i = 0; i < discoveries.size(); i++)
+                        {
+                            var discovery = discoveries.get(i);
+
+                            if (discovery.failed() || discovery.result().isEmpty())
+                            {
+                                continue;
+                            }
+
+                            var userId = checkpoints.getJsonObject(i).getInteger("user_id", 0);
+
+                            ConsoleLogger.info("🔁 Resuming Interrupted Discovery " + discovery.result().getJsonObject(0).getInteger("id"));
+
+                            submit(discovery.result().getJsonObject(0), userId);
+                        }
+
+                        return null;
+                    });
+                })
+                .mapEmpty();
+    }
+
+    private static void run(DiscoveryJob job)
+    {
+        var pipeline = job.start();
+
+        job.publish();
+
+        // Step-1: Push Progress To Listeners While The Pipeline Runs
+        var timerId = App.vertx.setPeriodic(Constants.DISCOVERY_PROGRESS_INTERVAL_MILLIS, id -> job.publish());
+
+        // Step-2: Results Are Saved By The Pipeline As It Goes, Only The Profile's Status Is Left For The End
+        pipeline.run()
+                .compose(done -> pipeline.isPaused()
+                        ? Future.succeededFuture(new JsonArray())
+                        : App.discoveryModel.updateStatus(new JsonArray().add(job.getDiscoveryId()).add("COMPLETED")))
+                .onComplete(done ->
+                {
+                    App.vertx.cancelTimer(timerId);
+
+                    job.finish(done.cause());
+
+                    job.publish();
+
+                    if (done.failed())
+                    {
+                        ConsoleLogger.error("❌ Discovery Job " + job.getId() + " Failed => " + done.cause().getMessage());
+                    }
+
+                    App.vertx.setTimer(Constants.DISCOVERY_JOB_RETENTION_MILLIS, id -> remove(job));
+
+                    startNext();
+                });
+    }
+
+    private static void startNext()
+    {
+        DiscoveryJob next;
+
+        synchronized (DiscoveryJobs.class)
+        {
+            next = queued.poll();
+
+            if (next == null)
+            {
+                running--;
+
+                return;
+            }
+        }
+
+        // Slot Is Handed Over Directly, Running Count Stays The Same
+        run(next);
+    }
+
+    private static synchronized void remove(DiscoveryJob job)
+    {
+        jobs.remove(job.getId());
+    }
+}
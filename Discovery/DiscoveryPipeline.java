@@ -0,0 +1,657 @@
+package org.nms.Discovery;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+import org.nms.API.Utility.Fping;
+import org.nms.API.Utility.IpRange;
+import org.nms.API.Utility.IpSet;
+import org.nms.API.Utility.PortScanner;
+import org.nms.App;
+import org.nms.Cache.CredentialAffinityCache;
+import org.nms.Cache.ScanResultCache;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+import org.nms.PluginManager.PluginManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One discovery run as a streaming pipeline => ping -> port scan -> credential check
+ * Every IP moves on as soon as it passes a stage, so no stage waits for the slowest host of the one before
+ * Stages have bounded queues, a full credential stage holds port scans, which in turn hold the next ping shard
+ * Progress is checkpointed per ping shard => the checkpoint moves past a shard once every IP of it has a saved result,
+ * a paused or interrupted run resumes at the checkpoint and skips IPs beyond it that already have a result
+ * Ping and port probes go through ScanResultCache, so overlapping discoveries share them
+ */
+public class DiscoveryPipeline
+{
+    private final int id;
+
+    private final int port;
+
+    private final int userId;
+
+    private final List<Integer> ports = new ArrayList<>();
+
+    private final String ip;
+
+    private final String ipType;
+
+    private final JsonArray credentials;
+
+    private final IpRange range;
+
+    private final Context context = App.vertx.getOrCreateContext();
+
+    private final ScanPacer pacer;
+
+    private final PipelineStage<String> portStage;
+
+    private final PipelineStage<String> credentialStage;
+
+    // Port States Of Hosts Waiting For Or In Credential Checks
+    private final Map<String, JsonObject> openHosts = new HashMap<>();
+
+    private final List<Tuple> pendingResults = new ArrayList<>();
+
+    // Shard Index Of Each Pending Result, In The Same Order
+    private final List<Long> pendingShards = new ArrayList<>();
+
+    // Shard Index => IPs Of The Shard Without A Saved Result Yet
+    private final Map<Long, Long> remainingPerShard = new HashMap<>();
+
+    // IPs Left Out Of This Run => Saved Past The Checkpoint By The Interrupted Run, Or Stable Enough To Skip This Recurrence
+    // Filled Before The First Shard Starts And Only Read Afterwards, Also From fping's Threads
+    private final IpSet skip = new IpSet();
+
+    // Seconds Between Recurring Runs, null For A Manual Run Which Probes Every IP
+    private final Integer scheduleInterval;
+
+    // Shards Before This Index Are Fully Saved
+    private long shardsDone = 0;
+
+    private boolean paused = false;
+
+    private final List<Future<?>> writes = new ArrayList<>();
+
+    private long pinged = 0;
+
+    private long alive = 0;
+
+    private long portOpen = 0;
+
+    private long completed = 0;
+
+    private long failed = 0;
+
+    private long skipped = 0;
+
+    private long credentialAttempts = 0;
+
+    private long affinityHits = 0;
+
+    /**
+     * @param discovery { id, ip, ip_type, port, ports, credentials }
+     * @param userId owner of the run, kept with the checkpoint so an interrupted run resumes under the same user
+     */
+    public DiscoveryPipeline(JsonObject discovery, int userId)
+    {
+        this.id = discovery.getInteger("id");
+        this.port = discovery.getInteger("port");
+        this.userId = userId;
+        this.ip = discovery.getString("ip");
+        this.ipType = discovery.getString("ip_type");
+        this.credentials = discovery.getJsonArray("credentials");
+        this.range = IpRange.parse(ip, ipType);
+        this.pacer = new ScanPacer(discovery.getInteger("scan_rate"));
+        this.scheduleInterval = discovery.getBoolean("recurring", false) ? discovery.getInteger("schedule_interval") : null;
+
+        // Management Port First, Then The Profile's Extra Ports
+        ports.add(port);
+
+        discovery.getJsonArray("ports", new JsonArray()).forEach(extraPort ->
+        {
+            if (extraPort instanceof Integer number && !ports.contains(number))
+            {
+                ports.add(number);
+            }
+        });
+
+        this.portStage = new PipelineStage<>("Port Scan",
+                Constants.DISCOVERY_PORT_STAGE_CONCURRENCY, 1, Constants.DISCOVERY_PORT_STAGE_CAPACITY, this::scanPorts);
+
+        this.credentialStage = new PipelineStage<>("Credential Check",
+                Constants.DISCOVERY_CREDENTIAL_STAGE_CONCURRENCY, Constants.DISCOVERY_CREDENTIAL_BATCH_SIZE,
+                Constants.DISCOVERY_CREDENTIAL_STAGE_CAPACITY, this::checkCredentials);
+    }
+
+    /**
+     * @return completes once every IP of the range has a saved result, or once in-flight work drained after pause()
+     */
+    public Future<Void> run()
+    {
+        if (range == null)
+        {
+            return Future.failedFuture("Invalid IP range for discovery " + id);
+        }
+
+        // Step-1: Claim The Checkpoint, Picking Up Where A Paused Or Interrupted Run Stopped
+        return App.discoveryModel.startCheckpoint(new JsonArray()
+                        .add(id)
+                        .add(ip)
+                        .add(ipType)
+                        .add(Constants.PING_SHARD_SIZE)
+                        .add(userId))
+                .compose(this::restore)
+                .compose(remaining ->
+                {
+                    if (remaining == null)
+                    {
+                        return Future.<Void>succeededFuture();
+                    }
+
+                    ConsoleLogger.info("🔎 Discovery " + id + " Started => " + remaining + " Ports " + ports
+                            + (shardsDone > 0 ? " Resuming After " + shardsDone + " Shards" : ""));
+
+                    // Step-2: Ping Shards Start Only While The Port Stage Has Room And The Pacer Allows, Not At All Once Paused
+                    return Fping.stream(remaining, ip -> !skip.contains(ip), this::onPing, shard -> paused
+                            ? Future.failedFuture("Paused")
+                            : portStage.awaitCapacity().compose(room -> pacer.acquire(shard.first(), skipIn(shard))));
+                })
+                // Step-3: Drain Stages In Order, Later Stages Are Still Fed By Earlier Ones Until Those Finish
+                .compose(pingsDone -> portStage.close())
+                .compose(portsDone -> credentialStage.close())
+                // Step-4: Write Whatever Is Still Buffered
+                .compose(credentialsDone ->
+                {
+                    flush();
+
+                    return Future.join(new ArrayList<>(writes));
+                })
+                // Step-5: A Finished Run Needs No Checkpoint, A Paused One Waits For The Next Run
+                .compose(written -> paused
+                        ? App.discoveryModel.updateCheckpointStatus(new JsonArray().add(id).add("PAUSED"))
+                        : App.discoveryModel.deleteCheckpoint(new JsonArray().add(id)))
+                .onSuccess(done -> ConsoleLogger.info((paused ? "⏸️ Discovery " + id + " Paused => " : "✅ Discovery " + id + " Finished => ")
+                        + getProgress().encode()))
+                .mapEmpty();
+    }
+
+    /**
+     * @param checkpoint [{ shards_done, resumed }]
+     * @return part of the range still to scan, null if nothing is left
+     */
+    private Future<IpRange> restore(JsonArray checkpoint)
+    {
+        var state = checkpoint.getJsonObject(0);
+
+        shardsDone = state.getLong("shards_done", 0L);
+
+        var remaining = range.skip(shardsDone * Constants.PING_SHARD_SIZE);
+
+        if (remaining == null)
+        {
+            return Future.succeededFuture(null);
+        }
+
+        // Results Past The Checkpoint Were Saved Before Their Shard Was Complete, Those IPs Are Not Scanned Again
+        var resumed = state.getBoolean("resumed", false)
+                ? App.discoveryModel.getResultIpsFrom(new JsonArray().add(id).add(remaining.first()))
+                : Future.succeededFuture(new JsonArray());
+
+        // A Recurring Run Leaves Out IPs Whose Result Has Been Stable Long Enough
+        var stable = scheduleInterval != null
+                ? App.discoveryModel.getStableResultIps(new JsonArray().add(id).add(scheduleInterval).add(Constants.DISCOVERY_STABLE_MAX_BACKOFF))
+                : Future.succeededFuture(new JsonArray());
+
+        return Future.all(resumed, stable).map(loaded ->
+        {
+            resumed.result().forEach(result -> skip.add(((JsonObject) result).getString("ip")));
+
+            stable.result().forEach(result -> skip.add(((JsonObject) result).getString("ip")));
+
+            return remaining;
+        });
+    }
+
+    /**
+     * Stops starting ping shards, IPs already pinged still go through every stage and are saved
+     */
+    public void pause()
+    {
+        context.runOnContext(v -> paused = true);
+    }
+
+    public boolean isPaused()
+    {
+        return paused;
+    }
+
+    /**
+     * @return counters of the run so far
+     */
+    public JsonObject getProgress()
+    {
+        return new JsonObject()
+                .put("id", id)
+                .put("total", range == null ? 0 : range.size())
+                .put("pinged", pinged)
+                .put("alive", alive)
+                .put("port_open", portOpen)
+                .put("completed", completed)
+                .put("failed", failed)
+                .put("skipped", skipped)
+                .put("credential_attempts", credentialAttempts)
+                .put("affinity_hits", affinityHits)
+                .put("scan_cache", ScanResultCache.getStats())
+                .put("shards_done", shardsDone)
+                .put("pacing", pacer.getStats())
+                .put("port_stage", stageStats(portStage))
+                .put("credential_stage", stageStats(credentialStage));
+    }
+
+    private void onPing(JsonObject pingResult)
+    {
+        pinged++;
+
+        var ip = pingResult.getString("ip");
+
+        if (pingResult.getBoolean("success"))
+        {
+            alive++;
+
+            portStage.submit(ip);
+        }
+        else
+        {
+            record(ip, null, pingResult.getString("message"), "FAIL", null);
+        }
+    }
+
+    /**
+     * Counts the shard's left out IPs as saved, fping won't report them
+     * @return IPs of the shard that will be pinged
+     */
+    private long skipIn(IpRange shard)
+    {
+        if (skip.isEmpty())
+        {
+            return shard.size();
+        }
+
+        List<Long> leftOut = new ArrayList<>();
+
+        for (var address : shard)
+        {
+            if (skip.contains(address))
+            {
+                leftOut.add(shardOf(address));
+            }
+        }
+
+        skipped += leftOut.size();
+
+        markSaved(leftOut);
+
+        return shard.size() - leftOut.size();
+    }
+
+    /**
+     * Port stage worker, hands the host on only once the credential stage has queued it
+     */
+    private Future<Void> scanPorts(List<String> ips)
+    {
+        List<Future<Void>> hosts = new ArrayList<>();
+
+        for (var ip : ips)
+        {
+            hosts.add(onContext(scanHost(ip)).compose(portStates ->
+            {
+                var state = portStates.getString(String.valueOf(port));
+
+                if (!PortScanner.OPEN.equals(state))
+                {
+                    record(ip, null, "Port " + port + " is " + state + " on " + ip, "FAIL", portStates);
+
+                    return Future.succeededFuture();
+                }
+
+                portOpen++;
+
+                openHosts.put(ip, portStates);
+
+                return credentialStage.submit(ip);
+            }));
+        }
+
+        return Future.all(hosts).mapEmpty();
+    }
+
+    /**
+     * Port states of ip, each port probed only if no other discovery did recently or is doing right now
+     * @return { "22": "open", ... }
+     */
+    private Future<JsonObject> scanHost(String ip)
+    {
+        List<Future<String>> states = new ArrayList<>();
+
+        for (var scannedPort : ports)
+        {
+            // One Connect Per Port, Retries Of Filtered Ports Aren't Paced
+            states.add(ScanResultCache.getOrProbe(ScanResultCache.key(ScanResultCache.TCP, ip, scannedPort),
+                    () -> pacer.acquire(ip, 1).compose(paced -> PortScanner.probe(ip, scannedPort))));
+        }
+
+        return Future.all(states).map(done ->
+        {
+            var portStates = new JsonObject();
+
+            for (var i = 0; i < ports.size(); i++)
+            {
+                portStates.put(String.valueOf(ports.get(i)), states.get(i).result());
+            }
+
+            return portStates;
+        });
+    }
+
+    /**
+     * Credential stage worker
+     * Step-1 => hosts with a known-good credential try only that one, one plugin process per credential
+     * Step-2 => the rest, and the hosts whose known-good credential failed, try the remaining credentials in one process each
+     */
+    private Future<Void> checkCredentials(List<String> ips)
+    {
+        Map<Integer, List<String>> byKnownGood = new HashMap<>();
+
+        List<String> unknown = new ArrayList<>();
+
+        for (var ip : ips)
+        {
+            var credentialId = CredentialAffinityCache.get(ip);
+
+            if (credentialId != null && findCredential(credentialId) != null)
+            {
+                byKnownGood.computeIfAbsent(credentialId, key -> new ArrayList<>()).add(ip);
+            }
+            else
+            {
+                unknown.add(ip);
+            }
+        }
+
+        // Credential Id Tried First => Hosts It Failed On, null Holds Hosts Without One
+        Map<Integer, List<String>> retries = new HashMap<>();
+
+        if (!unknown.isEmpty())
+        {
+            retries.put(null, unknown);
+        }
+
+        List<Future<Void>> firstTries = new ArrayList<>();
+
+        byKnownGood.forEach((credentialId, group) -> firstTries.add(
+                tryCredentials(group, new JsonArray().add(findCredential(credentialId))).map(results ->
+                {
+                    for (var ip : group)
+                    {
+                        var result = results.get(ip);
+
+                        if (result != null && result.getBoolean("success", false))
+                        {
+                            affinityHits++;
+
+                            recordCredentialResult(ip, result);
+                        }
+                        else
+                        {
+                            CredentialAffinityCache.remove(ip, credentialId);
+
+                            retries.computeIfAbsent(credentialId, key -> new ArrayList<>()).add(ip);
+                        }
+                    }
+
+                    return null;
+                })));
+
+        return Future.all(firstTries).compose(firstTried ->
+        {
+            List<Future<Void>> fallbacks = new ArrayList<>();
+
+            retries.forEach((triedId, group) ->
+            {
+                var remaining = new JsonArray();
+
+                credentials.forEach(credential ->
+                {
+                    if (credential instanceof JsonObject profile && profile.getInteger("id") != null && !profile.getInteger("id").equals(triedId))
+                    {
+                        remaining.add(profile);
+                    }
+                });
+
+                fallbacks.add(tryCredentials(group, remaining).map(results ->
+                {
+                    group.forEach(ip -> recordCredentialResult(ip, results.get(ip)));
+
+                    return null;
+                }));
+            });
+
+            return Future.all(fallbacks).mapEmpty();
+        });
+    }
+
+    /**
+     * Runs the plugin for ips with exactly these credentials, paced as one attempt per credential and host
+     * @return IP => { ip, success, message, credential }, IPs the plugin didn't report on are missing
+     */
+    private Future<Map<String, JsonObject>> tryCredentials(List<String> ips, JsonArray trial)
+    {
+        Map<String, JsonObject> results = new HashMap<>();
+
+        if (trial.isEmpty())
+        {
+            return Future.succeededFuture(results);
+        }
+
+        List<Future<Void>> paced = new ArrayList<>();
+
+        ips.forEach(ip -> paced.add(pacer.acquire(ip, trial.size())));
+
+        return onContext(Future.all(paced))
+                .compose(ready -> PluginManager.runDiscovery(id, new JsonArray(new ArrayList<>(ips)), port, trial))
+                .otherwise(err -> new JsonArray())
+                .map(credentialResults ->
+                {
+                    for (var i = 0; i < credentialResults.size(); i++)
+                    {
+                        var result = credentialResults.getJsonObject(i);
+
+                        results.put(result.getString("ip"), result);
+                    }
+
+                    // The Plugin Stops At The First Credential That Logs In
+                    for (var ip : ips)
+                    {
+                        credentialAttempts += attemptsOf(results.get(ip), trial);
+                    }
+
+                    return results;
+                });
+    }
+
+    private void recordCredentialResult(String ip, JsonObject result)
+    {
+        if (!openHosts.containsKey(ip))
+        {
+            return;
+        }
+
+        if (result == null)
+        {
+            // Hosts The Plugin Didn't Report On, Because It Failed Or Timed Out
+            record(ip, null, "Credential check returned no result", "FAIL", openHosts.remove(ip));
+        }
+        else if (result.getBoolean("success", false))
+        {
+            var credentialId = result.getJsonObject("credential").getInteger("id");
+
+            CredentialAffinityCache.put(ip, credentialId);
+
+            record(ip, credentialId, result.getString("message"), "COMPLETED", openHosts.remove(ip));
+        }
+        else
+        {
+            record(ip, null, result.getString("message"), "FAIL", openHosts.remove(ip));
+        }
+    }
+
+    /**
+     * @return logins tried for one host => position of the credential that worked, otherwise every credential
+     */
+    private static long attemptsOf(JsonObject result, JsonArray trial)
+    {
+        if (result == null || !result.getBoolean("success", false))
+        {
+            return trial.size();
+        }
+
+        var credentialId = result.getJsonObject("credential").getInteger("id");
+
+        for (var i = 0; i < trial.size(); i++)
+        {
+            if (credentialId.equals(trial.getJsonObject(i).getInteger("id")))
+            {
+                return i + 1;
+            }
+        }
+
+        return trial.size();
+    }
+
+    /**
+     * @return credential of this discovery with the id, null if the discovery doesn't use it
+     */
+    private JsonObject findCredential(int credentialId)
+    {
+        for (var i = 0; i < credentials.size(); i++)
+        {
+            var credential = credentials.getJsonObject(i);
+
+            if (credential != null && Integer.valueOf(credentialId).equals(credential.getInteger("id")))
+            {
+                return credential;
+            }
+        }
+
+        return null;
+    }
+
+    private void record(String ip, Integer credentialId, String message, String status, JsonObject portStates)
+    {
+        if (status.equals("COMPLETED"))
+        {
+            completed++;
+        }
+        else
+        {
+            failed++;
+        }
+
+        pendingResults.add(Tuple.of(id, ip, credentialId, message, status, portStates));
+
+        pendingShards.add(shardOf(ip));
+
+        if (pendingResults.size() >= Constants.DISCOVERY_RESULT_BATCH_SIZE)
+        {
+            flush();
+        }
+    }
+
+    private void flush()
+    {
+        if (pendingResults.isEmpty())
+        {
+            return;
+        }
+
+        var batch = new ArrayList<>(pendingResults);
+
+        var batchShards = new ArrayList<>(pendingShards);
+
+        pendingResults.clear();
+
+        pendingShards.clear();
+
+        // A Failed Write Leaves Its Shards Incomplete, So The Checkpoint Stays Before Them
+        writes.add(onContext(App.discoveryModel.saveResults(batch))
+                .onSuccess(saved -> markSaved(batchShards))
+                .onFailure(err -> ConsoleLogger.error("❌ Failed To Save " + batch.size() + " Results Of Discovery " + id + " => " + err.getMessage())));
+    }
+
+    /**
+     * Counts saved IPs against their shards and moves the checkpoint past every leading shard that is complete
+     */
+    private void markSaved(List<Long> shards)
+    {
+        for (var shard : shards)
+        {
+            remainingPerShard.merge(shard, 1L, (remaining, one) -> remaining - one);
+        }
+
+        var before = shardsDone;
+
+        while (remainingPerShard.getOrDefault(shardsDone, -1L) == 0)
+        {
+            remainingPerShard.remove(shardsDone);
+
+            shardsDone++;
+        }
+
+        if (shardsDone > before)
+        {
+            writes.add(App.discoveryModel.updateCheckpoint(new JsonArray().add(id).add(shardsDone)));
+        }
+    }
+
+    /**
+     * @return index of the ping shard ip belongs to, its count of unsaved IPs starts at the shard's size
+     */
+    private long shardOf(String ip)
+    {
+        var shard = range.indexOf(ip) / Constants.PING_SHARD_SIZE;
+
+        remainingPerShard.computeIfAbsent(shard, index ->
+                Math.min(Constants.PING_SHARD_SIZE, range.size() - index * Constants.PING_SHARD_SIZE));
+
+        return shard;
+    }
+
+    /**
+     * PortScanner and the pacer may complete on whichever thread freed a slot or token, counters are only touched on this context
+     */
+    private <T> Future<T> onContext(Future<T> future)
+    {
+        Promise<T> promise = Promise.promise();
+
+        future.onComplete(done -> context.runOnContext(v -> promise.handle(done)));
+
+        return promise.future();
+    }
+
+    private static JsonObject stageStats(PipelineStage<?> stage)
+    {
+        return new JsonObject()
+                .put("queued", stage.getQueued())
+                .put("active", stage.getActive())
+                .put("processed", stage.getProcessed());
+    }
+}
@@ -0,0 +1,76 @@
+package org.nms.Discovery;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+
+/**
+ * Starts discoveries that have a schedule_interval whenever their next_run_at is due
+ * A profile whose previous run is still going is skipped, it is claimed again one interval later
+ * Scheduled runs are marked recurring, so the pipeline probes IPs that stayed the same less often
+ * Runs are submitted as the profile's creator and count against that user's job limit, ownerless profiles use the system quota
+ */
+public class DiscoveryScheduler extends AbstractVerticle
+{
+    private long timerId;
+
+    @Override
+    public void start()
+    {
+        ConsoleLogger.debug("✅ Starting Discovery Scheduler With Checking Interval => " + Constants.DISCOVERY_SCHEDULE_CHECK_MILLIS / 1000 + " Seconds");
+
+        timerId = vertx.setPeriodic(0, Constants.DISCOVERY_SCHEDULE_CHECK_MILLIS, id -> startDue());
+    }
+
+    @Override
+    public void stop()
+    {
+        vertx.cancelTimer(timerId);
+    }
+
+    private void startDue()
+    {
+        App.discoveryModel.claimDueSchedules().onSuccess(due ->
+        {
+            for (var i = 0; i < due.size(); i++)
+            {
+                var discoveryId = due.getJsonObject(i).getInteger("id");
+
+                var ownerId = due.getJsonObject(i).getInteger("created_by", Constants.SYSTEM_DISCOVERY_USER_ID);
+
+                // Step-1: A Run Still Going Is Left Alone
+                if (DiscoveryJobs.findActive(discoveryId) != null)
+                {
+                    ConsoleLogger.warn("⏭️ Scheduled Discovery " + discoveryId + " Skipped, Previous Run Still Active");
+
+                    continue;
+                }
+
+                // Step-2: Load With Credentials And Submit On Behalf Of The Owner, Within The Owner's Job Limit
+                App.discoveryModel.getWithCredentialsById(new JsonArray().add(discoveryId)).onSuccess(discoveries ->
+                {
+                    if (discoveries.isEmpty())
+                    {
+                        return;
+                    }
+
+                    if (DiscoveryJobs.isAtUserLimit(ownerId))
+                    {
+                        ConsoleLogger.warn("⏭️ Scheduled Discovery " + discoveryId + " Skipped, Owner " + ownerId + " Is At The Discovery Job Limit");
+
+                        return;
+                    }
+
+                    var discovery = new JsonObject().mergeIn(discoveries.getJsonObject(0)).put("recurring", true);
+
+                    ConsoleLogger.info("⏰ Starting Scheduled Discovery " + discoveryId);
+
+                    DiscoveryJobs.submit(discovery, ownerId);
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package org.nms.Discovery;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One stage of the discovery pipeline => bounded input queue drained by at most `concurrency` workers
+ * Items are handed to the worker in batches of up to `batchSize` as soon as a worker is free, a full queue makes
+ * submit() wait, which holds the upstream worker and so pushes back all the way to the ping stage
+ * Confined to the context it was created on
+ */
+public class PipelineStage<T>
+{
+    private final String name;
+
+    private final int concurrency;
+
+    private final int batchSize;
+
+    private final int capacity;
+
+    private final Function<List<T>, Future<Void>> worker;
+
+    private final Context context = App.vertx.getOrCreateContext();
+
+    private final Deque<T> queue = new ArrayDeque<>();
+
+    private final Deque<Promise<Void>> spaceWaiters = new ArrayDeque<>();
+
+    private final Promise<Void> drained = Promise.promise();
+
+    private int active = 0;
+
+    private boolean closed = false;
+
+    private long processed = 0;
+
+    /**
+     * @param worker processes a batch, a failed batch is logged and counted as processed
+     */
+    public PipelineStage(String name, int concurrency, int batchSize, int capacity, Function<List<T>, Future<Void>> worker)
+    {
+        this.name = name;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.worker = worker;
+    }
+
+    /**
+     * @return completes once the queue has room
+     */
+    public Future<Void> awaitCapacity()
+    {
+        if (queue.size() < capacity)
+        {
+            return Future.succeededFuture();
+        }
+
+        Promise<Void> promise = Promise.promise();
+
+        spaceWaiters.add(promise);
+
+        return promise.future();
+    }
+
+    /**
+     * @return completes once the item is queued, not when it is processed
+     */
+    public Future<Void> submit(T item)
+    {
+        return awaitCapacity().onSuccess(v ->
+        {
+            queue.add(item);
+
+            pump();
+        });
+    }
+
+    /**
+     * No more items will be submitted
+     * @return completes once everything queued has been processed
+     */
+    public Future<Void> close()
+    {
+        closed = true;
+
+        pump();
+
+        return drained.future();
+    }
+
+    public int getQueued()
+    {
+        return queue.size();
+    }
+
+    public int getActive()
+    {
+        return active;
+    }
+
+    public long getProcessed()
+    {
+        return processed;
+    }
+
+    private void pump()
+    {
+        while (active < concurrency && !queue.isEmpty())
+        {
+            List<T> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+
+            while (batch.size() < batchSize && !queue.isEmpty())
+            {
+                batch.add(queue.poll());
+            }
+
+            active++;
+
+            Future<Void> work;
+
+            try
+            {
+                work = worker.apply(batch);
+            }
+            catch (Exception e)
+            {
+                work = Future.failedFuture(e);
+            }
+
+            work.onComplete(done -> context.runOnContext(v ->
+            {
+                if (done.failed())
+                {
+                    ConsoleLogger.error("❌ Discovery Stage " + name + " Failed For " + batch.size() + " Items => " + done.cause().getMessage());
+                }
+
+                active--;
+
+                processed += batch.size();
+
+                pump();
+            }));
+        }
+
+        // Wake As Many Waiting Producers As There Is Room For
+        var free = capacity - queue.size();
+
+        while (free-- > 0 && !spaceWaiters.isEmpty())
+        {
+            spaceWaiters.poll().complete();
+        }
+
+        if (closed && queue.isEmpty() && active == 0)
+        {
+            drained.tryComplete();
+        }
+    }
+}
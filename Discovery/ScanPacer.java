@@ -0,0 +1,74 @@
+package org.nms.Discovery;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import org.nms.API.Utility.IpRange;
+import org.nms.API.Utility.TokenBucket;
+import org.nms.Constants;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Paces one discovery's probes => pings, port connects and credential attempts all draw from the same buckets
+ * Each probe takes tokens from its subnet's bucket, then the discovery's, then the global one shared by every discovery,
+ * the tightest limit is waited on first so the looser buckets aren't drained by probes that can't go out yet
+ */
+public class ScanPacer
+{
+    private static final TokenBucket global = new TokenBucket(Constants.DISCOVERY_GLOBAL_RATE);
+
+    // "10.20.41.0/24" => Bucket, Shared By Every Discovery Probing That Subnet
+    private static final ConcurrentHashMap<String, TokenBucket> subnets = new ConcurrentHashMap<>();
+
+    private final TokenBucket discovery;
+
+    /**
+     * @param ratePerSecond limit of this discovery, null uses DISCOVERY_SCAN_RATE
+     */
+    public ScanPacer(Integer ratePerSecond)
+    {
+        this.discovery = new TokenBucket(ratePerSecond == null ? Constants.DISCOVERY_SCAN_RATE : ratePerSecond);
+    }
+
+    /**
+     * @param ip probed address, decides the subnet bucket
+     * @param count packets or connects about to be sent
+     * @return completes once every limit allows them, may complete on another context
+     */
+    public Future<Void> acquire(String ip, long count)
+    {
+        return subnet(ip).acquire(count)
+                .compose(subnetReady -> discovery.acquire(count))
+                .compose(discoveryReady -> global.acquire(count));
+    }
+
+    /**
+     * @return configured and effective rates of this discovery and of all discoveries together
+     */
+    public JsonObject getStats()
+    {
+        return new JsonObject()
+                .put("discovery", discovery.getStats())
+                .put("global", global.getStats());
+    }
+
+    private static TokenBucket subnet(String ip)
+    {
+        // Buckets Of Subnets Nobody Is Probing Are Dropped Once There Are Too Many
+        if (subnets.size() > Constants.MAX_DISCOVERY_SUBNET_BUCKETS)
+        {
+            subnets.values().removeIf(TokenBucket::isIdle);
+        }
+
+        return subnets.computeIfAbsent(subnetOf(ip), key -> new TokenBucket(Constants.DISCOVERY_SUBNET_RATE));
+    }
+
+    private static String subnetOf(String ip)
+    {
+        var prefixLength = ip.indexOf(':') >= 0 ? Constants.DISCOVERY_SUBNET_PREFIX_V6 : Constants.DISCOVERY_SUBNET_PREFIX_V4;
+
+        var network = IpRange.subnet(ip, prefixLength);
+
+        return network == null ? ip : network.first() + "/" + prefixLength;
+    }
+}
@@ -0,0 +1,310 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+import org.nms.Agent.AgentHub;
+import org.nms.Agent.CollectorAgent;
+import org.nms.Cache.MetricGroupCacheStore;
+import org.nms.ConsoleLogger;
+import org.nms.PluginManager.CollectorRegistry;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs collector agents against an in-process AgentHub over loopback WebSockets, every device served by FakeCollector
+ * Phases => agents connected, central instance down while agents keep polling into their disk buffers, central back
+ * until every batch buffered during the outage is acknowledged, rows are counted instead of saved
+ */
+public class AgentHarness extends AbstractVerticle
+{
+    // Far Above Real Provision Ids, So The Fleet Never Collides With Provisioned Devices
+    private static final int FIRST_DEVICE_ID = 200_000_000;
+
+    // Agents Check Their Schedule Every 10 Seconds, So Every Check Polls Every Group
+    private static final int POLLING_INTERVAL = 10;
+
+    private static final long DRAIN_TIMEOUT_MILLIS = 120_000;
+
+    private final int agents;
+
+    private final int devicesPerAgent;
+
+    private final int phaseSeconds;
+
+    private final List<String> agentNames = new ArrayList<>();
+
+    private final List<String> bufferDirectories = new ArrayList<>();
+
+    private final List<String> deploymentIds = new ArrayList<>();
+
+    // provision_profile_id:name:time Of Every Stored Row, A Re-Sent Batch Shows Up As Duplicates
+    private final Set<String> storedKeys = new HashSet<>();
+
+    private long rowsStored = 0;
+
+    private long duplicates = 0;
+
+    private HttpServer central;
+
+    private int centralPort;
+
+    public AgentHarness(int agents, int devicesPerAgent, int phaseSeconds)
+    {
+        this.agents = agents;
+        this.devicesPerAgent = devicesPerAgent;
+        this.phaseSeconds = phaseSeconds;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        CollectorRegistry.register(new FakeCollector(new JsonObject()
+                .put("median_latency_ms", 20)
+                .put("p99_latency_ms", 200)
+                .put("failure_rate", 0.0)
+                .put("hang_rate", 0.0)));
+
+        AgentHub.setResultSink(this::count);
+
+        MetricGroupCacheStore.insertProvisionArray(fleet());
+
+        startCentral(0)
+                .compose(v -> deployAgents())
+                .onSuccess(v ->
+                {
+                    startPromise.complete();
+
+                    run();
+                })
+                .onFailure(startPromise::fail);
+    }
+
+    private void run()
+    {
+        ConsoleLogger.info("🏁 Agent Harness => " + agents + " Agents x " + devicesPerAgent + " Devices x " + FakeCollector.METRIC_GROUPS.size() + " Metric Groups, " + phaseSeconds + " Seconds Per Phase");
+
+        var phases = new JsonArray();
+
+        phase("connected", phases)
+                .compose(v -> central.close())
+                .compose(v -> phase("central_down", phases))
+                .compose(v -> pendingBatches())
+                .compose(pending -> startCentral(centralPort).compose(v -> drain(pending, phases)))
+                .onSuccess(v -> ConsoleLogger.info("📊 Agent Harness Finished => " + new JsonObject()
+                        .put("agents", agents)
+                        .put("devices_per_agent", devicesPerAgent)
+                        .put("metric_groups", agents * devicesPerAgent * FakeCollector.METRIC_GROUPS.size())
+                        .put("phases", phases)
+                        .put("rows_stored", rowsStored)
+                        .put("duplicate_rows", duplicates)
+                        .put("agents_connected_at_end", AgentHub.getAgents().size())
+                        .put("hub", AgentHub.getAgents())
+                        .encodePrettily()))
+                .onFailure(err -> ConsoleLogger.error("❌ Agent Harness Failed => " + err.getMessage()))
+                .onComplete(done -> Future.join(deploymentIds.stream().map(vertx::undeploy).toList())
+                        .onComplete(undeployed ->
+                        {
+                            MetricGroupCacheStore.clear();
+
+                            vertx.close();
+                        }));
+    }
+
+    /**
+     * Waits out one phase
+     * @return after phaseSeconds, with { phase, seconds, rows_stored } added to phases
+     */
+    private Future<Void> phase(String name, JsonArray phases)
+    {
+        ConsoleLogger.info("⏱️ Agent Harness Phase " + name);
+
+        var rowsBefore = rowsStored;
+
+        Promise<Void> promise = Promise.promise();
+
+        vertx.setTimer(phaseSeconds * 1000L, id ->
+        {
+            phases.add(new JsonObject()
+                    .put("phase", name)
+                    .put("seconds", phaseSeconds)
+                    .put("rows_stored", rowsStored - rowsBefore));
+
+            promise.complete();
+        });
+
+        return promise.future();
+    }
+
+    /**
+     * Waits until none of the batches buffered during the outage is left on disk
+     */
+    private Future<Void> drain(Set<String> pending, JsonArray phases)
+    {
+        var start = System.currentTimeMillis();
+
+        var rowsBefore = rowsStored;
+
+        Promise<Void> promise = Promise.promise();
+
+        vertx.setPeriodic(1_000, id -> pendingBatches().onSuccess(left ->
+        {
+            left.retainAll(pending);
+
+            var elapsed = System.currentTimeMillis() - start;
+
+            if (!left.isEmpty() && elapsed < DRAIN_TIMEOUT_MILLIS)
+            {
+                return;
+            }
+
+            vertx.cancelTimer(id);
+
+            phases.add(new JsonObject()
+                    .put("phase", "reconnected")
+                    .put("batches_buffered", pending.size())
+                    .put("batches_left", left.size())
+                    .put("drain_ms", elapsed)
+                    .put("rows_stored", rowsStored - rowsBefore));
+
+            promise.complete();
+        }));
+
+        return promise.future();
+    }
+
+    /**
+     * @return paths of batch files waiting in the agents' disk buffers
+     */
+    private Future<Set<String>> pendingBatches()
+    {
+        var listings = bufferDirectories.stream()
+                .map(directory -> vertx.fileSystem().readDir(Path.of(directory, "results").toString(), ".*\\.batch"))
+                .toList();
+
+        return Future.join(listings).transform(ignored ->
+        {
+            Set<String> pending = new HashSet<>();
+
+            listings.forEach(listing ->
+            {
+                if (listing.succeeded())
+                {
+                    pending.addAll(listing.result());
+                }
+            });
+
+            return Future.succeededFuture(pending);
+        });
+    }
+
+    private Future<Void> startCentral(int port)
+    {
+        return vertx.createHttpServer()
+                .webSocketHandler(AgentHub::handle)
+                .listen(port, "127.0.0.1")
+                .onSuccess(server ->
+                {
+                    central = server;
+
+                    centralPort = server.actualPort();
+                })
+                .mapEmpty();
+    }
+
+    private Future<Void> deployAgents()
+    {
+        Future<Void> chain = Future.succeededFuture();
+
+        for (var i = 0; i < agents; i++)
+        {
+            var name = agentNames.get(i);
+
+            chain = chain
+                    .compose(v -> vertx.fileSystem().createTempDirectory("nms-agent-harness-" + name))
+                    .compose(directory ->
+                    {
+                        bufferDirectories.add(directory);
+
+                        return vertx.deployVerticle(new CollectorAgent(name, "127.0.0.1", centralPort, directory));
+                    })
+                    .map(deploymentId ->
+                    {
+                        deploymentIds.add(deploymentId);
+
+                        return null;
+                    });
+        }
+
+        return chain;
+    }
+
+    /**
+     * @return provisions shaped like ProvisionModel rows, devicesPerAgent assigned to each agent
+     */
+    private JsonArray fleet()
+    {
+        var metricGroupNames = new ArrayList<>(FakeCollector.METRIC_GROUPS);
+
+        var fleet = new JsonArray();
+
+        for (var agent = 0; agent < agents; agent++)
+        {
+            agentNames.add("harness-agent-" + agent);
+
+            for (var device = 0; device < devicesPerAgent; device++)
+            {
+                var index = agent * devicesPerAgent + device;
+
+                var id = FIRST_DEVICE_ID + index;
+
+                var metricGroups = new JsonArray();
+
+                for (var k = 0; k < metricGroupNames.size(); k++)
+                {
+                    metricGroups.add(new JsonObject()
+                            .put("id", id * metricGroupNames.size() + k)
+                            .put("name", metricGroupNames.get(k))
+                            .put("polling_interval", POLLING_INTERVAL)
+                            .put("enable", true));
+                }
+
+                fleet.add(new JsonObject()
+                        .put("id", id)
+                        .put("ip", "10." + (index >> 16 & 0xFF) + "." + (index >> 8 & 0xFF) + "." + (index & 0xFF))
+                        .put("port", "0")
+                        .put("credentials", new JsonObject().put("type", FakeCollector.CREDENTIAL_TYPE))
+                        .put("agent", agentNames.get(agent))
+                        .put("metric_groups", metricGroups));
+            }
+        }
+
+        return fleet;
+    }
+
+    /**
+     * Result sink standing in for MetricResultModel.save
+     */
+    private Future<?> count(List<Tuple> rows)
+    {
+        for (var row : rows)
+        {
+            rowsStored++;
+
+            if (!storedKeys.add(row.getInteger(0) + ":" + row.getString(1) + ":" + row.getValue(3)))
+            {
+                duplicates++;
+            }
+        }
+
+        return Future.succeededFuture();
+    }
+}
@@ -0,0 +1,223 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+import org.nms.Discovery.PipelineStage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Compares whole-batch discovery stages with the streaming pipeline on a synthetic mixed latency range
+ * Both modes use the same PipelineStage workers and limits, the only difference is the barrier between stages
+ */
+public class DiscoveryPipelineBenchmark extends AbstractVerticle
+{
+    // Share Of Hosts With A Slow Path, The Rest Answer Within Milliseconds
+    private static final double SLOW_HOST_RATE = 0.1;
+
+    private static final double PING_LOSS_RATE = 0.2;
+
+    private static final double PORT_CLOSED_RATE = 0.2;
+
+    private static final int PING_CONCURRENCY = 64;
+
+    private final int hosts;
+
+    private final long[] pingMillis;
+
+    private final long[] portMillis;
+
+    private final long[] credentialMillis;
+
+    private final boolean[] alive;
+
+    private final boolean[] portOpen;
+
+    public DiscoveryPipelineBenchmark(int hosts)
+    {
+        this.hosts = hosts;
+        this.pingMillis = new long[hosts];
+        this.portMillis = new long[hosts];
+        this.credentialMillis = new long[hosts];
+        this.alive = new boolean[hosts];
+        this.portOpen = new boolean[hosts];
+
+        // Fixed Seed, Both Modes See The Same Range
+        var random = new Random(42);
+
+        for (var i = 0; i < hosts; i++)
+        {
+            var slow = random.nextDouble() < SLOW_HOST_RATE;
+
+            pingMillis[i] = slow ? 500 + random.nextInt(1_000) : 1 + random.nextInt(20);
+            portMillis[i] = slow ? 1_000 + random.nextInt(1_000) : 1 + random.nextInt(10);
+            credentialMillis[i] = slow ? 2_000 + random.nextInt(2_000) : 50 + random.nextInt(150);
+            alive[i] = random.nextDouble() >= PING_LOSS_RATE;
+            portOpen[i] = random.nextDouble() >= PORT_CLOSED_RATE;
+        }
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        startPromise.complete();
+
+        ConsoleLogger.info("🏁 Discovery Pipeline Benchmark => " + hosts + " Hosts, " + (int) (SLOW_HOST_RATE * 100) + "% Slow");
+
+        var report = new JsonObject().put("hosts", hosts);
+
+        timed(this::runWithBarriers)
+                .compose(barriers ->
+                {
+                    report.put("barriers", barriers);
+
+                    return timed(this::runPipelined);
+                })
+                .onSuccess(pipelined ->
+                {
+                    report.put("pipelined", pipelined);
+
+                    report.put("speedup", Math.round(report.getJsonObject("barriers").getLong("elapsed_ms") * 100.0
+                            / Math.max(1, pipelined.getLong("elapsed_ms"))) / 100.0);
+
+                    ConsoleLogger.info("📊 Discovery Pipeline Benchmark Finished => " + report.encodePrettily());
+                })
+                .onFailure(err -> ConsoleLogger.error("❌ Discovery Pipeline Benchmark Failed => " + err.getMessage()))
+                .onComplete(done -> vertx.close());
+    }
+
+    /**
+     * Previous shape => every stage waits for the slowest host of the one before
+     */
+    private Future<Long> runWithBarriers()
+    {
+        List<Integer> pinged = new ArrayList<>();
+
+        List<Integer> scanned = new ArrayList<>();
+
+        var completed = new long[1];
+
+        var pingStage = stage("Ping", PING_CONCURRENCY, 1, hosts, pingMillis, host -> alive[host], host ->
+        {
+            pinged.add(host);
+
+            return Future.succeededFuture();
+        });
+
+        var portStage = stage("Port Scan", Constants.DISCOVERY_PORT_STAGE_CONCURRENCY, 1, hosts, portMillis, host -> portOpen[host], host ->
+        {
+            scanned.add(host);
+
+            return Future.succeededFuture();
+        });
+
+        var credentialStage = stage("Credential Check", Constants.DISCOVERY_CREDENTIAL_STAGE_CONCURRENCY,
+                Constants.DISCOVERY_CREDENTIAL_BATCH_SIZE, hosts, credentialMillis, host -> true, host ->
+                {
+                    completed[0]++;
+
+                    return Future.succeededFuture();
+                });
+
+        for (var i = 0; i < hosts; i++)
+        {
+            pingStage.submit(i);
+        }
+
+        return pingStage.close()
+                .compose(pings ->
+                {
+                    pinged.forEach(portStage::submit);
+
+                    return portStage.close();
+                })
+                .compose(ports ->
+                {
+                    scanned.forEach(credentialStage::submit);
+
+                    return credentialStage.close();
+                })
+                .map(done -> completed[0]);
+    }
+
+    /**
+     * Streaming shape => a host moves on the moment it passes a stage
+     */
+    private Future<Long> runPipelined()
+    {
+        var completed = new long[1];
+
+        var credentialStage = stage("Credential Check", Constants.DISCOVERY_CREDENTIAL_STAGE_CONCURRENCY,
+                Constants.DISCOVERY_CREDENTIAL_BATCH_SIZE, Constants.DISCOVERY_CREDENTIAL_STAGE_CAPACITY, credentialMillis, host -> true, host ->
+                {
+                    completed[0]++;
+
+                    return Future.succeededFuture();
+                });
+
+        var portStage = stage("Port Scan", Constants.DISCOVERY_PORT_STAGE_CONCURRENCY, 1,
+                Constants.DISCOVERY_PORT_STAGE_CAPACITY, portMillis, host -> portOpen[host], credentialStage::submit);
+
+        var pingStage = stage("Ping", PING_CONCURRENCY, 1, Constants.PING_SHARD_SIZE, pingMillis, host -> alive[host], portStage::submit);
+
+        var feed = Future.<Void>succeededFuture();
+
+        for (var i = 0; i < hosts; i++)
+        {
+            var host = i;
+
+            feed = feed.compose(fed -> pingStage.submit(host));
+        }
+
+        return feed
+                .compose(fed -> pingStage.close())
+                .compose(pings -> portStage.close())
+                .compose(ports -> credentialStage.close())
+                .map(done -> completed[0]);
+    }
+
+    /**
+     * Stage whose worker sleeps for the slowest host of its batch, then hands passing hosts to next
+     */
+    private PipelineStage<Integer> stage(String name, int concurrency, int batchSize, int capacity, long[] latencies,
+                                         Function<Integer, Boolean> passes, Function<Integer, Future<Void>> next)
+    {
+        return new PipelineStage<>(name, concurrency, batchSize, capacity, batch ->
+        {
+            var delay = batch.stream().mapToLong(host -> latencies[host]).max().orElse(1);
+
+            Promise<Void> slept = Promise.promise();
+
+            vertx.setTimer(Math.max(1, delay), id -> slept.complete());
+
+            return slept.future().compose(woke ->
+            {
+                List<Future<Void>> handed = new ArrayList<>();
+
+                batch.stream().filter(passes::apply).forEach(host -> handed.add(next.apply(host)));
+
+                return Future.all(handed).mapEmpty();
+            });
+        });
+    }
+
+    /**
+     * @return elapsed time and completed hosts of one run
+     */
+    private Future<JsonObject> timed(Supplier<Future<Long>> run)
+    {
+        var start = System.nanoTime();
+
+        return run.get().map(completed -> new JsonObject()
+                .put("elapsed_ms", (System.nanoTime() - start) / 1_000_000)
+                .put("completed", completed));
+    }
+}
@@ -0,0 +1,118 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+import org.nms.PluginManager.Collector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-in for a device fleet, answers every metric group of credential type FAKE
+ * Latency is log-normal between the configured median and p99, some polls fail and some never answer
+ */
+public class FakeCollector implements Collector
+{
+    public static final String CREDENTIAL_TYPE = "FAKE";
+
+    public static final Set<String> METRIC_GROUPS = Set.of("CPUINFO", "CPUUSAGE", "UPTIME", "MEMORY", "DISK", "PROCESS", "NETWORK", "SYSTEMINFO");
+
+    // z-Score Of The 99th Percentile Of A Normal Distribution
+    private static final double Z_99 = 2.326;
+
+    private final double medianLatencyMillis;
+
+    private final double sigma;
+
+    private final double failureRate;
+
+    private final double hangRate;
+
+    // Metric Group => Data As The JSON Plugin Returns It, Sized Per Metric Group
+    private final Map<String, String> payloads = new HashMap<>();
+
+    /**
+     * @param config { median_latency_ms, p99_latency_ms, failure_rate, hang_rate, payload_bytes: { CPUINFO: 512, ... }, default_payload_bytes }
+     */
+    public FakeCollector(JsonObject config)
+    {
+        this.medianLatencyMillis = Math.max(1, config.getLong("median_latency_ms", 50L));
+        this.sigma = Math.log(Math.max(medianLatencyMillis, config.getLong("p99_latency_ms", 500L)) / medianLatencyMillis) / Z_99;
+        this.failureRate = config.getDouble("failure_rate", 0.02);
+        this.hangRate = config.getDouble("hang_rate", 0.001);
+
+        var payloadBytes = config.getJsonObject("payload_bytes", new JsonObject());
+
+        for (var metricGroup : METRIC_GROUPS)
+        {
+            payloads.put(metricGroup, payload(metricGroup, payloadBytes.getInteger(metricGroup, config.getInteger("default_payload_bytes", 512))));
+        }
+    }
+
+    @Override
+    public String credentialType()
+    {
+        return CREDENTIAL_TYPE;
+    }
+
+    @Override
+    public Set<String> metricGroups()
+    {
+        return METRIC_GROUPS;
+    }
+
+    @Override
+    public Future<JsonObject> collect(JsonObject metricGroup)
+    {
+        var random = ThreadLocalRandom.current();
+
+        // Hung Device, Left To The Pool's Timeout
+        if (random.nextDouble() < hangRate)
+        {
+            return Promise.<JsonObject>promise().future();
+        }
+
+        var latency = Math.max(1, Math.round(medianLatencyMillis * Math.exp(sigma * random.nextGaussian())));
+
+        var failed = random.nextDouble() < failureRate;
+
+        Promise<JsonObject> promise = Promise.promise();
+
+        App.vertx.setTimer(latency, id ->
+        {
+            var result = new JsonObject()
+                    .put("provision_profile_id", metricGroup.getInteger("provision_profile_id"))
+                    .put("name", metricGroup.getString("name"))
+                    .put("success", !failed);
+
+            if (failed)
+            {
+                result.put("message", "Simulated Failure");
+            }
+            else
+            {
+                result.put("data", payloads.get(metricGroup.getString("name")));
+            }
+
+            promise.complete(result);
+        });
+
+        return promise.future();
+    }
+
+    /**
+     * JSON object text of roughly the given size, so the result goes through the same parsing as plugin output
+     */
+    private static String payload(String metricGroup, int bytes)
+    {
+        var data = new JsonObject().put("metric_group", metricGroup);
+
+        var padding = Math.max(0, bytes - data.encode().length() - 14);
+
+        return data.put("padding", "x".repeat(padding)).encode();
+    }
+}
@@ -0,0 +1,130 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import org.nms.API.Utility.IpParser;
+import org.nms.ConsoleLogger;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.function.Predicate;
+
+/**
+ * Compares InetAddress based IP validation with IpParser on the inputs the validators see
+ * Both run the same literals on a worker thread, after a warm-up, and report time and bytes allocated per call,
+ * a single host name lookup is timed separately since that is what blocked the event loop
+ */
+public class IpParserBenchmark extends AbstractVerticle
+{
+    private static final String[] INPUTS = {
+            "10.20.41.10", "192.168.1.254", "255.255.255.255", "0.0.0.0", "256.1.1.1", "10.20.41",
+            "2001:db8::1", "fe80::1ff:fe23:4567:890a", "::ffff:10.20.41.10", "1:2:3:4:5:6:7:8", "1::2::3", "::"
+    };
+
+    private static final String HOST_NAME = "nms-ip-benchmark.invalid";
+
+    private final int iterations;
+
+    public IpParserBenchmark(int iterations)
+    {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        startPromise.complete();
+
+        ConsoleLogger.info("🏁 IP Parser Benchmark => " + iterations + " Rounds Of " + INPUTS.length + " Inputs");
+
+        vertx.<JsonObject>executeBlocking(() ->
+                {
+                    var report = new JsonObject();
+
+                    // Warm Both Paths Before Measuring
+                    measure(IpParserBenchmark::isValidWithInetAddress, Math.max(1, iterations / 10));
+                    measure(IpParser::isValid, Math.max(1, iterations / 10));
+
+                    var inetAddress = measure(IpParserBenchmark::isValidWithInetAddress, iterations);
+
+                    var parser = measure(IpParser::isValid, iterations);
+
+                    report.put("inet_address", inetAddress).put("ip_parser", parser);
+
+                    report.put("speedup", Math.round(inetAddress.getDouble("ns_per_call") * 100 / Math.max(0.01, parser.getDouble("ns_per_call"))) / 100.0);
+
+                    // One Host Name Through Each Path, Only InetAddress Goes To DNS
+                    var start = System.nanoTime();
+
+                    isValidWithInetAddress(HOST_NAME);
+
+                    report.put("host_name_inet_address_ms", (System.nanoTime() - start) / 1_000_000);
+
+                    start = System.nanoTime();
+
+                    IpParser.isValid(HOST_NAME);
+
+                    report.put("host_name_ip_parser_ns", System.nanoTime() - start);
+
+                    return report;
+                })
+                .onSuccess(report -> ConsoleLogger.info("📊 IP Parser Benchmark Finished => " + report.encodePrettily()))
+                .onFailure(err -> ConsoleLogger.error("❌ IP Parser Benchmark Failed => " + err.getMessage()))
+                .onComplete(done -> vertx.close());
+    }
+
+    /**
+     * Previous IpHelpers.isValidIp
+     */
+    private static boolean isValidWithInetAddress(String ip)
+    {
+        try
+        {
+            InetAddress.getByName(ip);
+            return true;
+        }
+        catch (UnknownHostException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return { calls, valid, ns_per_call, bytes_per_call }
+     */
+    private JsonObject measure(Predicate<String> validator, int rounds)
+    {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        var threadId = Thread.currentThread().threadId();
+
+        var allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        var start = System.nanoTime();
+
+        var valid = 0L;
+
+        for (var round = 0; round < rounds; round++)
+        {
+            for (var input : INPUTS)
+            {
+                if (validator.test(input))
+                {
+                    valid++;
+                }
+            }
+        }
+
+        var elapsedNanos = System.nanoTime() - start;
+
+        var calls = (long) rounds * INPUTS.length;
+
+        return new JsonObject()
+                .put("calls", calls)
+                .put("valid", valid)
+                .put("ns_per_call", Math.round(elapsedNanos * 100.0 / calls) / 100.0)
+                .put("bytes_per_call", Math.round((threads.getThreadAllocatedBytes(threadId) - allocatedBefore) * 100.0 / calls) / 100.0);
+    }
+}
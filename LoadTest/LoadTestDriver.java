@@ -0,0 +1,207 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+import org.nms.Cache.MetricGroupCacheStore;
+import org.nms.ConsoleLogger;
+import org.nms.Database.PostgresQuery;
+import org.nms.PluginManager.CollectorPools;
+import org.nms.PluginManager.CollectorRegistry;
+import org.nms.Scheduler.PipelineMetrics;
+import org.nms.Scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives the real polling pipeline (Scheduler => PluginManager => result sink) against a synthetic fleet
+ * Runs each fleet size for a fixed duration and reports polls per second, scheduling lateness and ingest lag
+ */
+public class LoadTestDriver extends AbstractVerticle
+{
+    // Far Above Real Provision Ids, So A Fleet Never Collides With Provisioned Devices
+    private static final int FIRST_DEVICE_ID = 100_000_000;
+
+    private static final long REPORT_INTERVAL_MILLIS = 10_000;
+
+    private final JsonObject config;
+
+    private final List<JsonObject> reports = new ArrayList<>();
+
+    /**
+     * @param config { fleet_sizes: [1000, 10000, 100000], duration_seconds, metric_groups_per_device, polling_interval,
+     *               sink: "discard" | "db", collector: { FakeCollector config } }
+     */
+    public LoadTestDriver(JsonObject config)
+    {
+        this.config = config;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        CollectorRegistry.register(new FakeCollector(config.getJsonObject("collector", new JsonObject())));
+
+        prepareSink()
+                .onSuccess(v ->
+                {
+                    startPromise.complete();
+
+                    runTiers(config.getJsonArray("fleet_sizes", new JsonArray().add(1_000).add(10_000).add(100_000)), 0);
+                })
+                .onFailure(startPromise::fail);
+    }
+
+    private void runTiers(JsonArray fleetSizes, int index)
+    {
+        if (index == fleetSizes.size())
+        {
+            ConsoleLogger.info("📊 Load Test Finished => " + new JsonArray(reports).encodePrettily());
+
+            vertx.close();
+
+            return;
+        }
+
+        runTier(fleetSizes.getInteger(index))
+                .onSuccess(report -> reports.add(report))
+                .onFailure(err -> ConsoleLogger.error("❌ Load Test Tier Failed => " + err.getMessage()))
+                .onComplete(done -> runTiers(fleetSizes, index + 1));
+    }
+
+    /**
+     * Provisions the fleet into the cache, lets a fresh Scheduler poll it for the configured duration and tears it down
+     */
+    private Future<JsonObject> runTier(int devices)
+    {
+        var durationMillis = config.getInteger("duration_seconds", 180) * 1000L;
+
+        var fleet = fleet(devices);
+
+        var scheduler = new Scheduler(() ->
+        {
+            MetricGroupCacheStore.insertProvisionArray(fleet);
+
+            return Future.succeededFuture();
+        }, this::sink);
+
+        ConsoleLogger.info("🚀 Load Test With " + devices + " Devices For " + durationMillis / 1000 + " Seconds");
+
+        return vertx.deployVerticle(scheduler).compose(deploymentId ->
+        {
+            PipelineMetrics.reset();
+
+            var reportTimerId = vertx.setPeriodic(REPORT_INTERVAL_MILLIS, id ->
+                    ConsoleLogger.info("📈 " + devices + " Devices => " + PipelineMetrics.getMetrics().encode()));
+
+            Promise<JsonObject> finished = Promise.promise();
+
+            vertx.setTimer(durationMillis, id ->
+            {
+                vertx.cancelTimer(reportTimerId);
+
+                var report = PipelineMetrics.getMetrics()
+                        .put("devices", devices)
+                        .put("metric_groups", devices * metricGroupsPerDevice())
+                        .put("pools", CollectorPools.getMetrics());
+
+                vertx.undeploy(deploymentId)
+                        .onComplete(undeployed ->
+                        {
+                            MetricGroupCacheStore.clear();
+
+                            finished.complete(report);
+                        });
+            });
+
+            return finished.future();
+        });
+    }
+
+    /**
+     * @return provisions shaped like ProvisionModel rows, every metric group served by FakeCollector
+     */
+    private JsonArray fleet(int devices)
+    {
+        var metricGroupNames = new ArrayList<>(FakeCollector.METRIC_GROUPS);
+
+        var pollingInterval = config.getInteger("polling_interval", 60);
+
+        var fleet = new JsonArray();
+
+        for (var i = 0; i < devices; i++)
+        {
+            var id = FIRST_DEVICE_ID + i;
+
+            var metricGroups = new JsonArray();
+
+            for (var k = 0; k < metricGroupsPerDevice(); k++)
+            {
+                metricGroups.add(new JsonObject()
+                        .put("id", id * metricGroupNames.size() + k)
+                        .put("name", metricGroupNames.get(k))
+                        .put("polling_interval", pollingInterval)
+                        .put("enable", true));
+            }
+
+            fleet.add(new JsonObject()
+                    .put("id", id)
+                    .put("ip", "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF))
+                    .put("port", "0")
+                    .put("credentials", new JsonObject().put("type", FakeCollector.CREDENTIAL_TYPE))
+                    .put("metric_groups", metricGroups));
+        }
+
+        return fleet;
+    }
+
+    private int metricGroupsPerDevice()
+    {
+        return Math.min(FakeCollector.METRIC_GROUPS.size(), config.getInteger("metric_groups_per_device", 4));
+    }
+
+    /**
+     * "db" => Unlogged table without foreign keys, so fake devices don't need provision_profiles rows
+     */
+    private Future<Void> prepareSink()
+    {
+        if (!"db".equals(config.getString("sink")))
+        {
+            return Future.succeededFuture();
+        }
+
+        var CREATE_LOAD_TEST_RESULTS_TABLE = """
+                CREATE UNLOGGED TABLE IF NOT EXISTS load_test_results (
+                    id SERIAL PRIMARY KEY,
+                    provision_profile_id INTEGER,
+                    name VARCHAR(32) NOT NULL,
+                    value JSONB NOT NULL,
+                    time TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+                );
+                """;
+
+        return PostgresQuery
+                .execute(CREATE_LOAD_TEST_RESULTS_TABLE)
+                .compose(v -> PostgresQuery.execute("TRUNCATE load_test_results;"))
+                .mapEmpty();
+    }
+
+    private Future<?> sink(List<Tuple> rows)
+    {
+        if (!"db".equals(config.getString("sink")))
+        {
+            return Future.succeededFuture();
+        }
+
+        var CREATE_LOAD_TEST_RESULTS = """
+                INSERT INTO load_test_results (provision_profile_id, name, value, time)
+                VALUES ($1, $2, $3, COALESCE($4, CURRENT_TIMESTAMP));
+                """;
+
+        return PostgresQuery.execute(CREATE_LOAD_TEST_RESULTS, rows);
+    }
+}
@@ -0,0 +1,105 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+
+/**
+ * Entry point of the load tests, benchmarks and device simulators, kept apart from App so the server never ships them as modes
+ * Usage => LoadTestLauncher <mode> [mode arguments], every mode deploys one verticle on App.vertx
+ */
+public class LoadTestLauncher
+{
+    private static final String MODES = "loadtest, agent-sim, portscan-bench, ip-parse-bench, codec-bench, discovery-bench, snmp-sim, ssh-sim, winrm-sim";
+
+    public static void main(String[] args)
+    {
+        if (args.length < 1)
+        {
+            ConsoleLogger.error("❌ Load Test Mode Missing => " + MODES);
+
+            App.vertx.close();
+
+            return;
+        }
+
+        deploy(args)
+                .onFailure(err ->
+                {
+                    ConsoleLogger.error("❌ Failed to start " + args[0] + " " + err.getMessage());
+
+                    App.vertx.close();
+                });
+    }
+
+    private static Future<String> deploy(String[] args)
+    {
+        var vertx = App.vertx;
+
+        return switch (args[0])
+        {
+            // Load Test => loadtest [fleet sizes, e.g. 1000,10000,100000] [seconds per size] [discard | db]
+            case "loadtest" ->
+            {
+                var fleetSizes = new JsonArray();
+
+                for (var size : (args.length > 1 ? args[1] : "1000,10000,100000").split(","))
+                {
+                    fleetSizes.add(Integer.parseInt(size.trim()));
+                }
+
+                var config = new JsonObject()
+                        .put("fleet_sizes", fleetSizes)
+                        .put("duration_seconds", args.length > 2 ? Integer.parseInt(args[2]) : 180)
+                        .put("sink", args.length > 3 ? args[3] : "discard");
+
+                yield vertx.deployVerticle(new LoadTestDriver(config));
+            }
+
+            // Agent Harness => agent-sim [agents] [devices per agent] [seconds per phase], Collector Agents Through AgentHub With A Central Outage
+            case "agent-sim" -> vertx.deployVerticle(new AgentHarness(
+                    args.length > 1 ? Integer.parseInt(args[1]) : 3,
+                    args.length > 2 ? Integer.parseInt(args[2]) : 50,
+                    args.length > 3 ? Integer.parseInt(args[3]) : 30));
+
+            // Port Scan Benchmark => portscan-bench [hosts], PortScanner vs nc On Local Sockets
+            case "portscan-bench" -> vertx.deployVerticle(new PortScanBenchmark(args.length > 1 ? Integer.parseInt(args[1]) : 1000));
+
+            // IP Parser Benchmark => ip-parse-bench [rounds], InetAddress vs IpParser Validation
+            case "ip-parse-bench" -> vertx.deployVerticle(new IpParserBenchmark(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000));
+
+            // Plugin Codec Benchmark => codec-bench [round trips], JSON vs Binary Plugin Frames
+            case "codec-bench" -> vertx.deployVerticle(new PluginCodecBenchmark(args.length > 1 ? Integer.parseInt(args[1]) : 2_000));
+
+            // Discovery Pipeline Benchmark => discovery-bench [hosts], Barriers Between Stages vs Streaming Stages
+            case "discovery-bench" -> vertx.deployVerticle(new DiscoveryPipelineBenchmark(args.length > 1 ? Integer.parseInt(args[1]) : 10_000));
+
+            // SNMP Agent Simulator => snmp-sim [devices] [rounds], Native SNMP Collector Against In-Process Agents
+            case "snmp-sim" -> vertx.deployVerticle(new SnmpAgentSimulator(
+                    args.length > 1 ? Integer.parseInt(args[1]) : 100,
+                    args.length > 2 ? Integer.parseInt(args[2]) : 3));
+
+            // SSH Server Harness => ssh-sim [devices] [rounds], Native SSH Collector Against Embedded SSH Servers
+            // Deployed By Name, So Apache MINA SSHD Stays Optional For Everything Else
+            case "ssh-sim" ->
+            {
+                var config = new JsonObject()
+                        .put("devices", args.length > 1 ? Integer.parseInt(args[1]) : 10)
+                        .put("rounds", args.length > 2 ? Integer.parseInt(args[2]) : 3);
+
+                yield vertx.deployVerticle("org.nms.LoadTest.SshServerHarness", new DeploymentOptions().setConfig(config));
+            }
+
+            // WinRM Server Harness => winrm-sim [devices] [rounds] [receive delay ms], Native WinRM Collector Against Stub WS-Man Servers
+            case "winrm-sim" -> vertx.deployVerticle(new WinRmServerHarness(
+                    args.length > 1 ? Integer.parseInt(args[1]) : 10,
+                    args.length > 2 ? Integer.parseInt(args[2]) : 3,
+                    args.length > 3 ? Long.parseLong(args[3]) : 2_000));
+
+            default -> Future.failedFuture("Unknown Load Test Mode, Expected One Of => " + MODES);
+        };
+    }
+}
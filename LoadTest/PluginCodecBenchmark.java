@@ -0,0 +1,242 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.ConsoleLogger;
+import org.nms.PluginManager.PluginCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Compares the JSON plugin protocol with PluginCodec frames on a batch request and the plugin's reply to it
+ * Each path encodes and decodes the same objects on a worker thread, after a warm-up, and reports time and bytes
+ * allocated per round trip plus the size on the wire, a truncated and an unsupported frame are checked at the end
+ */
+public class PluginCodecBenchmark extends AbstractVerticle
+{
+    private static final int DEVICES = 50;
+
+    private static final String[] METRIC_GROUPS = {"CPUINFO", "CPUUSAGE", "UPTIME", "MEMORY", "DISK", "PROCESS", "NETWORK", "SYSTEMINFO"};
+
+    private final int iterations;
+
+    /**
+     * One codec path => encode to wire bytes, decode back into an object
+     */
+    private interface RoundTrip
+    {
+        Object run(JsonObject value) throws IOException;
+    }
+
+    public PluginCodecBenchmark(int iterations)
+    {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        startPromise.complete();
+
+        ConsoleLogger.info("🏁 Plugin Codec Benchmark => " + iterations + " Round Trips Of A " + DEVICES * METRIC_GROUPS.length + " Metric Group Batch");
+
+        vertx.<JsonObject>executeBlocking(() ->
+                {
+                    var request = request();
+
+                    var reply = reply();
+
+                    var report = new JsonObject();
+
+                    for (var entry : new Object[][] {{"request", request}, {"reply", reply}})
+                    {
+                        var value = (JsonObject) entry[1];
+
+                        RoundTrip json = object -> new JsonObject(Buffer.buffer(object.encode().getBytes()));
+
+                        RoundTrip binary = PluginCodecBenchmark::frameRoundTrip;
+
+                        // Warm Both Paths Before Measuring
+                        measure(json, value, Math.max(1, iterations / 10));
+                        measure(binary, value, Math.max(1, iterations / 10));
+
+                        var jsonReport = measure(json, value, iterations).put("wire_bytes", value.encode().getBytes().length);
+
+                        var binaryReport = measure(binary, value, iterations).put("wire_bytes", 4 + PluginCodec.encode(value).length());
+
+                        report.put((String) entry[0], new JsonObject()
+                                .put("json", jsonReport)
+                                .put("binary", binaryReport)
+                                .put("speedup", Math.round(jsonReport.getDouble("ns_per_call") * 100 / Math.max(0.01, binaryReport.getDouble("ns_per_call"))) / 100.0));
+                    }
+
+                    report.put("truncated_frame", truncatedFrame(reply));
+
+                    report.put("unsupported_type", unsupportedType());
+
+                    return report;
+                })
+                .onSuccess(report -> ConsoleLogger.info("📊 Plugin Codec Benchmark Finished => " + report.encodePrettily()))
+                .onFailure(err -> ConsoleLogger.error("❌ Plugin Codec Benchmark Failed => " + err.getMessage()))
+                .onComplete(done -> vertx.close());
+    }
+
+    /**
+     * Shape of the batch PluginManager sends, one entry per device and metric group
+     */
+    private static JsonObject request()
+    {
+        var metricGroups = new JsonArray();
+
+        for (var device = 0; device < DEVICES; device++)
+        {
+            for (var name : METRIC_GROUPS)
+            {
+                metricGroups.add(new JsonObject()
+                        .put("provision_profile_id", device)
+                        .put("name", name)
+                        .put("ip", "10.20.41." + device)
+                        .put("port", 22)
+                        .put("credentials", new JsonObject()
+                                .put("type", "SSH")
+                                .put("username", "nms")
+                                .put("password", "benchmark-password")));
+            }
+        }
+
+        return new JsonObject().put("type", "polling").put("metric_groups", metricGroups);
+    }
+
+    /**
+     * Shape of the plugin's reply, structured data with a process list per device
+     */
+    private static JsonObject reply()
+    {
+        var results = new JsonArray();
+
+        for (var device = 0; device < DEVICES; device++)
+        {
+            for (var name : METRIC_GROUPS)
+            {
+                var data = new JsonObject();
+
+                if (name.equals("PROCESS"))
+                {
+                    var processes = new JsonArray();
+
+                    for (var pid = 1; pid <= 40; pid++)
+                    {
+                        processes.add(new JsonObject()
+                                .put("pid", pid)
+                                .put("user", "root")
+                                .put("cpu_percent", pid * 0.25)
+                                .put("memory_percent", pid * 0.1)
+                                .put("command", "/usr/sbin/process-" + pid));
+                    }
+
+                    data.put("processes", processes);
+                }
+                else
+                {
+                    data.put("total_bytes", 17_179_869_184L).put("used_bytes", 8_589_934_592L).put("used_percent", 50.0).put("label", name.toLowerCase());
+                }
+
+                results.add(new JsonObject()
+                        .put("provision_profile_id", device)
+                        .put("name", name)
+                        .put("success", true)
+                        .put("data", data));
+            }
+        }
+
+        return new JsonObject().put("metric_groups", results);
+    }
+
+    /**
+     * Same calls PluginManager makes, through in-memory streams instead of the plugin's pipes
+     */
+    private static JsonObject frameRoundTrip(JsonObject value) throws IOException
+    {
+        var out = new ByteArrayOutputStream(4096);
+
+        PluginCodec.writeFrame(value, out);
+
+        return PluginCodec.readFrame(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * @return exception readFrame raised for a frame cut in half, EOFException lets runPlugin fall back to JSON
+     */
+    private static String truncatedFrame(JsonObject value) throws IOException
+    {
+        var out = new ByteArrayOutputStream();
+
+        PluginCodec.writeFrame(value, out);
+
+        var bytes = out.toByteArray();
+
+        try
+        {
+            PluginCodec.readFrame(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2)));
+
+            return "none";
+        }
+        catch (IOException e)
+        {
+            return e.getClass().getSimpleName() + " => " + e.getMessage();
+        }
+    }
+
+    /**
+     * @return exception encode raised for a value with no MessagePack mapping
+     */
+    private static String unsupportedType()
+    {
+        try
+        {
+            PluginCodec.encode(new JsonObject().put("value", new Object()));
+
+            return "none";
+        }
+        catch (RuntimeException e)
+        {
+            return e.getClass().getSimpleName() + " => " + e.getMessage();
+        }
+    }
+
+    /**
+     * @return { calls, ns_per_call, bytes_per_call }
+     */
+    private static JsonObject measure(RoundTrip roundTrip, JsonObject value, int rounds) throws IOException
+    {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        var threadId = Thread.currentThread().threadId();
+
+        var allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        var start = System.nanoTime();
+
+        for (var round = 0; round < rounds; round++)
+        {
+            if (roundTrip.run(value) == null)
+            {
+                throw new IOException("Round Trip Returned Nothing");
+            }
+        }
+
+        var elapsedNanos = System.nanoTime() - start;
+
+        return new JsonObject()
+                .put("calls", rounds)
+                .put("ns_per_call", Math.round(elapsedNanos * 100.0 / rounds) / 100.0)
+                .put("bytes_per_call", Math.round((threads.getThreadAllocatedBytes(threadId) - allocatedBefore) * 100.0 / rounds) / 100.0);
+    }
+}
@@ -0,0 +1,144 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetServer;
+import org.nms.API.Utility.IpHelpers;
+import org.nms.API.Utility.PortScanner;
+import org.nms.ConsoleLogger;
+import org.nms.VirtualThreadExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the nc based port check with PortScanner on local sockets
+ * Every 127.0.0.0/8 address reaches loopback on Linux, so N "hosts" are 127.0.x.y, each with one open and one closed port
+ */
+public class PortScanBenchmark extends AbstractVerticle
+{
+    private final int hosts;
+
+    private NetServer listener;
+
+    public PortScanBenchmark(int hosts)
+    {
+        this.hosts = hosts;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        listener = vertx.createNetServer().connectHandler(socket -> socket.close());
+
+        Future.all(listener.listen(0, "0.0.0.0"), closedPort())
+                .onSuccess(ports ->
+                {
+                    startPromise.complete();
+
+                    run(listener.actualPort(), ports.resultAt(1));
+                })
+                .onFailure(startPromise::fail);
+    }
+
+    private void run(int openPort, int closedPort)
+    {
+        var ips = new JsonArray();
+
+        for (var i = 0; i < hosts; i++)
+        {
+            ips.add("127.0." + (i >> 8 & 0xFF) + "." + ((i & 0xFF) + 1));
+        }
+
+        var ports = List.of(openPort, closedPort);
+
+        ConsoleLogger.info("🏁 Port Scan Benchmark => " + hosts + " Hosts x Ports " + ports);
+
+        var report = new JsonObject().put("hosts", hosts).put("ports", new JsonArray(ports));
+
+        timed(() -> PortScanner.scan(ips, ports))
+                .compose(scanner ->
+                {
+                    report.put("port_scanner", scanner);
+
+                    return timed(() -> scanWithNc(ips, ports));
+                })
+                .onSuccess(nc ->
+                {
+                    report.put("nc", nc);
+
+                    ConsoleLogger.info("📊 Port Scan Benchmark Finished => " + report.encodePrettily());
+                })
+                .onFailure(err -> ConsoleLogger.error("❌ Port Scan Benchmark Failed => " + err.getMessage()))
+                .onComplete(done -> vertx.close());
+    }
+
+    /**
+     * Previous path => one nc process per IP and port on the port check lane
+     */
+    private Future<JsonArray> scanWithNc(JsonArray ips, List<Integer> ports)
+    {
+        List<Future<JsonObject>> checks = new ArrayList<>();
+
+        for (var i = 0; i < ips.size(); i++)
+        {
+            var ip = ips.getString(i);
+
+            for (var port : ports)
+            {
+                checks.add(VirtualThreadExecutor.PORT_CHECK.execute(() -> IpHelpers.checkPort(ip, port)));
+            }
+        }
+
+        return Future.join(checks).map(done ->
+        {
+            var results = new JsonArray();
+
+            checks.forEach(check -> results.add(new JsonObject()
+                    .put("ports", new JsonObject().put("state", check.succeeded() && check.result().getBoolean("success", false)
+                            ? PortScanner.OPEN
+                            : PortScanner.CLOSED))));
+
+            return results;
+        });
+    }
+
+    /**
+     * @return elapsed time and port state counts of one scan
+     */
+    private Future<JsonObject> timed(Supplier<Future<JsonArray>> scan)
+    {
+        var start = System.nanoTime();
+
+        return scan.get().map(results ->
+        {
+            var counts = new JsonObject().put(PortScanner.OPEN, 0).put(PortScanner.CLOSED, 0).put(PortScanner.FILTERED, 0);
+
+            results.forEach(result -> ((JsonObject) result).getJsonObject("ports").forEach(state ->
+                    counts.put((String) state.getValue(), counts.getInteger((String) state.getValue()) + 1)));
+
+            return new JsonObject()
+                    .put("elapsed_ms", (System.nanoTime() - start) / 1_000_000)
+                    .put("states", counts);
+        });
+    }
+
+    /**
+     * Binds and releases an ephemeral port, leaving it closed
+     */
+    private Future<Integer> closedPort()
+    {
+        var server = vertx.createNetServer();
+
+        return server.listen(0, "0.0.0.0").compose(bound ->
+        {
+            var port = bound.actualPort();
+
+            return server.close().map(port);
+        });
+    }
+}
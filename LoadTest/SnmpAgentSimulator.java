@@ -0,0 +1,604 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.datagram.DatagramPacket;
+import io.vertx.core.datagram.DatagramSocket;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import org.nms.ConsoleLogger;
+import org.nms.PluginManager.Snmp.Ber;
+import org.nms.PluginManager.Snmp.SnmpCollector;
+import org.nms.PluginManager.Snmp.SnmpEngine;
+import org.nms.PluginManager.Snmp.SnmpPdu;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs SnmpCollector against in-process SNMP agents on loopback UDP sockets
+ * Devices cycle through SNMPv1, SNMPv2c and SNMPv3 (noAuthNoPriv), every agent serves the same small MIB
+ * Every request is also answered by a forged reply from a second socket and, on v1 / v2c, one with a wrong community,
+ * and between rounds the v3 agents reboot (new boots) or are replaced (new engine id), so the report shows whether
+ * forged replies were accepted and whether the engine cache recovered
+ */
+public class SnmpAgentSimulator extends AbstractVerticle
+{
+    private static final List<String> METRIC_GROUPS = List.of("SYSTEMINFO", "UPTIME", "CPUINFO", "CPUUSAGE", "MEMORY", "DISK", "PROCESS", "NETWORK");
+
+    private static final List<String> CREDENTIAL_TYPES = List.of("SNMPv1", "SNMPv2c", "SNMPv3");
+
+    private static final String COMMUNITY = "public";
+
+    private static final String FORGED = "FORGED";
+
+    private static final String USM_STATS_NOT_IN_TIME_WINDOWS = "1.3.6.1.6.3.15.1.1.2.0";
+
+    private static final String USM_STATS_UNKNOWN_ENGINE_IDS = "1.3.6.1.6.3.15.1.1.4.0";
+
+    private static final TreeMap<String, byte[]> MIB = new TreeMap<>(SnmpAgentSimulator::compareOids);
+
+    static
+    {
+        // SNMPv2-MIB System Group
+        MIB.put("1.3.6.1.2.1.1.1.0", Ber.octetString("Simulated Agent"));
+        MIB.put("1.3.6.1.2.1.1.2.0", Ber.oid("1.3.6.1.4.1.8072.3.2.10"));
+        MIB.put("1.3.6.1.2.1.1.3.0", unsigned(Ber.TIMETICKS, 8_640_000));
+        MIB.put("1.3.6.1.2.1.1.4.0", Ber.octetString("noc@example.com"));
+        MIB.put("1.3.6.1.2.1.1.5.0", Ber.octetString("simulated"));
+        MIB.put("1.3.6.1.2.1.1.6.0", Ber.octetString("Loopback"));
+
+        // HOST-RESOURCES-MIB => RAM, Virtual Memory And One Fixed Disk
+        String[][] storage = {
+                {"1", "1.3.6.1.2.1.25.2.1.2", "Physical memory", "1024", "8388608", "4194304"},
+                {"2", "1.3.6.1.2.1.25.2.1.3", "Virtual memory", "1024", "2097152", "524288"},
+                {"3", "1.3.6.1.2.1.25.2.1.4", "/", "4096", "26214400", "13107200"}
+        };
+
+        for (var row : storage)
+        {
+            MIB.put("1.3.6.1.2.1.25.2.3.1.2." + row[0], Ber.oid(row[1]));
+            MIB.put("1.3.6.1.2.1.25.2.3.1.3." + row[0], Ber.octetString(row[2]));
+            MIB.put("1.3.6.1.2.1.25.2.3.1.4." + row[0], Ber.integer(Long.parseLong(row[3])));
+            MIB.put("1.3.6.1.2.1.25.2.3.1.5." + row[0], Ber.integer(Long.parseLong(row[4])));
+            MIB.put("1.3.6.1.2.1.25.2.3.1.6." + row[0], Ber.integer(Long.parseLong(row[5])));
+        }
+
+        for (var cpu = 1; cpu <= 2; cpu++)
+        {
+            MIB.put("1.3.6.1.2.1.25.3.2.1.2." + (195 + cpu), Ber.oid("1.3.6.1.2.1.25.3.1.3"));
+            MIB.put("1.3.6.1.2.1.25.3.2.1.3." + (195 + cpu), Ber.octetString("Simulated CPU " + cpu));
+            MIB.put("1.3.6.1.2.1.25.3.3.1.2." + (195 + cpu), Ber.integer(10L * cpu));
+        }
+
+        for (var process = 1; process <= 5; process++)
+        {
+            MIB.put("1.3.6.1.2.1.25.4.2.1.2." + process, Ber.octetString("process-" + process));
+            MIB.put("1.3.6.1.2.1.25.4.2.1.4." + process, Ber.octetString("/usr/bin/process-" + process));
+            MIB.put("1.3.6.1.2.1.25.4.2.1.7." + process, Ber.integer(1));
+            MIB.put("1.3.6.1.2.1.25.5.1.1.1." + process, Ber.integer(100L * process));
+            MIB.put("1.3.6.1.2.1.25.5.1.1.2." + process, Ber.integer(2048L * process));
+        }
+
+        // IF-MIB => Loopback And One Ethernet Interface, With 32 And 64-Bit Counters
+        for (var index = 1; index <= 2; index++)
+        {
+            MIB.put("1.3.6.1.2.1.2.2.1.2." + index, Ber.octetString(index == 1 ? "lo" : "eth0"));
+            MIB.put("1.3.6.1.2.1.2.2.1.8." + index, Ber.integer(1));
+            MIB.put("1.3.6.1.2.1.2.2.1.10." + index, unsigned(Ber.COUNTER32, 1_000_000L * index));
+            MIB.put("1.3.6.1.2.1.2.2.1.14." + index, unsigned(Ber.COUNTER32, 0));
+            MIB.put("1.3.6.1.2.1.2.2.1.16." + index, unsigned(Ber.COUNTER32, 2_000_000L * index));
+            MIB.put("1.3.6.1.2.1.2.2.1.20." + index, unsigned(Ber.COUNTER32, 0));
+            MIB.put("1.3.6.1.2.1.31.1.1.1.6." + index, unsigned(Ber.COUNTER64, 10_000_000_000L * index));
+            MIB.put("1.3.6.1.2.1.31.1.1.1.10." + index, unsigned(Ber.COUNTER64, 20_000_000_000L * index));
+        }
+    }
+
+    private final int devices;
+
+    private final int rounds;
+
+    private final List<Agent> agents = new ArrayList<>();
+
+    private final Map<String, SnmpCollector> collectors = new HashMap<>();
+
+    private DatagramSocket spoofer;
+
+    /**
+     * One simulated device, v3 agents keep USM engine state
+     */
+    private static class Agent
+    {
+        final int index;
+
+        final String credentialType;
+
+        DatagramSocket socket;
+
+        byte[] engineId;
+
+        int boots = 1;
+
+        long bootedAt = System.currentTimeMillis();
+
+        long discoveries = 0;
+
+        long reports = 0;
+
+        Agent(int index)
+        {
+            this.index = index;
+            this.credentialType = CREDENTIAL_TYPES.get(index % CREDENTIAL_TYPES.size());
+            this.engineId = engineId(index, 0);
+        }
+
+        int engineTime()
+        {
+            return (int) ((System.currentTimeMillis() - bootedAt) / 1000);
+        }
+    }
+
+    public SnmpAgentSimulator(int devices, int rounds)
+    {
+        this.devices = devices;
+        this.rounds = rounds;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        CREDENTIAL_TYPES.forEach(type -> collectors.put(type, new SnmpCollector(type)));
+
+        List<Future<DatagramSocket>> listening = new ArrayList<>();
+
+        for (var i = 0; i < devices; i++)
+        {
+            var agent = new Agent(i);
+
+            agent.socket = vertx.createDatagramSocket();
+
+            agent.socket.handler(packet -> answer(agent, packet));
+
+            agents.add(agent);
+
+            listening.add(agent.socket.listen(0, "127.0.0.1"));
+        }
+
+        spoofer = vertx.createDatagramSocket();
+
+        listening.add(spoofer.listen(0, "127.0.0.1"));
+
+        Future.all(listening)
+                .onSuccess(ignored ->
+                {
+                    startPromise.complete();
+
+                    run();
+                })
+                .onFailure(startPromise::fail);
+    }
+
+    private void run()
+    {
+        ConsoleLogger.info("🏁 SNMP Agent Simulator => " + devices + " Devices x " + METRIC_GROUPS.size() + " Metric Groups x " + rounds + " Rounds");
+
+        var report = new JsonObject().put("devices", devices).put("metric_groups", METRIC_GROUPS.size());
+
+        var roundReports = new JsonArray();
+
+        Future<Void> chain = Future.succeededFuture();
+
+        for (var round = 1; round <= rounds; round++)
+        {
+            var current = round;
+
+            chain = chain.compose(ignored ->
+            {
+                // From The Second Round On, v3 Agents Reboot Or Are Replaced Before Being Polled
+                if (current > 1)
+                {
+                    restartV3Agents(current);
+                }
+
+                return pollAll(current).onSuccess(roundReports::add).mapEmpty();
+            });
+        }
+
+        chain
+                .onSuccess(ignored ->
+                {
+                    var discoveries = 0L;
+
+                    var reports = 0L;
+
+                    for (var agent : agents)
+                    {
+                        discoveries += agent.discoveries;
+
+                        reports += agent.reports;
+                    }
+
+                    report.put("rounds", roundReports)
+                            .put("engine_discoveries", discoveries)
+                            .put("reports_sent", reports);
+
+                    ConsoleLogger.info("📊 SNMP Agent Simulator Finished => " + report.encodePrettily());
+                })
+                .onFailure(err -> ConsoleLogger.error("❌ SNMP Agent Simulator Failed => " + err.getMessage()))
+                .onComplete(done -> SnmpEngine.getInstance().close().onComplete(closed -> vertx.close()));
+    }
+
+    /**
+     * @return { round, ok, failed, forged_accepted, elapsed_ms, failures }
+     */
+    private Future<JsonObject> pollAll(int round)
+    {
+        var start = System.currentTimeMillis();
+
+        List<Future<JsonObject>> polls = new ArrayList<>();
+
+        for (var agent : agents)
+        {
+            for (var name : METRIC_GROUPS)
+            {
+                var metricGroup = new JsonObject()
+                        .put("provision_profile_id", agent.index)
+                        .put("name", name)
+                        .put("ip", "127.0.0.1")
+                        .put("port", agent.socket.localAddress().port())
+                        .put("credentials", new JsonObject()
+                                .put("type", agent.credentialType)
+                                .put("community", COMMUNITY)
+                                .put("username", "simulator"));
+
+                polls.add(collectors.get(agent.credentialType).collect(metricGroup));
+            }
+        }
+
+        return Future.join(polls).transform(ignored ->
+        {
+            long ok = 0, failed = 0, forged = 0;
+
+            var failures = new JsonArray();
+
+            for (var poll : polls)
+            {
+                if (poll.failed())
+                {
+                    failed++;
+
+                    if (failures.size() < 5)
+                    {
+                        failures.add(poll.cause().getMessage());
+                    }
+                }
+                else if (poll.result().encode().contains(FORGED))
+                {
+                    forged++;
+                }
+                else
+                {
+                    ok++;
+                }
+            }
+
+            return Future.succeededFuture(new JsonObject()
+                    .put("round", round)
+                    .put("ok", ok)
+                    .put("failed", failed)
+                    .put("forged_accepted", forged)
+                    .put("elapsed_ms", System.currentTimeMillis() - start)
+                    .put("failures", failures));
+        });
+    }
+
+    /**
+     * Even devices reboot => notInTimeWindows, odd devices get a new engine id => unknownEngineIDs
+     */
+    private void restartV3Agents(int round)
+    {
+        for (var agent : agents)
+        {
+            if (!"SNMPv3".equals(agent.credentialType))
+            {
+                continue;
+            }
+
+            agent.boots++;
+
+            agent.bootedAt = System.currentTimeMillis();
+
+            if (agent.index % 2 == 1)
+            {
+                agent.engineId = engineId(agent.index, round);
+            }
+        }
+    }
+
+    private void answer(Agent agent, DatagramPacket packet)
+    {
+        try
+        {
+            var data = packet.data().getBytes();
+
+            var message = new Ber.Reader(data).next(Ber.SEQUENCE).reader();
+
+            var version = (int) message.next(Ber.INTEGER).asLong();
+
+            if (version == 3)
+            {
+                answerV3(agent, message, packet.sender());
+                return;
+            }
+
+            var community = message.next(Ber.OCTET_STRING).content();
+
+            // Real Agents Drop Requests With The Wrong Community
+            if (!Arrays.equals(community, COMMUNITY.getBytes(StandardCharsets.UTF_8)))
+            {
+                return;
+            }
+
+            var request = SnmpPdu.decode(message.next());
+
+            // Forged Replies First => Right Request-Id From Another Port, And From The Agent With Another Community
+            send(spoofer, packet.sender(), v1Message(version, COMMUNITY, forgedPdu(request)));
+
+            send(agent.socket, packet.sender(), v1Message(version, "private", forgedPdu(request)));
+
+            send(agent.socket, packet.sender(), v1Message(version, COMMUNITY, respond(request, version)));
+        }
+        catch (Exception e)
+        {
+            ConsoleLogger.debug("⚠️ Simulated Agent Dropped Malformed Request => " + e.getMessage());
+        }
+    }
+
+    /**
+     * noAuthNoPriv only => reports for discovery probes and stale engine id / boots, responses otherwise
+     */
+    private void answerV3(Agent agent, Ber.Reader message, SocketAddress sender) throws Exception
+    {
+        var header = message.next(Ber.SEQUENCE).reader();
+
+        var msgId = (int) header.next(Ber.INTEGER).asLong();
+
+        var usm = message.next(Ber.OCTET_STRING).reader().next(Ber.SEQUENCE).reader();
+
+        var engineId = usm.next(Ber.OCTET_STRING).content();
+
+        var boots = (int) usm.next(Ber.INTEGER).asLong();
+
+        usm.next(Ber.INTEGER);
+
+        var userName = usm.next(Ber.OCTET_STRING).content();
+
+        var scoped = message.next(Ber.SEQUENCE).reader();
+
+        scoped.next(Ber.OCTET_STRING);
+
+        scoped.next(Ber.OCTET_STRING);
+
+        var request = SnmpPdu.decode(scoped.next());
+
+        byte[] pdu;
+
+        if (engineId.length == 0 || !Arrays.equals(engineId, agent.engineId))
+        {
+            if (engineId.length == 0)
+            {
+                agent.discoveries++;
+            }
+
+            agent.reports++;
+
+            pdu = reportPdu(request.requestId(), USM_STATS_UNKNOWN_ENGINE_IDS);
+        }
+        else if (boots != agent.boots)
+        {
+            agent.reports++;
+
+            pdu = reportPdu(request.requestId(), USM_STATS_NOT_IN_TIME_WINDOWS);
+        }
+        else
+        {
+            send(spoofer, sender, v3Message(agent, msgId, userName, forgedPdu(request)));
+
+            pdu = respond(request, 3);
+        }
+
+        send(agent.socket, sender, v3Message(agent, msgId, userName, pdu));
+    }
+
+    /**
+     * GET, GETNEXT and GETBULK over MIB, v1 ends a walk with noSuchName, v2c / v3 with endOfMibView
+     * @param version 0 for SNMPv1
+     */
+    private static byte[] respond(SnmpPdu request, int version)
+    {
+        var v1 = version == 0;
+
+        List<byte[]> varBinds = new ArrayList<>();
+
+        var errorStatus = 0;
+
+        var errorIndex = 0;
+
+        var oids = request.varBinds().stream().map(SnmpPdu.VarBind::oid).toList();
+
+        if (request.type() == Ber.GET_BULK)
+        {
+            var nonRepeaters = Math.min(request.errorStatus(), oids.size());
+
+            for (var i = 0; i < nonRepeaters; i++)
+            {
+                varBinds.add(next(oids.get(i)));
+            }
+
+            var cursors = new ArrayList<>(oids.subList(nonRepeaters, oids.size()));
+
+            for (var repetition = 0; repetition < request.errorIndex() && !cursors.isEmpty(); repetition++)
+            {
+                for (var i = 0; i < cursors.size(); i++)
+                {
+                    var entry = MIB.higherEntry(cursors.get(i));
+
+                    if (entry == null)
+                    {
+                        varBinds.add(varBind(cursors.get(i), Ber.tlv(Ber.END_OF_MIB_VIEW, new byte[0])));
+                    }
+                    else
+                    {
+                        varBinds.add(varBind(entry.getKey(), entry.getValue()));
+
+                        cursors.set(i, entry.getKey());
+                    }
+                }
+            }
+        }
+        else
+        {
+            for (var i = 0; i < oids.size(); i++)
+            {
+                var oid = oids.get(i);
+
+                var value = request.type() == Ber.GET ? MIB.get(oid) : null;
+
+                var entry = request.type() == Ber.GET_NEXT ? MIB.higherEntry(oid) : null;
+
+                if (value == null && entry == null)
+                {
+                    if (v1 && errorStatus == 0)
+                    {
+                        errorStatus = SnmpPdu.NO_SUCH_NAME;
+
+                        errorIndex = i + 1;
+                    }
+
+                    varBinds.add(varBind(oid, v1 ? Ber.nullValue()
+                            : Ber.tlv(request.type() == Ber.GET ? Ber.NO_SUCH_OBJECT : Ber.END_OF_MIB_VIEW, new byte[0])));
+                }
+                else if (entry != null)
+                {
+                    varBinds.add(varBind(entry.getKey(), entry.getValue()));
+                }
+                else
+                {
+                    varBinds.add(varBind(oid, value));
+                }
+            }
+        }
+
+        return Ber.container(Ber.RESPONSE,
+                Ber.integer(request.requestId()),
+                Ber.integer(errorStatus),
+                Ber.integer(errorIndex),
+                Ber.container(Ber.SEQUENCE, varBinds.toArray(new byte[0][])));
+    }
+
+    private static byte[] next(String oid)
+    {
+        var entry = MIB.higherEntry(oid);
+
+        return entry == null ? varBind(oid, Ber.tlv(Ber.END_OF_MIB_VIEW, new byte[0])) : varBind(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Same request-id, every requested OID answered with FORGED
+     */
+    private static byte[] forgedPdu(SnmpPdu request)
+    {
+        var varBinds = request.varBinds().stream()
+                .map(varBind -> varBind(varBind.oid(), Ber.octetString(FORGED)))
+                .toArray(byte[][]::new);
+
+        return Ber.container(Ber.RESPONSE,
+                Ber.integer(request.requestId()),
+                Ber.integer(0),
+                Ber.integer(0),
+                Ber.container(Ber.SEQUENCE, varBinds));
+    }
+
+    private static byte[] reportPdu(int requestId, String counterOid)
+    {
+        return Ber.container(Ber.REPORT,
+                Ber.integer(requestId),
+                Ber.integer(0),
+                Ber.integer(0),
+                Ber.container(Ber.SEQUENCE, varBind(counterOid, unsigned(Ber.COUNTER32, 1))));
+    }
+
+    private static byte[] v1Message(int version, String community, byte[] pdu)
+    {
+        return Ber.container(Ber.SEQUENCE, Ber.integer(version), Ber.octetString(community), pdu);
+    }
+
+    private static byte[] v3Message(Agent agent, int msgId, byte[] userName, byte[] pdu)
+    {
+        var usm = Ber.container(Ber.SEQUENCE,
+                Ber.octetString(agent.engineId),
+                Ber.integer(agent.boots),
+                Ber.integer(agent.engineTime()),
+                Ber.octetString(userName),
+                Ber.octetString(new byte[0]),
+                Ber.octetString(new byte[0]));
+
+        return Ber.container(Ber.SEQUENCE,
+                Ber.integer(3),
+                Ber.container(Ber.SEQUENCE, Ber.integer(msgId), Ber.integer(65507), Ber.octetString(new byte[]{0}), Ber.integer(3)),
+                Ber.octetString(usm),
+                Ber.container(Ber.SEQUENCE, Ber.octetString(agent.engineId), Ber.octetString(new byte[0]), pdu));
+    }
+
+    private static byte[] varBind(String oid, byte[] value)
+    {
+        return Ber.container(Ber.SEQUENCE, Ber.oid(oid), value);
+    }
+
+    /**
+     * Counter32 / Gauge32 / TimeTicks / Counter64 => unsigned content, BigInteger adds the leading zero when needed
+     */
+    private static byte[] unsigned(int tag, long value)
+    {
+        return Ber.tlv(tag, BigInteger.valueOf(value).toByteArray());
+    }
+
+    private static byte[] engineId(int index, int generation)
+    {
+        // Enterprise 8072 (net-snmp) Format With Text Suffix
+        return Ber.concat(new byte[]{(byte) 0x80, 0x00, 0x1f, (byte) 0x88, 0x04}, ("sim-" + index + "-" + generation).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(DatagramSocket socket, SocketAddress to, byte[] message)
+    {
+        socket.send(Buffer.buffer(message), to.port(), to.host());
+    }
+
+    private static int compareOids(String left, String right)
+    {
+        var leftParts = left.split("\\.");
+
+        var rightParts = right.split("\\.");
+
+        for (var i = 0; i < Math.min(leftParts.length, rightParts.length); i++)
+        {
+            var comparison = Long.compare(Long.parseLong(leftParts[i]), Long.parseLong(rightParts[i]));
+
+            if (comparison != 0)
+            {
+                return comparison;
+            }
+        }
+
+        return Integer.compare(leftParts.length, rightParts.length);
+    }
+}
@@ -0,0 +1,360 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.nms.ConsoleLogger;
+import org.nms.PluginManager.Ssh.SshCollector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs SshCollector against embedded Apache MINA SSHD servers on loopback, one per simulated device
+ * Each server answers the collector's commands with canned Linux output, host keys are generated in memory
+ * Round 1 learns every host key into a fresh known_hosts file, before the last round one device is re-keyed,
+ * so the report shows session reuse and that only the re-keyed device is refused
+ */
+public class SshServerHarness extends AbstractVerticle
+{
+    private static final List<String> METRIC_GROUPS = List.of("CPUINFO", "CPUUSAGE", "UPTIME", "MEMORY", "DISK", "PROCESS", "NETWORK", "SYSTEMINFO");
+
+    private static final String USERNAME = "nms";
+
+    private static final String PASSWORD = "harness";
+
+    private int devices;
+
+    private int rounds;
+
+    private final List<SshServer> servers = new ArrayList<>();
+
+    private final AtomicLong commandsServed = new AtomicLong();
+
+    private final AtomicLong sessionsOpened = new AtomicLong();
+
+    private SshCollector collector;
+
+    /**
+     * config => { devices, rounds }, at least two rounds so the re-keyed device is polled after learning
+     */
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        devices = config().getInteger("devices", 10);
+
+        rounds = Math.max(2, config().getInteger("rounds", 3));
+
+        vertx.<Void>executeBlocking(() ->
+                {
+                    var knownHosts = Files.createTempFile("nms-ssh-harness", ".known_hosts");
+
+                    // TOFU Starts From An Empty File
+                    Files.delete(knownHosts);
+
+                    collector = new SshCollector(knownHosts);
+
+                    for (var i = 0; i < devices; i++)
+                    {
+                        servers.add(startServer(0));
+                    }
+
+                    return null;
+                })
+                .onSuccess(ignored ->
+                {
+                    startPromise.complete();
+
+                    run();
+                })
+                .onFailure(startPromise::fail);
+    }
+
+    private void run()
+    {
+        ConsoleLogger.info("🏁 SSH Server Harness => " + devices + " Devices x " + METRIC_GROUPS.size() + " Metric Groups x " + rounds + " Rounds");
+
+        var roundReports = new JsonArray();
+
+        Future<Void> chain = Future.succeededFuture();
+
+        for (var round = 1; round <= rounds; round++)
+        {
+            var current = round;
+
+            chain = chain.compose(ignored ->
+            {
+                // Last Round => Device 0 Comes Back With A New Host Key On The Same Port
+                Future<Void> prepare = current == rounds ? rekeyFirstDevice() : Future.succeededFuture();
+
+                return prepare.compose(v -> pollAll(current)).onSuccess(roundReports::add).mapEmpty();
+            });
+        }
+
+        chain
+                .onSuccess(ignored -> ConsoleLogger.info("📊 SSH Server Harness Finished => " + new JsonObject()
+                        .put("devices", devices)
+                        .put("rounds", roundReports)
+                        .put("sessions_opened", sessionsOpened.get())
+                        .put("commands_served", commandsServed.get())
+                        .encodePrettily()))
+                .onFailure(err -> ConsoleLogger.error("❌ SSH Server Harness Failed => " + err.getMessage()))
+                .onComplete(done -> collector.close()
+                        .compose(v -> vertx.executeBlocking(() ->
+                        {
+                            for (var server : servers)
+                            {
+                                server.stop(true);
+                            }
+
+                            return null;
+                        }))
+                        .onComplete(stopped -> vertx.close()));
+    }
+
+    /**
+     * @return { round, ok, failed, elapsed_ms, failed_devices, failures }
+     */
+    private Future<JsonObject> pollAll(int round)
+    {
+        var start = System.currentTimeMillis();
+
+        List<Future<JsonObject>> polls = new ArrayList<>();
+
+        for (var device = 0; device < servers.size(); device++)
+        {
+            for (var name : METRIC_GROUPS)
+            {
+                polls.add(collector.collect(new JsonObject()
+                        .put("provision_profile_id", device)
+                        .put("name", name)
+                        .put("ip", "127.0.0.1")
+                        .put("port", servers.get(device).getPort())
+                        .put("credentials", new JsonObject()
+                                .put("type", "SSH")
+                                .put("username", USERNAME)
+                                .put("password", PASSWORD))));
+            }
+        }
+
+        return Future.join(polls).transform(ignored ->
+        {
+            long ok = 0, failed = 0;
+
+            var failedDevices = new JsonArray();
+
+            var failures = new JsonArray();
+
+            for (var i = 0; i < polls.size(); i++)
+            {
+                var poll = polls.get(i);
+
+                if (poll.succeeded())
+                {
+                    ok++;
+                    continue;
+                }
+
+                failed++;
+
+                var device = i / METRIC_GROUPS.size();
+
+                if (!failedDevices.contains(device))
+                {
+                    failedDevices.add(device);
+                }
+
+                if (failures.size() < 5)
+                {
+                    failures.add(poll.cause().getMessage());
+                }
+            }
+
+            return Future.succeededFuture(new JsonObject()
+                    .put("round", round)
+                    .put("ok", ok)
+                    .put("failed", failed)
+                    .put("elapsed_ms", System.currentTimeMillis() - start)
+                    .put("failed_devices", failedDevices)
+                    .put("failures", failures));
+        });
+    }
+
+    private Future<Void> rekeyFirstDevice()
+    {
+        return vertx.executeBlocking(() ->
+        {
+            var old = servers.get(0);
+
+            var port = old.getPort();
+
+            old.stop(true);
+
+            servers.set(0, startServer(port));
+
+            return null;
+        });
+    }
+
+    /**
+     * @param port 0 for any free port
+     */
+    private SshServer startServer(int port) throws IOException
+    {
+        var server = SshServer.setUpDefaultServer();
+
+        server.setHost("127.0.0.1");
+
+        server.setPort(port);
+
+        // No Path => Fresh Host Key Kept In Memory, So Every Server Has Its Own
+        server.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+
+        server.setPasswordAuthenticator((username, password, session) ->
+        {
+            var accepted = USERNAME.equals(username) && PASSWORD.equals(password);
+
+            if (accepted)
+            {
+                sessionsOpened.incrementAndGet();
+            }
+
+            return accepted;
+        });
+
+        server.setCommandFactory((channel, command) -> new CannedCommand(command));
+
+        server.start();
+
+        return server;
+    }
+
+    /**
+     * Writes the output a Linux host would give for the collector's command and exits
+     */
+    private class CannedCommand implements Command
+    {
+        private final String command;
+
+        private OutputStream out;
+
+        private ExitCallback exitCallback;
+
+        CannedCommand(String command)
+        {
+            this.command = command;
+        }
+
+        @Override
+        public void setInputStream(InputStream in)
+        {
+        }
+
+        @Override
+        public void setOutputStream(OutputStream out)
+        {
+            this.out = out;
+        }
+
+        @Override
+        public void setErrorStream(OutputStream err)
+        {
+        }
+
+        @Override
+        public void setExitCallback(ExitCallback callback)
+        {
+            this.exitCallback = callback;
+        }
+
+        @Override
+        public void start(ChannelSession channel, Environment env) throws IOException
+        {
+            commandsServed.incrementAndGet();
+
+            var output = output(command);
+
+            if (output == null)
+            {
+                exitCallback.onExit(127, "command not found");
+                return;
+            }
+
+            out.write(output.getBytes(StandardCharsets.UTF_8));
+
+            out.flush();
+
+            exitCallback.onExit(0);
+        }
+
+        @Override
+        public void destroy(ChannelSession channel)
+        {
+        }
+    }
+
+    private static String output(String command)
+    {
+        if (command.contains("lscpu"))
+        {
+            return "Architecture:        x86_64\nCPU(s):              4\nThread(s) per core:  2\nSocket(s):           1\nModel name:          Harness CPU\nCPU MHz:             2400.000\n";
+        }
+
+        if (command.contains("vmstat"))
+        {
+            return " 1  0      0 812340  10240 402112    0    0     1     2   30   60  7  3 89  1  0\n";
+        }
+
+        if (command.contains("/proc/uptime"))
+        {
+            return "86400.25 320000.10\n";
+        }
+
+        if (command.contains("free"))
+        {
+            return "              total        used        free      shared  buff/cache   available\n"
+                    + "Mem:     8589934592  4294967296  2147483648   104857600  2147483648  4089446400\n"
+                    + "Swap:    2147483648   536870912  1610612736\n";
+        }
+
+        if (command.contains("df"))
+        {
+            return "Filesystem     1-blocks       Used  Available Capacity Mounted on\n"
+                    + "/dev/sda1   107374182400 53687091200 53687091200      50% /\n";
+        }
+
+        if (command.contains("ps "))
+        {
+            return "    1 root      0.0  0.1 systemd\n  420 nms       2.5  1.2 java\n";
+        }
+
+        if (command.contains("/proc/net/dev"))
+        {
+            return "Inter-|   Receive                                                |  Transmit\n"
+                    + " face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets errs drop fifo colls carrier compressed\n"
+                    + "    lo: 1000000    1000    0    0    0     0          0         0  1000000    1000    0    0    0     0       0          0\n"
+                    + "  eth0: 5000000    4000    1    0    0     0          0         0  3000000    3500    0    0    0     0       0          0\n";
+        }
+
+        if (command.contains("hostname"))
+        {
+            return "harness\n6.1.0-harness\nx86_64\nHarness Linux\n";
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,415 @@
+package org.nms.LoadTest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.ConsoleLogger;
+import org.nms.PluginManager.WinRm.WinRmCollector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Runs WinRmCollector against stub WS-Management servers on loopback, one per simulated device
+ * Each stub serves Create / Command / Receive / Signal / Delete with Basic auth, Receive is held for a configurable delay
+ * like a real long poll, so the report shows how many Receives wait side by side on one host
+ * Before the last round device 0 changes its password (polled with the new one) and device 1 is polled with a wrong one
+ */
+public class WinRmServerHarness extends AbstractVerticle
+{
+    private static final List<String> METRIC_GROUPS = List.of("CPUINFO", "CPUUSAGE", "UPTIME", "MEMORY", "DISK", "PROCESS", "NETWORK", "SYSTEMINFO");
+
+    private static final String USERNAME = "Administrator";
+
+    private static final String PASSWORD = "harness";
+
+    private static final String ROTATED_PASSWORD = "harness-rotated";
+
+    private static final String COMMAND_STATE_DONE = "http://schemas.microsoft.com/wbem/wsman/1/windows/shell/CommandState/Done";
+
+    private static final String FAULT_SHELL_NOT_FOUND = "2150858843";
+
+    private static final Pattern ACTION = Pattern.compile("<a:Action[^>]*>([^<]+)</a:Action>");
+
+    private static final Pattern SHELL_ID = Pattern.compile("<w:Selector Name=\"ShellId\">([^<]+)<");
+
+    private static final Pattern COMMAND_ID = Pattern.compile("CommandId=\"([^\"]+)\"");
+
+    private static final Pattern ENCODED_COMMAND = Pattern.compile("-EncodedCommand ([A-Za-z0-9+/=]+)");
+
+    private final int devices;
+
+    private final int rounds;
+
+    private final long receiveDelayMillis;
+
+    private final List<StubDevice> stubs = new ArrayList<>();
+
+    private WinRmCollector collector;
+
+    /**
+     * One simulated Windows host => its shells, running commands and counters
+     */
+    private static class StubDevice
+    {
+        HttpServer server;
+
+        String authorization = basic(PASSWORD);
+
+        final Set<String> shells = new HashSet<>();
+
+        // CommandId => Output
+        final Map<String, String> commands = new HashMap<>();
+
+        long shellsCreated = 0;
+
+        long unauthorized = 0;
+
+        int receivesWaiting = 0;
+
+        int maxReceivesWaiting = 0;
+    }
+
+    /**
+     * @param receiveDelayMillis how long each Receive is held before the output is returned
+     */
+    public WinRmServerHarness(int devices, int rounds, long receiveDelayMillis)
+    {
+        this.devices = devices;
+        this.rounds = Math.max(2, rounds);
+        this.receiveDelayMillis = receiveDelayMillis;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise)
+    {
+        collector = new WinRmCollector();
+
+        List<Future<HttpServer>> listening = new ArrayList<>();
+
+        for (var i = 0; i < devices; i++)
+        {
+            var stub = new StubDevice();
+
+            stub.server = vertx.createHttpServer().requestHandler(request -> handle(stub, request));
+
+            stubs.add(stub);
+
+            listening.add(stub.server.listen(0, "127.0.0.1"));
+        }
+
+        Future.all(listening)
+                .onSuccess(ignored ->
+                {
+                    startPromise.complete();
+
+                    run();
+                })
+                .onFailure(startPromise::fail);
+    }
+
+    private void run()
+    {
+        ConsoleLogger.info("🏁 WinRM Server Harness => " + devices + " Devices x " + METRIC_GROUPS.size() + " Metric Groups x " + rounds + " Rounds, Receive Held " + receiveDelayMillis + " ms");
+
+        var roundReports = new JsonArray();
+
+        Future<Void> chain = Future.succeededFuture();
+
+        for (var round = 1; round <= rounds; round++)
+        {
+            var current = round;
+
+            chain = chain.compose(ignored ->
+            {
+                // Last Round => Device 0 Rotates Its Password, Device 1 Is Polled With A Wrong One
+                if (current == rounds && !stubs.isEmpty())
+                {
+                    stubs.get(0).authorization = basic(ROTATED_PASSWORD);
+                }
+
+                return pollAll(current, current == rounds).onSuccess(roundReports::add).mapEmpty();
+            });
+        }
+
+        chain
+                .onSuccess(ignored ->
+                {
+                    var devicesReport = new JsonArray();
+
+                    for (var stub : stubs)
+                    {
+                        devicesReport.add(new JsonObject()
+                                .put("shells_created", stub.shellsCreated)
+                                .put("unauthorized", stub.unauthorized)
+                                .put("max_receives_waiting", stub.maxReceivesWaiting));
+                    }
+
+                    ConsoleLogger.info("📊 WinRM Server Harness Finished => " + new JsonObject()
+                            .put("devices", devices)
+                            .put("receive_delay_ms", receiveDelayMillis)
+                            .put("rounds", roundReports)
+                            .put("stubs", devicesReport)
+                            .encodePrettily());
+                })
+                .onFailure(err -> ConsoleLogger.error("❌ WinRM Server Harness Failed => " + err.getMessage()))
+                .onComplete(done -> collector.close().onComplete(closed -> vertx.close()));
+    }
+
+    /**
+     * @return { round, ok, failed, elapsed_ms, failed_devices, failures }
+     */
+    private Future<JsonObject> pollAll(int round, boolean credentialsChanged)
+    {
+        var start = System.currentTimeMillis();
+
+        List<Future<JsonObject>> polls = new ArrayList<>();
+
+        for (var device = 0; device < stubs.size(); device++)
+        {
+            var password = !credentialsChanged ? PASSWORD : device == 0 ? ROTATED_PASSWORD : device == 1 ? "wrong" : PASSWORD;
+
+            for (var name : METRIC_GROUPS)
+            {
+                polls.add(collector.collect(new JsonObject()
+                        .put("provision_profile_id", device)
+                        .put("name", name)
+                        .put("ip", "127.0.0.1")
+                        .put("port", stubs.get(device).server.actualPort())
+                        .put("credentials", new JsonObject()
+                                .put("type", "WINRM")
+                                .put("username", USERNAME)
+                                .put("password", password))));
+            }
+        }
+
+        return Future.join(polls).transform(ignored ->
+        {
+            long ok = 0, failed = 0;
+
+            var failedDevices = new JsonArray();
+
+            var failures = new JsonArray();
+
+            for (var i = 0; i < polls.size(); i++)
+            {
+                var poll = polls.get(i);
+
+                if (poll.succeeded())
+                {
+                    ok++;
+                    continue;
+                }
+
+                failed++;
+
+                var device = i / METRIC_GROUPS.size();
+
+                if (!failedDevices.contains(device))
+                {
+                    failedDevices.add(device);
+                }
+
+                if (failures.size() < 5)
+                {
+                    failures.add(poll.cause().getMessage());
+                }
+            }
+
+            return Future.succeededFuture(new JsonObject()
+                    .put("round", round)
+                    .put("ok", ok)
+                    .put("failed", failed)
+                    .put("elapsed_ms", System.currentTimeMillis() - start)
+                    .put("failed_devices", failedDevices)
+                    .put("failures", failures));
+        });
+    }
+
+    private void handle(StubDevice stub, HttpServerRequest request)
+    {
+        if (!stub.authorization.equals(request.getHeader("Authorization")))
+        {
+            stub.unauthorized++;
+
+            request.response().setStatusCode(401).putHeader("WWW-Authenticate", "Basic realm=\"WSMAN\"").end();
+            return;
+        }
+
+        request.body().onSuccess(body ->
+        {
+            var envelope = body.toString(StandardCharsets.UTF_8);
+
+            var action = find(ACTION, envelope);
+
+            var shellId = find(SHELL_ID, envelope);
+
+            if (action == null)
+            {
+                request.response().setStatusCode(400).end();
+                return;
+            }
+
+            if (action.endsWith("/Create"))
+            {
+                var created = UUID.randomUUID().toString().toUpperCase();
+
+                stub.shells.add(created);
+
+                stub.shellsCreated++;
+
+                reply(request, "<rsp:Shell><rsp:ShellId>" + created + "</rsp:ShellId></rsp:Shell>");
+                return;
+            }
+
+            if (shellId == null || !stub.shells.contains(shellId))
+            {
+                fault(request, FAULT_SHELL_NOT_FOUND, "The request for the Windows Remote Shell with ShellId " + shellId + " failed because the shell was not found on the server.");
+                return;
+            }
+
+            if (action.endsWith("/Delete"))
+            {
+                stub.shells.remove(shellId);
+
+                reply(request, "");
+            }
+            else if (action.endsWith("/Command"))
+            {
+                var commandId = UUID.randomUUID().toString().toUpperCase();
+
+                stub.commands.put(commandId, output(decodeScript(envelope)));
+
+                reply(request, "<rsp:CommandResponse><rsp:CommandId>" + commandId + "</rsp:CommandId></rsp:CommandResponse>");
+            }
+            else if (action.endsWith("/Receive"))
+            {
+                var commandId = find(COMMAND_ID, envelope);
+
+                stub.receivesWaiting++;
+
+                stub.maxReceivesWaiting = Math.max(stub.maxReceivesWaiting, stub.receivesWaiting);
+
+                // Output Is Ready Only After The Delay, Like A Command Still Running On A Real Host
+                vertx.setTimer(Math.max(1, receiveDelayMillis), id ->
+                {
+                    stub.receivesWaiting--;
+
+                    var output = stub.commands.getOrDefault(commandId, "");
+
+                    var encoded = Base64.getEncoder().encodeToString(output.getBytes(StandardCharsets.UTF_8));
+
+                    reply(request, "<rsp:ReceiveResponse>"
+                            + "<rsp:Stream Name=\"stdout\" CommandId=\"" + commandId + "\">" + encoded + "</rsp:Stream>"
+                            + "<rsp:Stream Name=\"stdout\" CommandId=\"" + commandId + "\" End=\"true\"></rsp:Stream>"
+                            + "<rsp:CommandState CommandId=\"" + commandId + "\" State=\"" + COMMAND_STATE_DONE + "\"><rsp:ExitCode>0</rsp:ExitCode></rsp:CommandState>"
+                            + "</rsp:ReceiveResponse>");
+                });
+            }
+            else if (action.endsWith("/Signal"))
+            {
+                stub.commands.remove(find(COMMAND_ID, envelope));
+
+                reply(request, "<rsp:SignalResponse/>");
+            }
+            else
+            {
+                request.response().setStatusCode(400).end();
+            }
+        });
+    }
+
+    private static void reply(HttpServerRequest request, String body)
+    {
+        request.response()
+                .putHeader("Content-Type", "application/soap+xml;charset=UTF-8")
+                .end("<s:Envelope xmlns:s=\"http://www.w3.org/2003/05/soap-envelope\" xmlns:rsp=\"http://schemas.microsoft.com/wbem/wsman/1/windows/shell\"><s:Header/><s:Body>"
+                        + body + "</s:Body></s:Envelope>");
+    }
+
+    private static void fault(HttpServerRequest request, String code, String message)
+    {
+        request.response()
+                .setStatusCode(500)
+                .putHeader("Content-Type", "application/soap+xml;charset=UTF-8")
+                .end("<s:Envelope xmlns:s=\"http://www.w3.org/2003/05/soap-envelope\" xmlns:f=\"http://schemas.microsoft.com/wbem/wsman/1/wsmanfault\"><s:Body><s:Fault>"
+                        + "<s:Reason><s:Text xml:lang=\"en-US\">" + message + "</s:Text></s:Reason>"
+                        + "<s:Detail><f:WSManFault Code=\"" + code + "\"><f:Message>" + message + "</f:Message></f:WSManFault></s:Detail>"
+                        + "</s:Fault></s:Body></s:Envelope>");
+    }
+
+    private static String decodeScript(String envelope)
+    {
+        var encoded = find(ENCODED_COMMAND, envelope);
+
+        return encoded == null ? "" : new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_16LE);
+    }
+
+    /**
+     * JSON a Windows host would print for the collector's script
+     */
+    private static String output(String script)
+    {
+        if (script.contains("LoadPercentage"))
+        {
+            return "{\"cores\":[{\"core\":\"CPU0\",\"load_percent\":12}],\"average_load_percent\":12}";
+        }
+
+        if (script.contains("NumberOfLogicalProcessors"))
+        {
+            return "{\"cores\":8,\"processors\":[\"Harness CPU\"]}";
+        }
+
+        if (script.contains("LastBootUpTime"))
+        {
+            return "{\"uptime_seconds\":86400}";
+        }
+
+        if (script.contains("TotalVisibleMemorySize"))
+        {
+            return "{\"physical\":{\"type\":\"RAM\",\"total_bytes\":17179869184,\"used_bytes\":8589934592,\"free_bytes\":8589934592},"
+                    + "\"virtual\":{\"type\":\"VIRTUAL\",\"total_bytes\":25769803776,\"used_bytes\":12884901888,\"free_bytes\":12884901888}}";
+        }
+
+        if (script.contains("Win32_LogicalDisk"))
+        {
+            return "[{\"type\":\"DISK\",\"name\":\"C:\",\"total_bytes\":274877906944,\"used_bytes\":137438953472,\"free_bytes\":137438953472}]";
+        }
+
+        if (script.contains("Get-Process"))
+        {
+            return "[{\"pid\":4,\"name\":\"System\",\"cpu_seconds\":120.5,\"memory_bytes\":151552}]";
+        }
+
+        if (script.contains("NetworkInterface"))
+        {
+            return "[{\"name\":\"Ethernet\",\"in_bytes\":5000000,\"out_bytes\":3000000,\"in_errors\":0,\"out_errors\":0}]";
+        }
+
+        return "{\"name\":\"HARNESS\",\"description\":\"Harness Windows Server\",\"version\":\"10.0.20348\",\"architecture\":\"64-bit\"}";
+    }
+
+    private static String basic(String password)
+    {
+        return "Basic " + Base64.getEncoder().encodeToString((USERNAME + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String find(Pattern pattern, String text)
+    {
+        var matcher = pattern.matcher(text);
+
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
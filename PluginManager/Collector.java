@@ -0,0 +1,39 @@
+package org.nms.PluginManager;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Set;
+
+/**
+ * In-process alternative to the external plugin for polling
+ * Implementations are registered in CollectorRegistry and are keyed by credential type and metric group name
+ */
+public interface Collector
+{
+    /**
+     * @return credential type served by this collector => WINRM, SSH, SNMPv1, SNMPv2c or SNMPv3
+     */
+    String credentialType();
+
+    /**
+     * @return metric group names this collector can poll => CPUINFO, CPUUSAGE, UPTIME, ...
+     */
+    Set<String> metricGroups();
+
+    /**
+     * Polls a single metric group
+     * Called on the caller's Vert.x context, so it must never block the calling thread
+     * @param metricGroup { provision_profile_id, name, ip, port, credentials }
+     * @return result in plugin's format => { provision_profile_id, name, success, data, message }
+     */
+    Future<JsonObject> collect(JsonObject metricGroup);
+
+    /**
+     * Releases sessions, sockets etc. held by the collector
+     */
+    default Future<Void> close()
+    {
+        return Future.succeededFuture();
+    }
+}
@@ -0,0 +1,365 @@
+package org.nms.PluginManager;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+import org.nms.VirtualThreadExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Isolated polling lane for one family of credential types
+ * Owns its virtual thread lane, concurrency limit, timeout and plugin binary, so a slow protocol can't starve the others
+ */
+public class CollectorPool
+{
+    private final String name;
+
+    private final int workers;
+
+    private final int maxConcurrency;
+
+    private final int timeoutSeconds;
+
+    private final int pluginBatchSize;
+
+    private final String pluginPath;
+
+    private final VirtualThreadExecutor executor;
+
+    private final Queue<Promise<Void>> waiting = new ArrayDeque<>();
+
+    private int active = 0;
+
+    // Plugin Batches Waiting For One Of The Pool's Plugin Processes, They Hold No Concurrency Slot Meanwhile
+    private final Queue<Promise<Void>> waitingForWorker = new ArrayDeque<>();
+
+    private int busyWorkers = 0;
+
+    // Metrics
+    private final long startedAt = System.currentTimeMillis();
+
+    private long completed = 0;
+
+    private long failed = 0;
+
+    private long timedOut = 0;
+
+    private long totalLatencyMillis = 0;
+
+    private long maxLatencyMillis = 0;
+
+    /**
+     * @param workers plugin processes running at once, each waited on by a virtual thread
+     * @param maxConcurrency plugin batches + collector calls running at once, the rest waits
+     * @param timeoutSeconds per collector call / plugin batch
+     * @param pluginBatchSize metric groups handed to one plugin process
+     * @param pluginPath plugin binary serving this pool's credential types
+     */
+    public CollectorPool(String name, int workers, int maxConcurrency, int timeoutSeconds, int pluginBatchSize, String pluginPath)
+    {
+        this.name = name;
+        this.workers = workers;
+        this.maxConcurrency = maxConcurrency;
+        this.timeoutSeconds = timeoutSeconds;
+        this.pluginBatchSize = pluginBatchSize;
+        this.pluginPath = pluginPath;
+        this.executor = new VirtualThreadExecutor("collector-pool-" + name.toLowerCase(), workers);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Metric groups the pool's plugin processes get through in the given window when every process runs a full batch
+     * that takes the whole timeout, i.e. plugin throughput at the worst latency the pool accepts
+     */
+    public long capacity(long windowMillis)
+    {
+        var rounds = Math.max(1, windowMillis / (timeoutSeconds * 1000L));
+
+        return (long) workers * pluginBatchSize * rounds;
+    }
+
+    /**
+     * Runs an in-process collector within this pool's concurrency limit and timeout
+     * @return plugin-shaped result, failures are converted into unsuccessful results
+     */
+    public Future<JsonObject> collect(Collector collector, JsonObject metricGroup)
+    {
+        return acquire().compose(ignored ->
+        {
+            var start = System.currentTimeMillis();
+
+            Promise<JsonObject> promise = Promise.promise();
+
+            var timerId = App.vertx.setTimer(timeoutSeconds * 1000L, id ->
+            {
+                if (promise.tryComplete(PluginManager.failedResult(metricGroup, "Collector Timed Out After " + timeoutSeconds + " Seconds")))
+                {
+                    recordTimeout(1);
+                }
+            });
+
+            Future<JsonObject> collected;
+
+            try
+            {
+                collected = collector.collect(metricGroup);
+            }
+            catch (Exception e)
+            {
+                collected = Future.failedFuture(e);
+            }
+
+            collected.onComplete(result ->
+            {
+                App.vertx.cancelTimer(timerId);
+
+                promise.tryComplete(result.succeeded() ? result.result() : PluginManager.failedResult(metricGroup, result.cause().getMessage()));
+            });
+
+            return promise.future().onComplete(result ->
+            {
+                try
+                {
+                    // A Collector Completing With Null Is Recorded As Failed
+                    record(start, Collections.singletonList(result.succeeded() ? result.result() : null));
+                }
+                finally
+                {
+                    release();
+                }
+            });
+        });
+    }
+
+    /**
+     * Runs the pool's plugin on its own virtual thread lane, split into batches of pluginBatchSize
+     * A batch takes a concurrency slot only once a plugin process is free, so queued batches don't starve collector calls
+     * @return results of all batches, a failed or timed out batch contributes no results
+     */
+    public Future<JsonArray> runPlugin(JsonArray metricGroups)
+    {
+        List<Future<JsonArray>> batches = new ArrayList<>();
+
+        for (var offset = 0; offset < metricGroups.size(); offset += pluginBatchSize)
+        {
+            var batch = new JsonArray(metricGroups.getList().subList(offset, Math.min(offset + pluginBatchSize, metricGroups.size())));
+
+            batches.add(acquireWorker().compose(worker -> acquire()
+                    .compose(slot -> runPluginBatch(batch).onComplete(done ->
+                    {
+                        try
+                        {
+                            release();
+                        }
+                        finally
+                        {
+                            releaseWorker();
+                        }
+                    }))));
+        }
+
+        return Future.join(batches).transform(ignored ->
+        {
+            var results = new JsonArray();
+
+            batches.forEach(batch ->
+            {
+                if (batch.succeeded() && batch.result() != null)
+                {
+                    results.addAll(batch.result());
+                }
+            });
+
+            return Future.succeededFuture(results);
+        });
+    }
+
+    private Future<JsonArray> runPluginBatch(JsonArray metricGroups)
+    {
+        var start = System.currentTimeMillis();
+
+        return executor.execute(() ->
+        {
+            try
+            {
+                var pollingInput = new JsonObject()
+                        .put("type", "polling")
+                        .put("metric_groups", metricGroups);
+
+                return PluginManager.runPlugin(pollingInput, "metric_groups", timeoutSeconds, pluginPath);
+            }
+            catch (TimeoutException e)
+            {
+                // Whole Batch Lost To The Timeout, Its Groups Are Also Recorded As Failed Below
+                recordTimeout(metricGroups.size());
+
+                return new JsonArray();
+            }
+            catch (Exception e)
+            {
+                ConsoleLogger.error("❌ Error Running Polling In " + name + " Collector Pool " + e.getMessage());
+
+                return new JsonArray();
+            }
+        }).onSuccess(results ->
+        {
+            List<JsonObject> returned = new ArrayList<>();
+
+            for (var i = 0; i < results.size(); i++)
+            {
+                returned.add(results.getJsonObject(i));
+            }
+
+            // Metric Groups Without A Result Were Lost To A Timeout / Crash
+            for (var i = returned.size(); i < metricGroups.size(); i++)
+            {
+                returned.add(null);
+            }
+
+            record(start, returned);
+        });
+    }
+
+    private synchronized Future<Void> acquire()
+    {
+        if (active < maxConcurrency)
+        {
+            active++;
+
+            return Future.succeededFuture();
+        }
+
+        Promise<Void> promise = Promise.promise();
+
+        waiting.add(promise);
+
+        return promise.future();
+    }
+
+    private void release()
+    {
+        Promise<Void> next;
+
+        synchronized (this)
+        {
+            next = waiting.poll();
+
+            if (next == null)
+            {
+                active--;
+
+                return;
+            }
+        }
+
+        // Slot Is Handed Over Directly, Active Count Stays The Same
+        next.complete();
+    }
+
+    private synchronized Future<Void> acquireWorker()
+    {
+        if (busyWorkers < workers)
+        {
+            busyWorkers++;
+
+            return Future.succeededFuture();
+        }
+
+        Promise<Void> promise = Promise.promise();
+
+        waitingForWorker.add(promise);
+
+        return promise.future();
+    }
+
+    private void releaseWorker()
+    {
+        Promise<Void> next;
+
+        synchronized (this)
+        {
+            next = waitingForWorker.poll();
+
+            if (next == null)
+            {
+                busyWorkers--;
+
+                return;
+            }
+        }
+
+        // Worker Is Handed Over Directly, Busy Count Stays The Same
+        next.complete();
+    }
+
+    private synchronized void record(long start, List<JsonObject> results)
+    {
+        var latency = System.currentTimeMillis() - start;
+
+        for (var result : results)
+        {
+            if (result != null && result.getBoolean("success", false))
+            {
+                completed++;
+            }
+            else
+            {
+                failed++;
+            }
+
+            totalLatencyMillis += latency;
+        }
+
+        maxLatencyMillis = Math.max(maxLatencyMillis, latency);
+    }
+
+    private synchronized void recordTimeout(int metricGroups)
+    {
+        timedOut += metricGroups;
+    }
+
+    /**
+     * @return throughput, latency and queue depth of this pool
+     */
+    public synchronized JsonObject getMetrics()
+    {
+        var total = completed + failed;
+
+        var uptimeSeconds = Math.max(1, (System.currentTimeMillis() - startedAt) / 1000);
+
+        return new JsonObject()
+                .put("pool", name)
+                .put("max_concurrency", maxConcurrency)
+                .put("timeout_seconds", timeoutSeconds)
+                .put("plugin_path", pluginPath)
+                .put("active", active)
+                .put("queued", waiting.size())
+                .put("workers", workers)
+                .put("queued_for_worker", waitingForWorker.size())
+                .put("plugin_processes", executor.getActive())
+                .put("completed", completed)
+                .put("failed", failed)
+                .put("timed_out", timedOut)
+                .put("throughput_per_minute", total * 60.0 / uptimeSeconds)
+                .put("average_latency_ms", total == 0 ? 0 : totalLatencyMillis / total)
+                .put("max_latency_ms", maxLatencyMillis);
+    }
+
+    public Future<Void> close()
+    {
+        return executor.close();
+    }
+}
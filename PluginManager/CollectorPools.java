@@ -0,0 +1,112 @@
+package org.nms.PluginManager;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import org.nms.Constants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Polling work is routed by credential type to one of these pools
+ * SNMP answers in milliseconds while WinRM may take seconds, so each family gets its own lane
+ */
+public class CollectorPools
+{
+    private static final Map<String, CollectorPool> pools = new LinkedHashMap<>();
+
+    private static CollectorPool defaultPool;
+
+    /**
+     * Creates the pools, must be called once before polling starts
+     */
+    public static synchronized void init()
+    {
+        if (defaultPool != null)
+        {
+            return;
+        }
+
+        // Name, Plugin Processes, Max Concurrency, Timeout Seconds, Plugin Batch Size, Plugin Path
+        pools.put("SNMP", new CollectorPool("SNMP", 4, 256, 30, 200, Constants.SNMP_PLUGIN_PATH));
+
+        pools.put("SSH", new CollectorPool("SSH", 8, 64, 30, 50, Constants.SSH_PLUGIN_PATH));
+
+        pools.put("WINRM", new CollectorPool("WINRM", 8, 32, 60, 25, Constants.WINRM_PLUGIN_PATH));
+
+        defaultPool = new CollectorPool("DEFAULT", 4, 32, 30, 50, Constants.PLUGIN_PATH);
+    }
+
+    /**
+     * @return pool serving given credential type, e.g. SNMPv2c => SNMP
+     */
+    public static CollectorPool forCredentialType(String credentialType)
+    {
+        if (credentialType != null)
+        {
+            var type = credentialType.toUpperCase();
+
+            for (var entry : pools.entrySet())
+            {
+                if (type.startsWith(entry.getKey()))
+                {
+                    return entry.getValue();
+                }
+            }
+        }
+
+        return defaultPool;
+    }
+
+    /**
+     * @return pool with given name, e.g. SNMP or DEFAULT, null if there is none
+     */
+    public static CollectorPool forPoolName(String name)
+    {
+        if (defaultPool != null && defaultPool.getName().equals(name))
+        {
+            return defaultPool;
+        }
+
+        return pools.get(name);
+    }
+
+    /**
+     * @return metrics of every pool
+     */
+    public static JsonArray getMetrics()
+    {
+        var metrics = new JsonArray();
+
+        pools.values().forEach(pool -> metrics.add(pool.getMetrics()));
+
+        if (defaultPool != null)
+        {
+            metrics.add(defaultPool.getMetrics());
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Closes the pools, init() creates fresh ones afterwards
+     */
+    public static synchronized Future<Void> close()
+    {
+        var closing = new ArrayList<Future<Void>>();
+
+        pools.values().forEach(pool -> closing.add(pool.close()));
+
+        if (defaultPool != null)
+        {
+            closing.add(defaultPool.close());
+        }
+
+        pools.clear();
+
+        defaultPool = null;
+
+        return Future.join(closing).mapEmpty();
+    }
+}
@@ -0,0 +1,99 @@
+package org.nms.PluginManager;
+
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+import org.nms.PluginManager.Snmp.SnmpCollector;
+import org.nms.PluginManager.Ssh.SshCollector;
+import org.nms.PluginManager.WinRm.WinRmCollector;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of in-process collectors keyed by "credential_type:metric_group"
+ */
+public class CollectorRegistry
+{
+    private static final ConcurrentHashMap<String, Collector> collectors = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the in-process collectors switched on in Constants, used by both the Scheduler and collector agents
+     * SshCollector only links Apache MINA SSHD once it is registered, without the library SSH stays on the plugin
+     */
+    public static void registerNativeCollectors()
+    {
+        if (Constants.NATIVE_SNMP_COLLECTOR)
+        {
+            register(new SnmpCollector("SNMPv1"));
+            register(new SnmpCollector("SNMPv2c"));
+            register(new SnmpCollector("SNMPv3"));
+        }
+
+        if (Constants.NATIVE_SSH_COLLECTOR)
+        {
+            try
+            {
+                register(new SshCollector());
+            }
+            catch (LinkageError e)
+            {
+                ConsoleLogger.warn("⚠️ Native SSH Collector Unavailable, SSH Stays On The Plugin => " + e.getMessage());
+            }
+        }
+
+        if (Constants.NATIVE_WINRM_COLLECTOR)
+        {
+            register(new WinRmCollector());
+        }
+    }
+
+    /**
+     * Registers collector for each metric group it supports, replacing any previous one
+     * @param collector collector to register
+     */
+    public static void register(Collector collector)
+    {
+        for (var metricGroup : collector.metricGroups())
+        {
+            collectors.put(key(collector.credentialType(), metricGroup), collector);
+        }
+
+        ConsoleLogger.info("🔌 Registered In-Process Collector " + collector.getClass().getSimpleName() + " For " + collector.credentialType() + " => " + collector.metricGroups());
+    }
+
+    /**
+     * Removes collector from all of its keys
+     * @param collector collector to remove
+     */
+    public static void unregister(Collector collector)
+    {
+        collectors.values().removeIf(registered -> registered == collector);
+    }
+
+    /**
+     * Finds collector for given credential type and metric group
+     * @return collector or null if polling should go through the plugin
+     */
+    public static Collector find(String credentialType, String metricGroup)
+    {
+        if (credentialType == null || metricGroup == null)
+        {
+            return null;
+        }
+
+        return collectors.get(key(credentialType, metricGroup));
+    }
+
+    /**
+     * @return distinct registered collectors
+     */
+    public static List<Collector> getAll()
+    {
+        return collectors.values().stream().distinct().toList();
+    }
+
+    private static String key(String credentialType, String metricGroup)
+    {
+        return credentialType + ":" + metricGroup;
+    }
+}
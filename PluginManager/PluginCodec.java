@@ -0,0 +1,426 @@
+package org.nms.PluginManager;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Length-prefixed MessagePack codec used on the plugin boundary when
+ * Constants.PLUGIN_PROTOCOL is "BINARY"
+ * Frame Layout => [ 4 byte big-endian payload length ][ MessagePack payload ]
+ */
+public class PluginCodec
+{
+    private static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Writes a single frame holding the given object
+     * @param request request to encode
+     * @param out stream connected to plugin's stdin
+     */
+    public static void writeFrame(JsonObject request, OutputStream out) throws IOException
+    {
+        var payload = encode(request);
+
+        var header = Buffer.buffer(4).appendInt(payload.length());
+
+        out.write(header.getBytes());
+
+        out.write(payload.getBytes());
+
+        out.flush();
+    }
+
+    /**
+     * Reads a single frame from plugin's stdout
+     * @param in stream connected to plugin's stdout
+     * @return decoded object
+     * @throws EOFException if stream ended before a complete frame, e.g. a plugin without binary support exited
+     */
+    public static JsonObject readFrame(InputStream in) throws IOException
+    {
+        var header = in.readNBytes(4);
+
+        if (header.length < 4)
+        {
+            throw new EOFException("Plugin Stream Ended After " + header.length + " Of 4 Header Bytes");
+        }
+
+        var length = Buffer.buffer(header).getInt(0);
+
+        if (length < 0 || length > MAX_FRAME_SIZE)
+        {
+            throw new IOException("Invalid Frame Length " + length);
+        }
+
+        var payload = in.readNBytes(length);
+
+        if (payload.length < length)
+        {
+            throw new EOFException("Plugin Stream Ended After " + payload.length + " Of " + length + " Payload Bytes");
+        }
+
+        var value = decode(Buffer.buffer(payload));
+
+        if (!(value instanceof JsonObject))
+        {
+            throw new IOException("Expected Map At Top Level Of Plugin Frame");
+        }
+
+        return (JsonObject) value;
+    }
+
+    /**
+     * Encodes a json object as MessagePack
+     * @throws EncodeException if a value has no MessagePack mapping
+     */
+    public static Buffer encode(JsonObject object)
+    {
+        var buffer = Buffer.buffer(256);
+
+        writeValue(buffer, object);
+
+        return buffer;
+    }
+
+    /**
+     * Decodes a MessagePack payload into JsonObject / JsonArray / scalar
+     */
+    public static Object decode(Buffer buffer) throws IOException
+    {
+        var reader = new Reader(buffer);
+
+        var value = reader.readValue();
+
+        if (reader.position != buffer.length())
+        {
+            throw new IOException("Trailing Bytes In Plugin Frame");
+        }
+
+        return value;
+    }
+
+    private static void writeValue(Buffer buffer, Object value)
+    {
+        if (value == null)
+        {
+            buffer.appendByte((byte) 0xc0);
+        }
+        else if (value instanceof Boolean bool)
+        {
+            buffer.appendByte(bool ? (byte) 0xc3 : (byte) 0xc2);
+        }
+        else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal)
+        {
+            buffer.appendByte((byte) 0xcb).appendDouble(((Number) value).doubleValue());
+        }
+        else if (value instanceof Number number)
+        {
+            writeLong(buffer, number.longValue());
+        }
+        else if (value instanceof String string)
+        {
+            writeString(buffer, string);
+        }
+        else if (value instanceof byte[] bytes)
+        {
+            buffer.appendByte((byte) 0xc6).appendInt(bytes.length).appendBytes(bytes);
+        }
+        else if (value instanceof Buffer bytes)
+        {
+            buffer.appendByte((byte) 0xc6).appendInt(bytes.length()).appendBuffer(bytes);
+        }
+        // Same Text Vert.x Writes For These In JSON
+        else if (value instanceof Instant instant)
+        {
+            writeString(buffer, DateTimeFormatter.ISO_INSTANT.format(instant));
+        }
+        else if (value instanceof Enum<?> constant)
+        {
+            writeString(buffer, constant.name());
+        }
+        else if (value instanceof JsonObject object)
+        {
+            writeMapHeader(buffer, object.size());
+
+            for (var entry : object)
+            {
+                writeString(buffer, entry.getKey());
+
+                writeValue(buffer, entry.getValue());
+            }
+        }
+        else if (value instanceof Map<?, ?> map)
+        {
+            writeValue(buffer, new JsonObject((Map<String, Object>) map));
+        }
+        else if (value instanceof JsonArray array)
+        {
+            writeArrayHeader(buffer, array.size());
+
+            for (var element : array)
+            {
+                writeValue(buffer, element);
+            }
+        }
+        else if (value instanceof Iterable<?> iterable)
+        {
+            var array = new JsonArray();
+
+            iterable.forEach(array::add);
+
+            writeValue(buffer, array);
+        }
+        else
+        {
+            throw new EncodeException("Unsupported Type In Plugin Frame => " + value.getClass().getName());
+        }
+    }
+
+    private static void writeLong(Buffer buffer, long value)
+    {
+        if (value >= 0 && value <= 0x7f)
+        {
+            buffer.appendByte((byte) value);
+        }
+        else if (value < 0 && value >= -32)
+        {
+            buffer.appendByte((byte) value);
+        }
+        else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+        {
+            buffer.appendByte((byte) 0xd2).appendInt((int) value);
+        }
+        else
+        {
+            buffer.appendByte((byte) 0xd3).appendLong(value);
+        }
+    }
+
+    private static void writeString(Buffer buffer, String value)
+    {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length < 32)
+        {
+            buffer.appendByte((byte) (0xa0 | bytes.length));
+        }
+        else if (bytes.length <= 0xffff)
+        {
+            buffer.appendByte((byte) 0xda).appendUnsignedShort(bytes.length);
+        }
+        else
+        {
+            buffer.appendByte((byte) 0xdb).appendInt(bytes.length);
+        }
+
+        buffer.appendBytes(bytes);
+    }
+
+    private static void writeMapHeader(Buffer buffer, int size)
+    {
+        if (size < 16)
+        {
+            buffer.appendByte((byte) (0x80 | size));
+        }
+        else if (size <= 0xffff)
+        {
+            buffer.appendByte((byte) 0xde).appendUnsignedShort(size);
+        }
+        else
+        {
+            buffer.appendByte((byte) 0xdf).appendInt(size);
+        }
+    }
+
+    private static void writeArrayHeader(Buffer buffer, int size)
+    {
+        if (size < 16)
+        {
+            buffer.appendByte((byte) (0x90 | size));
+        }
+        else if (size <= 0xffff)
+        {
+            buffer.appendByte((byte) 0xdc).appendUnsignedShort(size);
+        }
+        else
+        {
+            buffer.appendByte((byte) 0xdd).appendInt(size);
+        }
+    }
+
+    /**
+     * Cursor over a MessagePack buffer
+     */
+    private static class Reader
+    {
+        private final Buffer buffer;
+
+        private int position = 0;
+
+        Reader(Buffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        Object readValue() throws IOException
+        {
+            ensure(1);
+
+            var type = buffer.getUnsignedByte(position++);
+
+            // Positive FixInt, FixMap, FixArray, FixStr
+            if (type <= 0x7f)
+            {
+                return (long) type;
+            }
+            if (type >= 0x80 && type <= 0x8f)
+            {
+                return readMap(type & 0x0f);
+            }
+            if (type >= 0x90 && type <= 0x9f)
+            {
+                return readArray(type & 0x0f);
+            }
+            if (type >= 0xa0 && type <= 0xbf)
+            {
+                return readString(type & 0x1f);
+            }
+
+            // Negative FixInt
+            if (type >= 0xe0)
+            {
+                return (long) (byte) type;
+            }
+
+            switch (type)
+            {
+                case 0xc0: return null;
+                case 0xc2: return false;
+                case 0xc3: return true;
+                case 0xc4: return readBytes(readUnsignedByte());
+                case 0xc5: return readBytes(readUnsignedShort());
+                case 0xc6: return readBytes(readLength());
+                case 0xca: ensure(4); var f = buffer.getFloat(position); position += 4; return (double) f;
+                case 0xcb: ensure(8); var d = buffer.getDouble(position); position += 8; return d;
+                case 0xcc: return (long) readUnsignedByte();
+                case 0xcd: return (long) readUnsignedShort();
+                case 0xce: ensure(4); var ui = buffer.getUnsignedInt(position); position += 4; return ui;
+                case 0xcf: ensure(8); var ul = buffer.getLong(position); position += 8; return ul;
+                case 0xd0: ensure(1); return (long) buffer.getByte(position++);
+                case 0xd1: ensure(2); var s = buffer.getShort(position); position += 2; return (long) s;
+                case 0xd2: ensure(4); var i = buffer.getInt(position); position += 4; return (long) i;
+                case 0xd3: ensure(8); var l = buffer.getLong(position); position += 8; return l;
+                case 0xd9: return readString(readUnsignedByte());
+                case 0xda: return readString(readUnsignedShort());
+                case 0xdb: return readString(readLength());
+                case 0xdc: return readArray(readUnsignedShort());
+                case 0xdd: return readArray(readLength());
+                case 0xde: return readMap(readUnsignedShort());
+                case 0xdf: return readMap(readLength());
+                default: throw new IOException("Unsupported MessagePack Type 0x" + Integer.toHexString(type));
+            }
+        }
+
+        private JsonObject readMap(int size) throws IOException
+        {
+            var object = new JsonObject();
+
+            for (var i = 0; i < size; i++)
+            {
+                var key = readValue();
+
+                object.put(String.valueOf(key), readValue());
+            }
+
+            return object;
+        }
+
+        private JsonArray readArray(int size) throws IOException
+        {
+            var array = new JsonArray();
+
+            for (var i = 0; i < size; i++)
+            {
+                array.add(readValue());
+            }
+
+            return array;
+        }
+
+        private String readString(int length) throws IOException
+        {
+            ensure(length);
+
+            var value = buffer.getString(position, position + length, "UTF-8");
+
+            position += length;
+
+            return value;
+        }
+
+        private byte[] readBytes(int length) throws IOException
+        {
+            ensure(length);
+
+            var value = buffer.getBytes(position, position + length);
+
+            position += length;
+
+            return value;
+        }
+
+        private int readUnsignedByte() throws IOException
+        {
+            ensure(1);
+
+            return buffer.getUnsignedByte(position++);
+        }
+
+        private int readUnsignedShort() throws IOException
+        {
+            ensure(2);
+
+            var value = buffer.getUnsignedShort(position);
+
+            position += 2;
+
+            return value;
+        }
+
+        private int readLength() throws IOException
+        {
+            ensure(4);
+
+            var value = buffer.getInt(position);
+
+            position += 4;
+
+            if (value < 0)
+            {
+                throw new IOException("Invalid Length In Plugin Frame");
+            }
+
+            return value;
+        }
+
+        private void ensure(int bytes) throws IOException
+        {
+            if (bytes < 0 || position + bytes > buffer.length())
+            {
+                throw new IOException("Truncated Plugin Frame");
+            }
+        }
+    }
+}
@@ -6,21 +6,32 @@ import io.vertx.core.json.JsonObject;
 import org.nms.App;
 import org.nms.ConsoleLogger;
 import org.nms.Constants;
+import org.nms.VirtualThreadExecutor;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class PluginManager
 {
     private static final int DISCOVERY_TIMEOUT = 30;
 
-    private static final int POLLING_TIMEOUT = 30;
+    private static final String BINARY_PROTOCOL = "BINARY";
+
+    private static final String BINARY_PROTOCOL_FLAG = "--protocol=binary";
 
     public static Future<JsonArray> runDiscovery(int discoveryId, JsonArray ips, int port, JsonArray credentials)
     {
-        return App.vertx.executeBlocking(() -> {
+        // Plugin Process Waits On Every Target, Run It On A Virtual Thread Instead Of A Vert.x Worker
+        return VirtualThreadExecutor.DISCOVERY_PLUGIN.execute(() -> {
             try {
                 // Step-1.1: Prepare Request Json
                 JsonObject discoveryInput = new JsonObject();
@@ -30,96 +41,226 @@ public class PluginManager
                 discoveryInput.put("port", port);
                 discoveryInput.put("credentials", credentials);
 
-                // Step-1.2: Prepare Command
-                String inputJsonStr = discoveryInput.encode();
-                String[] command = {Constants.PLUGIN_PATH, inputJsonStr};
+                // Step-2: Run Plugin And Return Result Array
+                return runPlugin(discoveryInput, "result", DISCOVERY_TIMEOUT, Constants.PLUGIN_PATH);
+            }
+            catch (TimeoutException e)
+            {
+                // Already Logged By The Protocol, Nothing Was Discovered
+                return new JsonArray();
+            }
+            catch (Exception e)
+            {
+                ConsoleLogger.error("❌ Error Running Discovery In PluginManager " + e.getMessage());
 
-                // Step-2: Run Command
-                ProcessBuilder builder = new ProcessBuilder(command);
-                builder.redirectErrorStream(true);
-                Process process = builder.start();
+                return new JsonArray();
+            }
+        });
+    }
 
-                // Waiting for 20 Seconds For Reply
-                boolean done = process.waitFor(DISCOVERY_TIMEOUT, TimeUnit.SECONDS);
+    /**
+     * Polls metric groups, preferring an in-process collector registered in CollectorRegistry
+     * and falling back to the plugin for everything else
+     * Work is routed by credential type to its CollectorPool, so protocols don't wait on each other
+     * @param metricGroups array of { provision_profile_id, name, ip, port, credentials }
+     * @return merged results of collectors and plugin
+     */
+    public static Future<JsonArray> runPolling(JsonArray metricGroups)
+    {
+        var pluginMetricGroups = new LinkedHashMap<CollectorPool, JsonArray>();
 
-                if(!done)
-                {
-                    ConsoleLogger.warn("⏱️ GoPlugin Is Not Responding Within " + DISCOVERY_TIMEOUT + " Seconds");
+        List<Future<JsonObject>> collectorFutures = new ArrayList<>();
 
-                    return new JsonArray();
-                }
-                else
-                {
-                    // Step-3: Read Output From Go's Stream
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-                    String output = reader.lines().collect(Collectors.joining());
+        // Step-1: Route Each Metric Group To Its Pool's Collector Or Plugin
+        for (var i = 0; i < metricGroups.size(); i++)
+        {
+            var metricGroup = metricGroups.getJsonObject(i);
+
+            var credentials = metricGroup.getJsonObject("credentials");
+
+            var credentialType = credentials == null ? null : credentials.getString("type");
 
-                    // Parse Response JSON
-                    JsonObject outputJson = new JsonObject(output);
+            var pool = CollectorPools.forCredentialType(credentialType);
 
-                    // Return Result Array
-                    return outputJson.getJsonArray("result");
-                }
+            var collector = CollectorRegistry.find(credentialType, metricGroup.getString("name"));
 
+            if (collector == null)
+            {
+                pluginMetricGroups.computeIfAbsent(pool, ignored -> new JsonArray()).add(metricGroup);
             }
-            catch (Exception e)
+            else
             {
-                ConsoleLogger.error("❌ Error Running Discovery In PluginManager " + e.getMessage());
-
-                return new JsonArray();
+                collectorFutures.add(pool.collect(collector, metricGroup));
             }
-        });
+        }
+
+        // Step-2: Plugin Is Only Spawned For Pools With Something Left For It
+        List<Future<JsonArray>> pluginFutures = new ArrayList<>();
+
+        pluginMetricGroups.forEach((pool, groups) -> pluginFutures.add(pool.runPlugin(groups)));
+
+        // Step-3: Merge Results
+        return Future.join(Future.join(collectorFutures), Future.join(pluginFutures))
+                .transform(ignored ->
+                {
+                    var results = new JsonArray();
+
+                    for (var collectorFuture : collectorFutures)
+                    {
+                        if (collectorFuture.succeeded() && collectorFuture.result() != null)
+                        {
+                            results.add(collectorFuture.result());
+                        }
+                    }
+
+                    for (var pluginFuture : pluginFutures)
+                    {
+                        if (pluginFuture.succeeded() && pluginFuture.result() != null)
+                        {
+                            results.addAll(pluginFuture.result());
+                        }
+                    }
+
+                    return Future.succeededFuture(results);
+                });
     }
 
-    public static Future<JsonArray> runPolling(JsonArray metricGroups)
+    static JsonObject failedResult(JsonObject metricGroup, String message)
     {
-        return App.vertx.executeBlocking(() ->
+        return new JsonObject()
+                .put("provision_profile_id", metricGroup.getInteger("provision_profile_id"))
+                .put("name", metricGroup.getString("name"))
+                .put("success", false)
+                .put("message", message);
+    }
+
+    /**
+     * Runs the plugin with given request using configured protocol
+     * @param request request object
+     * @param resultKey key holding result array in plugin's reply
+     * @param timeout seconds to wait for plugin's reply
+     * @param pluginPath plugin binary to run
+     * @return result array, empty if plugin's reply has none
+     * @throws TimeoutException if plugin didn't reply within timeout, it is killed by then
+     */
+    static JsonArray runPlugin(JsonObject request, String resultKey, int timeout, String pluginPath) throws Exception
+    {
+        if (BINARY_PROTOCOL.equals(Constants.PLUGIN_PROTOCOL))
         {
             try
             {
-                // Step-1.1: Prepare Request Json
-                JsonObject pollingInput = new JsonObject();
-                pollingInput.put("type", "polling");
-                pollingInput.put("metric_groups", metricGroups);
+                return runPluginBinary(request, resultKey, timeout, pluginPath);
+            }
+            catch (IOException e)
+            {
+                // Plugin Build Without Binary Support, Fall Back To JSON
+                ConsoleLogger.warn("⚠️ Binary Plugin Protocol Failed, Falling Back To JSON => " + e.getMessage());
+            }
+        }
 
-                // Step-1.2: Prepare Command
-                String inputJsonStr = pollingInput.encode();
-                String[] command = {Constants.PLUGIN_PATH, inputJsonStr};
+        return runPluginJson(request, resultKey, timeout, pluginPath);
+    }
 
-                // Step-2: Run Command
-                ProcessBuilder builder = new ProcessBuilder(command);
-                builder.redirectErrorStream(true);
-                Process process = builder.start();
+    /**
+     * JSON Protocol => Request Is Passed As Argument, Reply Is Read From Stdout
+     */
+    private static JsonArray runPluginJson(JsonObject request, String resultKey, int timeout, String pluginPath) throws Exception
+    {
+        // Step-1: Prepare Command
+        String inputJsonStr = request.encode();
+        String[] command = {pluginPath, inputJsonStr};
 
-                // Waiting for 20 Seconds For Reply
-                boolean done = process.waitFor(POLLING_TIMEOUT, TimeUnit.SECONDS);
+        // Step-2: Run Command
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
 
-                if(!done)
-                {
-                    ConsoleLogger.warn("⏱️ GoPlugin Is Not Responding Within " + POLLING_TIMEOUT + " Seconds");
+        // Waiting For Reply
+        boolean done = process.waitFor(timeout, TimeUnit.SECONDS);
 
-                    return new JsonArray();
-                }
-                else
-                {
-                    // Step-3: Read Output From Go's Stream
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-                    String output = reader.lines().collect(Collectors.joining());
+        if(!done)
+        {
+            ConsoleLogger.warn("⏱️ GoPlugin Is Not Responding Within " + timeout + " Seconds");
+
+            process.destroyForcibly();
+
+            throw new TimeoutException("Plugin Timed Out After " + timeout + " Seconds");
+        }
+        else
+        {
+            // Step-3: Read Output From Go's Stream
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+            String output = reader.lines().collect(Collectors.joining());
 
-                    // Parse Response JSON
-                    JsonObject outputJson = new JsonObject(output);
+            // Parse Response JSON
+            JsonObject outputJson = new JsonObject(output);
 
-                    // Return Result Array
-                    return outputJson.getJsonArray("metric_groups");
-                }
+            // Return Result Array
+            return outputJson.getJsonArray(resultKey);
+        }
+    }
+
+    /**
+     * Binary Protocol => Request Frame Is Written To Stdin, Reply Frame Is Read From Stdout
+     * Result "data" Values Come Back As Structured Maps / Arrays Instead Of Embedded JSON Strings
+     */
+    private static JsonArray runPluginBinary(JsonObject request, String resultKey, int timeout, String pluginPath) throws Exception
+    {
+        // Step-1: Run Command, Plugin's Stderr Is Kept Out Of The Framed Stream
+        ProcessBuilder builder = new ProcessBuilder(pluginPath, BINARY_PROTOCOL_FLAG);
+        builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        Process process = builder.start();
+
+        // Step-2: Kill Plugin If It Doesn't Reply In Time, Which Unblocks The Read Below
+        var timedOut = new AtomicBoolean(false);
+
+        var timerId = App.vertx.setTimer(timeout * 1000L, id ->
+        {
+            ConsoleLogger.warn("⏱️ GoPlugin Is Not Responding Within " + timeout + " Seconds");
+
+            timedOut.set(true);
+
+            process.destroyForcibly();
+        });
+
+        try
+        {
+            // Step-3: Write Request Frame
+            try (var stdin = process.getOutputStream())
+            {
+                PluginCodec.writeFrame(request, stdin);
             }
-            catch (Exception e)
+
+            // Step-4: Read Reply Frame
+            JsonObject reply;
+
+            try (var stdout = new BufferedInputStream(process.getInputStream()))
             {
-                ConsoleLogger.error("❌ Error Running Discovery In PluginManager " + e.getMessage());
+                reply = PluginCodec.readFrame(stdout);
+            }
 
+            if (reply.getJsonArray(resultKey) == null)
+            {
                 return new JsonArray();
             }
-        });
-    }
 
+            return reply.getJsonArray(resultKey);
+        }
+        catch (IOException e)
+        {
+            // Broken Pipe Caused By Our Own Kill Is A Timeout, Not A Protocol Failure
+            if (timedOut.get())
+            {
+                throw new TimeoutException("Plugin Timed Out After " + timeout + " Seconds");
+            }
+
+            throw e;
+        }
+        finally
+        {
+            App.vertx.cancelTimer(timerId);
+
+            process.destroy();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,356 @@
+package org.nms.PluginManager.Snmp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal BER encoder / decoder covering the ASN.1 subset used by SNMP
+ */
+public class Ber
+{
+    public static final int INTEGER = 0x02;
+
+    public static final int OCTET_STRING = 0x04;
+
+    public static final int NULL = 0x05;
+
+    public static final int OBJECT_IDENTIFIER = 0x06;
+
+    public static final int SEQUENCE = 0x30;
+
+    public static final int IP_ADDRESS = 0x40;
+
+    public static final int COUNTER32 = 0x41;
+
+    public static final int GAUGE32 = 0x42;
+
+    public static final int TIMETICKS = 0x43;
+
+    public static final int OPAQUE = 0x44;
+
+    public static final int COUNTER64 = 0x46;
+
+    public static final int NO_SUCH_OBJECT = 0x80;
+
+    public static final int NO_SUCH_INSTANCE = 0x81;
+
+    public static final int END_OF_MIB_VIEW = 0x82;
+
+    // PDU Tags
+    public static final int GET = 0xa0;
+
+    public static final int GET_NEXT = 0xa1;
+
+    public static final int RESPONSE = 0xa2;
+
+    public static final int GET_BULK = 0xa5;
+
+    public static final int REPORT = 0xa8;
+
+    /**
+     * Wraps content into a tag-length-value triple
+     */
+    public static byte[] tlv(int tag, byte[] content)
+    {
+        var out = new ByteArrayOutputStream(content.length + 6);
+
+        out.write(tag);
+
+        writeLength(out, content.length);
+
+        out.writeBytes(content);
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Concatenates already encoded elements into a tagged container (SEQUENCE or PDU)
+     */
+    public static byte[] container(int tag, byte[]... elements)
+    {
+        return tlv(tag, concat(elements));
+    }
+
+    public static byte[] integer(long value)
+    {
+        return tlv(INTEGER, BigInteger.valueOf(value).toByteArray());
+    }
+
+    public static byte[] octetString(byte[] value)
+    {
+        return tlv(OCTET_STRING, value);
+    }
+
+    public static byte[] octetString(String value)
+    {
+        return octetString(value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static byte[] nullValue()
+    {
+        return new byte[]{NULL, 0};
+    }
+
+    public static byte[] oid(String oid)
+    {
+        var parts = (oid.startsWith(".") ? oid.substring(1) : oid).split("\\.");
+
+        if (parts.length < 2)
+        {
+            throw new IllegalArgumentException("Invalid OID " + oid);
+        }
+
+        var out = new ByteArrayOutputStream(parts.length + 4);
+
+        writeSubIdentifier(out, Long.parseLong(parts[0]) * 40 + Long.parseLong(parts[1]));
+
+        for (var i = 2; i < parts.length; i++)
+        {
+            writeSubIdentifier(out, Long.parseLong(parts[i]));
+        }
+
+        return tlv(OBJECT_IDENTIFIER, out.toByteArray());
+    }
+
+    public static byte[] concat(byte[]... elements)
+    {
+        var size = 0;
+
+        for (var element : elements)
+        {
+            size += element.length;
+        }
+
+        var result = new byte[size];
+
+        var offset = 0;
+
+        for (var element : elements)
+        {
+            System.arraycopy(element, 0, result, offset, element.length);
+
+            offset += element.length;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return number of bytes used by the tag and length of an element holding contentLength bytes
+     */
+    public static int headerLength(int contentLength)
+    {
+        if (contentLength < 0x80)
+        {
+            return 2;
+        }
+
+        var lengthBytes = 0;
+
+        for (var remaining = contentLength; remaining > 0; remaining >>>= 8)
+        {
+            lengthBytes++;
+        }
+
+        return 2 + lengthBytes;
+    }
+
+    private static void writeLength(ByteArrayOutputStream out, int length)
+    {
+        if (length < 0x80)
+        {
+            out.write(length);
+            return;
+        }
+
+        var lengthBytes = headerLength(length) - 2;
+
+        out.write(0x80 | lengthBytes);
+
+        for (var i = lengthBytes - 1; i >= 0; i--)
+        {
+            out.write((length >>> (8 * i)) & 0xff);
+        }
+    }
+
+    private static void writeSubIdentifier(ByteArrayOutputStream out, long value)
+    {
+        var groups = 1;
+
+        for (var remaining = value >>> 7; remaining > 0; remaining >>>= 7)
+        {
+            groups++;
+        }
+
+        for (var i = groups - 1; i > 0; i--)
+        {
+            out.write((int) (((value >>> (7 * i)) & 0x7f) | 0x80));
+        }
+
+        out.write((int) (value & 0x7f));
+    }
+
+    /**
+     * Decoded element, offsets are absolute positions in the source array
+     */
+    public record Element(byte[] data, int tag, int contentOffset, int contentLength)
+    {
+        public int end()
+        {
+            return contentOffset + contentLength;
+        }
+
+        public byte[] content()
+        {
+            var content = new byte[contentLength];
+
+            System.arraycopy(data, contentOffset, content, 0, contentLength);
+
+            return content;
+        }
+
+        public Reader reader()
+        {
+            return new Reader(data, contentOffset, end());
+        }
+
+        public long asLong()
+        {
+            if (contentLength == 0)
+            {
+                return 0;
+            }
+
+            return new BigInteger(content()).longValue();
+        }
+
+        public long asUnsignedLong()
+        {
+            if (contentLength == 0)
+            {
+                return 0;
+            }
+
+            return new BigInteger(1, content()).longValue();
+        }
+
+        public String asOid()
+        {
+            var oid = new StringBuilder();
+
+            long value = 0;
+
+            var first = true;
+
+            for (var i = contentOffset; i < end(); i++)
+            {
+                value = (value << 7) | (data[i] & 0x7f);
+
+                if ((data[i] & 0x80) == 0)
+                {
+                    if (first)
+                    {
+                        var top = Math.min(value / 40, 2);
+
+                        oid.append(top).append('.').append(value - top * 40);
+
+                        first = false;
+                    }
+                    else
+                    {
+                        oid.append('.').append(value);
+                    }
+
+                    value = 0;
+                }
+            }
+
+            return oid.toString();
+        }
+    }
+
+    /**
+     * Sequential reader over a range of an encoded array
+     */
+    public static class Reader
+    {
+        private final byte[] data;
+
+        private int position;
+
+        private final int end;
+
+        public Reader(byte[] data)
+        {
+            this(data, 0, data.length);
+        }
+
+        public Reader(byte[] data, int position, int end)
+        {
+            this.data = data;
+
+            this.position = position;
+
+            this.end = end;
+        }
+
+        public boolean hasNext()
+        {
+            return position < end;
+        }
+
+        public Element next() throws IOException
+        {
+            if (position + 2 > end)
+            {
+                throw new IOException("Truncated BER Element");
+            }
+
+            var tag = data[position++] & 0xff;
+
+            int length = data[position++] & 0xff;
+
+            if ((length & 0x80) != 0)
+            {
+                var lengthBytes = length & 0x7f;
+
+                if (lengthBytes == 0 || lengthBytes > 4 || position + lengthBytes > end)
+                {
+                    throw new IOException("Invalid BER Length");
+                }
+
+                length = 0;
+
+                for (var i = 0; i < lengthBytes; i++)
+                {
+                    length = (length << 8) | (data[position++] & 0xff);
+                }
+            }
+
+            if (length < 0 || position + length > end)
+            {
+                throw new IOException("Truncated BER Element");
+            }
+
+            var element = new Element(data, tag, position, length);
+
+            position += length;
+
+            return element;
+        }
+
+        public Element next(int expectedTag) throws IOException
+        {
+            var element = next();
+
+            if (element.tag() != expectedTag)
+            {
+                throw new IOException("Expected BER Tag 0x" + Integer.toHexString(expectedTag) + " But Found 0x" + Integer.toHexString(element.tag()));
+            }
+
+            return element;
+        }
+    }
+}
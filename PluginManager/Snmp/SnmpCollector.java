@@ -0,0 +1,350 @@
+package org.nms.PluginManager.Snmp;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.PluginManager.Collector;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Native SNMP collector, maps metric groups to SNMPv2-MIB / HOST-RESOURCES-MIB / IF-MIB objects
+ * One instance is registered per SNMP credential type, all of them share the SnmpEngine socket
+ */
+public class SnmpCollector implements Collector
+{
+    // SNMPv2-MIB System Group
+    private static final String SYS_DESCR = "1.3.6.1.2.1.1.1.0";
+
+    private static final String SYS_OBJECT_ID = "1.3.6.1.2.1.1.2.0";
+
+    private static final String SYS_UP_TIME = "1.3.6.1.2.1.1.3.0";
+
+    private static final String SYS_CONTACT = "1.3.6.1.2.1.1.4.0";
+
+    private static final String SYS_NAME = "1.3.6.1.2.1.1.5.0";
+
+    private static final String SYS_LOCATION = "1.3.6.1.2.1.1.6.0";
+
+    // HOST-RESOURCES-MIB
+    private static final String HR_STORAGE_TYPE = "1.3.6.1.2.1.25.2.3.1.2";
+
+    private static final String HR_STORAGE_DESCR = "1.3.6.1.2.1.25.2.3.1.3";
+
+    private static final String HR_STORAGE_ALLOCATION_UNITS = "1.3.6.1.2.1.25.2.3.1.4";
+
+    private static final String HR_STORAGE_SIZE = "1.3.6.1.2.1.25.2.3.1.5";
+
+    private static final String HR_STORAGE_USED = "1.3.6.1.2.1.25.2.3.1.6";
+
+    private static final String HR_STORAGE_RAM = "1.3.6.1.2.1.25.2.1.2";
+
+    private static final String HR_STORAGE_VIRTUAL_MEMORY = "1.3.6.1.2.1.25.2.1.3";
+
+    private static final String HR_STORAGE_FIXED_DISK = "1.3.6.1.2.1.25.2.1.4";
+
+    private static final String HR_DEVICE_TYPE = "1.3.6.1.2.1.25.3.2.1.2";
+
+    private static final String HR_DEVICE_DESCR = "1.3.6.1.2.1.25.3.2.1.3";
+
+    private static final String HR_DEVICE_PROCESSOR = "1.3.6.1.2.1.25.3.1.3";
+
+    private static final String HR_PROCESSOR_LOAD = "1.3.6.1.2.1.25.3.3.1.2";
+
+    private static final String HR_SW_RUN_NAME = "1.3.6.1.2.1.25.4.2.1.2";
+
+    private static final String HR_SW_RUN_PATH = "1.3.6.1.2.1.25.4.2.1.4";
+
+    private static final String HR_SW_RUN_STATUS = "1.3.6.1.2.1.25.4.2.1.7";
+
+    private static final String HR_SW_RUN_PERF_CPU = "1.3.6.1.2.1.25.5.1.1.1";
+
+    private static final String HR_SW_RUN_PERF_MEM = "1.3.6.1.2.1.25.5.1.1.2";
+
+    // IF-MIB
+    private static final String IF_DESCR = "1.3.6.1.2.1.2.2.1.2";
+
+    private static final String IF_OPER_STATUS = "1.3.6.1.2.1.2.2.1.8";
+
+    private static final String IF_IN_OCTETS = "1.3.6.1.2.1.2.2.1.10";
+
+    private static final String IF_IN_ERRORS = "1.3.6.1.2.1.2.2.1.14";
+
+    private static final String IF_OUT_OCTETS = "1.3.6.1.2.1.2.2.1.16";
+
+    private static final String IF_OUT_ERRORS = "1.3.6.1.2.1.2.2.1.20";
+
+    private static final String IF_HC_IN_OCTETS = "1.3.6.1.2.1.31.1.1.1.6";
+
+    private static final String IF_HC_OUT_OCTETS = "1.3.6.1.2.1.31.1.1.1.10";
+
+    private static final Set<String> METRIC_GROUPS = Set.of("CPUINFO", "CPUUSAGE", "UPTIME", "MEMORY", "DISK", "PROCESS", "NETWORK", "SYSTEMINFO");
+
+    private final String credentialType;
+
+    private final SnmpEngine engine = SnmpEngine.getInstance();
+
+    public SnmpCollector(String credentialType)
+    {
+        this.credentialType = credentialType;
+    }
+
+    @Override
+    public String credentialType()
+    {
+        return credentialType;
+    }
+
+    @Override
+    public Set<String> metricGroups()
+    {
+        return METRIC_GROUPS;
+    }
+
+    @Override
+    public Future<JsonObject> collect(JsonObject metricGroup)
+    {
+        var target = SnmpTarget.fromMetricGroup(metricGroup);
+
+        var name = metricGroup.getString("name");
+
+        Future<Object> data = switch (name)
+        {
+            case "SYSTEMINFO" -> collectSystemInfo(target);
+            case "UPTIME" -> collectUptime(target);
+            case "CPUINFO" -> collectCpuInfo(target);
+            case "CPUUSAGE" -> collectCpuUsage(target);
+            case "MEMORY" -> collectMemory(target);
+            case "DISK" -> collectDisk(target);
+            case "PROCESS" -> collectProcesses(target);
+            case "NETWORK" -> collectNetwork(target);
+            default -> Future.failedFuture("Unsupported Metric Group " + name);
+        };
+
+        return data.map(value -> new JsonObject()
+                .put("provision_profile_id", metricGroup.getInteger("provision_profile_id"))
+                .put("name", name)
+                .put("success", true)
+                .put("data", value));
+    }
+
+    @Override
+    public Future<Void> close()
+    {
+        return engine.close();
+    }
+
+    private Future<Object> collectSystemInfo(SnmpTarget target)
+    {
+        return engine
+                .get(target, List.of(SYS_DESCR, SYS_OBJECT_ID, SYS_UP_TIME, SYS_CONTACT, SYS_NAME, SYS_LOCATION))
+                .map(values -> new JsonObject()
+                        .put("description", values.get(SYS_DESCR))
+                        .put("object_id", values.get(SYS_OBJECT_ID))
+                        .put("uptime_seconds", toLong(values.get(SYS_UP_TIME)) / 100)
+                        .put("contact", values.get(SYS_CONTACT))
+                        .put("name", values.get(SYS_NAME))
+                        .put("location", values.get(SYS_LOCATION)));
+    }
+
+    private Future<Object> collectUptime(SnmpTarget target)
+    {
+        return engine
+                .get(target, List.of(SYS_UP_TIME))
+                .map(values -> new JsonObject().put("uptime_seconds", toLong(values.get(SYS_UP_TIME)) / 100));
+    }
+
+    private Future<Object> collectCpuInfo(SnmpTarget target)
+    {
+        return engine
+                .walk(target, List.of(HR_DEVICE_TYPE, HR_DEVICE_DESCR))
+                .map(table ->
+                {
+                    var processors = new JsonArray();
+
+                    table.get(HR_DEVICE_TYPE).forEach((index, type) ->
+                    {
+                        if (HR_DEVICE_PROCESSOR.equals(type))
+                        {
+                            processors.add(table.get(HR_DEVICE_DESCR).get(index));
+                        }
+                    });
+
+                    return new JsonObject()
+                            .put("cores", processors.size())
+                            .put("processors", processors);
+                });
+    }
+
+    private Future<Object> collectCpuUsage(SnmpTarget target)
+    {
+        return engine
+                .walk(target, List.of(HR_PROCESSOR_LOAD))
+                .map(table ->
+                {
+                    var cores = new JsonArray();
+
+                    long total = 0;
+
+                    for (var row : table.get(HR_PROCESSOR_LOAD).entrySet())
+                    {
+                        var load = toLong(row.getValue());
+
+                        total += load;
+
+                        cores.add(new JsonObject().put("core", row.getKey()).put("load_percent", load));
+                    }
+
+                    return new JsonObject()
+                            .put("cores", cores)
+                            .put("average_load_percent", cores.isEmpty() ? 0 : (double) total / cores.size());
+                });
+    }
+
+    private Future<Object> collectMemory(SnmpTarget target)
+    {
+        return walkStorage(target).map(storage ->
+        {
+            var memory = new JsonObject();
+
+            for (var i = 0; i < storage.size(); i++)
+            {
+                var entry = storage.getJsonObject(i);
+
+                var type = entry.getString("type");
+
+                if (HR_STORAGE_RAM.equals(type))
+                {
+                    memory.put("physical", entry.copy().put("type", "RAM"));
+                }
+                else if (HR_STORAGE_VIRTUAL_MEMORY.equals(type))
+                {
+                    memory.put("virtual", entry.copy().put("type", "VIRTUAL"));
+                }
+            }
+
+            return memory;
+        });
+    }
+
+    private Future<Object> collectDisk(SnmpTarget target)
+    {
+        return walkStorage(target).map(storage ->
+        {
+            var disks = new JsonArray();
+
+            for (var i = 0; i < storage.size(); i++)
+            {
+                var entry = storage.getJsonObject(i);
+
+                if (HR_STORAGE_FIXED_DISK.equals(entry.getString("type")))
+                {
+                    disks.add(entry.copy().put("type", "DISK"));
+                }
+            }
+
+            return disks;
+        });
+    }
+
+    private Future<JsonArray> walkStorage(SnmpTarget target)
+    {
+        return engine
+                .walk(target, List.of(HR_STORAGE_TYPE, HR_STORAGE_DESCR, HR_STORAGE_ALLOCATION_UNITS, HR_STORAGE_SIZE, HR_STORAGE_USED))
+                .map(table ->
+                {
+                    var storage = new JsonArray();
+
+                    for (var index : table.get(HR_STORAGE_TYPE).keySet())
+                    {
+                        var units = toLong(table.get(HR_STORAGE_ALLOCATION_UNITS).get(index));
+
+                        var total = toLong(table.get(HR_STORAGE_SIZE).get(index)) * units;
+
+                        var used = toLong(table.get(HR_STORAGE_USED).get(index)) * units;
+
+                        storage.add(new JsonObject()
+                                .put("type", table.get(HR_STORAGE_TYPE).get(index))
+                                .put("name", table.get(HR_STORAGE_DESCR).get(index))
+                                .put("total_bytes", total)
+                                .put("used_bytes", used)
+                                .put("free_bytes", total - used)
+                                .put("used_percent", total == 0 ? 0 : used * 100.0 / total));
+                    }
+
+                    return storage;
+                });
+    }
+
+    private Future<Object> collectProcesses(SnmpTarget target)
+    {
+        return engine
+                .walk(target, List.of(HR_SW_RUN_NAME, HR_SW_RUN_PATH, HR_SW_RUN_STATUS, HR_SW_RUN_PERF_CPU, HR_SW_RUN_PERF_MEM))
+                .map(table ->
+                {
+                    var processes = new JsonArray();
+
+                    for (var index : table.get(HR_SW_RUN_NAME).keySet())
+                    {
+                        processes.add(new JsonObject()
+                                .put("pid", Long.parseLong(index))
+                                .put("name", table.get(HR_SW_RUN_NAME).get(index))
+                                .put("path", table.get(HR_SW_RUN_PATH).get(index))
+                                .put("status", table.get(HR_SW_RUN_STATUS).get(index))
+                                .put("cpu_centiseconds", table.get(HR_SW_RUN_PERF_CPU).get(index))
+                                .put("memory_kb", table.get(HR_SW_RUN_PERF_MEM).get(index)));
+                    }
+
+                    return processes;
+                });
+    }
+
+    private Future<Object> collectNetwork(SnmpTarget target)
+    {
+        // 64-Bit Counters Need SNMPv2c Or Later
+        var highCapacity = target.version() != SnmpTarget.VERSION_1;
+
+        var inOctets = highCapacity ? IF_HC_IN_OCTETS : IF_IN_OCTETS;
+
+        var outOctets = highCapacity ? IF_HC_OUT_OCTETS : IF_OUT_OCTETS;
+
+        return engine
+                .walk(target, List.of(IF_DESCR, IF_OPER_STATUS, IF_IN_ERRORS, IF_OUT_ERRORS, inOctets, outOctets))
+                .map(table ->
+                {
+                    var interfaces = new JsonArray();
+
+                    for (var index : table.get(IF_DESCR).keySet())
+                    {
+                        interfaces.add(new JsonObject()
+                                .put("index", Long.parseLong(index))
+                                .put("name", table.get(IF_DESCR).get(index))
+                                .put("status", toLong(table.get(IF_OPER_STATUS).get(index)) == 1 ? "UP" : "DOWN")
+                                .put("in_bytes", table.get(inOctets).get(index))
+                                .put("out_bytes", table.get(outOctets).get(index))
+                                .put("in_errors", table.get(IF_IN_ERRORS).get(index))
+                                .put("out_errors", table.get(IF_OUT_ERRORS).get(index)));
+                    }
+
+                    return interfaces;
+                });
+    }
+
+    private static long toLong(Object value)
+    {
+        if (value instanceof Number number)
+        {
+            return number.longValue();
+        }
+
+        try
+        {
+            return value == null ? 0 : Long.parseLong(value.toString());
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,784 @@
+package org.nms.PluginManager.Snmp;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.datagram.DatagramSocket;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.net.SocketAddress;
+import org.nms.API.Utility.IpParser;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous SNMP engine multiplexing every outstanding request over a single UDP socket
+ * Replies are matched to requests by request-id (msgID for SNMPv3) and only accepted from the target's address,
+ * with its community on v1 / v2c, each request has its own timeout and retries
+ */
+public class SnmpEngine
+{
+    private static final SnmpEngine instance = new SnmpEngine();
+
+    private static final int RECEIVE_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private static final int MAX_MESSAGE_SIZE = 65507;
+
+    private static final int MAX_REPETITIONS = 25;
+
+    private static final int MAX_BULK_VAR_BINDS = 60;
+
+    private static final int MAX_WALK_REQUESTS = 1000;
+
+    private static final String USM_STATS_NOT_IN_TIME_WINDOWS = "1.3.6.1.6.3.15.1.1.2.0";
+
+    private static final String USM_STATS_UNKNOWN_ENGINE_IDS = "1.3.6.1.6.3.15.1.1.4.0";
+
+    private final ConcurrentHashMap<Integer, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+
+    // SNMPv3 Authoritative Engine Per Target Address
+    private final ConcurrentHashMap<String, EngineInfo> engines = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Future<EngineInfo>> engineDiscoveries = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requestIds = new AtomicInteger(new SecureRandom().nextInt(1 << 24));
+
+    private final AtomicLong salts = new AtomicLong(new SecureRandom().nextLong());
+
+    private Future<DatagramSocket> socketFuture;
+
+    private SnmpEngine()
+    {
+        // Private constructor
+    }
+
+    public static SnmpEngine getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Authoritative engine of an SNMPv3 agent, time is tracked relative to the moment it was learned
+     */
+    private record EngineInfo(byte[] engineId, int boots, int time, long learnedAt)
+    {
+        int currentTime()
+        {
+            return (int) (time + (System.currentTimeMillis() - learnedAt) / 1000);
+        }
+    }
+
+    /**
+     * Localized keys used for one request
+     */
+    private record Security(String authProtocol, byte[] authKey, String privacyProtocol, byte[] privacyKey)
+    {
+        static final Security NONE = new Security(null, null, null, null);
+    }
+
+    private record Response(SnmpPdu pdu, EngineInfo engine)
+    {
+    }
+
+    private static class PendingRequest
+    {
+        final int id;
+
+        final SnmpTarget target;
+
+        final byte[] packet;
+
+        final Security security;
+
+        final Promise<Response> promise = Promise.promise();
+
+        int retriesLeft;
+
+        long timerId;
+
+        PendingRequest(int id, SnmpTarget target, byte[] packet, Security security)
+        {
+            this.id = id;
+            this.target = target;
+            this.packet = packet;
+            this.security = security;
+            this.retriesLeft = target.retries();
+        }
+    }
+
+    /**
+     * @return number of requests waiting for a reply
+     */
+    public int getOutstandingRequests()
+    {
+        return pendingRequests.size();
+    }
+
+    /**
+     * GET of scalar OIDs
+     * @return oid => value
+     */
+    public Future<Map<String, Object>> get(SnmpTarget target, List<String> oids)
+    {
+        return send(target, SnmpPdu.request(Ber.GET, nextRequestId(), oids))
+                .compose(response ->
+                {
+                    if (response.errorStatus() != 0 && response.errorStatus() != SnmpPdu.NO_SUCH_NAME)
+                    {
+                        return Future.failedFuture("SNMP Error Status " + response.errorStatus() + " From " + target.address());
+                    }
+
+                    Map<String, Object> values = new LinkedHashMap<>();
+
+                    for (var varBind : response.varBinds())
+                    {
+                        values.put(varBind.oid(), varBind.isEndOfView() ? null : varBind.value());
+                    }
+
+                    return Future.succeededFuture(values);
+                });
+    }
+
+    /**
+     * Walks table columns together, with GETBULK on v2c / v3 and GETNEXT on v1
+     * @return column oid => (row index => value)
+     */
+    public Future<Map<String, Map<String, Object>>> walk(SnmpTarget target, List<String> columns)
+    {
+        Map<String, Map<String, Object>> table = new LinkedHashMap<>();
+
+        Map<String, String> cursors = new LinkedHashMap<>();
+
+        for (var column : columns)
+        {
+            table.put(column, new LinkedHashMap<>());
+
+            cursors.put(column, column);
+        }
+
+        return walkStep(target, table, cursors, 0).map(ignored -> table);
+    }
+
+    private Future<Void> walkStep(SnmpTarget target, Map<String, Map<String, Object>> table, Map<String, String> cursors, int requests)
+    {
+        if (cursors.isEmpty())
+        {
+            return Future.succeededFuture();
+        }
+
+        if (requests >= MAX_WALK_REQUESTS)
+        {
+            return Future.failedFuture("SNMP Walk On " + target.address() + " Exceeded " + MAX_WALK_REQUESTS + " Requests");
+        }
+
+        var activeColumns = new ArrayList<>(cursors.keySet());
+
+        var oids = activeColumns.stream().map(cursors::get).toList();
+
+        var request = target.version() == SnmpTarget.VERSION_1
+                ? SnmpPdu.request(Ber.GET_NEXT, nextRequestId(), oids)
+                : SnmpPdu.bulkRequest(nextRequestId(), 0, Math.max(1, Math.min(MAX_REPETITIONS, MAX_BULK_VAR_BINDS / activeColumns.size())), oids);
+
+        return send(target, request).compose(response ->
+        {
+            // SNMPv1 Signals End Of View With noSuchName On The Offending Var Bind
+            if (response.errorStatus() == SnmpPdu.NO_SUCH_NAME && response.errorIndex() > 0 && response.errorIndex() <= activeColumns.size())
+            {
+                cursors.remove(activeColumns.get(response.errorIndex() - 1));
+
+                return walkStep(target, table, cursors, requests + 1);
+            }
+
+            if (response.errorStatus() != 0)
+            {
+                return Future.failedFuture("SNMP Error Status " + response.errorStatus() + " From " + target.address());
+            }
+
+            var varBinds = response.varBinds();
+
+            if (varBinds.isEmpty())
+            {
+                cursors.clear();
+            }
+
+            var finished = new HashSet<String>();
+
+            // Bulk Replies Are Row Major => Var Bind i Belongs To Column (i % Columns)
+            for (var i = 0; i < varBinds.size(); i++)
+            {
+                var column = activeColumns.get(i % activeColumns.size());
+
+                if (finished.contains(column))
+                {
+                    continue;
+                }
+
+                var varBind = varBinds.get(i);
+
+                if (varBind.isEndOfView() || !varBind.oid().startsWith(column + ".") || compareOids(varBind.oid(), cursors.get(column)) <= 0)
+                {
+                    finished.add(column);
+                    continue;
+                }
+
+                table.get(column).put(varBind.oid().substring(column.length() + 1), varBind.value());
+
+                cursors.put(column, varBind.oid());
+            }
+
+            finished.forEach(cursors::remove);
+
+            return walkStep(target, table, cursors, requests + 1);
+        });
+    }
+
+    /**
+     * Sends a request PDU and resolves with the reply PDU
+     */
+    public Future<SnmpPdu> send(SnmpTarget target, SnmpPdu request)
+    {
+        if (target.version() != SnmpTarget.VERSION_3)
+        {
+            var packet = Ber.container(Ber.SEQUENCE,
+                    Ber.integer(target.version()),
+                    Ber.octetString(target.community()),
+                    request.encode());
+
+            return dispatch(target, request.requestId(), packet, Security.NONE).map(Response::pdu);
+        }
+
+        return discoverEngine(target).compose(engine -> sendV3(target, request, engine, true));
+    }
+
+    private Future<SnmpPdu> sendV3(SnmpTarget target, SnmpPdu request, EngineInfo engine, boolean allowResync)
+    {
+        return security(target, engine)
+                .compose(security ->
+                {
+                    try
+                    {
+                        return dispatch(target, request.requestId(), encodeV3(target, request, engine, security), security);
+                    }
+                    catch (GeneralSecurityException e)
+                    {
+                        return Future.failedFuture(e);
+                    }
+                })
+                .compose(response ->
+                {
+                    if (response.pdu().type() != Ber.REPORT)
+                    {
+                        return Future.succeededFuture(response.pdu());
+                    }
+
+                    var reportOid = response.pdu().varBinds().isEmpty() ? "" : response.pdu().varBinds().get(0).oid();
+
+                    // Agent Rebooted, Clock Drifted Or Engine Was Replaced => Forget It, Rediscover And Retry Once
+                    if ((USM_STATS_NOT_IN_TIME_WINDOWS.equals(reportOid) || USM_STATS_UNKNOWN_ENGINE_IDS.equals(reportOid)) && allowResync)
+                    {
+                        engines.remove(target.address());
+
+                        return discoverEngine(target).compose(fresh -> sendV3(target, withRequestId(request, nextRequestId()), fresh, false));
+                    }
+
+                    return Future.failedFuture("SNMPv3 Report " + reportOid + " From " + target.address());
+                });
+    }
+
+    /**
+     * Learns the agent's authoritative engine id / boots / time once per target
+     */
+    private Future<EngineInfo> discoverEngine(SnmpTarget target)
+    {
+        var known = engines.get(target.address());
+
+        if (known != null)
+        {
+            return Future.succeededFuture(known);
+        }
+
+        // Concurrent Polls Of One Agent Share A Single Discovery Exchange
+        var promise = Promise.<EngineInfo>promise();
+
+        var inFlight = engineDiscoveries.putIfAbsent(target.address(), promise.future());
+
+        if (inFlight != null)
+        {
+            return inFlight;
+        }
+
+        var id = nextRequestId();
+
+        var probe = encodeV3Message(id, 0x04, new byte[0], 0, 0, "", new byte[0], new byte[0],
+                Ber.container(Ber.SEQUENCE, Ber.octetString(new byte[0]), Ber.octetString(new byte[0]), SnmpPdu.request(Ber.GET, id, List.of()).encode())).message();
+
+        dispatch(target, id, probe, Security.NONE)
+                .map(Response::engine)
+                .onComplete(result ->
+                {
+                    engineDiscoveries.remove(target.address(), promise.future());
+
+                    promise.handle(result);
+                });
+
+        return promise.future();
+    }
+
+    private Future<Security> security(SnmpTarget target, EngineInfo engine)
+    {
+        if (!target.hasAuth())
+        {
+            return Future.succeededFuture(Security.NONE);
+        }
+
+        // Keys Already Localized To This Engine Need No Worker Round Trip
+        var authKey = Usm.cachedLocalizedKey(target.authProtocol(), target.authPassword(), engine.engineId());
+
+        var privacyKey = target.hasPrivacy()
+                ? Usm.cachedLocalizedKey(target.authProtocol(), target.privacyPassword(), engine.engineId())
+                : null;
+
+        if (authKey != null && (privacyKey != null || !target.hasPrivacy()))
+        {
+            return Future.succeededFuture(new Security(target.authProtocol(), authKey, target.privacyProtocol(), privacyKey));
+        }
+
+        // Password To Key Expansion Hashes 1 MB, Keep It Off The Event Loop Until It Is Cached
+        return App.vertx.executeBlocking(() ->
+        {
+            var authKey = Usm.localizedKey(target.authProtocol(), target.authPassword(), engine.engineId());
+
+            var privacyKey = target.hasPrivacy()
+                    ? Usm.localizedKey(target.authProtocol(), target.privacyPassword(), engine.engineId())
+                    : null;
+
+            return new Security(target.authProtocol(), authKey, target.privacyProtocol(), privacyKey);
+        }, false);
+    }
+
+    private byte[] encodeV3(SnmpTarget target, SnmpPdu request, EngineInfo engine, Security security) throws GeneralSecurityException
+    {
+        var scopedPdu = Ber.container(Ber.SEQUENCE,
+                Ber.octetString(engine.engineId()),
+                Ber.octetString(new byte[0]),
+                request.encode());
+
+        var flags = 0x04;
+
+        var msgData = scopedPdu;
+
+        var privacyParameters = new byte[0];
+
+        var authParameters = new byte[0];
+
+        var engineTime = engine.currentTime();
+
+        if (security.authKey() != null)
+        {
+            flags |= 0x01;
+
+            authParameters = new byte[Usm.authParametersLength(security.authProtocol())];
+        }
+
+        if (security.privacyKey() != null)
+        {
+            flags |= 0x02;
+
+            var encrypted = Usm.encrypt(security.privacyProtocol(), security.privacyKey(), engine.boots(), engineTime, salts.incrementAndGet(), scopedPdu);
+
+            msgData = Ber.octetString(encrypted.cipherText());
+
+            privacyParameters = encrypted.privacyParameters();
+        }
+
+        var encoded = encodeV3Message(request.requestId(), flags, engine.engineId(), engine.boots(), engineTime,
+                target.userName(), authParameters, privacyParameters, msgData);
+
+        if (security.authKey() != null)
+        {
+            var mac = Usm.authenticate(security.authProtocol(), security.authKey(), encoded.message());
+
+            System.arraycopy(mac, 0, encoded.message(), encoded.authOffset(), mac.length);
+        }
+
+        return encoded.message();
+    }
+
+    private record EncodedMessage(byte[] message, int authOffset)
+    {
+    }
+
+    private EncodedMessage encodeV3Message(int msgId, int flags, byte[] engineId, int boots, int time, String userName,
+                                           byte[] authParameters, byte[] privacyParameters, byte[] msgData)
+    {
+        var version = Ber.integer(3);
+
+        var header = Ber.container(Ber.SEQUENCE,
+                Ber.integer(msgId),
+                Ber.integer(MAX_MESSAGE_SIZE),
+                Ber.octetString(new byte[]{(byte) flags}),
+                Ber.integer(3));
+
+        var usmPrefix = Ber.concat(
+                Ber.octetString(engineId),
+                Ber.integer(boots),
+                Ber.integer(time),
+                Ber.octetString(userName));
+
+        var authTlv = Ber.octetString(authParameters);
+
+        var privacyTlv = Ber.octetString(privacyParameters);
+
+        var usmContentLength = usmPrefix.length + authTlv.length + privacyTlv.length;
+
+        var usm = Ber.tlv(Ber.SEQUENCE, Ber.concat(usmPrefix, authTlv, privacyTlv));
+
+        var body = Ber.concat(version, header, Ber.octetString(usm), msgData);
+
+        // Absolute Offset Of Auth Parameters => Used To Patch In The HMAC After Encoding
+        var authOffset = Ber.headerLength(body.length)
+                + version.length
+                + header.length
+                + Ber.headerLength(usm.length)
+                + Ber.headerLength(usmContentLength)
+                + usmPrefix.length
+                + Ber.headerLength(authParameters.length);
+
+        return new EncodedMessage(Ber.tlv(Ber.SEQUENCE, body), authOffset);
+    }
+
+    private Future<Response> dispatch(SnmpTarget target, int id, byte[] packet, Security security)
+    {
+        var pending = new PendingRequest(id, target, packet, security);
+
+        pendingRequests.put(id, pending);
+
+        socket()
+                .onSuccess(socket -> transmit(socket, pending))
+                .onFailure(err -> fail(pending, err.getMessage()));
+
+        return pending.promise.future();
+    }
+
+    private void transmit(DatagramSocket socket, PendingRequest pending)
+    {
+        socket.send(Buffer.buffer(pending.packet), pending.target.port(), pending.target.host())
+                .onFailure(err -> fail(pending, err.getMessage()));
+
+        pending.timerId = App.vertx.setTimer(pending.target.timeoutMillis(), timerId -> onTimeout(socket, pending));
+    }
+
+    private void onTimeout(DatagramSocket socket, PendingRequest pending)
+    {
+        if (pendingRequests.get(pending.id) != pending)
+        {
+            return;
+        }
+
+        if (pending.retriesLeft-- > 0)
+        {
+            transmit(socket, pending);
+            return;
+        }
+
+        fail(pending, "SNMP Request To " + pending.target.address() + " Timed Out");
+    }
+
+    private void fail(PendingRequest pending, String message)
+    {
+        if (pendingRequests.remove(pending.id, pending))
+        {
+            App.vertx.cancelTimer(pending.timerId);
+
+            pending.promise.tryFail(message);
+        }
+    }
+
+    private void complete(PendingRequest pending, Response response)
+    {
+        if (pendingRequests.remove(pending.id, pending))
+        {
+            App.vertx.cancelTimer(pending.timerId);
+
+            pending.promise.tryComplete(response);
+        }
+    }
+
+    private synchronized Future<DatagramSocket> socket()
+    {
+        if (socketFuture == null)
+        {
+            var socket = App.vertx.createDatagramSocket(new DatagramSocketOptions().setReceiveBufferSize(RECEIVE_BUFFER_SIZE));
+
+            socket.handler(packet -> handleResponse(packet.data().getBytes(), packet.sender()));
+
+            socketFuture = socket
+                    .listen(0, "0.0.0.0")
+                    .onSuccess(listening -> ConsoleLogger.info("✅ SNMP Engine Listening On Port " + listening.localAddress().port()))
+                    .onFailure(err ->
+                    {
+                        ConsoleLogger.error("❌ Failed To Start SNMP Engine => " + err.getMessage());
+
+                        synchronized (this)
+                        {
+                            socketFuture = null;
+                        }
+                    });
+        }
+
+        return socketFuture;
+    }
+
+    /**
+     * Closes the socket and fails every outstanding request
+     */
+    public synchronized Future<Void> close()
+    {
+        pendingRequests.values().forEach(pending -> fail(pending, "SNMP Engine Closed"));
+
+        if (socketFuture == null)
+        {
+            return Future.succeededFuture();
+        }
+
+        var closing = socketFuture.compose(DatagramSocket::close);
+
+        socketFuture = null;
+
+        return closing;
+    }
+
+    private void handleResponse(byte[] data, SocketAddress sender)
+    {
+        try
+        {
+            var message = new Ber.Reader(data).next(Ber.SEQUENCE).reader();
+
+            var version = message.next(Ber.INTEGER).asLong();
+
+            if (version != SnmpTarget.VERSION_3)
+            {
+                var community = message.next(Ber.OCTET_STRING).content();
+
+                var pdu = SnmpPdu.decode(message.next());
+
+                var pending = pendingRequests.get(pdu.requestId());
+
+                if (pending == null)
+                {
+                    return;
+                }
+
+                // A Guessed Request-Id Is Not Enough, The Reply Must Come From The Target With Its Community
+                if (!sentBy(sender, pending.target) || !Arrays.equals(community, communityBytes(pending.target)))
+                {
+                    ConsoleLogger.debug("⚠️ Dropped SNMP Reply For " + pending.target.address() + " From " + sender);
+                    return;
+                }
+
+                complete(pending, new Response(pdu, null));
+
+                return;
+            }
+
+            handleV3Response(data, message, sender);
+        }
+        catch (Exception e)
+        {
+            ConsoleLogger.debug("⚠️ Dropped Malformed SNMP Reply => " + e.getMessage());
+        }
+    }
+
+    private void handleV3Response(byte[] data, Ber.Reader message, SocketAddress sender) throws IOException, GeneralSecurityException
+    {
+        var header = message.next(Ber.SEQUENCE).reader();
+
+        var msgId = (int) header.next(Ber.INTEGER).asLong();
+
+        header.next(Ber.INTEGER);
+
+        var flagBytes = header.next(Ber.OCTET_STRING).content();
+
+        var flags = flagBytes.length == 0 ? 0 : flagBytes[0];
+
+        var pending = pendingRequests.get(msgId);
+
+        if (pending == null)
+        {
+            return;
+        }
+
+        if (!sentBy(sender, pending.target))
+        {
+            ConsoleLogger.debug("⚠️ Dropped SNMPv3 Reply For " + pending.target.address() + " From " + sender);
+            return;
+        }
+
+        var usm = message.next(Ber.OCTET_STRING).reader().next(Ber.SEQUENCE).reader();
+
+        var engineId = usm.next(Ber.OCTET_STRING).content();
+
+        var boots = (int) usm.next(Ber.INTEGER).asLong();
+
+        var time = (int) usm.next(Ber.INTEGER).asLong();
+
+        usm.next(Ber.OCTET_STRING);
+
+        var authParameters = usm.next(Ber.OCTET_STRING);
+
+        var privacyParameters = usm.next(Ber.OCTET_STRING).content();
+
+        var security = pending.security;
+
+        // Verify HMAC Of Authenticated Replies, Unauthenticated Ones Are Only Accepted As Reports
+        if ((flags & 0x01) != 0 && security.authKey() != null)
+        {
+            var unsigned = Arrays.copyOf(data, data.length);
+
+            Arrays.fill(unsigned, authParameters.contentOffset(), authParameters.end(), (byte) 0);
+
+            var expected = Usm.authenticate(security.authProtocol(), security.authKey(), unsigned);
+
+            if (!MessageDigest.isEqual(expected, authParameters.content()))
+            {
+                ConsoleLogger.warn("⚠️ Dropped SNMPv3 Reply With Wrong Digest From " + pending.target.address());
+                return;
+            }
+        }
+
+        var msgData = message.next();
+
+        Ber.Element scopedPdu;
+
+        if ((flags & 0x02) != 0)
+        {
+            if (security.privacyKey() == null)
+            {
+                return;
+            }
+
+            var plain = Usm.decrypt(security.privacyProtocol(), security.privacyKey(), boots, time, privacyParameters, msgData.content());
+
+            scopedPdu = new Ber.Reader(plain).next(Ber.SEQUENCE);
+        }
+        else
+        {
+            scopedPdu = msgData;
+        }
+
+        var scoped = scopedPdu.reader();
+
+        scoped.next(Ber.OCTET_STRING);
+
+        scoped.next(Ber.OCTET_STRING);
+
+        var pdu = SnmpPdu.decode(scoped.next());
+
+        if ((flags & 0x01) == 0 && security.authKey() != null && pdu.type() != Ber.REPORT)
+        {
+            return;
+        }
+
+        var engine = new EngineInfo(engineId, boots, time, System.currentTimeMillis());
+
+        if (engineId.length > 0)
+        {
+            engines.put(pending.target.address(), engine);
+        }
+
+        complete(pending, new Response(pdu, engine));
+    }
+
+    private int nextRequestId()
+    {
+        int id;
+
+        do
+        {
+            id = requestIds.incrementAndGet() & 0x7fffffff;
+        }
+        while (id == 0 || pendingRequests.containsKey(id));
+
+        return id;
+    }
+
+    /**
+     * Target addresses are IP literals, compared by value so "::1" matches "0:0:0:0:0:0:0:1" and IPv4-mapped senders
+     */
+    private static boolean sentBy(SocketAddress sender, SnmpTarget target)
+    {
+        if (sender == null || sender.host() == null || sender.port() != target.port())
+        {
+            return false;
+        }
+
+        var expected = new long[2];
+
+        var actual = new long[2];
+
+        var senderHost = sender.host();
+
+        var zone = senderHost.indexOf('%');
+
+        var senderEnd = zone < 0 ? senderHost.length() : zone;
+
+        if (IpParser.parse(target.host(), 0, target.host().length(), expected) == IpParser.INVALID
+                || IpParser.parse(senderHost, 0, senderEnd, actual) == IpParser.INVALID)
+        {
+            return target.host().equalsIgnoreCase(senderHost);
+        }
+
+        return expected[0] == actual[0] && unmapped(expected) == unmapped(actual);
+    }
+
+    /**
+     * @return low half of the address with the ::ffff:0:0/96 prefix of an IPv4-mapped address removed
+     */
+    private static long unmapped(long[] address)
+    {
+        return address[0] == 0 && (address[1] >>> 32) == 0xffffL ? address[1] & 0xffffffffL : address[1];
+    }
+
+    private static byte[] communityBytes(SnmpTarget target)
+    {
+        return target.community() == null ? new byte[0] : target.community().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SnmpPdu withRequestId(SnmpPdu pdu, int requestId)
+    {
+        return new SnmpPdu(pdu.type(), requestId, pdu.errorStatus(), pdu.errorIndex(), pdu.varBinds());
+    }
+
+    private static int compareOids(String left, String right)
+    {
+        var leftParts = left.split("\\.");
+
+        var rightParts = right.split("\\.");
+
+        for (var i = 0; i < Math.min(leftParts.length, rightParts.length); i++)
+        {
+            var comparison = Long.compare(Long.parseLong(leftParts[i]), Long.parseLong(rightParts[i]));
+
+            if (comparison != 0)
+            {
+                return comparison;
+            }
+        }
+
+        return Integer.compare(leftParts.length, rightParts.length);
+    }
+}
@@ -0,0 +1,156 @@
+package org.nms.PluginManager.Snmp;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SNMP PDU => GET / GETNEXT / GETBULK requests and RESPONSE / REPORT replies
+ * For GETBULK, errorStatus and errorIndex carry non-repeaters and max-repetitions
+ */
+public record SnmpPdu(int type, int requestId, int errorStatus, int errorIndex, List<VarBind> varBinds)
+{
+    public static final int NO_SUCH_NAME = 2;
+
+    /**
+     * Single OID / value pair, value is already converted to a JSON friendly type
+     */
+    public record VarBind(String oid, int valueTag, Object value)
+    {
+        public boolean isEndOfView()
+        {
+            return valueTag == Ber.END_OF_MIB_VIEW || valueTag == Ber.NO_SUCH_OBJECT || valueTag == Ber.NO_SUCH_INSTANCE;
+        }
+    }
+
+    public static SnmpPdu request(int type, int requestId, List<String> oids)
+    {
+        return new SnmpPdu(type, requestId, 0, 0, oids.stream().map(oid -> new VarBind(oid, Ber.NULL, null)).toList());
+    }
+
+    public static SnmpPdu bulkRequest(int requestId, int nonRepeaters, int maxRepetitions, List<String> oids)
+    {
+        return new SnmpPdu(Ber.GET_BULK, requestId, nonRepeaters, maxRepetitions, oids.stream().map(oid -> new VarBind(oid, Ber.NULL, null)).toList());
+    }
+
+    public byte[] encode()
+    {
+        var varBindList = new byte[varBinds.size()][];
+
+        for (var i = 0; i < varBinds.size(); i++)
+        {
+            varBindList[i] = Ber.container(Ber.SEQUENCE, Ber.oid(varBinds.get(i).oid()), Ber.nullValue());
+        }
+
+        return Ber.container(type,
+                Ber.integer(requestId),
+                Ber.integer(errorStatus),
+                Ber.integer(errorIndex),
+                Ber.container(Ber.SEQUENCE, varBindList));
+    }
+
+    public static SnmpPdu decode(Ber.Element element) throws IOException
+    {
+        var reader = element.reader();
+
+        var requestId = (int) reader.next(Ber.INTEGER).asLong();
+
+        var errorStatus = (int) reader.next(Ber.INTEGER).asLong();
+
+        var errorIndex = (int) reader.next(Ber.INTEGER).asLong();
+
+        var varBindReader = reader.next(Ber.SEQUENCE).reader();
+
+        List<VarBind> varBinds = new ArrayList<>();
+
+        while (varBindReader.hasNext())
+        {
+            var pair = varBindReader.next(Ber.SEQUENCE).reader();
+
+            var oid = pair.next(Ber.OBJECT_IDENTIFIER).asOid();
+
+            var value = pair.next();
+
+            varBinds.add(new VarBind(oid, value.tag(), toValue(value)));
+        }
+
+        return new SnmpPdu(element.tag(), requestId, errorStatus, errorIndex, varBinds);
+    }
+
+    private static Object toValue(Ber.Element value)
+    {
+        switch (value.tag())
+        {
+            case Ber.INTEGER:
+                return value.asLong();
+
+            case Ber.COUNTER32:
+            case Ber.GAUGE32:
+            case Ber.TIMETICKS:
+                return value.asUnsignedLong();
+
+            case Ber.COUNTER64:
+                var counter = new BigInteger(1, value.content());
+
+                return counter.bitLength() < 64 ? (Object) counter.longValue() : counter.toString();
+
+            case Ber.OCTET_STRING:
+            case Ber.OPAQUE:
+                return toText(value.content());
+
+            case Ber.OBJECT_IDENTIFIER:
+                return value.asOid();
+
+            case Ber.IP_ADDRESS:
+                var bytes = value.content();
+
+                if (bytes.length != 4)
+                {
+                    return HexFormat.of().formatHex(bytes);
+                }
+
+                return (bytes[0] & 0xff) + "." + (bytes[1] & 0xff) + "." + (bytes[2] & 0xff) + "." + (bytes[3] & 0xff);
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Octet strings are text most of the time (sysDescr, hrStorageDescr), otherwise they are rendered as hex
+     */
+    private static String toText(byte[] bytes)
+    {
+        try
+        {
+            var text = StandardCharsets.UTF_8
+                    .newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+
+            for (var i = 0; i < text.length(); i++)
+            {
+                var c = text.charAt(i);
+
+                if (Character.isISOControl(c) && c != '\n' && c != '\r' && c != '\t' && !(c == 0 && i == text.length() - 1))
+                {
+                    return HexFormat.of().formatHex(bytes);
+                }
+            }
+
+            return text.endsWith("\0") ? text.substring(0, text.length() - 1) : text;
+        }
+        catch (CharacterCodingException e)
+        {
+            return HexFormat.of().formatHex(bytes);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.nms.PluginManager.Snmp;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Device address plus SNMP security settings taken from a credential profile
+ */
+public record SnmpTarget(
+        String host,
+        int port,
+        int version,
+        String community,
+        String userName,
+        String authProtocol,
+        String authPassword,
+        String privacyProtocol,
+        String privacyPassword,
+        long timeoutMillis,
+        int retries)
+{
+    public static final int VERSION_1 = 0;
+
+    public static final int VERSION_2C = 1;
+
+    public static final int VERSION_3 = 3;
+
+    public static final int DEFAULT_PORT = 161;
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+
+    public static final int DEFAULT_RETRIES = 2;
+
+    /**
+     * Builds target from a polling metric group => { ip, port, credentials: { type, community, username, ... } }
+     */
+    public static SnmpTarget fromMetricGroup(JsonObject metricGroup)
+    {
+        var credentials = metricGroup.getJsonObject("credentials", new JsonObject());
+
+        var version = switch (credentials.getString("type", "SNMPv2c"))
+        {
+            case "SNMPv1" -> VERSION_1;
+            case "SNMPv3" -> VERSION_3;
+            default -> VERSION_2C;
+        };
+
+        var port = metricGroup.getInteger("port");
+
+        return new SnmpTarget(
+                metricGroup.getString("ip"),
+                port == null || port <= 0 ? DEFAULT_PORT : port,
+                version,
+                credentials.getString("community", "public"),
+                credentials.getString("username"),
+                credentials.getString("auth_protocol"),
+                credentials.getString("auth_password"),
+                credentials.getString("privacy_protocol"),
+                credentials.getString("privacy_password"),
+                DEFAULT_TIMEOUT_MILLIS,
+                DEFAULT_RETRIES);
+    }
+
+    public boolean hasAuth()
+    {
+        return version == VERSION_3 && authProtocol != null && !authProtocol.isBlank() && authPassword != null;
+    }
+
+    public boolean hasPrivacy()
+    {
+        return hasAuth() && privacyProtocol != null && !privacyProtocol.isBlank() && privacyPassword != null;
+    }
+
+    public String address()
+    {
+        return host + ":" + port;
+    }
+}
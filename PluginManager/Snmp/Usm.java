@@ -0,0 +1,224 @@
+package org.nms.PluginManager.Snmp;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SNMPv3 User-based Security Model => key localization (RFC 3414), HMAC authentication, DES / AES privacy
+ * Password to key expansion hashes 1 MB per password, so both master and localized keys are cached
+ */
+public class Usm
+{
+    private static final int PASSWORD_EXPANSION_BYTES = 1024 * 1024;
+
+    // (protocol, password) => Ku
+    private static final ConcurrentHashMap<String, byte[]> masterKeys = new ConcurrentHashMap<>();
+
+    // (protocol, password, engine id) => Kul
+    private static final ConcurrentHashMap<String, byte[]> localizedKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Encrypted scoped PDU and the privacy parameters (salt) to send along with it
+     */
+    public record Encrypted(byte[] cipherText, byte[] privacyParameters)
+    {
+    }
+
+    /**
+     * @return key localized to the given authoritative engine, computed once per (protocol, password, engine)
+     */
+    public static byte[] localizedKey(String authProtocol, String password, byte[] engineId)
+    {
+        var cacheKey = normalize(authProtocol) + "\0" + password + "\0" + HexFormat.of().formatHex(engineId);
+
+        return localizedKeys.computeIfAbsent(cacheKey, ignored ->
+        {
+            try
+            {
+                var masterKey = masterKeys.computeIfAbsent(normalize(authProtocol) + "\0" + password, key -> expandPassword(authProtocol, password));
+
+                var digest = MessageDigest.getInstance(digestAlgorithm(authProtocol));
+
+                digest.update(masterKey);
+                digest.update(engineId);
+                digest.update(masterKey);
+
+                return digest.digest();
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * @return key localizedKey() computed before, or null if it still has to be expanded
+     */
+    public static byte[] cachedLocalizedKey(String authProtocol, String password, byte[] engineId)
+    {
+        return localizedKeys.get(normalize(authProtocol) + "\0" + password + "\0" + HexFormat.of().formatHex(engineId));
+    }
+
+    /**
+     * @return truncated HMAC of the whole message, computed with auth params zeroed
+     */
+    public static byte[] authenticate(String authProtocol, byte[] key, byte[] message) throws GeneralSecurityException
+    {
+        var algorithm = hmacAlgorithm(authProtocol);
+
+        var mac = Mac.getInstance(algorithm);
+
+        mac.init(new SecretKeySpec(key, algorithm));
+
+        return Arrays.copyOf(mac.doFinal(message), authParametersLength(authProtocol));
+    }
+
+    public static int authParametersLength(String authProtocol)
+    {
+        return "SHA256".equals(normalize(authProtocol)) ? 24 : 12;
+    }
+
+    public static Encrypted encrypt(String privacyProtocol, byte[] privacyKey, int engineBoots, int engineTime, long salt, byte[] plainText) throws GeneralSecurityException
+    {
+        if (isAes(privacyProtocol))
+        {
+            var privacyParameters = ByteBuffer.allocate(8).putLong(salt).array();
+
+            var cipher = Cipher.getInstance("AES/CFB/NoPadding");
+
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(privacyKey, 0, 16, "AES"), new IvParameterSpec(aesIv(engineBoots, engineTime, privacyParameters)));
+
+            return new Encrypted(cipher.doFinal(plainText), privacyParameters);
+        }
+
+        var privacyParameters = ByteBuffer.allocate(8).putInt(engineBoots).putInt((int) salt).array();
+
+        var padded = Arrays.copyOf(plainText, (plainText.length + 7) / 8 * 8);
+
+        var cipher = Cipher.getInstance("DES/CBC/NoPadding");
+
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(privacyKey, 0, 8, "DES"), new IvParameterSpec(desIv(privacyKey, privacyParameters)));
+
+        return new Encrypted(cipher.doFinal(padded), privacyParameters);
+    }
+
+    public static byte[] decrypt(String privacyProtocol, byte[] privacyKey, int engineBoots, int engineTime, byte[] privacyParameters, byte[] cipherText) throws GeneralSecurityException
+    {
+        if (privacyParameters.length != 8)
+        {
+            throw new GeneralSecurityException("Invalid Privacy Parameters");
+        }
+
+        if (isAes(privacyProtocol))
+        {
+            var cipher = Cipher.getInstance("AES/CFB/NoPadding");
+
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(privacyKey, 0, 16, "AES"), new IvParameterSpec(aesIv(engineBoots, engineTime, privacyParameters)));
+
+            return cipher.doFinal(cipherText);
+        }
+
+        if (cipherText.length % 8 != 0)
+        {
+            throw new GeneralSecurityException("Invalid DES Cipher Text Length");
+        }
+
+        var cipher = Cipher.getInstance("DES/CBC/NoPadding");
+
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(privacyKey, 0, 8, "DES"), new IvParameterSpec(desIv(privacyKey, privacyParameters)));
+
+        return cipher.doFinal(cipherText);
+    }
+
+    private static byte[] aesIv(int engineBoots, int engineTime, byte[] salt)
+    {
+        return ByteBuffer.allocate(16).putInt(engineBoots).putInt(engineTime).put(salt).array();
+    }
+
+    private static byte[] desIv(byte[] privacyKey, byte[] salt)
+    {
+        var iv = new byte[8];
+
+        for (var i = 0; i < 8; i++)
+        {
+            iv[i] = (byte) (privacyKey[8 + i] ^ salt[i]);
+        }
+
+        return iv;
+    }
+
+    private static byte[] expandPassword(String authProtocol, String password)
+    {
+        try
+        {
+            var digest = MessageDigest.getInstance(digestAlgorithm(authProtocol));
+
+            var passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+
+            if (passwordBytes.length == 0)
+            {
+                throw new IllegalArgumentException("Empty SNMPv3 Password");
+            }
+
+            var block = new byte[64];
+
+            var index = 0;
+
+            for (var count = 0; count < PASSWORD_EXPANSION_BYTES; count += 64)
+            {
+                for (var i = 0; i < 64; i++)
+                {
+                    block[i] = passwordBytes[index++ % passwordBytes.length];
+                }
+
+                digest.update(block);
+            }
+
+            return digest.digest();
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isAes(String privacyProtocol)
+    {
+        return normalize(privacyProtocol).startsWith("AES");
+    }
+
+    private static String digestAlgorithm(String authProtocol)
+    {
+        return switch (normalize(authProtocol))
+        {
+            case "MD5" -> "MD5";
+            case "SHA256" -> "SHA-256";
+            default -> "SHA-1";
+        };
+    }
+
+    private static String hmacAlgorithm(String authProtocol)
+    {
+        return switch (normalize(authProtocol))
+        {
+            case "MD5" -> "HmacMD5";
+            case "SHA256" -> "HmacSHA256";
+            default -> "HmacSHA1";
+        };
+    }
+
+    private static String normalize(String protocol)
+    {
+        return protocol == null ? "" : protocol.toUpperCase().replace("-", "").replace("_", "");
+    }
+}
@@ -0,0 +1,359 @@
+package org.nms.PluginManager.Ssh;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.Constants;
+import org.nms.PluginManager.Collector;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Native SSH collector for Linux devices, runs one command per metric group over the shared session pool
+ * All groups of a device share one authenticated connection, each poll only opens an exec channel
+ * Registered by CollectorRegistry.registerNativeCollectors only when NATIVE_SSH_COLLECTOR is on, so Apache MINA SSHD is optional otherwise
+ */
+public class SshCollector implements Collector
+{
+    private static final int DEFAULT_PORT = 22;
+
+    private static final Map<String, String> COMMANDS = Map.of(
+            "CPUINFO", "LC_ALL=C lscpu",
+            "CPUUSAGE", "LC_ALL=C vmstat 1 2 | tail -1",
+            "UPTIME", "cat /proc/uptime",
+            "MEMORY", "LC_ALL=C free -b",
+            "DISK", "LC_ALL=C df -P -B1",
+            "PROCESS", "ps -eo pid,user,pcpu,pmem,comm --no-headers",
+            "NETWORK", "cat /proc/net/dev",
+            "SYSTEMINFO", "hostname; uname -r; uname -m; . /etc/os-release 2>/dev/null && echo \"$PRETTY_NAME\"");
+
+    private final Path knownHostsPath;
+
+    // Created On First Poll, So Registering The Collector Starts No SSH Client
+    private SshSessionPool pool;
+
+    public SshCollector()
+    {
+        this(Path.of(Constants.SSH_KNOWN_HOSTS_PATH));
+    }
+
+    /**
+     * @param knownHostsPath known_hosts file host keys are learned into and checked against
+     */
+    public SshCollector(Path knownHostsPath)
+    {
+        this.knownHostsPath = knownHostsPath;
+    }
+
+    @Override
+    public String credentialType()
+    {
+        return "SSH";
+    }
+
+    @Override
+    public Set<String> metricGroups()
+    {
+        return COMMANDS.keySet();
+    }
+
+    @Override
+    public Future<JsonObject> collect(JsonObject metricGroup)
+    {
+        var name = metricGroup.getString("name");
+
+        var command = COMMANDS.get(name);
+
+        if (command == null)
+        {
+            return Future.failedFuture("Unsupported Metric Group " + name);
+        }
+
+        var credentials = metricGroup.getJsonObject("credentials", new JsonObject());
+
+        var port = metricGroup.getInteger("port");
+
+        return pool()
+                .execute(
+                        metricGroup.getString("ip"),
+                        port == null || port <= 0 ? DEFAULT_PORT : port,
+                        credentials.getString("username"),
+                        credentials.getString("password"),
+                        command)
+                .map(output -> new JsonObject()
+                        .put("provision_profile_id", metricGroup.getInteger("provision_profile_id"))
+                        .put("name", name)
+                        .put("success", true)
+                        .put("data", parse(name, output)));
+    }
+
+    @Override
+    public synchronized Future<Void> close()
+    {
+        if (pool == null)
+        {
+            return Future.succeededFuture();
+        }
+
+        var closing = pool.close();
+
+        pool = null;
+
+        return closing;
+    }
+
+    private synchronized SshSessionPool pool()
+    {
+        if (pool == null)
+        {
+            pool = new SshSessionPool(knownHostsPath);
+        }
+
+        return pool;
+    }
+
+    private static Object parse(String name, String output)
+    {
+        return switch (name)
+        {
+            case "CPUINFO" -> parseCpuInfo(output);
+            case "CPUUSAGE" -> parseCpuUsage(output);
+            case "UPTIME" -> parseUptime(output);
+            case "MEMORY" -> parseMemory(output);
+            case "DISK" -> parseDisk(output);
+            case "PROCESS" -> parseProcesses(output);
+            case "NETWORK" -> parseNetwork(output);
+            default -> parseSystemInfo(output);
+        };
+    }
+
+    // lscpu => "Key: Value" Lines
+    private static JsonObject parseCpuInfo(String output)
+    {
+        var info = new JsonObject();
+
+        for (var line : output.split("\n"))
+        {
+            var separator = line.indexOf(':');
+
+            if (separator <= 0)
+            {
+                continue;
+            }
+
+            var key = line.substring(0, separator).trim();
+
+            var value = line.substring(separator + 1).trim();
+
+            switch (key)
+            {
+                case "Architecture" -> info.put("architecture", value);
+                case "Model name" -> info.put("model", value);
+                case "CPU(s)" -> info.put("cores", toLong(value));
+                case "Thread(s) per core" -> info.put("threads_per_core", toLong(value));
+                case "Socket(s)" -> info.put("sockets", toLong(value));
+                case "CPU MHz" -> info.put("mhz", toDouble(value));
+                default -> { }
+            }
+        }
+
+        return info;
+    }
+
+    // vmstat => r b swpd free buff cache si so bi bo in cs us sy id wa st
+    private static JsonObject parseCpuUsage(String output)
+    {
+        var fields = output.trim().split("\\s+");
+
+        if (fields.length < 16)
+        {
+            throw new IllegalArgumentException("Unexpected vmstat Output => " + output);
+        }
+
+        var idle = toLong(fields[14]);
+
+        return new JsonObject()
+                .put("user_percent", toLong(fields[12]))
+                .put("system_percent", toLong(fields[13]))
+                .put("idle_percent", idle)
+                .put("iowait_percent", toLong(fields[15]))
+                .put("average_load_percent", 100 - idle);
+    }
+
+    // /proc/uptime => "<uptime seconds> <idle seconds>"
+    private static JsonObject parseUptime(String output)
+    {
+        var fields = output.trim().split("\\s+");
+
+        return new JsonObject().put("uptime_seconds", (long) toDouble(fields[0]));
+    }
+
+    // free -b => Mem: / Swap: Rows Of total used free ...
+    private static JsonObject parseMemory(String output)
+    {
+        var memory = new JsonObject();
+
+        for (var line : output.split("\n"))
+        {
+            var fields = line.trim().split("\\s+");
+
+            if (fields.length < 4)
+            {
+                continue;
+            }
+
+            var key = switch (fields[0])
+            {
+                case "Mem:" -> "physical";
+                case "Swap:" -> "virtual";
+                default -> null;
+            };
+
+            if (key == null)
+            {
+                continue;
+            }
+
+            var total = toLong(fields[1]);
+
+            var used = toLong(fields[2]);
+
+            memory.put(key, new JsonObject()
+                    .put("type", key.equals("physical") ? "RAM" : "VIRTUAL")
+                    .put("total_bytes", total)
+                    .put("used_bytes", used)
+                    .put("free_bytes", total - used)
+                    .put("used_percent", total == 0 ? 0 : used * 100.0 / total));
+        }
+
+        return memory;
+    }
+
+    // df -P -B1 => Filesystem 1-blocks Used Available Capacity Mounted-on
+    private static JsonArray parseDisk(String output)
+    {
+        var disks = new JsonArray();
+
+        var lines = output.split("\n");
+
+        for (var i = 1; i < lines.length; i++)
+        {
+            var fields = lines[i].trim().split("\\s+");
+
+            if (fields.length < 6)
+            {
+                continue;
+            }
+
+            var total = toLong(fields[1]);
+
+            var used = toLong(fields[2]);
+
+            disks.add(new JsonObject()
+                    .put("type", "DISK")
+                    .put("name", fields[5])
+                    .put("filesystem", fields[0])
+                    .put("total_bytes", total)
+                    .put("used_bytes", used)
+                    .put("free_bytes", toLong(fields[3]))
+                    .put("used_percent", total == 0 ? 0 : used * 100.0 / total));
+        }
+
+        return disks;
+    }
+
+    // ps => pid user pcpu pmem comm
+    private static JsonArray parseProcesses(String output)
+    {
+        var processes = new JsonArray();
+
+        for (var line : output.split("\n"))
+        {
+            var fields = line.trim().split("\\s+", 5);
+
+            if (fields.length < 5)
+            {
+                continue;
+            }
+
+            processes.add(new JsonObject()
+                    .put("pid", toLong(fields[0]))
+                    .put("user", fields[1])
+                    .put("cpu_percent", toDouble(fields[2]))
+                    .put("memory_percent", toDouble(fields[3]))
+                    .put("name", fields[4]));
+        }
+
+        return processes;
+    }
+
+    // /proc/net/dev => "iface: rx_bytes rx_packets rx_errs ... tx_bytes tx_packets tx_errs ..."
+    private static JsonArray parseNetwork(String output)
+    {
+        var interfaces = new JsonArray();
+
+        for (var line : output.split("\n"))
+        {
+            var separator = line.indexOf(':');
+
+            if (separator <= 0)
+            {
+                continue;
+            }
+
+            var fields = line.substring(separator + 1).trim().split("\\s+");
+
+            if (fields.length < 16)
+            {
+                continue;
+            }
+
+            interfaces.add(new JsonObject()
+                    .put("name", line.substring(0, separator).trim())
+                    .put("in_bytes", toLong(fields[0]))
+                    .put("in_errors", toLong(fields[2]))
+                    .put("out_bytes", toLong(fields[8]))
+                    .put("out_errors", toLong(fields[10])));
+        }
+
+        return interfaces;
+    }
+
+    // hostname / kernel / machine / pretty name, One Per Line
+    private static JsonObject parseSystemInfo(String output)
+    {
+        var lines = output.split("\n");
+
+        return new JsonObject()
+                .put("name", lines.length > 0 ? lines[0].trim() : null)
+                .put("kernel", lines.length > 1 ? lines[1].trim() : null)
+                .put("architecture", lines.length > 2 ? lines[2].trim() : null)
+                .put("description", lines.length > 3 ? lines[3].trim() : null);
+    }
+
+    private static long toLong(String value)
+    {
+        try
+        {
+            return Long.parseLong(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+
+    private static double toDouble(String value)
+    {
+        try
+        {
+            return Double.parseDouble(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+}
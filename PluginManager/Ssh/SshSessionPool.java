@@ -0,0 +1,376 @@
+package org.nms.PluginManager.Ssh;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.client.channel.ChannelExec;
+import org.apache.sshd.client.keyverifier.KnownHostsServerKeyVerifier;
+import org.apache.sshd.client.keyverifier.ServerKeyVerifier;
+import org.apache.sshd.client.session.ClientSession;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.HexFormat;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one authenticated SSH session per (device, credentials) and multiplexes exec channels over it
+ * Idle sessions are evicted periodically, broken sessions are dropped and reconnected on next use
+ * Host keys are trusted on first use and persisted to a known_hosts file, a changed key is rejected
+ */
+public class SshSessionPool
+{
+    private static final long CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    private static final long COMMAND_TIMEOUT_MILLIS = 30_000;
+
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+
+    private static final long EVICTION_INTERVAL_MILLIS = 30_000;
+
+    // Stay Below OpenSSH's Default MaxSessions (10) Channels Per Connection
+    private static final int MAX_CHANNELS_PER_SESSION = 8;
+
+    private final SshClient client;
+
+    // Pool State Is Only Touched From This Context
+    private final Context context;
+
+    private final ConcurrentHashMap<String, PooledSession> sessions = new ConcurrentHashMap<>();
+
+    private final long evictionTimerId;
+
+    /**
+     * Authenticated session plus the channels currently open / waiting on it
+     */
+    private static class PooledSession
+    {
+        final String key;
+
+        final Future<ClientSession> session;
+
+        final Queue<Runnable> waiting = new ArrayDeque<>();
+
+        int activeChannels = 0;
+
+        long lastUsed = System.currentTimeMillis();
+
+        PooledSession(String key, Future<ClientSession> session)
+        {
+            this.key = key;
+            this.session = session;
+        }
+    }
+
+    /**
+     * @param knownHostsPath known_hosts file, created when the first host key is learned
+     */
+    public SshSessionPool(Path knownHostsPath)
+    {
+        context = App.vertx.getOrCreateContext();
+
+        client = SshClient.setUpDefaultClient();
+
+        // Unknown Host => Key Is Accepted And Appended To known_hosts, Known Host => Key Must Match The Stored One
+        ServerKeyVerifier trustOnFirstUse = (session, remoteAddress, serverKey) ->
+        {
+            ConsoleLogger.info("🔐 Trusting New SSH Host Key Of " + remoteAddress + " => " + knownHostsPath);
+
+            return true;
+        };
+
+        var verifier = new KnownHostsServerKeyVerifier(trustOnFirstUse, knownHostsPath);
+
+        verifier.setModifiedServerKeyAcceptor((session, remoteAddress, entry, expected, actual) ->
+        {
+            ConsoleLogger.error("❌ SSH Host Key Of " + remoteAddress + " Changed, Refusing To Connect Until It Is Removed From " + knownHostsPath);
+
+            return false;
+        });
+
+        client.setServerKeyVerifier(verifier);
+
+        client.start();
+
+        evictionTimerId = App.vertx.setPeriodic(EVICTION_INTERVAL_MILLIS, id -> context.runOnContext(v -> evictIdleSessions()));
+    }
+
+    /**
+     * Runs a command on the device over a pooled session, reconnecting once if the session turns out broken
+     * @return command's stdout
+     */
+    public Future<String> execute(String host, int port, String username, String password, String command)
+    {
+        return execute(host, port, username, password, command, true);
+    }
+
+    private Future<String> execute(String host, int port, String username, String password, String command, boolean allowReconnect)
+    {
+        // Changed Credentials Map To A New Session, The Old One Is Evicted Once Idle
+        var key = username + "@" + host + ":" + port + "#" + credentialFingerprint(username, password);
+
+        var pooled = sessions.computeIfAbsent(key, ignored -> new PooledSession(key, connect(host, port, username, password)));
+
+        return pooled.session
+                .compose(session ->
+                {
+                    if (!session.isOpen())
+                    {
+                        return Future.failedFuture(new BrokenSessionException("SSH Session To " + key + " Is Closed"));
+                    }
+
+                    return acquireChannel(pooled).compose(ignored -> exec(session, command)
+                            .onComplete(done -> releaseChannel(pooled)));
+                })
+                .recover(err ->
+                {
+                    // Drop Failed / Broken Session So The Next Poll Reconnects
+                    if (pooled.session.failed() || err instanceof BrokenSessionException)
+                    {
+                        discard(pooled);
+
+                        if (allowReconnect && err instanceof BrokenSessionException)
+                        {
+                            return execute(host, port, username, password, command, false);
+                        }
+                    }
+
+                    return Future.failedFuture(err);
+                });
+    }
+
+    private Future<ClientSession> connect(String host, int port, String username, String password)
+    {
+        Promise<ClientSession> promise = Promise.promise();
+
+        var timerId = App.vertx.setTimer(CONNECT_TIMEOUT_MILLIS, id -> promise.tryFail("SSH Connect To " + host + ":" + port + " Timed Out"));
+
+        try
+        {
+            client.connect(username, host, port).addListener(connectFuture ->
+            {
+                if (!connectFuture.isConnected())
+                {
+                    context.runOnContext(v -> promise.tryFail(connectFuture.getException() == null ? new Exception("SSH Connect Failed") : connectFuture.getException()));
+                    return;
+                }
+
+                var session = connectFuture.getSession();
+
+                session.addPasswordIdentity(password);
+
+                try
+                {
+                    session.auth().addListener(authFuture -> context.runOnContext(v ->
+                    {
+                        if (authFuture.isSuccess() && promise.tryComplete(session))
+                        {
+                            ConsoleLogger.debug("🔑 Opened Pooled SSH Session To " + username + "@" + host + ":" + port);
+                            return;
+                        }
+
+                        session.close(true);
+
+                        promise.tryFail(authFuture.getException() == null ? new Exception("SSH Authentication Failed") : authFuture.getException());
+                    }));
+                }
+                catch (Exception e)
+                {
+                    session.close(true);
+
+                    context.runOnContext(v -> promise.tryFail(e));
+                }
+            });
+        }
+        catch (Exception e)
+        {
+            promise.tryFail(e);
+        }
+
+        return promise.future().onComplete(done -> App.vertx.cancelTimer(timerId));
+    }
+
+    private Future<String> exec(ClientSession session, String command)
+    {
+        Promise<String> promise = Promise.promise();
+
+        try
+        {
+            ChannelExec channel = session.createExecChannel(command);
+
+            var out = new ByteArrayOutputStream();
+
+            channel.setOut(out);
+
+            channel.setErr(new ByteArrayOutputStream());
+
+            var timerId = App.vertx.setTimer(COMMAND_TIMEOUT_MILLIS, id ->
+            {
+                channel.close(true);
+
+                promise.tryFail("SSH Command Timed Out => " + command);
+            });
+
+            channel.addCloseFutureListener(closeFuture -> context.runOnContext(v ->
+            {
+                App.vertx.cancelTimer(timerId);
+
+                var exitStatus = channel.getExitStatus();
+
+                if (exitStatus != null && exitStatus != 0 && out.size() == 0)
+                {
+                    promise.tryFail("SSH Command Exited With Status " + exitStatus + " => " + command);
+                    return;
+                }
+
+                promise.tryComplete(out.toString(StandardCharsets.UTF_8));
+            }));
+
+            channel.open().addListener(openFuture ->
+            {
+                if (!openFuture.isOpened())
+                {
+                    context.runOnContext(v -> promise.tryFail(new BrokenSessionException("SSH Channel Open Failed => " + openFuture.getException())));
+
+                    channel.close(true);
+                }
+            });
+        }
+        catch (Exception e)
+        {
+            promise.tryFail(new BrokenSessionException(e.getMessage()));
+        }
+
+        return promise.future();
+    }
+
+    private Future<Void> acquireChannel(PooledSession pooled)
+    {
+        Promise<Void> promise = Promise.promise();
+
+        context.runOnContext(v ->
+        {
+            pooled.lastUsed = System.currentTimeMillis();
+
+            if (pooled.activeChannels < MAX_CHANNELS_PER_SESSION)
+            {
+                pooled.activeChannels++;
+
+                promise.complete();
+            }
+            else
+            {
+                pooled.waiting.add(() ->
+                {
+                    pooled.activeChannels++;
+
+                    promise.complete();
+                });
+            }
+        });
+
+        return promise.future();
+    }
+
+    private void releaseChannel(PooledSession pooled)
+    {
+        context.runOnContext(v ->
+        {
+            pooled.activeChannels--;
+
+            pooled.lastUsed = System.currentTimeMillis();
+
+            var next = pooled.waiting.poll();
+
+            if (next != null)
+            {
+                next.run();
+            }
+        });
+    }
+
+    private void discard(PooledSession pooled)
+    {
+        if (sessions.remove(pooled.key, pooled) && pooled.session.succeeded())
+        {
+            pooled.session.result().close(true);
+
+            ConsoleLogger.debug("🔌 Discarded SSH Session To " + pooled.key);
+        }
+    }
+
+    private void evictIdleSessions()
+    {
+        var now = System.currentTimeMillis();
+
+        sessions.values().forEach(pooled ->
+        {
+            var idle = pooled.activeChannels == 0 && now - pooled.lastUsed > IDLE_TIMEOUT_MILLIS;
+
+            var broken = pooled.session.succeeded() && !pooled.session.result().isOpen();
+
+            if (idle || broken)
+            {
+                discard(pooled);
+            }
+        });
+    }
+
+    /**
+     * @return number of pooled sessions
+     */
+    public int size()
+    {
+        return sessions.size();
+    }
+
+    public Future<Void> close()
+    {
+        App.vertx.cancelTimer(evictionTimerId);
+
+        sessions.values().forEach(this::discard);
+
+        return App.vertx.executeBlocking(() ->
+        {
+            client.stop();
+
+            return null;
+        });
+    }
+
+    /**
+     * @return first 8 bytes of SHA-256(username:password) as hex, so pool keys never hold the password itself
+     */
+    private static String credentialFingerprint(String username, String password)
+    {
+        try
+        {
+            var digest = MessageDigest.getInstance("SHA-256").digest((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest, 0, 8);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Session or channel level failure after which the session must not be reused
+     */
+    private static class BrokenSessionException extends Exception
+    {
+        BrokenSessionException(String message)
+        {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.nms.PluginManager.WinRm;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.PluginManager.Collector;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Native WinRM collector for Windows devices, runs one PowerShell script per metric group in the device's pooled shell
+ * Scripts emit JSON already shaped like the other collectors' data
+ */
+public class WinRmCollector implements Collector
+{
+    private static final String PREFIX = "$ProgressPreference = 'SilentlyContinue'; ";
+
+    private static final Map<String, String> SCRIPTS = Map.of(
+            "CPUINFO", """
+                    $p = @(Get-CimInstance Win32_Processor);
+                    [pscustomobject]@{ cores = ($p | Measure-Object NumberOfLogicalProcessors -Sum).Sum; processors = @($p | ForEach-Object { $_.Name }) } | ConvertTo-Json -Compress""",
+            "CPUUSAGE", """
+                    $p = @(Get-CimInstance Win32_Processor);
+                    [pscustomobject]@{ cores = @($p | ForEach-Object { [pscustomobject]@{ core = $_.DeviceID; load_percent = $_.LoadPercentage } }); average_load_percent = ($p | Measure-Object LoadPercentage -Average).Average } | ConvertTo-Json -Compress -Depth 3""",
+            "UPTIME", """
+                    $os = Get-CimInstance Win32_OperatingSystem;
+                    [pscustomobject]@{ uptime_seconds = [int64]((Get-Date) - $os.LastBootUpTime).TotalSeconds } | ConvertTo-Json -Compress""",
+            "MEMORY", """
+                    $os = Get-CimInstance Win32_OperatingSystem;
+                    $t = [int64]$os.TotalVisibleMemorySize * 1024; $f = [int64]$os.FreePhysicalMemory * 1024;
+                    $vt = [int64]$os.TotalVirtualMemorySize * 1024; $vf = [int64]$os.FreeVirtualMemory * 1024;
+                    [pscustomobject]@{ physical = [pscustomobject]@{ type = 'RAM'; total_bytes = $t; used_bytes = $t - $f; free_bytes = $f }; virtual = [pscustomobject]@{ type = 'VIRTUAL'; total_bytes = $vt; used_bytes = $vt - $vf; free_bytes = $vf } } | ConvertTo-Json -Compress""",
+            "DISK", """
+                    ConvertTo-Json -Compress -InputObject @(Get-CimInstance Win32_LogicalDisk -Filter 'DriveType=3' | ForEach-Object { [pscustomobject]@{ type = 'DISK'; name = $_.DeviceID; total_bytes = [int64]$_.Size; used_bytes = [int64]$_.Size - [int64]$_.FreeSpace; free_bytes = [int64]$_.FreeSpace } })""",
+            "PROCESS", """
+                    ConvertTo-Json -Compress -InputObject @(Get-Process | ForEach-Object { [pscustomobject]@{ pid = $_.Id; name = $_.ProcessName; cpu_seconds = $_.CPU; memory_bytes = $_.WorkingSet64 } })""",
+            "NETWORK", """
+                    ConvertTo-Json -Compress -InputObject @(Get-CimInstance Win32_PerfRawData_Tcpip_NetworkInterface | ForEach-Object { [pscustomobject]@{ name = $_.Name; in_bytes = [int64]$_.BytesReceivedPersec; out_bytes = [int64]$_.BytesSentPersec; in_errors = [int64]$_.PacketsReceivedErrors; out_errors = [int64]$_.PacketsOutboundErrors } })""",
+            "SYSTEMINFO", """
+                    $os = Get-CimInstance Win32_OperatingSystem;
+                    [pscustomobject]@{ name = $os.CSName; description = $os.Caption; version = $os.Version; architecture = $os.OSArchitecture } | ConvertTo-Json -Compress""");
+
+    private final WinRmShellPool pool = new WinRmShellPool();
+
+    @Override
+    public String credentialType()
+    {
+        return "WINRM";
+    }
+
+    @Override
+    public Set<String> metricGroups()
+    {
+        return SCRIPTS.keySet();
+    }
+
+    @Override
+    public Future<JsonObject> collect(JsonObject metricGroup)
+    {
+        var name = metricGroup.getString("name");
+
+        var script = SCRIPTS.get(name);
+
+        if (script == null)
+        {
+            return Future.failedFuture("Unsupported Metric Group " + name);
+        }
+
+        var credentials = metricGroup.getJsonObject("credentials", new JsonObject());
+
+        var port = metricGroup.getInteger("port");
+
+        return pool
+                .execute(
+                        metricGroup.getString("ip"),
+                        port == null || port <= 0 ? WinRmShellPool.HTTP_PORT : port,
+                        credentials.getString("username"),
+                        credentials.getString("password"),
+                        PREFIX + script)
+                .map(output -> new JsonObject()
+                        .put("provision_profile_id", metricGroup.getInteger("provision_profile_id"))
+                        .put("name", name)
+                        .put("success", true)
+                        .put("data", withUsedPercent(Json.decodeValue(output.strip().replace("\uFEFF", "")))));
+    }
+
+    @Override
+    public Future<Void> close()
+    {
+        return pool.close();
+    }
+
+    // Same Derived Field As The SNMP / SSH Collectors, Cheaper To Compute Here Than In PowerShell
+    private static Object withUsedPercent(Object data)
+    {
+        if (data instanceof JsonArray array)
+        {
+            array.forEach(WinRmCollector::withUsedPercent);
+        }
+        else if (data instanceof JsonObject object)
+        {
+            if (object.containsKey("total_bytes") && object.containsKey("used_bytes"))
+            {
+                var total = object.getLong("total_bytes", 0L);
+
+                object.put("used_percent", total == 0 ? 0 : object.getLong("used_bytes", 0L) * 100.0 / total);
+            }
+            else
+            {
+                object.forEach(entry -> withUsedPercent(entry.getValue()));
+            }
+        }
+
+        return data;
+    }
+}
@@ -0,0 +1,451 @@
+package org.nms.PluginManager.WinRm;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.http.RequestOptions;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+import org.nms.Constants;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one remote shell per (device, credentials) on top of keep-alive HTTP connections
+ * Short requests (Create, Command, Signal, Delete) are pipelined, Receive is a long poll and gets its own
+ * non-pipelined connections, so a waiting Receive never holds up the requests queued behind it
+ * Commands of all metric groups of a device run concurrently inside that shell, idle shells are deleted periodically
+ */
+public class WinRmShellPool
+{
+    public static final int HTTP_PORT = 5985;
+
+    public static final int HTTPS_PORT = 5986;
+
+    private static final long COMMAND_TIMEOUT_MILLIS = 30_000;
+
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+
+    private static final long EVICTION_INTERVAL_MILLIS = 30_000;
+
+    // Stay Below WinRM's Default MaxProcessesPerShell (15 On Older Windows Server)
+    private static final int MAX_COMMANDS_PER_SHELL = 10;
+
+    // Connections Per Host For Short Requests, Requests Beyond This Are Pipelined
+    private static final int MAX_CONNECTIONS_PER_HOST = 4;
+
+    private static final int PIPELINING_LIMIT = 4;
+
+    // One Connection Per Command That Can Be Waiting In Receive At Once
+    private static final int MAX_RECEIVE_CONNECTIONS_PER_HOST = MAX_COMMANDS_PER_SHELL;
+
+    private static final String CONTENT_TYPE = "application/soap+xml;charset=UTF-8";
+
+    private final HttpClient httpClient;
+
+    private final HttpClient httpsClient;
+
+    private final HttpClient receiveHttpClient;
+
+    private final HttpClient receiveHttpsClient;
+
+    // Pool State Is Only Touched From This Context
+    private final Context context;
+
+    private final ConcurrentHashMap<String, PooledShell> shells = new ConcurrentHashMap<>();
+
+    private final long evictionTimerId;
+
+    /**
+     * Where and as whom a shell's requests are sent
+     */
+    private record Endpoint(String host, int port, boolean https, String authorization)
+    {
+        String to()
+        {
+            return (https ? "https://" : "http://") + host + ":" + port + "/wsman";
+        }
+    }
+
+    /**
+     * Remote shell plus the commands currently running / waiting in it
+     */
+    private static class PooledShell
+    {
+        final String key;
+
+        final Endpoint endpoint;
+
+        final Future<String> shellId;
+
+        final Queue<Runnable> waiting = new ArrayDeque<>();
+
+        int activeCommands = 0;
+
+        long lastUsed = System.currentTimeMillis();
+
+        PooledShell(String key, Endpoint endpoint, Future<String> shellId)
+        {
+            this.key = key;
+            this.endpoint = endpoint;
+            this.shellId = shellId;
+        }
+    }
+
+    public WinRmShellPool()
+    {
+        context = App.vertx.getOrCreateContext();
+
+        httpClient = createClient(false, true, MAX_CONNECTIONS_PER_HOST);
+
+        httpsClient = createClient(true, true, MAX_CONNECTIONS_PER_HOST);
+
+        receiveHttpClient = createClient(false, false, MAX_RECEIVE_CONNECTIONS_PER_HOST);
+
+        receiveHttpsClient = createClient(true, false, MAX_RECEIVE_CONNECTIONS_PER_HOST);
+
+        evictionTimerId = App.vertx.setPeriodic(EVICTION_INTERVAL_MILLIS, id -> context.runOnContext(v -> evictIdleShells()));
+    }
+
+    private static HttpClient createClient(boolean https, boolean pipelined, int maxConnections)
+    {
+        var options = new HttpClientOptions()
+                .setKeepAlive(true)
+                .setKeepAliveTimeout(120)
+                .setPipelining(pipelined)
+                .setConnectTimeout(10_000);
+
+        if (pipelined)
+        {
+            options.setPipeliningLimit(PIPELINING_LIMIT);
+        }
+
+        if (https)
+        {
+            options.setSsl(true);
+
+            // Self-Signed Listeners Are Only Accepted When Explicitly Allowed
+            if (Constants.WINRM_TRUST_ALL_CERTIFICATES)
+            {
+                options.setTrustAll(true).setVerifyHost(false);
+            }
+        }
+
+        return App.vertx.createHttpClient(options, new PoolOptions().setHttp1MaxSize(maxConnections));
+    }
+
+    /**
+     * Runs a PowerShell script on the device in its pooled shell, recreating the shell once if it is gone
+     * @return script's stdout
+     */
+    public Future<String> execute(String host, int port, String username, String password, String script)
+    {
+        return execute(host, port, username, password, script, true);
+    }
+
+    private Future<String> execute(String host, int port, String username, String password, String script, boolean allowRecreate)
+    {
+        // Changed Credentials Map To A New Shell, The Old One Is Evicted Once Idle
+        var key = username + "@" + host + ":" + port + "#" + credentialFingerprint(username, password);
+
+        var authorization = "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+
+        var endpoint = new Endpoint(host, port, port == HTTPS_PORT, authorization);
+
+        var pooled = shells.computeIfAbsent(key, ignored -> new PooledShell(key, endpoint, createShell(endpoint)));
+
+        return pooled.shellId
+                .compose(shellId -> acquire(pooled).compose(ignored -> runCommand(pooled.endpoint, shellId, script)
+                        .onComplete(done -> release(pooled))))
+                .recover(err ->
+                {
+                    // Drop Failed / Vanished Shell So It Is Recreated
+                    if (pooled.shellId.failed() || err instanceof BrokenShellException)
+                    {
+                        discard(pooled);
+
+                        if (allowRecreate && err instanceof BrokenShellException)
+                        {
+                            return execute(host, port, username, password, script, false);
+                        }
+                    }
+
+                    return Future.failedFuture(err);
+                });
+    }
+
+    private Future<String> createShell(Endpoint endpoint)
+    {
+        return post(endpoint, WsMan.createShell(endpoint.to())).compose(response ->
+        {
+            var shellId = WsMan.parseShellId(response);
+
+            if (shellId == null)
+            {
+                return Future.failedFuture("WinRM Create Shell Returned No ShellId");
+            }
+
+            ConsoleLogger.debug("🪟 Opened Pooled WinRM Shell On " + endpoint.host() + ":" + endpoint.port());
+
+            return Future.succeededFuture(shellId);
+        });
+    }
+
+    private Future<String> runCommand(Endpoint endpoint, String shellId, String script)
+    {
+        Promise<String> promise = Promise.promise();
+
+        var timerId = App.vertx.setTimer(COMMAND_TIMEOUT_MILLIS, id -> promise.tryFail("WinRM Command Timed Out On " + endpoint.host()));
+
+        post(endpoint, WsMan.powerShellCommand(endpoint.to(), shellId, script))
+                .recover(err -> Future.failedFuture(err instanceof WsMan.WsManFault ? new BrokenShellException(err.getMessage()) : err))
+                .compose(response ->
+                {
+                    var commandId = WsMan.parseCommandId(response);
+
+                    if (commandId == null)
+                    {
+                        return Future.failedFuture(new BrokenShellException("WinRM Command Returned No CommandId"));
+                    }
+
+                    var stdout = new ByteArrayOutputStream();
+
+                    return receive(endpoint, shellId, commandId, stdout, promise)
+                            .onComplete(done -> post(endpoint, WsMan.terminate(endpoint.to(), shellId, commandId)))
+                            .compose(exitCode ->
+                            {
+                                if (exitCode != null && exitCode != 0 && stdout.size() == 0)
+                                {
+                                    return Future.failedFuture("WinRM Command Exited With Status " + exitCode);
+                                }
+
+                                return Future.succeededFuture(stdout.toString(StandardCharsets.UTF_8));
+                            });
+                })
+                .onComplete(result ->
+                {
+                    App.vertx.cancelTimer(timerId);
+
+                    if (result.succeeded())
+                    {
+                        promise.tryComplete(result.result());
+                    }
+                    else
+                    {
+                        promise.tryFail(result.cause());
+                    }
+                });
+
+        return promise.future();
+    }
+
+    /**
+     * Repeats Receive until the command reports Done, collecting stdout
+     * @return command's exit code
+     */
+    private Future<Integer> receive(Endpoint endpoint, String shellId, String commandId, ByteArrayOutputStream stdout, Promise<String> command)
+    {
+        if (command.future().isComplete())
+        {
+            return Future.failedFuture("WinRM Command Abandoned");
+        }
+
+        return post(endpoint, WsMan.receive(endpoint.to(), shellId, commandId), true)
+                .transform(result ->
+                {
+                    if (result.failed())
+                    {
+                        // No Output Within The Operation Timeout => Keep Waiting
+                        if (result.cause() instanceof WsMan.WsManFault fault && WsMan.FAULT_OPERATION_TIMEOUT.equals(fault.getCode()))
+                        {
+                            return receive(endpoint, shellId, commandId, stdout, command);
+                        }
+
+                        return Future.failedFuture(result.cause());
+                    }
+
+                    var response = result.result();
+
+                    stdout.writeBytes(WsMan.parseStdout(response));
+
+                    if (WsMan.isDone(response))
+                    {
+                        return Future.succeededFuture(WsMan.parseExitCode(response));
+                    }
+
+                    return receive(endpoint, shellId, commandId, stdout, command);
+                });
+    }
+
+    private Future<String> post(Endpoint endpoint, String envelope)
+    {
+        return post(endpoint, envelope, false);
+    }
+
+    /**
+     * @param longPoll true for Receive, which waits up to the operation timeout and must not block a pipelined connection
+     */
+    private Future<String> post(Endpoint endpoint, String envelope, boolean longPoll)
+    {
+        var options = new RequestOptions()
+                .setMethod(HttpMethod.POST)
+                .setHost(endpoint.host())
+                .setPort(endpoint.port())
+                .setURI("/wsman")
+                .putHeader(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE)
+                .putHeader(HttpHeaders.AUTHORIZATION, endpoint.authorization());
+
+        var client = longPoll
+                ? (endpoint.https() ? receiveHttpsClient : receiveHttpClient)
+                : (endpoint.https() ? httpsClient : httpClient);
+
+        return client
+                .request(options)
+                .compose(request -> request.send(Buffer.buffer(envelope, "UTF-8")))
+                .compose(response -> response.body().compose(body ->
+                {
+                    var text = body.toString(StandardCharsets.UTF_8);
+
+                    return switch (response.statusCode())
+                    {
+                        case 200 -> Future.succeededFuture(text);
+                        // Rejected Credentials Leave The Shell Unusable, It Is Dropped Instead Of Reused
+                        case 401, 403 -> Future.failedFuture(new BrokenShellException("WinRM Authentication Failed On " + endpoint.host() + " With Status " + response.statusCode()));
+                        default -> Future.failedFuture(WsMan.parseFault(text));
+                    };
+                }));
+    }
+
+    private Future<Void> acquire(PooledShell pooled)
+    {
+        Promise<Void> promise = Promise.promise();
+
+        context.runOnContext(v ->
+        {
+            pooled.lastUsed = System.currentTimeMillis();
+
+            if (pooled.activeCommands < MAX_COMMANDS_PER_SHELL)
+            {
+                pooled.activeCommands++;
+
+                promise.complete();
+            }
+            else
+            {
+                pooled.waiting.add(() ->
+                {
+                    pooled.activeCommands++;
+
+                    promise.complete();
+                });
+            }
+        });
+
+        return promise.future();
+    }
+
+    private void release(PooledShell pooled)
+    {
+        context.runOnContext(v ->
+        {
+            pooled.activeCommands--;
+
+            pooled.lastUsed = System.currentTimeMillis();
+
+            var next = pooled.waiting.poll();
+
+            if (next != null)
+            {
+                next.run();
+            }
+        });
+    }
+
+    private Future<Void> discard(PooledShell pooled)
+    {
+        if (!shells.remove(pooled.key, pooled) || !pooled.shellId.succeeded())
+        {
+            return Future.succeededFuture();
+        }
+
+        ConsoleLogger.debug("🔌 Deleting WinRM Shell On " + pooled.key);
+
+        return post(pooled.endpoint, WsMan.deleteShell(pooled.endpoint.to(), pooled.shellId.result()))
+                .<Void>mapEmpty()
+                .otherwiseEmpty();
+    }
+
+    private void evictIdleShells()
+    {
+        var now = System.currentTimeMillis();
+
+        shells.values().forEach(pooled ->
+        {
+            if (pooled.activeCommands == 0 && now - pooled.lastUsed > IDLE_TIMEOUT_MILLIS)
+            {
+                discard(pooled);
+            }
+        });
+    }
+
+    /**
+     * @return number of pooled shells
+     */
+    public int size()
+    {
+        return shells.size();
+    }
+
+    public Future<Void> close()
+    {
+        App.vertx.cancelTimer(evictionTimerId);
+
+        var deletions = shells.values().stream().map(this::discard).toList();
+
+        return Future.join(deletions)
+                .transform(ignored -> Future.join(httpClient.close(), httpsClient.close(), receiveHttpClient.close(), receiveHttpsClient.close()))
+                .mapEmpty();
+    }
+
+    /**
+     * @return first 8 bytes of SHA-256(username:password) as hex, so pool keys never hold the password itself
+     */
+    private static String credentialFingerprint(String username, String password)
+    {
+        try
+        {
+            var digest = MessageDigest.getInstance("SHA-256").digest((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest, 0, 8);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Shell level failure after which the shell must not be reused
+     */
+    private static class BrokenShellException extends Exception
+    {
+        BrokenShellException(String message)
+        {
+            super(message);
+        }
+    }
+}
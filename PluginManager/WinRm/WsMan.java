@@ -0,0 +1,195 @@
+package org.nms.PluginManager.WinRm;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * WS-Management (MS-WSMV) envelopes for the Windows remote shell and the few response fields we need
+ * Responses are scanned with prefix-agnostic patterns instead of a full DOM parse
+ */
+public class WsMan
+{
+    private static final String SHELL_RESOURCE_URI = "http://schemas.microsoft.com/wbem/wsman/1/windows/shell/cmd";
+
+    private static final String ACTION_CREATE = "http://schemas.xmlsoap.org/ws/2004/09/transfer/Create";
+
+    private static final String ACTION_DELETE = "http://schemas.xmlsoap.org/ws/2004/09/transfer/Delete";
+
+    private static final String ACTION_COMMAND = "http://schemas.microsoft.com/wbem/wsman/1/windows/shell/Command";
+
+    private static final String ACTION_RECEIVE = "http://schemas.microsoft.com/wbem/wsman/1/windows/shell/Receive";
+
+    private static final String ACTION_SIGNAL = "http://schemas.microsoft.com/wbem/wsman/1/windows/shell/Signal";
+
+    private static final String SIGNAL_TERMINATE = "http://schemas.microsoft.com/wbem/wsman/1/windows/shell/signal/terminate";
+
+    private static final String COMMAND_STATE_DONE = "http://schemas.microsoft.com/wbem/wsman/1/windows/shell/CommandState/Done";
+
+    // WSMan Error Code For An Operation Timeout Without Output => Receive Must Simply Be Repeated
+    public static final String FAULT_OPERATION_TIMEOUT = "2150858793";
+
+    private static final Pattern SHELL_ID = Pattern.compile("<(?:\\w+:)?ShellId>([^<]+)</");
+
+    private static final Pattern COMMAND_ID = Pattern.compile("<(?:\\w+:)?CommandId>([^<]+)</");
+
+    private static final Pattern STDOUT_STREAM = Pattern.compile("<(?:\\w+:)?Stream\\b[^>]*Name=\"stdout\"[^>]*?(?:/>|>([^<]*)</)");
+
+    private static final Pattern EXIT_CODE = Pattern.compile("<(?:\\w+:)?ExitCode>(-?\\d+)</");
+
+    private static final Pattern FAULT_CODE = Pattern.compile("<(?:\\w+:)?WSManFault\\b[^>]*Code=\"(\\d+)\"");
+
+    private static final Pattern FAULT_TEXT = Pattern.compile("<(?:\\w+:)?(?:Text|Message)\\b[^>]*>([^<]+)</");
+
+    /**
+     * SOAP fault returned by the WinRM service
+     */
+    public static class WsManFault extends Exception
+    {
+        private final String code;
+
+        public WsManFault(String code, String message)
+        {
+            super("WinRM Fault " + code + " => " + message);
+
+            this.code = code;
+        }
+
+        public String getCode()
+        {
+            return code;
+        }
+    }
+
+    public static String createShell(String to)
+    {
+        var options = """
+                <w:OptionSet><w:Option Name="WINRS_NOPROFILE">TRUE</w:Option><w:Option Name="WINRS_CODEPAGE">65001</w:Option></w:OptionSet>""";
+
+        var body = """
+                <rsp:Shell><rsp:InputStreams>stdin</rsp:InputStreams><rsp:OutputStreams>stdout stderr</rsp:OutputStreams><rsp:IdleTimeOut>PT600S</rsp:IdleTimeOut></rsp:Shell>""";
+
+        return envelope(to, ACTION_CREATE, null, options, body);
+    }
+
+    public static String deleteShell(String to, String shellId)
+    {
+        return envelope(to, ACTION_DELETE, shellId, "", "");
+    }
+
+    /**
+     * Runs a PowerShell script, passed as -EncodedCommand so no quoting reaches cmd.exe
+     */
+    public static String powerShellCommand(String to, String shellId, String script)
+    {
+        var encoded = Base64.getEncoder().encodeToString(script.getBytes(StandardCharsets.UTF_16LE));
+
+        var options = """
+                <w:OptionSet><w:Option Name="WINRS_CONSOLEMODE_STDIN">TRUE</w:Option><w:Option Name="WINRS_SKIP_CMD_SHELL">TRUE</w:Option></w:OptionSet>""";
+
+        var body = "<rsp:CommandLine><rsp:Command>powershell.exe</rsp:Command><rsp:Arguments>-NoProfile -NonInteractive -EncodedCommand "
+                + encoded + "</rsp:Arguments></rsp:CommandLine>";
+
+        return envelope(to, ACTION_COMMAND, shellId, options, body);
+    }
+
+    public static String receive(String to, String shellId, String commandId)
+    {
+        var body = "<rsp:Receive><rsp:DesiredStream CommandId=\"" + commandId + "\">stdout stderr</rsp:DesiredStream></rsp:Receive>";
+
+        return envelope(to, ACTION_RECEIVE, shellId, "", body);
+    }
+
+    public static String terminate(String to, String shellId, String commandId)
+    {
+        var body = "<rsp:Signal CommandId=\"" + commandId + "\"><rsp:Code>" + SIGNAL_TERMINATE + "</rsp:Code></rsp:Signal>";
+
+        return envelope(to, ACTION_SIGNAL, shellId, "", body);
+    }
+
+    public static String parseShellId(String response)
+    {
+        return find(SHELL_ID, response);
+    }
+
+    public static String parseCommandId(String response)
+    {
+        return find(COMMAND_ID, response);
+    }
+
+    /**
+     * @return decoded stdout chunks of a Receive response, concatenated
+     */
+    public static byte[] parseStdout(String response)
+    {
+        var out = new ByteArrayOutputStream();
+
+        var matcher = STDOUT_STREAM.matcher(response);
+
+        while (matcher.find())
+        {
+            var chunk = matcher.group(1);
+
+            if (chunk != null && !chunk.isBlank())
+            {
+                out.writeBytes(Base64.getMimeDecoder().decode(chunk.trim()));
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    public static boolean isDone(String response)
+    {
+        return response.contains(COMMAND_STATE_DONE);
+    }
+
+    public static Integer parseExitCode(String response)
+    {
+        var exitCode = find(EXIT_CODE, response);
+
+        return exitCode == null ? null : Integer.parseInt(exitCode);
+    }
+
+    public static WsManFault parseFault(String response)
+    {
+        var code = find(FAULT_CODE, response);
+
+        var message = find(FAULT_TEXT, response);
+
+        return new WsManFault(code == null ? "UNKNOWN" : code, message == null ? "Unknown Fault" : message.trim());
+    }
+
+    private static String envelope(String to, String action, String shellId, String options, String body)
+    {
+        var selector = shellId == null
+                ? ""
+                : "<w:SelectorSet><w:Selector Name=\"ShellId\">" + shellId + "</w:Selector></w:SelectorSet>";
+
+        return """
+                <s:Envelope xmlns:s="http://www.w3.org/2003/05/soap-envelope" xmlns:a="http://schemas.xmlsoap.org/ws/2004/08/addressing" xmlns:w="http://schemas.dmtf.org/wbem/wsman/1/wsman.xsd" xmlns:rsp="http://schemas.microsoft.com/wbem/wsman/1/windows/shell">\
+                <s:Header>\
+                <a:To>%s</a:To>\
+                <a:ReplyTo><a:Address s:mustUnderstand="true">http://schemas.xmlsoap.org/ws/2004/08/addressing/role/anonymous</a:Address></a:ReplyTo>\
+                <w:ResourceURI s:mustUnderstand="true">%s</w:ResourceURI>\
+                <a:Action s:mustUnderstand="true">%s</a:Action>\
+                <w:MaxEnvelopeSize s:mustUnderstand="true">512000</w:MaxEnvelopeSize>\
+                <a:MessageID>uuid:%s</a:MessageID>\
+                <w:Locale xml:lang="en-US" s:mustUnderstand="false"/>\
+                <w:OperationTimeout>PT20S</w:OperationTimeout>\
+                %s%s\
+                </s:Header>\
+                <s:Body>%s</s:Body>\
+                </s:Envelope>""".formatted(to, SHELL_RESOURCE_URI, action, UUID.randomUUID(), selector, options, body);
+    }
+
+    private static String find(Pattern pattern, String text)
+    {
+        Matcher matcher = pattern.matcher(text);
+
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
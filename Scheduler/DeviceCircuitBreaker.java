@@ -0,0 +1,357 @@
+package org.nms.Scheduler;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import org.nms.App;
+import org.nms.Cache.MetricGroupCacheStore;
+import org.nms.API.Utility.IpHelpers;
+import org.nms.ConsoleLogger;
+import org.nms.VirtualThreadExecutor;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-device circuit breaker fed by poll outcomes
+ * CLOSED => polled normally, OPEN => not polled, only probed with exponential backoff,
+ * HALF_OPEN => probe succeeded, next poll decides between CLOSED and OPEN again
+ */
+public class DeviceCircuitBreaker
+{
+    public enum State
+    {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    // Consecutive Failed Poll Rounds Before A Device Is Taken Out Of Polling
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private static final long INITIAL_BACKOFF_MILLIS = 30_000;
+
+    private static final long MAX_BACKOFF_MILLIS = 30 * 60_000;
+
+    private static final int PROBE_TIMEOUT_MILLIS = 2000;
+
+    // Guards Against Parent Cycles Created Outside The API
+    private static final int MAX_PARENT_DEPTH = 16;
+
+    private static final ConcurrentHashMap<Integer, DeviceState> devices = new ConcurrentHashMap<>();
+
+    private static NetClient netClient;
+
+    /**
+     * Breaker state of a single provisioned device
+     */
+    private static class DeviceState
+    {
+        final int provisionProfileId;
+
+        String ip;
+
+        int port;
+
+        String credentialType;
+
+        State state = State.CLOSED;
+
+        int consecutiveFailures = 0;
+
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+
+        long nextProbeAt = 0;
+
+        long lastChangedAt = System.currentTimeMillis();
+
+        boolean probing = false;
+
+        String lastError;
+
+        DeviceState(int provisionProfileId)
+        {
+            this.provisionProfileId = provisionProfileId;
+        }
+
+        JsonObject toJson()
+        {
+            return new JsonObject()
+                    .put("provision_profile_id", provisionProfileId)
+                    .put("ip", ip)
+                    .put("state", state.name())
+                    .put("consecutive_failures", consecutiveFailures)
+                    .put("backoff_seconds", state == State.CLOSED ? 0 : backoffMillis / 1000)
+                    .put("next_probe_at", state == State.OPEN ? Instant.ofEpochMilli(nextProbeAt).toString() : null)
+                    .put("last_changed_at", Instant.ofEpochMilli(lastChangedAt).toString())
+                    .put("last_error", lastError);
+        }
+    }
+
+    /**
+     * @return true if the device's metric groups should be polled in this round,
+     * false while its own breaker or the breaker of any device it depends on is OPEN
+     */
+    public static synchronized boolean allowPolling(int provisionProfileId)
+    {
+        return !isOpen(provisionProfileId) && !isBehindFailedParent(provisionProfileId);
+    }
+
+    /**
+     * @return true if a parent, grandparent, ... of the device is down, so polling it would only time out
+     */
+    public static synchronized boolean isBehindFailedParent(int provisionProfileId)
+    {
+        var parentId = MetricGroupCacheStore.getParentId(provisionProfileId);
+
+        for (var depth = 0; parentId != null && depth < MAX_PARENT_DEPTH; depth++)
+        {
+            if (isOpen(parentId))
+            {
+                return true;
+            }
+
+            parentId = MetricGroupCacheStore.getParentId(parentId);
+        }
+
+        return false;
+    }
+
+    private static boolean isOpen(int provisionProfileId)
+    {
+        var device = devices.get(provisionProfileId);
+
+        return device != null && device.state == State.OPEN;
+    }
+
+    /**
+     * Feeds each polled device's outcome to its breaker
+     * Only results the device itself answered count, a device with no result at all was lost to a plugin fault
+     * (batch timeout, crash, empty reply) and is left as it was
+     * @param metricGroups polled metric groups
+     * @param results results returned for them, possibly fewer than polled
+     */
+    public static void recordOutcomes(JsonArray metricGroups, JsonArray results)
+    {
+        var succeeded = new HashSet<Integer>();
+
+        var errors = new HashMap<Integer, String>();
+
+        for (var i = 0; i < results.size(); i++)
+        {
+            var result = results.getJsonObject(i);
+
+            var provisionProfileId = result.getInteger("provision_profile_id");
+
+            var success = result.getBoolean("success");
+
+            if (Boolean.TRUE.equals(success))
+            {
+                succeeded.add(provisionProfileId);
+            }
+            else if (Boolean.FALSE.equals(success))
+            {
+                errors.put(provisionProfileId, result.getString("message"));
+            }
+        }
+
+        var polled = new HashMap<Integer, JsonObject>();
+
+        for (var i = 0; i < metricGroups.size(); i++)
+        {
+            var metricGroup = metricGroups.getJsonObject(i);
+
+            polled.putIfAbsent(metricGroup.getInteger("provision_profile_id"), metricGroup);
+        }
+
+        polled.forEach((provisionProfileId, metricGroup) ->
+        {
+            if (succeeded.contains(provisionProfileId))
+            {
+                recordSuccess(provisionProfileId);
+            }
+            else if (errors.containsKey(provisionProfileId))
+            {
+                recordFailure(metricGroup, errors.get(provisionProfileId));
+            }
+        });
+    }
+
+    /**
+     * At least one metric group of the device was polled successfully
+     */
+    public static synchronized void recordSuccess(int provisionProfileId)
+    {
+        var device = devices.get(provisionProfileId);
+
+        if (device == null)
+        {
+            return;
+        }
+
+        if (device.state != State.CLOSED)
+        {
+            ConsoleLogger.info("🟢 Device " + device.ip + " Is Reachable Again, Resuming Polling");
+        }
+
+        // Healthy Devices Need No Entry, A Fresh One Starts CLOSED With Initial Backoff
+        devices.remove(provisionProfileId);
+    }
+
+    /**
+     * None of the device's polled metric groups succeeded
+     * @param metricGroup any polled metric group of the device => { provision_profile_id, ip, port, credentials }
+     */
+    public static synchronized void recordFailure(JsonObject metricGroup, String error)
+    {
+        var provisionProfileId = metricGroup.getInteger("provision_profile_id");
+
+        var device = devices.computeIfAbsent(provisionProfileId, DeviceState::new);
+
+        device.ip = metricGroup.getString("ip");
+
+        device.port = metricGroup.getInteger("port", 0);
+
+        var credentials = metricGroup.getJsonObject("credentials");
+
+        device.credentialType = credentials == null ? null : credentials.getString("type");
+
+        device.consecutiveFailures++;
+
+        device.lastError = error;
+
+        // A Failed Trial Poll Re-Opens Immediately With A Longer Backoff
+        if (device.state == State.HALF_OPEN)
+        {
+            device.backoffMillis = Math.min(device.backoffMillis * 2, MAX_BACKOFF_MILLIS);
+
+            open(device);
+        }
+        else if (device.state == State.CLOSED && device.consecutiveFailures >= FAILURE_THRESHOLD)
+        {
+            open(device);
+        }
+    }
+
+    /**
+     * Probes every OPEN device whose backoff has elapsed, moving it to HALF_OPEN when it answers
+     */
+    public static void probeOpenDevices()
+    {
+        var now = System.currentTimeMillis();
+
+        devices.values().forEach(device ->
+        {
+            synchronized (DeviceCircuitBreaker.class)
+            {
+                if (device.state != State.OPEN || device.probing || device.nextProbeAt > now)
+                {
+                    return;
+                }
+
+                device.probing = true;
+            }
+
+            probe(device).onComplete(result ->
+            {
+                synchronized (DeviceCircuitBreaker.class)
+                {
+                    device.probing = false;
+
+                    if (device.state != State.OPEN)
+                    {
+                        return;
+                    }
+
+                    if (result.succeeded() && result.result())
+                    {
+                        ConsoleLogger.debug("🔎 Probe Of Device " + device.ip + " Succeeded, Allowing A Trial Poll");
+
+                        transition(device, State.HALF_OPEN);
+                    }
+                    else
+                    {
+                        device.backoffMillis = Math.min(device.backoffMillis * 2, MAX_BACKOFF_MILLIS);
+
+                        device.nextProbeAt = System.currentTimeMillis() + device.backoffMillis;
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Forgets a device, e.g. when its provision is deleted
+     */
+    public static void remove(int provisionProfileId)
+    {
+        devices.remove(provisionProfileId);
+    }
+
+    /**
+     * @return state of every device that is currently failing, healthy devices are CLOSED implicitly
+     */
+    public static JsonArray getStates()
+    {
+        var states = new JsonArray();
+
+        devices.values().forEach(device ->
+        {
+            synchronized (DeviceCircuitBreaker.class)
+            {
+                states.add(device.toJson());
+            }
+        });
+
+        return states;
+    }
+
+    private static void open(DeviceState device)
+    {
+        transition(device, State.OPEN);
+
+        device.nextProbeAt = System.currentTimeMillis() + device.backoffMillis;
+
+        ConsoleLogger.warn("🔴 Device " + device.ip + " Failed " + device.consecutiveFailures + " Poll Rounds, Suspending Polling For " + device.backoffMillis / 1000 + " Seconds");
+    }
+
+    private static void transition(DeviceState device, State state)
+    {
+        device.state = state;
+
+        device.lastChangedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * ICMP for UDP based (SNMP) devices, TCP connect to the management port for everything else
+     */
+    private static Future<Boolean> probe(DeviceState device)
+    {
+        if (device.credentialType != null && device.credentialType.startsWith("SNMP") || device.port <= 0)
+        {
+            return VirtualThreadExecutor.PING.execute(() ->
+            {
+                var results = IpHelpers.pingIps(new JsonArray().add(device.ip));
+
+                return !results.isEmpty() && results.getJsonObject(0).getBoolean("success", false);
+            });
+        }
+
+        if (netClient == null)
+        {
+            netClient = App.vertx.createNetClient(new NetClientOptions().setConnectTimeout(PROBE_TIMEOUT_MILLIS));
+        }
+
+        return netClient
+                .connect(device.port, device.ip)
+                .map(socket ->
+                {
+                    socket.close();
+
+                    return true;
+                })
+                .otherwise(false);
+    }
+}
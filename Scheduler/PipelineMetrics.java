@@ -0,0 +1,137 @@
+package org.nms.Scheduler;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * End-to-end counters of the polling pipeline => Scheduler tick, PluginManager, result save
+ * Latencies are kept in power-of-two millisecond buckets, so percentiles are upper bounds within 2x
+ */
+public class PipelineMetrics
+{
+    private static final int BUCKETS = 24;
+
+    private static long startedAt = System.currentTimeMillis();
+
+    private static long dispatched = 0;
+
+    private static long collected = 0;
+
+    private static long saved = 0;
+
+    private static long saveFailures = 0;
+
+    // How Late A Tick Dispatched Its Due Metric Groups
+    private static long[] lateness = new long[BUCKETS];
+
+    // Dispatch Until All Results Of The Tick Came Back
+    private static long[] pollingDuration = new long[BUCKETS];
+
+    // Collection Until The Results Were Committed
+    private static long[] ingestLag = new long[BUCKETS];
+
+    public static synchronized void recordDispatch(int metricGroups, long latenessMillis)
+    {
+        dispatched += metricGroups;
+
+        record(lateness, latenessMillis, metricGroups);
+    }
+
+    public static synchronized void recordCollected(int results, long durationMillis)
+    {
+        collected += results;
+
+        record(pollingDuration, durationMillis, 1);
+    }
+
+    public static synchronized void recordSaved(int rows, long lagMillis)
+    {
+        saved += rows;
+
+        record(ingestLag, lagMillis, rows);
+    }
+
+    public static synchronized void recordSaveFailure(int rows)
+    {
+        saveFailures += rows;
+    }
+
+    public static synchronized void reset()
+    {
+        startedAt = System.currentTimeMillis();
+
+        dispatched = 0;
+        collected = 0;
+        saved = 0;
+        saveFailures = 0;
+
+        lateness = new long[BUCKETS];
+        pollingDuration = new long[BUCKETS];
+        ingestLag = new long[BUCKETS];
+    }
+
+    /**
+     * @return counters since start / last reset with p50 / p99 / max of each latency
+     */
+    public static synchronized JsonObject getMetrics()
+    {
+        var elapsedSeconds = Math.max(1, System.currentTimeMillis() - startedAt) / 1000.0;
+
+        return new JsonObject()
+                .put("elapsed_seconds", elapsedSeconds)
+                .put("dispatched", dispatched)
+                .put("collected", collected)
+                .put("saved", saved)
+                .put("save_failures", saveFailures)
+                .put("polls_per_second", saved / elapsedSeconds)
+                .put("scheduling_lateness_ms", summarize(lateness))
+                .put("polling_duration_ms", summarize(pollingDuration))
+                .put("ingest_lag_ms", summarize(ingestLag));
+    }
+
+    private static void record(long[] histogram, long millis, int count)
+    {
+        // Bucket i Holds Values Below 2^i ms, The Last One Everything Above
+        var bucket = millis <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+
+        histogram[bucket] += count;
+    }
+
+    private static JsonObject summarize(long[] histogram)
+    {
+        return new JsonObject()
+                .put("p50", percentile(histogram, 0.50))
+                .put("p99", percentile(histogram, 0.99))
+                .put("max", percentile(histogram, 1.0));
+    }
+
+    private static long percentile(long[] histogram, double fraction)
+    {
+        var total = 0L;
+
+        for (var count : histogram)
+        {
+            total += count;
+        }
+
+        if (total == 0)
+        {
+            return 0;
+        }
+
+        var rank = (long) Math.ceil(total * fraction);
+
+        var seen = 0L;
+
+        for (var i = 0; i < histogram.length; i++)
+        {
+            seen += histogram[i];
+
+            if (seen >= rank)
+            {
+                return 1L << i;
+            }
+        }
+
+        return 1L << (BUCKETS - 1);
+    }
+}
@@ -0,0 +1,95 @@
+package org.nms.Scheduler;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns polling results into polling_results rows, shared by local polling and results forwarded by agents
+ */
+public class PollingResults
+{
+    /**
+     * @param results array of { provision_profile_id, name, success, data, time }
+     * @return (provision_profile_id, name, value, time) for every successful result
+     */
+    public static List<Tuple> toTuples(JsonArray results)
+    {
+        List<Tuple> tuples = new ArrayList<>();
+
+        for (var i = 0; i < results.size(); i++)
+        {
+            var result = results.getJsonObject(i);
+
+            // Skip Unsuccessful Results
+            if (!result.getBoolean("success", false))
+            {
+                continue;
+            }
+
+            tuples.add(Tuple.of(
+                    result.getInteger("provision_profile_id"),
+                    result.getString("name"),
+                    toStructuredData(result.getValue("data")),
+                    toTime(result.getString("time"))
+            ));
+        }
+
+        return tuples;
+    }
+
+    /**
+     * Collection time, results buffered by an agent may arrive long after they were collected
+     */
+    private static OffsetDateTime toTime(String time)
+    {
+        try
+        {
+            return time == null ? OffsetDateTime.now() : ZonedDateTime.parse(time).toOffsetDateTime();
+        }
+        catch (Exception e)
+        {
+            return OffsetDateTime.now();
+        }
+    }
+
+    /**
+     * Binary plugin protocol already delivers structured data, JSON protocol delivers it as embedded JSON text
+     * @param data value of result's "data" field
+     * @return JsonObject, JsonArray or the original value if it is not JSON
+     */
+    private static Object toStructuredData(Object data)
+    {
+        if (!(data instanceof String text))
+        {
+            return data;
+        }
+
+        // Parse Embedded JSON Text Once, Picking Parser From First Non-Blank Character
+        var trimmed = text.stripLeading();
+
+        try
+        {
+            if (trimmed.startsWith("{"))
+            {
+                return new JsonObject(text);
+            }
+
+            if (trimmed.startsWith("["))
+            {
+                return new JsonArray(text);
+            }
+        }
+        catch (Exception e)
+        {
+            // Not JSON, Store As Is
+        }
+
+        return text;
+    }
+}
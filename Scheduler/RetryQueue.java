@@ -0,0 +1,308 @@
+package org.nms.Scheduler;
+
+import io.vertx.core.Context;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.nms.App;
+import org.nms.ConsoleLogger;
+import org.nms.PluginManager.CollectorPools;
+import org.nms.PluginManager.PluginManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Retries failed metric group collections on its own timer, separately from the regular schedule
+ * Retries back off exponentially with jitter, are dropped once the group is polled regularly again,
+ * and may never use more than a fixed fraction of their collector pool's plugin capacity
+ */
+public class RetryQueue
+{
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final long BASE_BACKOFF_MILLIS = 5_000;
+
+    private static final long TICK_MILLIS = 1_000;
+
+    private static final long BUDGET_WINDOW_MILLIS = 60_000;
+
+    // Retries Per Window May Not Exceed This Fraction Of What The Pool's Plugin Processes Get Through In A Window
+    private static final double RETRY_BUDGET_FRACTION = 0.1;
+
+    private static final int MAX_QUEUE_SIZE = 10_000;
+
+    private final Context context;
+
+    private final Consumer<JsonArray> resultHandler;
+
+    // (provision_profile_id:name) => Pending Retry
+    private final Map<String, Retry> retries = new HashMap<>();
+
+    private final long timerId;
+
+    private long windowStartedAt = System.currentTimeMillis();
+
+    // Pool Name => Metric Groups Polled Regularly / Retried In The Window
+    private Map<String, Integer> regularPollsInWindow = new HashMap<>();
+
+    private Map<String, Integer> regularPollsInPreviousWindow = new HashMap<>();
+
+    private final Map<String, Integer> retriesInWindow = new HashMap<>();
+
+    /**
+     * Metric group waiting for its next attempt
+     */
+    private static class Retry
+    {
+        final JsonObject metricGroup;
+
+        int attempt = 0;
+
+        long dueAt;
+
+        boolean inFlight = false;
+
+        Retry(JsonObject metricGroup)
+        {
+            this.metricGroup = metricGroup;
+        }
+    }
+
+    /**
+     * @param resultHandler receives results of retried collections, same shape as regular polling results
+     */
+    public RetryQueue(Consumer<JsonArray> resultHandler)
+    {
+        this.context = App.vertx.getOrCreateContext();
+
+        this.resultHandler = resultHandler;
+
+        this.timerId = App.vertx.setPeriodic(TICK_MILLIS, id -> dispatchDueRetries());
+    }
+
+    /**
+     * Counts metric groups handed to the regular schedule and cancels their pending retries, the fresh poll supersedes them
+     */
+    public void recordRegularPolls(JsonArray metricGroups)
+    {
+        context.runOnContext(v ->
+        {
+            rollWindow();
+
+            for (var i = 0; i < metricGroups.size(); i++)
+            {
+                regularPollsInWindow.merge(poolName(metricGroups.getJsonObject(i)), 1, Integer::sum);
+
+                var retry = retries.get(key(metricGroups.getJsonObject(i)));
+
+                if (retry != null && !retry.inFlight)
+                {
+                    retries.remove(key(metricGroups.getJsonObject(i)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues a failed collection for its first retry
+     */
+    public void schedule(JsonObject metricGroup)
+    {
+        context.runOnContext(v ->
+        {
+            var key = key(metricGroup);
+
+            if (retries.containsKey(key) || retries.size() >= MAX_QUEUE_SIZE)
+            {
+                return;
+            }
+
+            var retry = new Retry(metricGroup);
+
+            retry.dueAt = System.currentTimeMillis() + backoff(retry.attempt);
+
+            retries.put(key, retry);
+        });
+    }
+
+    public void close()
+    {
+        App.vertx.cancelTimer(timerId);
+
+        context.runOnContext(v -> retries.clear());
+    }
+
+    private void dispatchDueRetries()
+    {
+        rollWindow();
+
+        var now = System.currentTimeMillis();
+
+        var due = new JsonArray();
+
+        var droppedByBudget = 0;
+
+        for (var iterator = retries.values().iterator(); iterator.hasNext(); )
+        {
+            var retry = iterator.next();
+
+            if (retry.inFlight || retry.dueAt > now)
+            {
+                continue;
+            }
+
+            // Device Is Known Down, Its Breaker Probe Takes Over
+            if (!DeviceCircuitBreaker.allowPolling(retry.metricGroup.getInteger("provision_profile_id")))
+            {
+                iterator.remove();
+                continue;
+            }
+
+            var pool = poolName(retry.metricGroup);
+
+            if (retriesInWindow.getOrDefault(pool, 0) >= budget(pool))
+            {
+                // Out Of Budget => Give Up, Next Regular Poll Will Collect It
+                iterator.remove();
+
+                droppedByBudget++;
+                continue;
+            }
+
+            retry.inFlight = true;
+
+            retry.attempt++;
+
+            retriesInWindow.merge(pool, 1, Integer::sum);
+
+            due.add(retry.metricGroup);
+        }
+
+        if (droppedByBudget > 0)
+        {
+            ConsoleLogger.debug("⏳ Retry Budget Exhausted, Dropped " + droppedByBudget + " Retries Until The Next Regular Poll");
+        }
+
+        if (due.isEmpty())
+        {
+            return;
+        }
+
+        ConsoleLogger.debug("🔁 Retrying " + due.size() + " Failed Metric Groups");
+
+        PluginManager
+                .runPolling(due)
+                .onComplete(result -> context.runOnContext(v ->
+                {
+                    var results = result.succeeded() ? result.result() : new JsonArray();
+
+                    // Retried Devices Feed Their Breakers Like Regular Polls Do
+                    DeviceCircuitBreaker.recordOutcomes(due, results);
+
+                    handleResults(due, results);
+
+                    resultHandler.accept(results);
+                }));
+    }
+
+    private void handleResults(JsonArray retried, JsonArray results)
+    {
+        var succeeded = new HashMap<String, Boolean>();
+
+        for (var i = 0; i < results.size(); i++)
+        {
+            var result = results.getJsonObject(i);
+
+            if (result.getBoolean("success", false))
+            {
+                succeeded.put(key(result), true);
+            }
+        }
+
+        for (var i = 0; i < retried.size(); i++)
+        {
+            var key = key(retried.getJsonObject(i));
+
+            var retry = retries.get(key);
+
+            if (retry == null)
+            {
+                continue;
+            }
+
+            if (succeeded.containsKey(key) || retry.attempt >= MAX_ATTEMPTS)
+            {
+                retries.remove(key);
+                continue;
+            }
+
+            retry.inFlight = false;
+
+            retry.dueAt = System.currentTimeMillis() + backoff(retry.attempt);
+        }
+    }
+
+    private void rollWindow()
+    {
+        var now = System.currentTimeMillis();
+
+        if (now - windowStartedAt < BUDGET_WINDOW_MILLIS)
+        {
+            return;
+        }
+
+        regularPollsInPreviousWindow = regularPollsInWindow;
+
+        regularPollsInWindow = new HashMap<>();
+
+        retriesInWindow.clear();
+
+        windowStartedAt = now;
+    }
+
+    /**
+     * RETRY_BUDGET_FRACTION of the pool's capacity, less if regular polls of the current or previous window leave less spare,
+     * a pool already saturated by regular polling gets no retries, they would only queue in front of the next schedule
+     */
+    private long budget(String poolName)
+    {
+        var pool = CollectorPools.forPoolName(poolName);
+
+        if (pool == null)
+        {
+            return 0;
+        }
+
+        var capacity = pool.capacity(BUDGET_WINDOW_MILLIS);
+
+        var regularPolls = Math.max(regularPollsInWindow.getOrDefault(poolName, 0), regularPollsInPreviousWindow.getOrDefault(poolName, 0));
+
+        return Math.max(0, Math.min((long) (capacity * RETRY_BUDGET_FRACTION), capacity - regularPolls));
+    }
+
+    private static String poolName(JsonObject metricGroup)
+    {
+        var credentials = metricGroup.getJsonObject("credentials");
+
+        var pool = CollectorPools.forCredentialType(credentials == null ? null : credentials.getString("type"));
+
+        return pool == null ? "" : pool.getName();
+    }
+
+    /**
+     * Exponential backoff with jitter of +/- 50%, so retries of a failed batch don't fire together
+     */
+    private static long backoff(int attempt)
+    {
+        var delay = BASE_BACKOFF_MILLIS << attempt;
+
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay);
+    }
+
+    private static String key(JsonObject metricGroup)
+    {
+        return metricGroup.getInteger("provision_profile_id") + ":" + metricGroup.getString("name");
+    }
+}
@@ -1,6 +1,7 @@
 package org.nms.Scheduler;
 
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Tuple;
@@ -8,11 +9,16 @@ import org.nms.App;
 import org.nms.Cache.MetricGroupCacheStore;
 import org.nms.ConsoleLogger;
 import org.nms.Database.Models.MetricResultModel;
+import org.nms.PluginManager.Collector;
+import org.nms.PluginManager.CollectorPools;
+import org.nms.PluginManager.CollectorRegistry;
 import org.nms.PluginManager.PluginManager;
 
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class Scheduler extends AbstractVerticle
 {
@@ -20,8 +26,33 @@ public class Scheduler extends AbstractVerticle
 
     private long timerId;
 
+    private RetryQueue retryQueue;
+
     private final MetricResultModel polledDataService = MetricResultModel.getInstance();
 
+    // Where Metric Groups Come From And Where Results Go, Swapped Out By The Load Test Driver
+    private final Supplier<Future<?>> metricGroupSource;
+
+    private final Function<List<Tuple>, Future<?>> resultSink;
+
+    // Time The Next Tick Is Due, Used To Measure Scheduling Lateness
+    private long nextTickAt;
+
+    public Scheduler()
+    {
+        this.metricGroupSource = MetricGroupCacheStore::populate;
+        this.resultSink = polledDataService::save;
+    }
+
+    /**
+     * @param metricGroupSource fills MetricGroupCacheStore before the first tick
+     * @param resultSink stores result rows (provision_profile_id, name, value, time)
+     */
+    public Scheduler(Supplier<Future<?>> metricGroupSource, Function<List<Tuple>, Future<?>> resultSink)
+    {
+        this.metricGroupSource = metricGroupSource;
+        this.resultSink = resultSink;
+    }
 
     /**
      * Starts the scheduler
@@ -31,9 +62,22 @@ public class Scheduler extends AbstractVerticle
     {
         ConsoleLogger.debug("✅ Starting SchedulerVerticle With Checking Interval => " + CHECKING_INTERVAL + " Seconds On Thread [ " + Thread.currentThread().getName() + " ] ");
 
-        MetricGroupCacheStore
-                .populate()
-                .onSuccess((res)-> timerId = App.vertx.setPeriodic(CHECKING_INTERVAL * 1000, id -> processMetricGroups()))
+        // Polling Work Is Split Into Per-Protocol Pools, Each With Its Own Executor And Limits
+        CollectorPools.init();
+
+        // In-Process Collectors Take Over Matching Metric Groups From The Plugin
+        CollectorRegistry.registerNativeCollectors();
+
+        retryQueue = new RetryQueue(this::processAndSaveResults);
+
+        metricGroupSource
+                .get()
+                .onSuccess((res)->
+                {
+                    nextTickAt = System.currentTimeMillis() + CHECKING_INTERVAL * 1000L;
+
+                    timerId = App.vertx.setPeriodic(CHECKING_INTERVAL * 1000, id -> processMetricGroups());
+                })
                 .onFailure(err -> ConsoleLogger.error("❌ Error Running Scheduler => " + err.getMessage()));
 
     }
@@ -47,6 +91,10 @@ public class Scheduler extends AbstractVerticle
         if (timerId != 0)
         {
             App.vertx.cancelTimer(timerId);
+            retryQueue.close();
+            CollectorRegistry.getAll().forEach(Collector::close);
+            CollectorPools.close();
+
             ConsoleLogger.debug("\uD83D\uDED1 Scheduler Stopped");
             timerId = 0;
         }
@@ -57,26 +105,91 @@ public class Scheduler extends AbstractVerticle
      */
     private void processMetricGroups()
     {
+        var tickAt = System.currentTimeMillis();
+
+        var latenessMillis = Math.max(0, tickAt - nextTickAt);
+
+        nextTickAt += CHECKING_INTERVAL * 1000L;
+
         // Step-1: Decrement Intervals By xyz Seconds In Cache
         MetricGroupCacheStore.decrementMetricGroupInterval(CHECKING_INTERVAL);
 
         // Step-2: After Decrementing Check For Timed-Out MetricGroups
         List<JsonObject> timedOutGroups = MetricGroupCacheStore.getTimedOutMetricGroups();
 
+        // Step-2.1: Devices Assigned To A Collector Agent Are Polled There, Results Arrive Through AgentHub
+        timedOutGroups.removeIf(metricGroup -> metricGroup.getString("agent") != null);
+
+        // Step-2.2: Leave Out Devices Whose Own Or Parent's Breaker Is Open, Probe Those Whose Backoff Has Elapsed
+        var scheduledCount = timedOutGroups.size();
+
+        timedOutGroups.removeIf(metricGroup -> !DeviceCircuitBreaker.allowPolling(metricGroup.getInteger("provision_profile_id")));
+
+        if (timedOutGroups.size() < scheduledCount)
+        {
+            ConsoleLogger.debug("⛔ Suppressed " + (scheduledCount - timedOutGroups.size()) + " Metric Groups Of Unreachable Devices");
+        }
+
+        DeviceCircuitBreaker.probeOpenDevices();
+
         // Step-3: If There are Timed-out MetricGroups Ready For Polling...
         if (!timedOutGroups.isEmpty()) {
             // Step-4: Format Request For Polling
             JsonArray metricGroups = preparePollingMetricGroups(timedOutGroups);
 
+            retryQueue.recordRegularPolls(metricGroups);
+
+            PipelineMetrics.recordDispatch(metricGroups.size(), latenessMillis);
+
             // Step-5: Send Request to PluginManager
             // If Success : Process & Save Result
             PluginManager
                     .runPolling(metricGroups)
-                    .onSuccess(this::processAndSaveResults)
+                    .onSuccess(results ->
+                    {
+                        PipelineMetrics.recordCollected(results.size(), System.currentTimeMillis() - tickAt);
+
+                        DeviceCircuitBreaker.recordOutcomes(metricGroups, results);
+
+                        scheduleRetries(metricGroups, results);
+
+                        processAndSaveResults(results);
+                    })
                     .onFailure(err -> ConsoleLogger.error("❌ Error During Polling => " + err.getMessage()));
         }
     }
 
+    /**
+     * Queues every polled metric group without a successful result for a retry, unless its device's breaker is open
+     * @param metricGroups polled metric groups
+     * @param results results returned for them
+     */
+    private void scheduleRetries(JsonArray metricGroups, JsonArray results)
+    {
+        var succeeded = new HashSet<String>();
+
+        for (var i = 0; i < results.size(); i++)
+        {
+            var result = results.getJsonObject(i);
+
+            if (result.getBoolean("success", false))
+            {
+                succeeded.add(result.getInteger("provision_profile_id") + ":" + result.getString("name"));
+            }
+        }
+
+        for (var i = 0; i < metricGroups.size(); i++)
+        {
+            var metricGroup = metricGroups.getJsonObject(i);
+
+            if (!succeeded.contains(metricGroup.getInteger("provision_profile_id") + ":" + metricGroup.getString("name"))
+                    && DeviceCircuitBreaker.allowPolling(metricGroup.getInteger("provision_profile_id")))
+            {
+                retryQueue.schedule(metricGroup);
+            }
+        }
+    }
+
     /**
      * Prepare the request for polling
      * @param timedOutGroups List of timed-out metric groups
@@ -107,77 +220,29 @@ public class Scheduler extends AbstractVerticle
      */
     private void processAndSaveResults(JsonArray results)
     {
-        List<Tuple> batchParams = new ArrayList<>();
+        // Step-1: Stamp Collection Time, Skip Unsuccessful Results And Structure Data
+        var collectedAt = System.currentTimeMillis();
 
-        for (int i = 0; i < results.size(); i++)
-        {
-            JsonObject result = results.getJsonObject(i);
-
-            // Step-1: Skip unsuccessful results
-            if (!result.getBoolean("success", false))
-            {
-                continue;
-            }
+        var now = ZonedDateTime.now().toString();
 
-            // Step-2: Add Timestamp
-            result.put("time", ZonedDateTime.now().toString());
-
-            // Step-3: Format Data Into JsonArray or JsonObject
-            if(!getJsonObject(result.getString("data")).isEmpty())
-            {
-                batchParams.add(Tuple.of(
-                        result.getInteger("provision_profile_id"),
-                        result.getString("name"),
-                        getJsonObject(result.getString("data"))
-                ));
-            }
-            else if(!getJsonArray(result.getString("data")).isEmpty())
-            {
-                batchParams.add(Tuple.of(
-                        result.getInteger("provision_profile_id"),
-                        result.getString("name"),
-                        getJsonArray(result.getString("data"))
-                ));
-            }
-            else {
-                batchParams.add(Tuple.of(
-                        result.getInteger("provision_profile_id"),
-                        result.getString("name"),
-                        result.getString("data")
-                ));
-            }
-        }
-
-        // Step-4: Save Into DB
-        if (!batchParams.isEmpty())
-        {
-            polledDataService.save(batchParams)
-                    .onFailure(err -> ConsoleLogger.error("❌ Error During Saving Polled Data  => " + err.getMessage()));
-        }
-    }
-
-    private JsonObject getJsonObject(String s)
-    {
-        try
-        {
-            return new JsonObject(s);
-        }
-        catch (Exception e)
+        for (int i = 0; i < results.size(); i++)
         {
-            return new JsonObject();
+            results.getJsonObject(i).put("time", now);
         }
-    }
 
-    private JsonArray getJsonArray(String s)
-    {
-        try
-        {
-            return new JsonArray(s);
+        List<Tuple> batchParams = PollingResults.toTuples(results);
 
-        }
-        catch (Exception e)
+        // Step-2: Save Into DB
+        if (!batchParams.isEmpty())
         {
-            return new JsonArray();
+            resultSink.apply(batchParams)
+                    .onSuccess(v -> PipelineMetrics.recordSaved(batchParams.size(), System.currentTimeMillis() - collectedAt))
+                    .onFailure(err ->
+                    {
+                        PipelineMetrics.recordSaveFailure(batchParams.size());
+
+                        ConsoleLogger.error("❌ Error During Saving Polled Data  => " + err.getMessage());
+                    });
         }
     }
 }
\ No newline at end of file
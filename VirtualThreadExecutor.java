@@ -0,0 +1,124 @@
+package org.nms;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs blocking work (processes, sockets, hashing) on virtual threads instead of the shared Vert.x worker pool
+ * Each executor is a lane with its own concurrency limit, tasks over the limit park cheaply until a permit frees up
+ */
+public class VirtualThreadExecutor
+{
+    // fping Processes Of Discoveries And Breaker Probes
+    public static final VirtualThreadExecutor PING = new VirtualThreadExecutor("ping", 16);
+
+    // nc Processes Of Discovery Port Checks
+    public static final VirtualThreadExecutor PORT_CHECK = new VirtualThreadExecutor("port-check", 256);
+
+    // Plugin Processes Running Discovery
+    public static final VirtualThreadExecutor DISCOVERY_PLUGIN = new VirtualThreadExecutor("discovery-plugin", 4);
+
+    private final String name;
+
+    private final int maxConcurrency;
+
+    private final Semaphore permits;
+
+    private final ExecutorService executor;
+
+    /**
+     * @param maxConcurrency tasks of this lane running at once
+     */
+    public VirtualThreadExecutor(String name, int maxConcurrency)
+    {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("nms-" + name + "-", 0).factory());
+    }
+
+    /**
+     * Runs task on a virtual thread once a permit is free
+     * @return task's result, completed on the caller's Vert.x context
+     */
+    public <T> Future<T> execute(Callable<T> task)
+    {
+        var context = App.vertx.getOrCreateContext();
+
+        Promise<T> promise = Promise.promise();
+
+        try
+        {
+            executor.execute(() ->
+            {
+                try
+                {
+                    permits.acquire();
+
+                    try
+                    {
+                        var result = task.call();
+
+                        context.runOnContext(v -> promise.complete(result));
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                }
+                catch (Throwable e)
+                {
+                    context.runOnContext(v -> promise.fail(e));
+                }
+            });
+        }
+        catch (Exception e)
+        {
+            // Executor Already Closed
+            promise.fail(e);
+        }
+
+        return promise.future();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getMaxConcurrency()
+    {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return tasks waiting for a permit
+     */
+    public int getQueued()
+    {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return tasks holding a permit
+     */
+    public int getActive()
+    {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Stops accepting tasks, running ones are left to finish
+     */
+    public Future<Void> close()
+    {
+        executor.shutdown();
+
+        return Future.succeededFuture();
+    }
+}